@@ -1,15 +1,46 @@
 package tech.sud.auth.gip.auth;
 
+import tech.sud.auth.gip.auth.cache.IssuanceCache;
+import tech.sud.auth.gip.auth.cache.ReplayCache;
+import tech.sud.auth.gip.auth.cache.TimingWheel;
+import tech.sud.auth.gip.auth.cache.UidCache;
+import tech.sud.auth.gip.auth.cache.VerificationCache;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.codec.CompactTokenCodec;
+import tech.sud.auth.gip.auth.codec.JwtTokenCodec;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.codec.TokenCodec;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.codec.TokenKind;
 import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.CryptoBackend;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.crypto.JcaCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.SigningAlgorithm;
+import tech.sud.auth.gip.auth.crypto.TokenSigner;
 import tech.sud.auth.gip.auth.exception.TokenGenerationException;
+import tech.sud.auth.gip.auth.executor.VerificationExecutor;
+import tech.sud.auth.gip.auth.guard.IssuanceGuard;
+import tech.sud.auth.gip.auth.metrics.AuthMetrics;
+import tech.sud.auth.gip.auth.model.BaseResponse;
 import tech.sud.auth.gip.auth.exception.TokenValidationException;
 import tech.sud.auth.gip.auth.model.CodeResponse;
+import tech.sud.auth.gip.auth.model.LongUidResponse;
 import tech.sud.auth.gip.auth.model.SSTokenResponse;
 import tech.sud.auth.gip.auth.model.UidResponse;
-import tech.sud.auth.gip.auth.util.CryptoUtils;
+import tech.sud.auth.gip.auth.model.VerifyResponse;
 
-
-import java.util.Date;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 /**
  * Sud GIP Auth Java SDK main class
@@ -30,17 +61,96 @@ public class SudGIPAuth {
      */
     private static final long DEFAULT_SSTOKEN_EXPIRE_SECONDS = 7200L; // 2 hours
     
+    /**
+     * Default verification cache capacity for asymmetric signers
+     */
+    private static final int DEFAULT_VERIFICATION_CACHE_CAPACITY = 16384;
+    
+    /**
+     * Uid of the tokens issued during warm-up
+     */
+    private static final String WARM_UP_UID = "warm-up";
+    
     /**
      * Application ID
      */
     private final String appId;
     
     /**
-     * Application secret
+     * JWT codec bound to the signer and claim schema
      */
-    private final String appSecret;
+    private final JwtTokenCodec jwtCodec;
+    
+    /**
+     * Compact codec bound to the signer and claim schema
+     */
+    private final CompactTokenCodec compactCodec;
+    
+    /**
+     * Codec used for issuing tokens
+     */
+    private final TokenCodec codec;
+    
+    /**
+     * Caches, replay protection and lifetime limit per token kind, indexed by ordinal
+     */
+    private final KindPolicy[] policies;
+    
+    /**
+     * Whether issued codes and SSTokens carry their kind
+     */
+    private final boolean typedTokens;
+    
+    /**
+     * Whether tokens without a kind are rejected
+     */
+    private final boolean requireTypedTokens;
+    
+    /**
+     * Issuance throttle, null when disabled
+     */
+    private final IssuanceGuard issuanceGuard;
+    
+    /**
+     * Clock for issue and expiration times
+     */
+    private final Clock clock;
+    
+    /**
+     * Metrics receiver
+     */
+    private final AuthMetrics metrics;
+    
+    /**
+     * Workers running asynchronous verifications, null to run them on the calling thread
+     */
+    private final VerificationExecutor verificationExecutor;
+    
+    /**
+     * Verifications, shed and failure responses handed to the verification executor, created once;
+     * failed verifications already reached the metrics with their elapsed time, sheds did not
+     */
+    private final Function<String, UidResponse> uidByCode = this::getUidByCode;
+    private final Function<String, UidResponse> uidBySSToken = this::getUidBySSToken;
+    private final Function<String, VerifyResponse> claimsByCode = this::verifyCode;
+    private final Function<String, VerifyResponse> claimsBySSToken = this::verifySSToken;
+    private final IntFunction<UidResponse> uidShed = errorCode -> UidResponse.error(shed(errorCode));
+    private final IntFunction<VerifyResponse> claimsShed = errorCode -> VerifyResponse.error(shed(errorCode));
+    private final Function<Throwable, UidResponse> uidFailure = t -> UidResponse.error(ErrorCode.UNKNOWN_ERROR);
+    private final Function<Throwable, VerifyResponse> claimsFailure =
+            t -> VerifyResponse.error(ErrorCode.UNKNOWN_ERROR);
+    
+    /**
+     * Default authentication code lifetime (seconds)
+     */
+    private final long codeExpireSeconds;
+    
+    /**
+     * Default SSToken lifetime (seconds)
+     */
+    private final long ssTokenExpireSeconds;
+    
     
-
     /**
      * Constructor
      * 
@@ -49,15 +159,232 @@ public class SudGIPAuth {
      * @throws IllegalArgumentException Invalid parameter exception
      */
     public SudGIPAuth(String appId, String appSecret) {
+        this(builder(appId).appSecret(appSecret));
+    }
+    
+    /**
+     * Constructor with custom claim schema
+     * 
+     * @param appId Application ID
+     * @param appSecret Application secret
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#claimSchema(ClaimSchema)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, String appSecret, ClaimSchema claimSchema) {
+        this(appId, appSecret, claimSchema, SignatureFormat.HEX);
+    }
+    
+    /**
+     * Constructor with custom claim schema and signature format
+     * Tokens in either signature format are accepted on verification, so issuers can switch to
+     * {@link SignatureFormat#RAW} (standard HS256) once all verifiers run this version.
+     * 
+     * @param appId Application ID
+     * @param appSecret Application secret
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @param signatureFormat Signature format of issued tokens
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#signatureFormat(SignatureFormat)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, String appSecret, ClaimSchema claimSchema, SignatureFormat signatureFormat) {
+        this(appId, appSecret, claimSchema, signatureFormat, TokenFormat.JWT);
+    }
+    
+    /**
+     * Constructor with custom claim schema, signature format and token format
+     * Tokens of either format are accepted on verification regardless of the issued format.
+     * {@link TokenFormat#COMPACT} tokens are only understood by this SDK, use them for hops
+     * between your own services.
+     * 
+     * @param appId Application ID
+     * @param appSecret Application secret
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @param signatureFormat Signature format of issued JWTs
+     * @param tokenFormat Format of issued tokens
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#tokenFormat(TokenFormat)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, String appSecret, ClaimSchema claimSchema, SignatureFormat signatureFormat,
+                      TokenFormat tokenFormat) {
+        this(appId, appSecret, claimSchema, signatureFormat, tokenFormat, MidstateCryptoBackend.INSTANCE);
+    }
+    
+    /**
+     * Constructor with custom claim schema, signature format, token format and crypto backend
+     * 
+     * @param appId Application ID
+     * @param appSecret Application secret
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @param signatureFormat Signature format of issued JWTs
+     * @param tokenFormat Format of issued tokens
+     * @param cryptoBackend HMAC-SHA256 implementation, e.g. a {@link JcaCryptoBackend} pinned to a
+     *                      provider or {@link tech.sud.auth.gip.auth.crypto.PureJavaCryptoBackend#INSTANCE}
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#cryptoBackend(CryptoBackend)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, String appSecret, ClaimSchema claimSchema, SignatureFormat signatureFormat,
+                      TokenFormat tokenFormat, CryptoBackend cryptoBackend) {
+        this(builder(appId).appSecret(appSecret).claimSchema(claimSchema).signatureFormat(signatureFormat)
+                .tokenFormat(tokenFormat).cryptoBackend(cryptoBackend));
+    }
+    
+    /**
+     * Constructor with a custom signer, e.g. an asymmetric one
+     * With {@link tech.sud.auth.gip.auth.crypto.AsymmetricSigner} issuers sign with the private key
+     * and verifiers need only the public key (see
+     * {@link tech.sud.auth.gip.auth.crypto.AsymmetricSigner#verifier}). Asymmetric signers get a
+     * verification result cache, since their verification costs far more than HMAC. JWTs of HMAC
+     * signers keep the {@link SignatureFormat#HEX} signatures of the secret constructors, while
+     * asymmetric signers always issue {@link SignatureFormat#RAW} ones; use the builder for RAW HMAC.
+     * 
+     * @param appId Application ID
+     * @param signer Token signer
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @param tokenFormat Format of issued tokens
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#signer(TokenSigner)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, TokenSigner signer, ClaimSchema claimSchema, TokenFormat tokenFormat) {
+        this(appId, signer, claimSchema, tokenFormat, null);
+    }
+    
+    /**
+     * Constructor with a custom signer and a uid canonicalization cache
+     * Verifications of the same uid then return one shared String instance, which keeps repeat
+     * logins of hot users from filling the heap with equal uid copies.
+     * 
+     * @param appId Application ID
+     * @param signer Token signer
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @param tokenFormat Format of issued tokens
+     * @param uidCache Uid canonicalization cache, may be shared between instances, or null
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#uidCache(UidCache)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, TokenSigner signer, ClaimSchema claimSchema, TokenFormat tokenFormat,
+                      UidCache uidCache) {
+        this(appId, signer, claimSchema, tokenFormat, uidCache, null);
+    }
+    
+    /**
+     * Constructor with a custom signer, a uid canonicalization cache and an issuance guard
+     * Issuance calls refused by the guard fail with {@link ErrorCode#RATE_LIMITED} before any
+     * signing work is done.
+     * 
+     * @param appId Application ID
+     * @param signer Token signer
+     * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+     * @param tokenFormat Format of issued tokens
+     * @param uidCache Uid canonicalization cache, may be shared between instances, or null
+     * @param issuanceGuard Per-uid and per-app ID issuance throttle, may be shared between instances, or null
+     * @throws IllegalArgumentException Invalid parameter exception
+     * @deprecated Use {@link #builder(String)} with {@link Builder#issuanceGuard(IssuanceGuard)}
+     */
+    @Deprecated
+    public SudGIPAuth(String appId, TokenSigner signer, ClaimSchema claimSchema, TokenFormat tokenFormat,
+                      UidCache uidCache, IssuanceGuard issuanceGuard) {
+        this(builder(appId).signer(signer).claimSchema(claimSchema).tokenFormat(tokenFormat).uidCache(uidCache)
+                .issuanceGuard(issuanceGuard));
+    }
+    
+    private SudGIPAuth(Builder builder) {
+        if (builder.appId == null || builder.appId.trim().isEmpty()) {
+            throw new IllegalArgumentException("App ID cannot be null or empty");
+        }
+        TokenSigner signer = builder.signer;
+        if (signer == null) {
+            CryptoBackend backend = builder.cryptoBackend != null ? builder.cryptoBackend
+                    : builder.signerPoolSize > 0 ? new JcaCryptoBackend(builder.signerPoolSize)
+                    : MidstateCryptoBackend.INSTANCE;
+            signer = new HmacSigner(requireSecret(builder.appId, builder.appSecret), backend);
+        } else if (builder.appSecret != null) {
+            throw new IllegalArgumentException("Set either an app secret or a signer, not both");
+        }
+        if (builder.expiryWheel != null && !builder.expiryWheel.getClock().equals(builder.clock)) {
+            // Entries would be evicted on another notion of time than the one tokens are checked on
+            throw new IllegalArgumentException("Expiry wheel must run on the SDK clock");
+        }
+        this.appId = builder.appId.trim();
+        this.jwtCodec = new JwtTokenCodec(signer, builder.claimSchema, builder.signatureFormat, builder.uidCache);
+        this.compactCodec = new CompactTokenCodec(signer, builder.claimSchema, builder.compactKeyId,
+                builder.truncatedTag, builder.uidCache);
+        this.codec = builder.tokenFormat == TokenFormat.COMPACT ? compactCodec : jwtCodec;
+        TokenKind[] kinds = TokenKind.values();
+        this.policies = new KindPolicy[kinds.length];
+        for (TokenKind kind : kinds) {
+            int k = kind.ordinal();
+            if (builder.singleUseCapacities[k] > 0 && builder.issuanceCacheCapacities[k] > 0) {
+                // Callers sharing a cached token could only redeem it once between them
+                throw new IllegalArgumentException("Single use and an issuance cache cannot both be set for " + kind);
+            }
+            policies[k] = new KindPolicy(builder, k, signer.getAlgorithm().isAsymmetric());
+        }
+        this.typedTokens = builder.typedTokens;
+        this.requireTypedTokens = builder.requireTypedTokens;
+        this.issuanceGuard = builder.issuanceGuard;
+        this.clock = builder.clock;
+        this.metrics = builder.metrics;
+        metrics.onBackendSelected(appId, signer.getBackendName());
+        this.verificationExecutor = builder.verificationExecutor;
+        this.codeExpireSeconds = builder.codeExpireSeconds;
+        this.ssTokenExpireSeconds = builder.ssTokenExpireSeconds;
+        if (builder.warmUpCycles > 0) {
+            warmUp(builder.warmUpCycles);
+        }
+    }
+    
+    /**
+     * Create a builder
+     * 
+     * @param appId Application ID
+     * @return Builder
+     */
+    public static Builder builder(String appId) {
+        return new Builder(appId);
+    }
+    
+    /**
+     * Validate and trim application secret
+     */
+    private static String requireSecret(String appId, String appSecret) {
         if (appId == null || appId.trim().isEmpty()) {
             throw new IllegalArgumentException("App ID cannot be null or empty");
         }
         if (appSecret == null || appSecret.trim().isEmpty()) {
             throw new IllegalArgumentException("App Secret cannot be null or empty");
         }
-        
-        this.appId = appId.trim();
-        this.appSecret = appSecret.trim();
+        return appSecret.trim();
+    }
+    
+    /**
+     * Run issue and verify cycles on both codecs so that key setup, class loading and the
+     * first JIT compilations happen before the instance serves requests
+     * Bypasses the guard, caches and metrics; verifier-only signers are skipped.
+     * 
+     * @throws IllegalStateException Signing or verification fails
+     */
+    private void warmUp(int cycles) {
+        if (!jwtCodec.getSigner().canSign()) {
+            return;
+        }
+        TokenCodec[] codecs = {jwtCodec, compactCodec};
+        try {
+            for (int i = 0; i < cycles; i++) {
+                long now = currentSeconds();
+                TokenCodec warm = codecs[i & 1];
+                warm.decode(warm.encode(WARM_UP_UID, appId, now + codeExpireSeconds, now, Claims.NONE), now);
+                warm.decodeLongUid(warm.encode((long) i, appId, now + codeExpireSeconds, now, Claims.NONE), now);
+            }
+        } catch (TokenGenerationException | TokenValidationException e) {
+            throw new IllegalStateException("Warm-up failed: " + e.getMessage(), e);
+        }
     }
     
     /**
@@ -67,7 +394,7 @@ public class SudGIPAuth {
      * @return Authentication code response
      */
     public CodeResponse getCode(String uid) {
-        return getCode(uid, DEFAULT_CODE_EXPIRE_SECONDS);
+        return getCode(uid, codeExpireSeconds);
     }
     
     /**
@@ -78,26 +405,103 @@ public class SudGIPAuth {
      * @return Authentication code response
      */
     public CodeResponse getCode(String uid, long expireSeconds) {
+        return getCode(uid, expireSeconds, Claims.NONE);
+    }
+    
+    /**
+     * Generate authentication code carrying custom claims
+     * 
+     * @param uid User ID
+     * @param expireSeconds Expiration time (seconds)
+     * @param claims Custom claims built from the registered claim schema
+     * @return Authentication code response
+     */
+    public CodeResponse getCode(String uid, long expireSeconds, Claims claims) {
+        long start = System.nanoTime();
+        return issued(issueCode(uid, expireSeconds, claims), start);
+    }
+    
+    private CodeResponse issueCode(String uid, long expireSeconds, Claims claims) {
         try {
             // Parameter validation
-            if (uid == null || uid.trim().isEmpty()) {
-                return CodeResponse.error(ErrorCode.APP_DATA_INVALID, "User ID cannot be null or empty");
+            if (uid == null || uid.trim().isEmpty() || expireSeconds <= 0) {
+                return CodeResponse.error(ErrorCode.APP_DATA_INVALID);
             }
-            
-            if (expireSeconds <= 0) {
-                return CodeResponse.error(ErrorCode.APP_DATA_INVALID, "Expire seconds must be positive");
+            String trimmed = uid.trim();
+            if (issuanceGuard != null && !issuanceGuard.tryAcquire(appId, trimmed)) {
+                return CodeResponse.error(ErrorCode.RATE_LIMITED);
             }
             
             // Generate authentication code
-            String code = CryptoUtils.generateCode(uid.trim(), appId, expireSeconds, appSecret);
-            Date expireDate = new Date(System.currentTimeMillis() + (expireSeconds * 1000));
+            long now = currentSeconds();
+            IssuanceCache issuanceCache = policies[TokenKind.CODE.ordinal()].issuanceCache;
+            IssuanceCache.Entry reused = reusable(issuanceCache, trimmed, expireSeconds, claims, now);
+            if (reused != null) {
+                return CodeResponse.success(reused.getToken(), reused.getExpireAt());
+            }
+            long expireAt = now + expireSeconds;
+            String code = codec.encode(issuedKind(TokenKind.CODE), trimmed, appId, expireAt, now, claims);
+            if (issuanceCache != null && reusableClaims(claims)) {
+                issuanceCache.put(trimmed, expireSeconds, now, code);
+            }
             
-            return CodeResponse.success(code, expireDate);
+            return CodeResponse.success(code, expireAt);
+            
+        } catch (TokenGenerationException e) {
+            return CodeResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return CodeResponse.error(ErrorCode.UNKNOWN_ERROR);
+        }
+    }
+    
+    /**
+     * Generate authentication code for a numeric user ID (using default expiration time)
+     * The uid is written as a number, see {@link #verifyLong(String)}.
+     * 
+     * @param uid User ID
+     * @return Authentication code response
+     */
+    public CodeResponse getCode(long uid) {
+        return getCode(uid, codeExpireSeconds);
+    }
+    
+    /**
+     * Generate authentication code for a numeric user ID (with custom expiration time)
+     * 
+     * @param uid User ID
+     * @param expireSeconds Expiration time (seconds)
+     * @return Authentication code response
+     */
+    public CodeResponse getCode(long uid, long expireSeconds) {
+        long start = System.nanoTime();
+        return issued(issueCode(uid, expireSeconds), start);
+    }
+    
+    private CodeResponse issueCode(long uid, long expireSeconds) {
+        try {
+            if (expireSeconds <= 0) {
+                return CodeResponse.error(ErrorCode.APP_DATA_INVALID);
+            }
+            if (issuanceGuard != null && !issuanceGuard.tryAcquire(appId, uid)) {
+                return CodeResponse.error(ErrorCode.RATE_LIMITED);
+            }
+            long now = currentSeconds();
+            IssuanceCache issuanceCache = policies[TokenKind.CODE.ordinal()].issuanceCache;
+            IssuanceCache.Entry reused = issuanceCache == null ? null : issuanceCache.get(uid, expireSeconds, now);
+            if (reused != null) {
+                return CodeResponse.success(reused.getToken(), reused.getExpireAt());
+            }
+            long expireAt = now + expireSeconds;
+            String code = codec.encode(issuedKind(TokenKind.CODE), uid, appId, expireAt, now, Claims.NONE);
+            if (issuanceCache != null) {
+                issuanceCache.put(uid, expireSeconds, now, code);
+            }
+            return CodeResponse.success(code, expireAt);
             
         } catch (TokenGenerationException e) {
-            return CodeResponse.error(e.getErrorCode(), e.getMessage());
+            return CodeResponse.error(e.getErrorCode());
         } catch (Exception e) {
-            return CodeResponse.error(ErrorCode.UNKNOWN_ERROR, "Failed to generate code: " + e.getMessage());
+            return CodeResponse.error(ErrorCode.UNKNOWN_ERROR);
         }
     }
     
@@ -108,7 +512,7 @@ public class SudGIPAuth {
      * @return SSToken response
      */
     public SSTokenResponse getSSToken(String uid) {
-        return getSSToken(uid, DEFAULT_SSTOKEN_EXPIRE_SECONDS);
+        return getSSToken(uid, ssTokenExpireSeconds);
     }
     
     /**
@@ -119,26 +523,103 @@ public class SudGIPAuth {
      * @return SSToken response
      */
     public SSTokenResponse getSSToken(String uid, long expireSeconds) {
+        return getSSToken(uid, expireSeconds, Claims.NONE);
+    }
+    
+    /**
+     * Generate SSToken carrying custom claims
+     * 
+     * @param uid User ID
+     * @param expireSeconds Expiration time (seconds)
+     * @param claims Custom claims built from the registered claim schema
+     * @return SSToken response
+     */
+    public SSTokenResponse getSSToken(String uid, long expireSeconds, Claims claims) {
+        long start = System.nanoTime();
+        return issued(issueSSToken(uid, expireSeconds, claims), start);
+    }
+    
+    private SSTokenResponse issueSSToken(String uid, long expireSeconds, Claims claims) {
         try {
             // Parameter validation
-            if (uid == null || uid.trim().isEmpty()) {
-                return SSTokenResponse.error(ErrorCode.APP_DATA_INVALID, "User ID cannot be null or empty");
+            if (uid == null || uid.trim().isEmpty() || expireSeconds <= 0) {
+                return SSTokenResponse.error(ErrorCode.APP_DATA_INVALID);
             }
-            
-            if (expireSeconds <= 0) {
-                return SSTokenResponse.error(ErrorCode.APP_DATA_INVALID, "Expire seconds must be positive");
+            String trimmed = uid.trim();
+            if (issuanceGuard != null && !issuanceGuard.tryAcquire(appId, trimmed)) {
+                return SSTokenResponse.error(ErrorCode.RATE_LIMITED);
             }
             
             // Generate SSToken
-            String token = CryptoUtils.generateSSToken(uid.trim(), appId, expireSeconds, appSecret);
-            Date expireDate = new Date(System.currentTimeMillis() + (expireSeconds * 1000));
+            long now = currentSeconds();
+            IssuanceCache issuanceCache = policies[TokenKind.SS_TOKEN.ordinal()].issuanceCache;
+            IssuanceCache.Entry reused = reusable(issuanceCache, trimmed, expireSeconds, claims, now);
+            if (reused != null) {
+                return SSTokenResponse.success(reused.getToken(), reused.getExpireAt());
+            }
+            long expireAt = now + expireSeconds;
+            String token = codec.encode(issuedKind(TokenKind.SS_TOKEN), trimmed, appId, expireAt, now, claims);
+            if (issuanceCache != null && reusableClaims(claims)) {
+                issuanceCache.put(trimmed, expireSeconds, now, token);
+            }
             
-            return SSTokenResponse.success(token, expireDate);
+            return SSTokenResponse.success(token, expireAt);
+            
+        } catch (TokenGenerationException e) {
+            return SSTokenResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return SSTokenResponse.error(ErrorCode.UNKNOWN_ERROR);
+        }
+    }
+    
+    /**
+     * Generate SSToken for a numeric user ID (using default expiration time)
+     * The uid is written as a number, see {@link #verifyLong(String)}.
+     * 
+     * @param uid User ID
+     * @return SSToken response
+     */
+    public SSTokenResponse getSSToken(long uid) {
+        return getSSToken(uid, ssTokenExpireSeconds);
+    }
+    
+    /**
+     * Generate SSToken for a numeric user ID (with custom expiration time)
+     * 
+     * @param uid User ID
+     * @param expireSeconds Expiration time (seconds)
+     * @return SSToken response
+     */
+    public SSTokenResponse getSSToken(long uid, long expireSeconds) {
+        long start = System.nanoTime();
+        return issued(issueSSToken(uid, expireSeconds), start);
+    }
+    
+    private SSTokenResponse issueSSToken(long uid, long expireSeconds) {
+        try {
+            if (expireSeconds <= 0) {
+                return SSTokenResponse.error(ErrorCode.APP_DATA_INVALID);
+            }
+            if (issuanceGuard != null && !issuanceGuard.tryAcquire(appId, uid)) {
+                return SSTokenResponse.error(ErrorCode.RATE_LIMITED);
+            }
+            long now = currentSeconds();
+            IssuanceCache issuanceCache = policies[TokenKind.SS_TOKEN.ordinal()].issuanceCache;
+            IssuanceCache.Entry reused = issuanceCache == null ? null : issuanceCache.get(uid, expireSeconds, now);
+            if (reused != null) {
+                return SSTokenResponse.success(reused.getToken(), reused.getExpireAt());
+            }
+            long expireAt = now + expireSeconds;
+            String token = codec.encode(issuedKind(TokenKind.SS_TOKEN), uid, appId, expireAt, now, Claims.NONE);
+            if (issuanceCache != null) {
+                issuanceCache.put(uid, expireSeconds, now, token);
+            }
+            return SSTokenResponse.success(token, expireAt);
             
         } catch (TokenGenerationException e) {
-            return SSTokenResponse.error(e.getErrorCode(), e.getMessage());
+            return SSTokenResponse.error(e.getErrorCode());
         } catch (Exception e) {
-            return SSTokenResponse.error(ErrorCode.UNKNOWN_ERROR, "Failed to generate SSToken: " + e.getMessage());
+            return SSTokenResponse.error(ErrorCode.UNKNOWN_ERROR);
         }
     }
     
@@ -150,22 +631,11 @@ public class SudGIPAuth {
      */
     public UidResponse getUidByCode(String code) {
         try {
-            // Parameter validation
-            if (code == null || code.trim().isEmpty()) {
-                return UidResponse.error(ErrorCode.TOKEN_INVALID, "Code cannot be null or empty");
-            }
-            
-            // Extract user ID
-            String uid = CryptoUtils.extractUidFromToken(code.trim(), appSecret);
-            
-            return UidResponse.success(uid);
-            
+            return UidResponse.success(verify(code, TokenKind.CODE).getUid());
         } catch (TokenValidationException e) {
-            // Determine specific error code based on exception message
-            int errorCode = determineErrorCode(e.getMessage());
-            return UidResponse.error(errorCode, e.getMessage());
+            return UidResponse.error(e.getErrorCode());
         } catch (Exception e) {
-            return UidResponse.error(ErrorCode.UNKNOWN_ERROR, "Failed to get UID by code: " + e.getMessage());
+            return UidResponse.error(ErrorCode.UNKNOWN_ERROR);
         }
     }
     
@@ -177,48 +647,199 @@ public class SudGIPAuth {
      */
     public UidResponse getUidBySSToken(String ssToken) {
         try {
-            // Parameter validation
-            if (ssToken == null || ssToken.trim().isEmpty()) {
-                return UidResponse.error(ErrorCode.TOKEN_INVALID, "SSToken cannot be null or empty");
-            }
-            
-            // Extract user ID
-            String uid = CryptoUtils.extractUidFromToken(ssToken.trim(), appSecret);
-            
-            return UidResponse.success(uid);
-            
+            return UidResponse.success(verify(ssToken, TokenKind.SS_TOKEN).getUid());
         } catch (TokenValidationException e) {
-            // Determine specific error code based on exception message
-            int errorCode = determineErrorCode(e.getMessage());
-            return UidResponse.error(errorCode, e.getMessage());
+            return UidResponse.error(e.getErrorCode());
         } catch (Exception e) {
-            return UidResponse.error(ErrorCode.UNKNOWN_ERROR, "Failed to get UID by SSToken: " + e.getMessage());
+            return UidResponse.error(ErrorCode.UNKNOWN_ERROR);
         }
     }
     
     /**
-     * Determine error code based on exception message
+     * Get numeric user ID by authentication code or SSToken
+     * The uid is parsed straight from the token bytes into a primitive, with no String or boxing.
+     * Tokens issued with a String uid of plain decimal digits are accepted too; any other uid
+     * fails with {@link ErrorCode#TOKEN_INVALID}.
      * 
-     * @param message Exception message
-     * @return Error code
+     * @param token Authentication code or SSToken
+     * @return Numeric user ID response
      */
-    private int determineErrorCode(String message) {
-        if (message == null) {
-            return ErrorCode.UNKNOWN_ERROR;
+    public LongUidResponse verifyLong(String token) {
+        try {
+            TokenClaims claims = verify(token, null, true, currentSeconds(), true);
+            return claims.hasLongUid() ? LongUidResponse.success(claims.getLongUid())
+                    : LongUidResponse.error(ErrorCode.TOKEN_INVALID);
+        } catch (TokenValidationException e) {
+            return LongUidResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return LongUidResponse.error(ErrorCode.UNKNOWN_ERROR);
         }
-        
-        String lowerMessage = message.toLowerCase();
-        
-        if (lowerMessage.contains("expired")) {
-            return ErrorCode.TOKEN_EXPIRED;
-        } else if (lowerMessage.contains("invalid") || lowerMessage.contains("format")) {
-            return ErrorCode.TOKEN_INVALID;
-        } else if (lowerMessage.contains("signature")) {
-            return ErrorCode.TOKEN_VERIFICATION_FAILED;
-        } else if (lowerMessage.contains("decode") || lowerMessage.contains("parse")) {
-            return ErrorCode.TOKEN_DECODING_FAILED;
-        } else {
-            return ErrorCode.TOKEN_VERIFICATION_FAILED;
+    }
+    
+    /**
+     * Verify authentication code and return its typed claims
+     * 
+     * @param code Authentication code
+     * @return Verification response with standard and custom claims
+     */
+    public VerifyResponse verifyCode(String code) {
+        try {
+            return VerifyResponse.success(verify(code, TokenKind.CODE));
+        } catch (TokenValidationException e) {
+            return VerifyResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return VerifyResponse.error(ErrorCode.UNKNOWN_ERROR);
+        }
+    }
+    
+    /**
+     * Verify SSToken and return its typed claims
+     * 
+     * @param ssToken SSToken
+     * @return Verification response with standard and custom claims
+     */
+    public VerifyResponse verifySSToken(String ssToken) {
+        try {
+            return VerifyResponse.success(verify(ssToken, TokenKind.SS_TOKEN));
+        } catch (TokenValidationException e) {
+            return VerifyResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return VerifyResponse.error(ErrorCode.UNKNOWN_ERROR);
+        }
+    }
+    
+    /**
+     * Get user ID by authentication code on the verification executor
+     * Without an executor the code is verified on the calling thread. Under load the response
+     * may fail with {@link ErrorCode#OVERLOADED}.
+     * 
+     * @param code Authentication code
+     * @return Future of the user ID response
+     */
+    public CompletableFuture<UidResponse> getUidByCodeAsync(String code) {
+        return verificationExecutor == null ? CompletableFuture.completedFuture(getUidByCode(code))
+                : verificationExecutor.submit(code, uidByCode, uidShed, uidFailure);
+    }
+    
+    /**
+     * Get user ID by SSToken on the verification executor, like {@link #getUidByCodeAsync(String)}
+     * 
+     * @param ssToken SSToken
+     * @return Future of the user ID response
+     */
+    public CompletableFuture<UidResponse> getUidBySSTokenAsync(String ssToken) {
+        return verificationExecutor == null ? CompletableFuture.completedFuture(getUidBySSToken(ssToken))
+                : verificationExecutor.submit(ssToken, uidBySSToken, uidShed, uidFailure);
+    }
+    
+    /**
+     * Verify authentication code on the verification executor, like {@link #getUidByCodeAsync(String)}
+     * 
+     * @param code Authentication code
+     * @return Future of the verification response
+     */
+    public CompletableFuture<VerifyResponse> verifyCodeAsync(String code) {
+        return verificationExecutor == null ? CompletableFuture.completedFuture(verifyCode(code))
+                : verificationExecutor.submit(code, claimsByCode, claimsShed, claimsFailure);
+    }
+    
+    /**
+     * Verify SSToken on the verification executor, like {@link #getUidByCodeAsync(String)}
+     * 
+     * @param ssToken SSToken
+     * @return Future of the verification response
+     */
+    public CompletableFuture<VerifyResponse> verifySSTokenAsync(String ssToken) {
+        return verificationExecutor == null ? CompletableFuture.completedFuture(verifySSToken(ssToken))
+                : verificationExecutor.submit(ssToken, claimsBySSToken, claimsShed, claimsFailure);
+    }
+    
+    /**
+     * Refresh an SSToken if it expires within a window
+     * The token is verified once; only when it expires within the window is a replacement minted
+     * from the already-parsed claims (same uid and custom claims, same lifetime as the original),
+     * otherwise the token itself is returned. Expired or invalid tokens are not renewed.
+     * 
+     * @param ssToken SSToken
+     * @param windowSeconds Refresh window before expiration (seconds)
+     * @return SSToken response holding the replacement, or the given token if it is not yet due
+     */
+    public SSTokenResponse refreshIfNearExpiry(String ssToken, long windowSeconds) {
+        if (windowSeconds < 0) {
+            return SSTokenResponse.error(ErrorCode.APP_DATA_INVALID);
+        }
+        return refresh(ssToken, windowSeconds, currentSeconds());
+    }
+    
+    /**
+     * Refresh a batch of SSTokens, each as {@link #refreshIfNearExpiry(String, long)}
+     * All tokens are judged against the same clock reading, so a batch renews consistently.
+     * 
+     * @param ssTokens SSTokens
+     * @param windowSeconds Refresh window before expiration (seconds)
+     * @return SSToken responses in the order of the given tokens
+     */
+    public List<SSTokenResponse> refreshIfNearExpiry(List<String> ssTokens, long windowSeconds) {
+        if (ssTokens == null) {
+            return Collections.emptyList();
+        }
+        List<SSTokenResponse> responses = new ArrayList<>(ssTokens.size());
+        if (windowSeconds < 0) {
+            for (int i = 0; i < ssTokens.size(); i++) {
+                responses.add(SSTokenResponse.error(ErrorCode.APP_DATA_INVALID));
+            }
+            return responses;
+        }
+        long now = currentSeconds();
+        for (String ssToken : ssTokens) {
+            responses.add(refresh(ssToken, windowSeconds, now));
+        }
+        return responses;
+    }
+    
+    private SSTokenResponse refresh(String ssToken, long windowSeconds, long now) {
+        try {
+            TokenClaims claims = verify(ssToken, TokenKind.SS_TOKEN, false, now, true);
+            long expireAt = claims.getExpireAt();
+            if (expireAt == 0L || expireAt - now > windowSeconds) {
+                return SSTokenResponse.success(ssToken.trim(), expireAt);
+            }
+            long start = System.nanoTime();
+            return issued(reissue(claims, now), start);
+            
+        } catch (TokenValidationException e) {
+            return SSTokenResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return SSTokenResponse.error(ErrorCode.UNKNOWN_ERROR);
+        }
+    }
+    
+    /**
+     * Mint a replacement SSToken from verified claims, keeping the original lifetime
+     */
+    private SSTokenResponse reissue(TokenClaims claims, long now) {
+        try {
+            // Claims cached by a numeric verification keep their uid a number in the replacement
+            boolean numeric = claims.hasLongUid();
+            if (issuanceGuard != null && !(numeric ? issuanceGuard.tryAcquire(appId, claims.getLongUid())
+                    : issuanceGuard.tryAcquire(appId, claims.getUid()))) {
+                return SSTokenResponse.error(ErrorCode.RATE_LIMITED);
+            }
+            long lifetime = claims.getExpireAt() - claims.getIssuedAt();
+            if (claims.getIssuedAt() <= 0L || lifetime <= 0L) {
+                lifetime = ssTokenExpireSeconds;
+            }
+            long expireAt = now + lifetime;
+            TokenKind kind = issuedKind(TokenKind.SS_TOKEN);
+            String token = numeric
+                    ? codec.encode(kind, claims.getLongUid(), appId, expireAt, now, claims.getClaims())
+                    : codec.encode(kind, claims.getUid(), appId, expireAt, now, claims.getClaims());
+            return SSTokenResponse.success(token, expireAt);
+            
+        } catch (TokenGenerationException e) {
+            return SSTokenResponse.error(e.getErrorCode());
+        } catch (Exception e) {
+            return SSTokenResponse.error(ErrorCode.UNKNOWN_ERROR);
         }
     }
     
@@ -229,11 +850,14 @@ public class SudGIPAuth {
      * @return Whether expired
      */
     public boolean isTokenExpired(String token) {
-        if (token == null || token.trim().isEmpty()) {
+        try {
+            // Checking does not use up a single-use token
+            verify(token, null, false, currentSeconds(), false);
+            return false;
+        } catch (TokenValidationException e) {
+            // For invalid tokens, we also consider them as "expired" (unavailable)
             return true;
         }
-        
-        return CryptoUtils.isTokenExpired(token.trim(), appSecret);
     }
     
     /**
@@ -245,11 +869,672 @@ public class SudGIPAuth {
         return appId;
     }
     
-
+    /**
+     * Get registered claim schema
+     * 
+     * @return Claim schema
+     */
+    public ClaimSchema getClaimSchema() {
+        return codec.getSchema();
+    }
+    
+    /**
+     * Get signature format of issued tokens
+     * 
+     * @return Signature format
+     */
+    public SignatureFormat getSignatureFormat() {
+        return jwtCodec.getSignatureFormat();
+    }
+    
+    /**
+     * Get signing algorithm
+     * 
+     * @return Signing algorithm
+     */
+    public SigningAlgorithm getSigningAlgorithm() {
+        return jwtCodec.getSigner().getAlgorithm();
+    }
+    
+    /**
+     * Get name of the crypto implementation in use, e.g. {@code JCA(SunJCE)} or {@code pure-java}
+     * 
+     * @return Crypto backend name
+     */
+    public String getCryptoBackend() {
+        return jwtCodec.getSigner().getBackendName();
+    }
+    
+    /**
+     * Get format of issued tokens
+     * 
+     * @return Token format
+     */
+    public TokenFormat getTokenFormat() {
+        return codec.getFormat();
+    }
+    
+    /**
+     * Verify a token of an expected kind after trimming, recording its use
+     * 
+     * @param token Token
+     * @param kind Expected kind
+     * @return Verified claims
+     * @throws TokenValidationException Token validation exception
+     */
+    private TokenClaims verify(String token, TokenKind kind) throws TokenValidationException {
+        return verify(token, kind, false, currentSeconds(), true);
+    }
+    
+    /**
+     * Verify a token after trimming at a given time
+     * 
+     * @param token Token
+     * @param kind Expected kind, or null to accept either
+     * @param longUid Whether to decode a numeric uid to a primitive
+     * @param now Current time (epoch seconds)
+     * @param use Whether to record the use of a single-use token
+     * @return Verified claims
+     * @throws TokenValidationException Token validation exception
+     */
+    private TokenClaims verify(String token, TokenKind kind, boolean longUid, long now, boolean use)
+            throws TokenValidationException {
+        long start = System.nanoTime();
+        try {
+            TokenClaims claims = decode(token, kind, longUid, now, use);
+            metrics.onVerify(appId, ErrorCode.SUCCESS, System.nanoTime() - start);
+            return claims;
+        } catch (TokenValidationException e) {
+            metrics.onVerify(appId, e.getErrorCode(), System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            metrics.onVerify(appId, ErrorCode.UNKNOWN_ERROR, System.nanoTime() - start);
+            throw e;
+        }
+    }
+    
+    /**
+     * Verify a token under the policy of its kind
+     * The kind is read from one header character before any signature work, so a token of the
+     * wrong kind is rejected at once. Untyped tokens take the expected kind, or count as SSTokens
+     * when either is accepted.
+     */
+    private TokenClaims decode(String token, TokenKind expected, boolean longUid, long now, boolean use)
+            throws TokenValidationException {
+        if (token == null || token.trim().isEmpty()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token cannot be null or empty");
+        }
+        String trimmed = token.trim();
+        TokenCodec verifier = TokenFormat.detect(trimmed) == TokenFormat.COMPACT ? compactCodec : jwtCodec;
+        TokenKind kind = verifier.kindOf(trimmed);
+        if (kind == null) {
+            if (requireTypedTokens) {
+                throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token carries no kind");
+            }
+            kind = expected != null ? expected : TokenKind.SS_TOKEN;
+        } else if (expected != null && kind != expected) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token kind mismatch");
+        }
+        KindPolicy policy = policies[kind.ordinal()];
+        
+        TokenClaims claims = null;
+        if (policy.verificationCache != null) {
+            TokenClaims cached = policy.verificationCache.get(trimmed, now);
+            if (cached != null && (!longUid || cached.hasLongUid())) {
+                claims = cached;
+            }
+        }
+        if (claims == null) {
+            claims = longUid ? verifier.decodeLongUid(trimmed, now) : verifier.decode(trimmed, now);
+            policy.checkLifetime(claims);
+            if (policy.verificationCache != null) {
+                policy.verificationCache.put(trimmed, claims);
+            }
+        }
+        if (use && policy.replayCache != null) {
+            int result = policy.replayCache.use(trimmed, claims.getExpireAt(), now);
+            if (result != ErrorCode.SUCCESS) {
+                throw new TokenValidationException(result, result == ErrorCode.TOKEN_REPLAYED
+                        ? "Token has already been used" : "Replay cache is full of unexpired tokens");
+            }
+        }
+        return claims;
+    }
+    
+    /**
+     * Record a verification shed by the verification executor
+     */
+    private int shed(int errorCode) {
+        metrics.onVerify(appId, errorCode, 0L);
+        return errorCode;
+    }
+    
+    /**
+     * Kind written into issued tokens
+     */
+    private TokenKind issuedKind(TokenKind kind) {
+        return typedTokens ? kind : null;
+    }
+    
+    /**
+     * Look up a token for an issuance call without custom claims in the issuance cache
+     */
+    private static IssuanceCache.Entry reusable(IssuanceCache issuanceCache, String uid, long expireSeconds,
+                                                Claims claims, long now) {
+        return issuanceCache != null && reusableClaims(claims) ? issuanceCache.get(uid, expireSeconds, now) : null;
+    }
+    
+    private static boolean reusableClaims(Claims claims) {
+        return claims == null || claims.isEmpty();
+    }
+    
+    private long currentSeconds() {
+        return clock.millis() / 1000L;
+    }
+    
+    /**
+     * Report an issuance result to the metrics
+     */
+    private <T extends BaseResponse> T issued(T response, long startNanos) {
+        metrics.onIssue(appId, response.getErrorCode(), System.nanoTime() - startNanos);
+        return response;
+    }
+    
+    
     @Override
     public String toString() {
         return "SudGIPAuth{" +
                 "appId='" + appId + '\'' +
+                ", algorithm=" + getSigningAlgorithm() +
+                ", cryptoBackend=" + getCryptoBackend() +
                 '}';
     }
-}
\ No newline at end of file
+    
+    /**
+     * Verification policy of one token kind
+     */
+    private static final class KindPolicy {
+        
+        private final VerificationCache verificationCache;
+        private final IssuanceCache issuanceCache;
+        private final ReplayCache replayCache;
+        private final long maxLifetimeSeconds;
+        
+        KindPolicy(Builder builder, int kind, boolean asymmetric) {
+            int verificationCacheCapacity = builder.verificationCacheCapacities[kind] >= 0
+                    ? builder.verificationCacheCapacities[kind]
+                    : asymmetric ? DEFAULT_VERIFICATION_CACHE_CAPACITY : 0;
+            this.verificationCache = verificationCacheCapacity > 0
+                    ? new VerificationCache(verificationCacheCapacity, builder.expiryWheel) : null;
+            this.issuanceCache = builder.issuanceCacheCapacities[kind] > 0
+                    ? new IssuanceCache(builder.issuanceCacheCapacities[kind],
+                    builder.issuanceCacheFreshnessSeconds[kind], builder.expiryWheel) : null;
+            this.replayCache = builder.singleUseCapacities[kind] > 0
+                    ? new ReplayCache(builder.singleUseCapacities[kind], builder.expiryWheel) : null;
+            this.maxLifetimeSeconds = builder.maxLifetimeSeconds[kind];
+        }
+        
+        void checkLifetime(TokenClaims claims) throws TokenValidationException {
+            if (maxLifetimeSeconds > 0 && (claims.getExpireAt() == 0L || claims.getIssuedAt() <= 0L
+                    || claims.getExpireAt() - claims.getIssuedAt() > maxLifetimeSeconds)) {
+                throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token lifetime exceeds limit");
+            }
+        }
+    }
+    
+    /**
+     * SDK builder
+     * Collects every option: claim schema, formats, signer and crypto backend, pooling, clock,
+     * metrics, default lifetimes and an eager warm-up. Unset options keep the defaults of
+     * {@link SudGIPAuth#SudGIPAuth(String, String)}.
+     * 
+     * <pre>
+     * SudGIPAuth auth = SudGIPAuth.builder(appId)
+     *         .appSecret(appSecret)
+     *         .codeExpireSeconds(600L)
+     *         .metrics(myMetrics)
+     *         .warmUp(2000)
+     *         .build();
+     * </pre>
+     */
+    public static final class Builder {
+        
+        private final String appId;
+        private String appSecret;
+        private TokenSigner signer;
+        private CryptoBackend cryptoBackend;
+        private int signerPoolSize;
+        private ClaimSchema claimSchema = ClaimSchema.EMPTY;
+        private SignatureFormat signatureFormat = SignatureFormat.HEX;
+        private TokenFormat tokenFormat = TokenFormat.JWT;
+        private int compactKeyId;
+        private boolean truncatedTag;
+        private final int[] verificationCacheCapacities = filled(-1);
+        private UidCache uidCache;
+        private IssuanceGuard issuanceGuard;
+        private final int[] issuanceCacheCapacities = new int[TokenKind.values().length];
+        private final long[] issuanceCacheFreshnessSeconds = new long[TokenKind.values().length];
+        private final int[] singleUseCapacities = new int[TokenKind.values().length];
+        private final long[] maxLifetimeSeconds = new long[TokenKind.values().length];
+        private boolean typedTokens;
+        private boolean requireTypedTokens;
+        private TimingWheel expiryWheel;
+        private VerificationExecutor verificationExecutor;
+        private Clock clock = Clock.systemUTC();
+        private AuthMetrics metrics = AuthMetrics.NONE;
+        private long codeExpireSeconds = DEFAULT_CODE_EXPIRE_SECONDS;
+        private long ssTokenExpireSeconds = DEFAULT_SSTOKEN_EXPIRE_SECONDS;
+        private int warmUpCycles;
+        
+        private Builder(String appId) {
+            this.appId = appId;
+        }
+        
+        private static int[] filled(int value) {
+            int[] values = new int[TokenKind.values().length];
+            Arrays.fill(values, value);
+            return values;
+        }
+        
+        /**
+         * Sign with HMAC-SHA256 under an application secret
+         * 
+         * @param appSecret Application secret
+         * @return This builder
+         */
+        public Builder appSecret(String appSecret) {
+            this.appSecret = appSecret;
+            return this;
+        }
+        
+        /**
+         * Sign with a custom signer instead of an application secret
+         * 
+         * @param signer Token signer
+         * @return This builder
+         */
+        public Builder signer(TokenSigner signer) {
+            if (signer == null) {
+                throw new IllegalArgumentException("Signer cannot be null");
+            }
+            this.signer = signer;
+            return this;
+        }
+        
+        /**
+         * Set HMAC-SHA256 implementation for the application secret (default
+         * {@link MidstateCryptoBackend#INSTANCE})
+         * 
+         * @param cryptoBackend Crypto backend
+         * @return This builder
+         */
+        public Builder cryptoBackend(CryptoBackend cryptoBackend) {
+            if (cryptoBackend == null) {
+                throw new IllegalArgumentException("Crypto backend cannot be null");
+            }
+            this.cryptoBackend = cryptoBackend;
+            return this;
+        }
+        
+        /**
+         * Sign the application secret with a pool of JCA Mac instances of this size, ignored when a
+         * crypto backend is set
+         * 
+         * @param signerPoolSize Pooled Mac instances
+         * @return This builder
+         */
+        public Builder signerPoolSize(int signerPoolSize) {
+            if (signerPoolSize <= 0) {
+                throw new IllegalArgumentException("Signer pool size must be positive");
+            }
+            this.signerPoolSize = signerPoolSize;
+            return this;
+        }
+        
+        /**
+         * Set custom claim schema (default {@link ClaimSchema#EMPTY})
+         * 
+         * @param claimSchema Schema of the custom claims carried in issued tokens and returned on verification
+         * @return This builder
+         */
+        public Builder claimSchema(ClaimSchema claimSchema) {
+            if (claimSchema == null) {
+                throw new IllegalArgumentException("Claim schema cannot be null");
+            }
+            this.claimSchema = claimSchema;
+            return this;
+        }
+        
+        /**
+         * Set signature format of issued JWTs (default {@link SignatureFormat#HEX})
+         * Only applies to HMAC; asymmetric signers always issue {@link SignatureFormat#RAW}.
+         * 
+         * @param signatureFormat Signature format
+         * @return This builder
+         */
+        public Builder signatureFormat(SignatureFormat signatureFormat) {
+            if (signatureFormat == null) {
+                throw new IllegalArgumentException("Signature format cannot be null");
+            }
+            this.signatureFormat = signatureFormat;
+            return this;
+        }
+        
+        /**
+         * Set format of issued tokens (default {@link TokenFormat#JWT})
+         * 
+         * @param tokenFormat Token format
+         * @return This builder
+         */
+        public Builder tokenFormat(TokenFormat tokenFormat) {
+            if (tokenFormat == null) {
+                throw new IllegalArgumentException("Token format cannot be null");
+            }
+            this.tokenFormat = tokenFormat;
+            return this;
+        }
+        
+        /**
+         * Set key ID written into compact tokens and required on their verification (default 0)
+         * 
+         * @param compactKeyId Key ID (0-255)
+         * @return This builder
+         */
+        public Builder compactKeyId(int compactKeyId) {
+            if (compactKeyId < 0 || compactKeyId > 255) {
+                throw new IllegalArgumentException("Key ID must be between 0 and 255");
+            }
+            this.compactKeyId = compactKeyId;
+            return this;
+        }
+        
+        /**
+         * Issue compact tokens with 16-byte instead of 32-byte tags (default false)
+         * 
+         * @param truncatedTag Whether to truncate tags
+         * @return This builder
+         */
+        public Builder truncatedTag(boolean truncatedTag) {
+            this.truncatedTag = truncatedTag;
+            return this;
+        }
+        
+        /**
+         * Set verification result cache capacity, 0 to disable (default 16384 for asymmetric
+         * signers, disabled for HMAC)
+         * 
+         * @param verificationCacheCapacity Cached verification results
+         * @return This builder
+         */
+        public Builder verificationCacheCapacity(int verificationCacheCapacity) {
+            for (TokenKind kind : TokenKind.values()) {
+                verificationCacheCapacity(kind, verificationCacheCapacity);
+            }
+            return this;
+        }
+        
+        /**
+         * Set verification result cache capacity for one token kind, 0 to disable
+         * Untyped tokens count as the kind they are verified as, or as SSTokens by the checks
+         * accepting either kind.
+         * 
+         * @param kind Token kind
+         * @param verificationCacheCapacity Cached verification results
+         * @return This builder
+         */
+        public Builder verificationCacheCapacity(TokenKind kind, int verificationCacheCapacity) {
+            if (kind == null) {
+                throw new IllegalArgumentException("Token kind cannot be null");
+            }
+            if (verificationCacheCapacity < 0) {
+                throw new IllegalArgumentException("Cache capacity cannot be negative");
+            }
+            this.verificationCacheCapacities[kind.ordinal()] = verificationCacheCapacity;
+            return this;
+        }
+        
+        /**
+         * Set uid canonicalization cache (default none)
+         * 
+         * @param uidCache Uid cache, may be shared between instances, or null
+         * @return This builder
+         */
+        public Builder uidCache(UidCache uidCache) {
+            this.uidCache = uidCache;
+            return this;
+        }
+        
+        /**
+         * Set issuance throttle (default none)
+         * 
+         * @param issuanceGuard Issuance guard, may be shared between instances, or null
+         * @return This builder
+         */
+        public Builder issuanceGuard(IssuanceGuard issuanceGuard) {
+            this.issuanceGuard = issuanceGuard;
+            return this;
+        }
+        
+        /**
+         * Hand out the token of an identical recent issuance call again instead of signing a new
+         * one (default disabled)
+         * Calls with the same uid and lifetime and without custom claims share a token while it
+         * was issued no more than the freshness window ago; with a window of 0 that is a token of
+         * the current second, identical to the one a new call would mint. The issuance guard is
+         * still charged for every call. Kinds that are single use need
+         * {@link #issuanceCache(TokenKind, int, long)} for the other kinds instead.
+         * 
+         * @param capacity Cached tokens, 0 to disable
+         * @param freshnessSeconds Freshness window (seconds)
+         * @return This builder
+         */
+        public Builder issuanceCache(int capacity, long freshnessSeconds) {
+            for (TokenKind kind : TokenKind.values()) {
+                issuanceCache(kind, capacity, freshnessSeconds);
+            }
+            return this;
+        }
+        
+        /**
+         * Hand out recent tokens again for one token kind, like {@link #issuanceCache(int, long)}
+         * 
+         * @param kind Token kind
+         * @param capacity Cached tokens, 0 to disable
+         * @param freshnessSeconds Freshness window (seconds)
+         * @return This builder
+         */
+        public Builder issuanceCache(TokenKind kind, int capacity, long freshnessSeconds) {
+            if (kind == null) {
+                throw new IllegalArgumentException("Token kind cannot be null");
+            }
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Cache capacity cannot be negative");
+            }
+            if (freshnessSeconds < 0) {
+                throw new IllegalArgumentException("Freshness window cannot be negative");
+            }
+            this.issuanceCacheCapacities[kind.ordinal()] = capacity;
+            this.issuanceCacheFreshnessSeconds[kind.ordinal()] = freshnessSeconds;
+            return this;
+        }
+        
+        /**
+         * Write the kind into issued codes and SSTokens (default false)
+         * Typed tokens of one kind are rejected where the other is expected. Verifiers of earlier
+         * versions still accept typed HMAC JWTs, but neither typed compact tokens nor typed
+         * asymmetric JWTs, so enable this once all verifiers are upgraded.
+         * 
+         * @param typedTokens Whether to issue typed tokens
+         * @return This builder
+         */
+        public Builder typedTokens(boolean typedTokens) {
+            this.typedTokens = typedTokens;
+            return this;
+        }
+        
+        /**
+         * Reject tokens without a kind (default false)
+         * Enable once all untyped tokens in circulation have expired.
+         * 
+         * @param requireTypedTokens Whether to require typed tokens
+         * @return This builder
+         */
+        public Builder requireTypedTokens(boolean requireTypedTokens) {
+            this.requireTypedTokens = requireTypedTokens;
+            return this;
+        }
+        
+        /**
+         * Accept each token of a kind once (default disabled)
+         * Uses are remembered until the token expires; when the capacity is taken up by unexpired
+         * tokens, new ones fail with {@link ErrorCode#OVERLOADED}. {@link #isTokenExpired(String)}
+         * does not count as a use. Single use holds within this instance only.
+         * Tokens carry no nonce, so calls for the same uid, lifetime and claims within one second
+         * return the same token, which is accepted once in total. For the same reason single use
+         * cannot be combined with an issuance cache for the same kind: {@link #build()} fails.
+         * 
+         * @param kind Token kind, usually {@link TokenKind#CODE}
+         * @param capacity Remembered tokens, 0 to disable
+         * @return This builder
+         */
+        public Builder singleUse(TokenKind kind, int capacity) {
+            if (kind == null) {
+                throw new IllegalArgumentException("Token kind cannot be null");
+            }
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Capacity cannot be negative");
+            }
+            this.singleUseCapacities[kind.ordinal()] = capacity;
+            return this;
+        }
+        
+        /**
+         * Reject tokens of a kind whose lifetime exceeds a limit (default unlimited)
+         * Tokens without expiration or issue time are rejected too.
+         * 
+         * @param kind Token kind
+         * @param maxLifetimeSeconds Maximum lifetime (seconds), 0 for unlimited
+         * @return This builder
+         */
+        public Builder maxLifetimeSeconds(TokenKind kind, long maxLifetimeSeconds) {
+            if (kind == null) {
+                throw new IllegalArgumentException("Token kind cannot be null");
+            }
+            if (maxLifetimeSeconds < 0) {
+                throw new IllegalArgumentException("Maximum lifetime cannot be negative");
+            }
+            this.maxLifetimeSeconds[kind.ordinal()] = maxLifetimeSeconds;
+            return this;
+        }
+        
+        /**
+         * Evict expired verification and issuance cache entries through a timing wheel (default
+         * none: entries are checked on read and replaced when their slot is reused)
+         * The wheel must run on the SDK clock ({@link #clock(Clock)}), or {@link #build()} fails:
+         * {@link TimingWheel#shared()} only fits the default system clock, and an injected clock
+         * needs a wheel built on that same clock.
+         * 
+         * @param expiryWheel Timing wheel, may be shared between instances, or null
+         * @return This builder
+         */
+        public Builder expiryWheel(TimingWheel expiryWheel) {
+            this.expiryWheel = expiryWheel;
+            return this;
+        }
+        
+        /**
+         * Run the asynchronous verification methods on an executor (default none: they verify on
+         * the calling thread)
+         * 
+         * @param verificationExecutor Verification executor, may be shared between instances, or null
+         * @return This builder
+         */
+        public Builder verificationExecutor(VerificationExecutor verificationExecutor) {
+            this.verificationExecutor = verificationExecutor;
+            return this;
+        }
+        
+        /**
+         * Set clock for issue and expiration times (default {@link Clock#systemUTC()})
+         * 
+         * @param clock Clock
+         * @return This builder
+         */
+        public Builder clock(Clock clock) {
+            if (clock == null) {
+                throw new IllegalArgumentException("Clock cannot be null");
+            }
+            this.clock = clock;
+            return this;
+        }
+        
+        /**
+         * Set metrics receiver (default {@link AuthMetrics#NONE})
+         * 
+         * @param metrics Metrics
+         * @return This builder
+         */
+        public Builder metrics(AuthMetrics metrics) {
+            if (metrics == null) {
+                throw new IllegalArgumentException("Metrics cannot be null");
+            }
+            this.metrics = metrics;
+            return this;
+        }
+        
+        /**
+         * Set default authentication code lifetime (default 3600 seconds)
+         * 
+         * @param codeExpireSeconds Expiration time (seconds)
+         * @return This builder
+         */
+        public Builder codeExpireSeconds(long codeExpireSeconds) {
+            if (codeExpireSeconds <= 0) {
+                throw new IllegalArgumentException("Expiration must be positive");
+            }
+            this.codeExpireSeconds = codeExpireSeconds;
+            return this;
+        }
+        
+        /**
+         * Set default SSToken lifetime (default 7200 seconds)
+         * 
+         * @param ssTokenExpireSeconds Expiration time (seconds)
+         * @return This builder
+         */
+        public Builder ssTokenExpireSeconds(long ssTokenExpireSeconds) {
+            if (ssTokenExpireSeconds <= 0) {
+                throw new IllegalArgumentException("Expiration must be positive");
+            }
+            this.ssTokenExpireSeconds = ssTokenExpireSeconds;
+            return this;
+        }
+        
+        /**
+         * Run issue and verify cycles in {@link #build()}, so that key setup, class loading and
+         * the first JIT compilations are paid before the instance serves requests (default 0)
+         * 
+         * @param cycles Warm-up cycles, alternating between the JWT and compact codecs
+         * @return This builder
+         */
+        public Builder warmUp(int cycles) {
+            if (cycles < 0) {
+                throw new IllegalArgumentException("Warm-up cycles cannot be negative");
+            }
+            this.warmUpCycles = cycles;
+            return this;
+        }
+        
+        /**
+         * Build SDK instance
+         * 
+         * @return SDK instance
+         * @throws IllegalArgumentException Invalid parameter exception, e.g. an expiry wheel on
+         *                                  another clock or single use with an issuance cache
+         * @throws IllegalStateException Warm-up failed
+         */
+        public SudGIPAuth build() {
+            return new SudGIPAuth(this);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package tech.sud.auth.gip.auth.cache;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Issuance result cache
+ * Bounded, lock-free cache of recently minted tokens keyed by uid and lifetime, so that bursts of
+ * identical issuance calls (e.g. parallel page loads) share one signature. Direct-mapped: each
+ * key hashes to one slot and a newer token replaces the older one.
+ * 
+ * A token is reused while it was issued no more than the freshness window ago. With a window of
+ * 0 only tokens of the current second are reused, which are exactly the tokens a new call would
+ * mint, since issue and expiration times have second resolution. Larger windows trade a shorter
+ * remaining lifetime of the returned token for more hits. Concurrent first calls may still each
+ * mint a token; the last one stored wins.
+ * 
+ * With a {@link TimingWheel}, entries are removed once they are no longer fresh, releasing the
+ * token strings of idle uids instead of holding them until overwritten.
+ * 
+ * Tokens carry the app ID of the issuing instance, so a cache must not be shared between
+ * instances.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class IssuanceCache {
+    
+    /**
+     * Cached token, immutable
+     */
+    public static final class Entry {
+        final String uid;
+        final long longUid;
+        final long expireSeconds;
+        final long issuedAt;
+        final String token;
+        volatile TimingWheel.Timeout timeout;
+        
+        Entry(String uid, long longUid, long expireSeconds, long issuedAt, String token) {
+            this.uid = uid;
+            this.longUid = longUid;
+            this.expireSeconds = expireSeconds;
+            this.issuedAt = issuedAt;
+            this.token = token;
+        }
+        
+        /**
+         * Get token
+         * 
+         * @return Token
+         */
+        public String getToken() {
+            return token;
+        }
+        
+        /**
+         * Get expiration time of the token
+         * 
+         * @return Expiration time (epoch seconds)
+         */
+        public long getExpireAt() {
+            return issuedAt + expireSeconds;
+        }
+    }
+    
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final long freshnessSeconds;
+    private final TimingWheel wheel;
+    
+    /**
+     * Constructor
+     * 
+     * @param capacity Maximum number of cached tokens, rounded up to a power of two
+     * @param freshnessSeconds How long after issue a token is still handed out again (seconds), 0
+     *                         for the same second only
+     */
+    public IssuanceCache(int capacity, long freshnessSeconds) {
+        this(capacity, freshnessSeconds, null);
+    }
+    
+    /**
+     * Constructor with expiry scheduling
+     * 
+     * @param capacity Maximum number of cached tokens, rounded up to a power of two
+     * @param freshnessSeconds How long after issue a token is still handed out again (seconds), 0
+     *                         for the same second only
+     * @param wheel Wheel removing entries once stale, or null to only check on read
+     */
+    public IssuanceCache(int capacity, long freshnessSeconds, TimingWheel wheel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        if (freshnessSeconds < 0) {
+            throw new IllegalArgumentException("Freshness window cannot be negative");
+        }
+        int size = Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = slots.length() - 1;
+        this.freshnessSeconds = freshnessSeconds;
+        this.wheel = wheel;
+    }
+    
+    /**
+     * Get capacity
+     * 
+     * @return Number of slots
+     */
+    public int capacity() {
+        return slots.length();
+    }
+    
+    /**
+     * Get freshness window
+     * 
+     * @return Freshness window (seconds)
+     */
+    public long freshnessSeconds() {
+        return freshnessSeconds;
+    }
+    
+    /**
+     * Look up a fresh token
+     * 
+     * @param uid User ID
+     * @param expireSeconds Lifetime requested (seconds)
+     * @param nowSeconds Current time (epoch seconds)
+     * @return Entry, or null on miss or if the cached token is no longer fresh
+     */
+    public Entry get(String uid, long expireSeconds, long nowSeconds) {
+        Entry entry = slots.get(slot(uid.hashCode(), expireSeconds));
+        return entry != null && uid.equals(entry.uid) && matches(entry, expireSeconds, nowSeconds) ? entry : null;
+    }
+    
+    /**
+     * Look up a fresh token for a numeric user ID
+     * 
+     * @param uid User ID
+     * @param expireSeconds Lifetime requested (seconds)
+     * @param nowSeconds Current time (epoch seconds)
+     * @return Entry, or null on miss or if the cached token is no longer fresh
+     */
+    public Entry get(long uid, long expireSeconds, long nowSeconds) {
+        Entry entry = slots.get(slot(Long.hashCode(uid), expireSeconds));
+        return entry != null && entry.uid == null && entry.longUid == uid && matches(entry, expireSeconds, nowSeconds)
+                ? entry : null;
+    }
+    
+    /**
+     * Store a minted token
+     * 
+     * @param uid User ID
+     * @param expireSeconds Lifetime requested (seconds)
+     * @param issuedAt Issue time of the token (epoch seconds)
+     * @param token Token
+     */
+    public void put(String uid, long expireSeconds, long issuedAt, String token) {
+        store(slot(uid.hashCode(), expireSeconds), new Entry(uid, 0L, expireSeconds, issuedAt, token));
+    }
+    
+    /**
+     * Store a minted token for a numeric user ID
+     * 
+     * @param uid User ID
+     * @param expireSeconds Lifetime requested (seconds)
+     * @param issuedAt Issue time of the token (epoch seconds)
+     * @param token Token
+     */
+    public void put(long uid, long expireSeconds, long issuedAt, String token) {
+        store(slot(Long.hashCode(uid), expireSeconds), new Entry(null, uid, expireSeconds, issuedAt, token));
+    }
+    
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            cancel(slots.getAndSet(i, null));
+        }
+    }
+    
+    private void store(int index, Entry entry) {
+        if (wheel == null) {
+            slots.lazySet(index, entry);
+            return;
+        }
+        cancel(slots.getAndSet(index, entry));
+        // Last second in which matches() accepts the entry
+        long lastFresh = entry.issuedAt + Math.min(freshnessSeconds, entry.expireSeconds - 1L);
+        entry.timeout = wheel.schedule((lastFresh + 1L) * 1000L, () -> slots.compareAndSet(index, entry, null));
+    }
+    
+    private static void cancel(Entry entry) {
+        TimingWheel.Timeout timeout = entry == null ? null : entry.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+    
+    private boolean matches(Entry entry, long expireSeconds, long nowSeconds) {
+        long age = nowSeconds - entry.issuedAt;
+        // A clock stepping back makes the age negative; such tokens are not reused
+        return entry.expireSeconds == expireSeconds && age >= 0 && age <= freshnessSeconds && age < expireSeconds;
+    }
+    
+    private int slot(int uidHash, long expireSeconds) {
+        int h = uidHash * 31 + Long.hashCode(expireSeconds);
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,146 @@
+package tech.sud.auth.gip.auth.cache;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replay cache
+ * Remembers used single-use tokens (e.g. authentication codes) until they expire, so that each
+ * is accepted once. Entries are dropped once their token has expired, since expired tokens fail
+ * verification anyway: through a {@link TimingWheel} when one is given, otherwise by a sweep when
+ * the cache is full, at most once per second.
+ * 
+ * The capacity must cover the tokens used within one lifetime. When it is taken up by
+ * unexpired tokens, new tokens are refused with {@link ErrorCode#OVERLOADED} rather than
+ * forgetting earlier uses. The capacity is a hard limit: each use reserves a slot before it is
+ * recorded, so concurrent first uses cannot overshoot it.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class ReplayCache {
+    
+    private final ConcurrentHashMap<String, Long> used = new ConcurrentHashMap<>();
+    
+    /**
+     * Slots taken: remembered tokens plus uses between their reservation and their insertion
+     */
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final int capacity;
+    private final TimingWheel wheel;
+    private volatile long lastSweepSeconds = Long.MIN_VALUE;
+    
+    /**
+     * Constructor
+     * 
+     * @param capacity Maximum number of remembered tokens
+     */
+    public ReplayCache(int capacity) {
+        this(capacity, null);
+    }
+    
+    /**
+     * Constructor with expiry scheduling
+     * 
+     * @param capacity Maximum number of remembered tokens
+     * @param wheel Wheel removing entries once their token expires, or null to sweep when full
+     */
+    public ReplayCache(int capacity, TimingWheel wheel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.wheel = wheel;
+    }
+    
+    /**
+     * Record the use of a verified token
+     * 
+     * @param token Token
+     * @param expireAt Expiration time of the token (epoch seconds), 0 if it never expires
+     * @param nowSeconds Current time (epoch seconds)
+     * @return {@link ErrorCode#SUCCESS} on first use, {@link ErrorCode#TOKEN_REPLAYED} if the token
+     *         was used before, {@link ErrorCode#OVERLOADED} if the cache is full
+     */
+    public int use(String token, long expireAt, long nowSeconds) {
+        if (!reserve()) {
+            sweep(nowSeconds);
+            if (!reserve()) {
+                return used.containsKey(token) ? ErrorCode.TOKEN_REPLAYED : ErrorCode.OVERLOADED;
+            }
+        }
+        Long boxed = expireAt;
+        if (used.putIfAbsent(token, boxed) != null) {
+            reserved.decrementAndGet();
+            return ErrorCode.TOKEN_REPLAYED;
+        }
+        if (wheel != null && expireAt != 0L) {
+            wheel.schedule((expireAt + 1L) * 1000L, () -> remove(token, boxed));
+        }
+        return ErrorCode.SUCCESS;
+    }
+    
+    /**
+     * Get number of remembered tokens
+     * 
+     * @return Remembered tokens
+     */
+    public int size() {
+        return used.size();
+    }
+    
+    /**
+     * Forget all uses
+     */
+    public void clear() {
+        // Entry by entry, so that uses recorded meanwhile keep their slots
+        for (String token : used.keySet()) {
+            if (used.remove(token) != null) {
+                reserved.decrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Take a slot unless the cache is full
+     */
+    private boolean reserve() {
+        while (true) {
+            int taken = reserved.get();
+            if (taken >= capacity) {
+                return false;
+            }
+            if (reserved.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Forget a use, freeing its slot unless it was already forgotten
+     */
+    private void remove(String token, Long expireAt) {
+        if (used.remove(token, expireAt)) {
+            reserved.decrementAndGet();
+        }
+    }
+    
+    private void sweep(long nowSeconds) {
+        if (nowSeconds == lastSweepSeconds) {
+            return;
+        }
+        lastSweepSeconds = nowSeconds;
+        Iterator<Map.Entry<String, Long>> it = used.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            long expireAt = entry.getValue();
+            if (expireAt != 0L && expireAt < nowSeconds) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package tech.sud.auth.gip.auth.cache;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel
+ * Schedules expiry callbacks for cache entries at amortized O(1) cost per entry, however many
+ * are pending. Level 0 has one bucket per tick; each higher level has buckets spanning a whole
+ * revolution of the level below, whose entries are cascaded down when that level comes round.
+ * Deadlines beyond the top level are parked in its last bucket and re-placed on cascade.
+ * 
+ * Scheduling and cancelling only enqueue; all bucket work happens in {@link #advance()}, run by
+ * one daemon thread after {@link #start()} or called directly. Time is read from the configured
+ * {@link Clock}, so a wheel sharing the SDK clock expires entries on the SDK's notion of time.
+ * Callbacks run on the advancing thread and must be short; exceptions they throw are counted
+ * and swallowed.
+ * 
+ * <pre>
+ * TimingWheel wheel = TimingWheel.builder()
+ *         .clock(clock)
+ *         .tickMillis(100L)
+ *         .build()
+ *         .start();
+ * </pre>
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class TimingWheel implements AutoCloseable {
+    
+    private static final Object SHARED_LOCK = new Object();
+    private static volatile TimingWheel shared;
+    
+    private final Clock clock;
+    private final long tickMillis;
+    private final long startMillis;
+    private final int bits;
+    private final int mask;
+    private final Timeout[][] buckets;
+    private final ConcurrentLinkedQueue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Object advanceLock = new Object();
+    
+    /**
+     * Next tick to process, guarded by advanceLock
+     */
+    private long currentTick;
+    
+    /**
+     * Timeouts linked into buckets, guarded by advanceLock
+     */
+    private long linked;
+    
+    private volatile long expired;
+    private volatile long failures;
+    private volatile long lagMillis;
+    private volatile long maxLagMillis;
+    private volatile Thread worker;
+    
+    private TimingWheel(Builder builder) {
+        this.clock = builder.clock;
+        this.tickMillis = builder.tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(builder.wheelSize);
+        this.mask = builder.wheelSize - 1;
+        this.buckets = new Timeout[builder.levels][builder.wheelSize];
+        this.startMillis = clock.millis();
+    }
+    
+    /**
+     * Create wheel builder
+     * 
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Get the process-wide wheel on the system clock, started on first use
+     * 100 ms ticks, 4 levels of 256 buckets (about 136 years of range).
+     * 
+     * @return Shared wheel
+     */
+    public static TimingWheel shared() {
+        TimingWheel wheel = shared;
+        if (wheel == null) {
+            synchronized (SHARED_LOCK) {
+                wheel = shared;
+                if (wheel == null) {
+                    wheel = builder().build().start();
+                    shared = wheel;
+                }
+            }
+        }
+        return wheel;
+    }
+    
+    /**
+     * Start the daemon thread advancing the wheel every tick; does nothing if already started
+     * 
+     * @return This wheel
+     */
+    public TimingWheel start() {
+        synchronized (advanceLock) {
+            if (worker == null) {
+                Thread thread = new Thread(this::run, "sud-gip-auth-timing-wheel");
+                thread.setDaemon(true);
+                worker = thread;
+                thread.start();
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Stop the daemon thread; pending timeouts stay scheduled and fire on later advances
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (advanceLock) {
+            thread = worker;
+            worker = null;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    /**
+     * Schedule a callback
+     * 
+     * @param deadlineMillis Time at which to run it (epoch milliseconds on the wheel's clock);
+     *                       it runs on the first tick at or after this time
+     * @param task Callback
+     * @return Handle that can cancel the callback
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Timeout timeout = new Timeout(this, deadlineMillis, task);
+        pending.incrementAndGet();
+        added.offer(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Process every tick up to the clock's current time, running due callbacks on the calling
+     * thread
+     */
+    public void advance() {
+        synchronized (advanceLock) {
+            long now = clock.millis();
+            long target = Math.floorDiv(now - startMillis, tickMillis);
+            transfer();
+            if (currentTick > target) {
+                return;
+            }
+            long lag = now - (startMillis + currentTick * tickMillis);
+            lagMillis = lag;
+            if (lag > maxLagMillis) {
+                maxLagMillis = lag;
+            }
+            if (linked == 0L) {
+                // Nothing to cascade or fire, skip straight to the present
+                currentTick = target + 1;
+                return;
+            }
+            while (currentTick <= target) {
+                processTick(currentTick);
+                currentTick++;
+                transfer();
+            }
+        }
+    }
+    
+    /**
+     * Get number of scheduled callbacks that have neither fired nor been cancelled
+     * 
+     * @return Pending timeouts
+     */
+    public long size() {
+        return pending.get();
+    }
+    
+    /**
+     * Get number of callbacks run
+     * 
+     * @return Expired timeouts
+     */
+    public long expiredCount() {
+        return expired;
+    }
+    
+    /**
+     * Get number of callbacks that threw
+     * 
+     * @return Failed callbacks
+     */
+    public long failureCount() {
+        return failures;
+    }
+    
+    /**
+     * Get how far behind the clock the wheel was at its last advance
+     * 
+     * @return Lag (milliseconds), at least 0 once running
+     */
+    public long lagMillis() {
+        return lagMillis;
+    }
+    
+    /**
+     * Get the largest lag seen
+     * 
+     * @return Maximum lag (milliseconds)
+     */
+    public long maxLagMillis() {
+        return maxLagMillis;
+    }
+    
+    /**
+     * Get tick duration
+     * 
+     * @return Tick (milliseconds)
+     */
+    public long tickMillis() {
+        return tickMillis;
+    }
+    
+    /**
+     * Get clock the wheel reads time from
+     * 
+     * @return Clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+    
+    @Override
+    public String toString() {
+        return "TimingWheel{pending=" + pending.get() + ", expired=" + expired + ", lagMillis=" + lagMillis
+                + ", maxLagMillis=" + maxLagMillis + '}';
+    }
+    
+    private void run() {
+        long tickNanos = tickMillis * 1000000L;
+        while (worker == Thread.currentThread()) {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                // Clock failures must not kill the thread; retry on the next tick
+            }
+            LockSupport.parkNanos(this, tickNanos);
+        }
+    }
+    
+    /**
+     * Move queued additions into buckets and unlink cancelled timeouts
+     */
+    private void transfer() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state == Timeout.PENDING) {
+                place(timeout);
+            }
+        }
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.level >= 0) {
+                unlink(timeout);
+            }
+        }
+    }
+    
+    private void processTick(long tick) {
+        int index = (int) (tick & mask);
+        // Cascade each level whose lower neighbour has just completed a revolution
+        for (int level = 1; level < buckets.length && index == 0; level++) {
+            index = (int) ((tick >>> (bits * level)) & mask);
+            Timeout head = buckets[level][index];
+            buckets[level][index] = null;
+            while (head != null) {
+                Timeout next = head.next;
+                detach(head);
+                place(head);
+                head = next;
+            }
+        }
+        index = (int) (tick & mask);
+        Timeout head = buckets[0][index];
+        buckets[0][index] = null;
+        while (head != null) {
+            Timeout next = head.next;
+            detach(head);
+            if (head.deadlineTick > tick) {
+                place(head);
+            } else {
+                fire(head);
+            }
+            head = next;
+        }
+    }
+    
+    private void fire(Timeout timeout) {
+        if (!Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+            return;
+        }
+        pending.decrementAndGet();
+        expired++;
+        try {
+            timeout.task.run();
+        } catch (Throwable t) {
+            failures++;
+        }
+    }
+    
+    private void place(Timeout timeout) {
+        long base = currentTick;
+        long deadline = Math.max(timeout.deadlineTick, base);
+        long delta = deadline - base;
+        int level = 0;
+        while (level < buckets.length - 1 && delta >>> (bits * (level + 1)) != 0) {
+            level++;
+        }
+        if (delta >>> (bits * (level + 1)) != 0) {
+            // Beyond the top level: park in its furthest bucket, re-placed when cascaded
+            deadline = base + (1L << (bits * buckets.length)) - 1;
+        }
+        int index = (int) ((deadline >>> (bits * level)) & mask);
+        Timeout head = buckets[level][index];
+        timeout.next = head;
+        timeout.prev = null;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[level][index] = timeout;
+        timeout.level = level;
+        timeout.index = index;
+        linked++;
+    }
+    
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.level][timeout.index] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        detach(timeout);
+    }
+    
+    private void detach(Timeout timeout) {
+        timeout.next = null;
+        timeout.prev = null;
+        timeout.level = -1;
+        linked--;
+    }
+    
+    /**
+     * Handle of a scheduled callback
+     */
+    public static final class Timeout {
+        
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+        static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+        
+        private final TimingWheel wheel;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private final Runnable task;
+        volatile int state;
+        
+        /**
+         * Bucket links, owned by the advancing thread
+         */
+        Timeout prev;
+        Timeout next;
+        int level = -1;
+        int index;
+        
+        Timeout(TimingWheel wheel, long deadlineMillis, Runnable task) {
+            this.wheel = wheel;
+            this.deadlineMillis = deadlineMillis;
+            this.task = task;
+            // First tick whose start is at or after the deadline
+            this.deadlineTick = -Math.floorDiv(wheel.startMillis - deadlineMillis, wheel.tickMillis);
+        }
+        
+        /**
+         * Cancel the callback
+         * 
+         * @return Whether this call cancelled it; false if it already ran or was cancelled
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.pending.decrementAndGet();
+            wheel.cancelled.offer(this);
+            return true;
+        }
+        
+        /**
+         * Check whether the callback was cancelled
+         * 
+         * @return Whether cancelled
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+        
+        /**
+         * Check whether the callback has run
+         * 
+         * @return Whether expired
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+        
+        /**
+         * Get deadline
+         * 
+         * @return Deadline (epoch milliseconds)
+         */
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+    
+    /**
+     * Timing wheel builder
+     */
+    public static final class Builder {
+        
+        private Clock clock = Clock.systemUTC();
+        private long tickMillis = 100L;
+        private int wheelSize = 256;
+        private int levels = 4;
+        
+        private Builder() {
+        }
+        
+        /**
+         * Set clock deadlines are measured on (default {@link Clock#systemUTC()})
+         * 
+         * @param clock Clock, normally the SDK clock
+         * @return This builder
+         */
+        public Builder clock(Clock clock) {
+            if (clock == null) {
+                throw new IllegalArgumentException("Clock cannot be null");
+            }
+            this.clock = clock;
+            return this;
+        }
+        
+        /**
+         * Set tick duration, the expiry resolution (default 100 ms)
+         * 
+         * @param tickMillis Tick (milliseconds)
+         * @return This builder
+         */
+        public Builder tickMillis(long tickMillis) {
+            if (tickMillis <= 0) {
+                throw new IllegalArgumentException("Tick must be positive");
+            }
+            this.tickMillis = tickMillis;
+            return this;
+        }
+        
+        /**
+         * Set buckets per level, rounded up to a power of two (default 256)
+         * 
+         * @param wheelSize Buckets per level
+         * @return This builder
+         */
+        public Builder wheelSize(int wheelSize) {
+            if (wheelSize < 2 || wheelSize > 1 << 16) {
+                throw new IllegalArgumentException("Wheel size must be between 2 and 65536");
+            }
+            this.wheelSize = Integer.highestOneBit(wheelSize - 1) << 1;
+            return this;
+        }
+        
+        /**
+         * Set number of levels (default 4)
+         * 
+         * @param levels Levels
+         * @return This builder
+         */
+        public Builder levels(int levels) {
+            if (levels < 1 || levels > 8) {
+                throw new IllegalArgumentException("Levels must be between 1 and 8");
+            }
+            this.levels = levels;
+            return this;
+        }
+        
+        /**
+         * Build wheel; call {@link TimingWheel#start()} to advance it from a daemon thread
+         * 
+         * @return Wheel
+         * @throws IllegalStateException Levels and wheel size exceed a 62-bit tick range
+         */
+        public TimingWheel build() {
+            if (Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+                throw new IllegalStateException("Levels and wheel size exceed the tick range");
+            }
+            return new TimingWheel(this);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package tech.sud.auth.gip.auth.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Uid canonicalization cache
+ * Bounded, lock-free cache that hands out one String instance per uid, so repeat verifications
+ * of the same user return the same instance, whose hash is already computed, instead of a fresh
+ * copy. Text uids are looked up by their UTF-8 bytes and numeric uids by their primitive value,
+ * so a hit creates no String at all. Direct-mapped like {@link VerificationCache}: a newer uid
+ * replaces the older one in its slot.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class UidCache {
+    
+    /**
+     * Longest uid in UTF-8 bytes that is cached
+     */
+    static final int MAX_CACHED_LENGTH = 64;
+    
+    /**
+     * Text uid entry, immutable
+     */
+    private static final class TextEntry {
+        final byte[] bytes;
+        final String uid;
+        
+        TextEntry(byte[] bytes, String uid) {
+            this.bytes = bytes;
+            this.uid = uid;
+        }
+    }
+    
+    /**
+     * Numeric uid entry, immutable
+     */
+    private static final class NumberEntry {
+        final long value;
+        final String uid;
+        
+        NumberEntry(long value, String uid) {
+            this.value = value;
+            this.uid = uid;
+        }
+    }
+    
+    private final AtomicReferenceArray<TextEntry> texts;
+    private final AtomicReferenceArray<NumberEntry> numbers;
+    private final int mask;
+    
+    /**
+     * Constructor
+     * 
+     * @param capacity Maximum number of cached text uids and, separately, numeric uids, rounded
+     *                 up to a power of two
+     */
+    public UidCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        int size = Math.max(Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1, 1);
+        this.texts = new AtomicReferenceArray<>(size);
+        this.numbers = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Get capacity
+     * 
+     * @return Number of slots per uid kind
+     */
+    public int capacity() {
+        return texts.length();
+    }
+    
+    /**
+     * Get the canonical uid for UTF-8 bytes
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @return Uid string
+     */
+    public String canonicalize(byte[] buf, int off, int len) {
+        if (len > MAX_CACHED_LENGTH) {
+            return new String(buf, off, len, StandardCharsets.UTF_8);
+        }
+        int hash = 0;
+        for (int i = off; i < off + len; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        int index = (hash ^ (hash >>> 16)) & mask;
+        TextEntry entry = texts.get(index);
+        if (entry != null && equals(entry.bytes, buf, off, len)) {
+            return entry.uid;
+        }
+        byte[] bytes = new byte[len];
+        System.arraycopy(buf, off, bytes, 0, len);
+        String uid = new String(bytes, StandardCharsets.UTF_8);
+        uid.hashCode();
+        texts.set(index, new TextEntry(bytes, uid));
+        return uid;
+    }
+    
+    /**
+     * Get the canonical uid for a numeric uid
+     * 
+     * @param value Numeric uid
+     * @return Uid string (decimal)
+     */
+    public String canonicalize(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        int index = (int) (h >>> 32) & mask;
+        NumberEntry entry = numbers.get(index);
+        if (entry != null && entry.value == value) {
+            return entry.uid;
+        }
+        String uid = Long.toString(value);
+        uid.hashCode();
+        numbers.set(index, new NumberEntry(value, uid));
+        return uid;
+    }
+    
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        for (int i = 0; i < texts.length(); i++) {
+            texts.set(i, null);
+            numbers.set(i, null);
+        }
+    }
+    
+    private static boolean equals(byte[] cached, byte[] buf, int off, int len) {
+        if (cached.length != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (cached[i] != buf[off + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package tech.sud.auth.gip.auth.cache;
+
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Verification result cache
+ * Bounded, lock-free cache from token string to verified claims, for signing algorithms whose
+ * verification is expensive. Direct-mapped: each token hashes to one slot and a newer token
+ * replaces the older one. Hits compare the full token in constant time and re-check expiry,
+ * so a cached result is never served past the token's exp. With a {@link TimingWheel}, entries
+ * are also removed when their token expires, instead of lingering until overwritten.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class VerificationCache {
+    
+    /**
+     * Cache entry, immutable
+     */
+    private static final class Entry {
+        final String token;
+        final TokenClaims claims;
+        volatile TimingWheel.Timeout timeout;
+        
+        Entry(String token, TokenClaims claims) {
+            this.token = token;
+            this.claims = claims;
+        }
+    }
+    
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final TimingWheel wheel;
+    
+    /**
+     * Constructor
+     * 
+     * @param capacity Maximum number of cached tokens, rounded up to a power of two
+     */
+    public VerificationCache(int capacity) {
+        this(capacity, null);
+    }
+    
+    /**
+     * Constructor with expiry scheduling
+     * 
+     * @param capacity Maximum number of cached tokens, rounded up to a power of two
+     * @param wheel Wheel removing entries at their token's expiry, or null to only check on read
+     */
+    public VerificationCache(int capacity, TimingWheel wheel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        int size = Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = slots.length() - 1;
+        this.wheel = wheel;
+    }
+    
+    /**
+     * Get capacity
+     * 
+     * @return Number of slots
+     */
+    public int capacity() {
+        return slots.length();
+    }
+    
+    /**
+     * Look up verified claims
+     * 
+     * @param token Token
+     * @param nowSeconds Current time (epoch seconds)
+     * @return Claims, or null on miss or if the cached token has expired
+     */
+    public TokenClaims get(String token, long nowSeconds) {
+        int index = slot(token);
+        Entry entry = slots.get(index);
+        if (entry == null || !constantTimeEquals(entry.token, token)) {
+            return null;
+        }
+        long expireAt = entry.claims.getExpireAt();
+        if (expireAt != 0L && nowSeconds > expireAt) {
+            slots.compareAndSet(index, entry, null);
+            return null;
+        }
+        return entry.claims;
+    }
+    
+    /**
+     * Store verified claims
+     * 
+     * @param token Token
+     * @param claims Verified claims
+     */
+    public void put(String token, TokenClaims claims) {
+        int index = slot(token);
+        Entry entry = new Entry(token, claims);
+        if (wheel == null) {
+            slots.lazySet(index, entry);
+            return;
+        }
+        cancel(slots.getAndSet(index, entry));
+        long expireAt = claims.getExpireAt();
+        if (expireAt != 0L) {
+            // Valid through the second expireAt
+            entry.timeout = wheel.schedule((expireAt + 1L) * 1000L, () -> slots.compareAndSet(index, entry, null));
+        }
+    }
+    
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            cancel(slots.getAndSet(i, null));
+        }
+    }
+    
+    private static void cancel(Entry entry) {
+        TimingWheel.Timeout timeout = entry == null ? null : entry.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+    
+    private int slot(String token) {
+        int h = token.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    private static boolean constantTimeEquals(String a, String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < a.length(); i++) {
+            diff |= a.charAt(i) ^ b.charAt(i);
+        }
+        return diff == 0;
+    }
+}
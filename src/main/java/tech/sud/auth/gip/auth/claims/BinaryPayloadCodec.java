@@ -0,0 +1,282 @@
+package tech.sud.auth.gip.auth.claims;
+
+import tech.sud.auth.gip.auth.cache.UidCache;
+import tech.sud.auth.gip.auth.util.ByteArrayBuilder;
+import tech.sud.auth.gip.auth.util.JsonReader;
+import tech.sud.auth.gip.auth.util.JsonWriter;
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary token payload codec
+ * Fixed binary layout of the token payload used by the compact token format:
+ * 
+ * <pre>
+ * varint exp | varint iat | varint len, uid (UTF-8) | varint len, app_id (UTF-8)
+ * then per present custom claim: varint (index &lt;&lt; 2 | type), value
+ *   STRING: varint len, UTF-8 bytes; LONG: zigzag varint; BOOLEAN: one byte
+ * </pre>
+ * 
+ * Custom claims are identified by their schema index, so issuer and verifier must share the
+ * schema; claims with indices beyond the verifier's schema are skipped.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class BinaryPayloadCodec {
+    
+    private static final int TYPE_STRING = 0;
+    private static final int TYPE_LONG = 1;
+    private static final int TYPE_BOOLEAN = 2;
+    
+    private final ClaimSchema schema;
+    private final UidCache uidCache;
+    
+    /**
+     * Constructor
+     * 
+     * @param schema Custom claim schema
+     */
+    public BinaryPayloadCodec(ClaimSchema schema) {
+        this(schema, null);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param schema Custom claim schema
+     * @param uidCache Cache returning one String instance per decoded uid, or null
+     */
+    public BinaryPayloadCodec(ClaimSchema schema, UidCache uidCache) {
+        this.schema = schema == null ? ClaimSchema.EMPTY : schema;
+        this.uidCache = uidCache;
+    }
+    
+    /**
+     * Encode payload
+     * 
+     * @param out Destination
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims, must belong to this codec's schema
+     * @throws IllegalArgumentException Negative times or claims of a different schema
+     */
+    public void encode(ByteArrayBuilder out, String uid, String appId, long expireAt, long issuedAt, Claims claims) {
+        writeTimes(out, expireAt, issuedAt);
+        writeString(out, uid);
+        encodeRest(out, appId, claims);
+    }
+    
+    /**
+     * Encode payload with a numeric user ID
+     * The uid is stored as its decimal digits, so tokens read the same through either decode path.
+     * 
+     * @param out Destination
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims, must belong to this codec's schema
+     * @throws IllegalArgumentException Negative times or claims of a different schema
+     */
+    public void encode(ByteArrayBuilder out, long uid, String appId, long expireAt, long issuedAt, Claims claims) {
+        writeTimes(out, expireAt, issuedAt);
+        // At most 20 digits, so the length prefix is a single varint byte patched in afterwards
+        int lengthAt = out.length();
+        out.append(0);
+        JsonWriter.writeLong(out, uid);
+        out.array()[lengthAt] = (byte) (out.length() - lengthAt - 1);
+        encodeRest(out, appId, claims);
+    }
+    
+    private static void writeTimes(ByteArrayBuilder out, long expireAt, long issuedAt) {
+        if (expireAt < 0 || issuedAt < 0) {
+            throw new IllegalArgumentException("Token times cannot be negative");
+        }
+        writeVarint(out, expireAt);
+        writeVarint(out, issuedAt);
+    }
+    
+    private void encodeRest(ByteArrayBuilder out, String appId, Claims claims) {
+        writeString(out, appId);
+        if (claims == null || claims.isEmpty()) {
+            return;
+        }
+        if (claims.getSchema() != schema) {
+            throw new IllegalArgumentException("Claims do not belong to the registered claim schema");
+        }
+        for (int i = 0; i < schema.size(); i++) {
+            if (!claims.isPresent(i)) {
+                continue;
+            }
+            switch (schema.type(i)) {
+                case STRING:
+                    writeVarint(out, (long) i << 2 | TYPE_STRING);
+                    writeString(out, claims.stringAt(i));
+                    break;
+                case BOOLEAN:
+                    writeVarint(out, (long) i << 2 | TYPE_BOOLEAN);
+                    out.append(claims.numberAt(i) != 0L ? 1 : 0);
+                    break;
+                default:
+                    writeVarint(out, (long) i << 2 | TYPE_LONG);
+                    long v = claims.numberAt(i);
+                    writeVarint(out, (v << 1) ^ (v >> 63));
+            }
+        }
+    }
+    
+    /**
+     * Decode payload
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @return Decoded claims
+     * @throws IllegalArgumentException Malformed payload or claim of the wrong type
+     */
+    public TokenClaims decode(byte[] buf, int off, int len) {
+        return decode(buf, off, len, false);
+    }
+    
+    /**
+     * Decode payload
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @param longUid Whether to decode a uid of plain decimal digits to a primitive
+     *                (see {@link TokenClaims#hasLongUid()})
+     * @return Decoded claims
+     * @throws IllegalArgumentException Malformed payload or claim of the wrong type
+     */
+    public TokenClaims decode(byte[] buf, int off, int len, boolean longUid) {
+        int[] pos = ScratchArena.get().cursor();
+        pos[0] = off;
+        int end = off + len;
+        long expireAt = readVarint(buf, pos, end);
+        long issuedAt = readVarint(buf, pos, end);
+        String uid = null;
+        long uidValue = 0L;
+        boolean numeric = false;
+        if (uidCache == null && !longUid) {
+            uid = readString(buf, pos, end);
+        } else {
+            long uidLength = readVarint(buf, pos, end);
+            if (uidLength < 0L || uidLength > end - pos[0]) {
+                throw new IllegalArgumentException("Truncated payload");
+            }
+            int start = pos[0];
+            int length = (int) uidLength;
+            if (longUid && JsonReader.plainIntegerLength(buf, start, start + length) == length) {
+                uidValue = JsonReader.parsePlainInteger(buf, start, length);
+                numeric = true;
+            } else {
+                uid = uidCache != null ? uidCache.canonicalize(buf, start, length)
+                        : new String(buf, start, length, StandardCharsets.UTF_8);
+            }
+            pos[0] += length;
+        }
+        String appId = readString(buf, pos, end);
+        Claims.Builder claims = schema.size() == 0 ? null : new Claims.Builder(schema);
+        while (pos[0] < end) {
+            long key = readVarint(buf, pos, end);
+            int type = (int) (key & 3);
+            long index = key >>> 2;
+            boolean known = claims != null && index < schema.size();
+            if (known && typeOf(schema.type((int) index)) != type) {
+                throw new IllegalArgumentException("Claim " + schema.name((int) index) + " has the wrong type");
+            }
+            switch (type) {
+                case TYPE_STRING:
+                    String s = readString(buf, pos, end);
+                    if (known) {
+                        claims.setString((int) index, s);
+                    }
+                    break;
+                case TYPE_BOOLEAN:
+                    if (pos[0] >= end) {
+                        throw new IllegalArgumentException("Truncated payload");
+                    }
+                    int b = buf[pos[0]++];
+                    if (known) {
+                        claims.setNumber((int) index, b != 0 ? 1L : 0L);
+                    }
+                    break;
+                case TYPE_LONG:
+                    long z = readVarint(buf, pos, end);
+                    if (known) {
+                        claims.setNumber((int) index, (z >>> 1) ^ -(z & 1));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown claim type " + type);
+            }
+        }
+        Claims custom = claims == null ? Claims.NONE : claims.buildOwned();
+        return numeric ? new TokenClaims(uidValue, appId, expireAt, issuedAt, custom)
+                : new TokenClaims(uid, appId, expireAt, issuedAt, custom);
+    }
+    
+    private static int typeOf(ClaimType type) {
+        switch (type) {
+            case STRING:
+                return TYPE_STRING;
+            case BOOLEAN:
+                return TYPE_BOOLEAN;
+            default:
+                return TYPE_LONG;
+        }
+    }
+    
+    private static void writeString(ByteArrayBuilder out, String value) {
+        writeVarint(out, ByteArrayBuilder.utf8Length(value));
+        out.appendUtf8(value);
+    }
+    
+    private static String readString(byte[] buf, int[] pos, int end) {
+        long len = readVarint(buf, pos, end);
+        // Lengths of ten varint bytes wrap negative and must not reach the String constructor
+        if (len < 0L || len > end - pos[0]) {
+            throw new IllegalArgumentException("Truncated payload");
+        }
+        String value = new String(buf, pos[0], (int) len, StandardCharsets.UTF_8);
+        pos[0] += (int) len;
+        return value;
+    }
+    
+    /**
+     * Write unsigned LEB128 varint
+     * 
+     * @param out Destination
+     * @param value Value, treated as unsigned
+     */
+    static void writeVarint(ByteArrayBuilder out, long value) {
+        while ((value & ~0x7fL) != 0L) {
+            out.append((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.append((int) value);
+    }
+    
+    /**
+     * Read unsigned LEB128 varint
+     */
+    static long readVarint(byte[] buf, int[] pos, int end) {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= end) {
+                throw new IllegalArgumentException("Truncated payload");
+            }
+            byte b = buf[pos[0]++];
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+}
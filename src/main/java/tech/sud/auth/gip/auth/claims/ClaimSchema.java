@@ -0,0 +1,241 @@
+package tech.sud.auth.gip.auth.claims;
+
+import tech.sud.auth.gip.auth.util.ByteArrayBuilder;
+import tech.sud.auth.gip.auth.util.JsonWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Custom claim schema
+ * Declares the typed custom claims carried in tokens next to the standard uid, app_id, exp
+ * and iat claims. A schema is immutable and precomputes the encoded field names, so the
+ * {@link PayloadCodec} built from it encodes and decodes payloads without reflection or maps.
+ * 
+ * <pre>
+ * ClaimSchema schema = ClaimSchema.builder()
+ *         .stringClaim("region")
+ *         .longClaim("room_id")
+ *         .stringClaim("role")
+ *         .build();
+ * </pre>
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class ClaimSchema {
+    
+    /**
+     * Maximum number of custom claims per schema
+     */
+    public static final int MAX_CLAIMS = 64;
+    
+    /**
+     * Schema without custom claims
+     */
+    public static final ClaimSchema EMPTY = new ClaimSchema(new String[0], new ClaimType[0]);
+    
+    /**
+     * Claim names reserved for the standard claims
+     */
+    private static final Set<String> RESERVED_NAMES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("uid", "app_id", "exp", "iat")));
+    
+    private final String[] names;
+    private final ClaimType[] types;
+    
+    /**
+     * UTF-8 bytes of the unquoted claim names, for matching while decoding
+     */
+    private final byte[][] nameBytes;
+    
+    /**
+     * Encoded field prefixes ({@code ,"name":}), for encoding
+     */
+    private final byte[][] fieldPrefixes;
+    
+    private ClaimSchema(String[] names, ClaimType[] types) {
+        this.names = names;
+        this.types = types;
+        this.nameBytes = new byte[names.length][];
+        this.fieldPrefixes = new byte[names.length][];
+        ByteArrayBuilder out = new ByteArrayBuilder(32);
+        for (int i = 0; i < names.length; i++) {
+            nameBytes[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            out.reset().append(',');
+            JsonWriter.writeString(out, names[i]);
+            out.append(':');
+            fieldPrefixes[i] = out.toByteArray();
+        }
+    }
+    
+    /**
+     * Create schema builder
+     * 
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Create a claim value builder for this schema
+     * 
+     * @return Claim value builder
+     */
+    public Claims.Builder claims() {
+        return new Claims.Builder(this);
+    }
+    
+    /**
+     * Get number of custom claims
+     * 
+     * @return Number of claims
+     */
+    public int size() {
+        return names.length;
+    }
+    
+    /**
+     * Get claim name
+     * 
+     * @param index Claim index
+     * @return Claim name
+     */
+    public String name(int index) {
+        return names[index];
+    }
+    
+    /**
+     * Get claim type
+     * 
+     * @param index Claim index
+     * @return Claim type
+     */
+    public ClaimType type(int index) {
+        return types[index];
+    }
+    
+    /**
+     * Get claim index by name
+     * 
+     * @param name Claim name
+     * @return Claim index, or -1 if not declared
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    byte[] nameBytes(int index) {
+        return nameBytes[index];
+    }
+    
+    byte[] fieldPrefix(int index) {
+        return fieldPrefixes[index];
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ClaimSchema{");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(names[i]).append(':').append(types[i]);
+        }
+        return sb.append('}').toString();
+    }
+    
+    /**
+     * Claim schema builder
+     */
+    public static final class Builder {
+        
+        private final List<String> names = new ArrayList<>();
+        private final List<ClaimType> types = new ArrayList<>();
+        
+        private Builder() {
+        }
+        
+        /**
+         * Declare a string claim
+         * 
+         * @param name Claim name
+         * @return This builder
+         */
+        public Builder stringClaim(String name) {
+            return claim(name, ClaimType.STRING);
+        }
+        
+        /**
+         * Declare an integer claim
+         * 
+         * @param name Claim name
+         * @return This builder
+         */
+        public Builder longClaim(String name) {
+            return claim(name, ClaimType.LONG);
+        }
+        
+        /**
+         * Declare a boolean claim
+         * 
+         * @param name Claim name
+         * @return This builder
+         */
+        public Builder booleanClaim(String name) {
+            return claim(name, ClaimType.BOOLEAN);
+        }
+        
+        /**
+         * Declare a claim
+         * 
+         * @param name Claim name
+         * @param type Claim type
+         * @return This builder
+         * @throws IllegalArgumentException Invalid, reserved or duplicate name, or too many claims
+         */
+        public Builder claim(String name, ClaimType type) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Claim name cannot be null or empty");
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("Claim type cannot be null");
+            }
+            if (RESERVED_NAMES.contains(name)) {
+                throw new IllegalArgumentException("Claim name is reserved: " + name);
+            }
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate claim name: " + name);
+            }
+            if (names.size() == MAX_CLAIMS) {
+                throw new IllegalArgumentException("A schema supports at most " + MAX_CLAIMS + " claims");
+            }
+            names.add(name);
+            types.add(type);
+            return this;
+        }
+        
+        /**
+         * Build the schema
+         * 
+         * @return Immutable schema
+         */
+        public ClaimSchema build() {
+            if (names.isEmpty()) {
+                return EMPTY;
+            }
+            return new ClaimSchema(names.toArray(new String[0]), types.toArray(new ClaimType[0]));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package tech.sud.auth.gip.auth.claims;
+
+/**
+ * Custom claim value types
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public enum ClaimType {
+    
+    /**
+     * JSON string, read as {@link String}
+     */
+    STRING,
+    
+    /**
+     * JSON integer, read as primitive long
+     */
+    LONG,
+    
+    /**
+     * JSON boolean, read as primitive boolean
+     */
+    BOOLEAN
+}
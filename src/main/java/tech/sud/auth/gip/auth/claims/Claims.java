@@ -0,0 +1,258 @@
+package tech.sud.auth.gip.auth.claims;
+
+/**
+ * Custom claim values
+ * Immutable set of values for the claims of a {@link ClaimSchema}. Integer and boolean
+ * values are held as primitives, absent claims are tracked in a bit mask.
+ * 
+ * <pre>
+ * Claims claims = schema.claims()
+ *         .set("region", "eu-west")
+ *         .set("room_id", 42L)
+ *         .build();
+ * </pre>
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class Claims {
+    
+    /**
+     * Empty claims of the empty schema
+     */
+    public static final Claims NONE = new Claims(ClaimSchema.EMPTY, new String[0], new long[0], 0L);
+    
+    private final ClaimSchema schema;
+    private final String[] strings;
+    private final long[] numbers;
+    private final long presentMask;
+    
+    Claims(ClaimSchema schema, String[] strings, long[] numbers, long presentMask) {
+        this.schema = schema;
+        this.strings = strings;
+        this.numbers = numbers;
+        this.presentMask = presentMask;
+    }
+    
+    /**
+     * Get schema of these claims
+     * 
+     * @return Schema
+     */
+    public ClaimSchema getSchema() {
+        return schema;
+    }
+    
+    /**
+     * Check whether no claim is present
+     * 
+     * @return Whether empty
+     */
+    public boolean isEmpty() {
+        return presentMask == 0L;
+    }
+    
+    /**
+     * Check whether a claim is present
+     * 
+     * @param name Claim name
+     * @return Whether present
+     */
+    public boolean has(String name) {
+        int index = schema.indexOf(name);
+        return index >= 0 && isPresent(index);
+    }
+    
+    /**
+     * Get string claim
+     * 
+     * @param name Claim name
+     * @return Value, or null if absent
+     * @throws IllegalArgumentException Undeclared claim or type mismatch
+     */
+    public String getString(String name) {
+        int index = indexOf(name, ClaimType.STRING);
+        return strings[index];
+    }
+    
+    /**
+     * Get integer claim
+     * 
+     * @param name Claim name
+     * @param defaultValue Value returned when the claim is absent
+     * @return Value
+     * @throws IllegalArgumentException Undeclared claim or type mismatch
+     */
+    public long getLong(String name, long defaultValue) {
+        int index = indexOf(name, ClaimType.LONG);
+        return isPresent(index) ? numbers[index] : defaultValue;
+    }
+    
+    /**
+     * Get boolean claim
+     * 
+     * @param name Claim name
+     * @param defaultValue Value returned when the claim is absent
+     * @return Value
+     * @throws IllegalArgumentException Undeclared claim or type mismatch
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        int index = indexOf(name, ClaimType.BOOLEAN);
+        return isPresent(index) ? numbers[index] != 0L : defaultValue;
+    }
+    
+    boolean isPresent(int index) {
+        return (presentMask & (1L << index)) != 0L;
+    }
+    
+    String stringAt(int index) {
+        return strings[index];
+    }
+    
+    long numberAt(int index) {
+        return numbers[index];
+    }
+    
+    private int indexOf(String name, ClaimType type) {
+        int index = schema.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Claim not declared in schema: " + name);
+        }
+        if (schema.type(index) != type) {
+            throw new IllegalArgumentException("Claim " + name + " is of type " + schema.type(index));
+        }
+        return index;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Claims{");
+        boolean first = true;
+        for (int i = 0; i < schema.size(); i++) {
+            if (!isPresent(i)) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(schema.name(i)).append('=');
+            switch (schema.type(i)) {
+                case STRING:
+                    sb.append('\'').append(strings[i]).append('\'');
+                    break;
+                case BOOLEAN:
+                    sb.append(numbers[i] != 0L);
+                    break;
+                default:
+                    sb.append(numbers[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+    
+    /**
+     * Claim value builder, also used by {@link PayloadCodec} while decoding
+     */
+    public static final class Builder {
+        
+        private final ClaimSchema schema;
+        private final String[] strings;
+        private final long[] numbers;
+        private long presentMask;
+        
+        Builder(ClaimSchema schema) {
+            this.schema = schema;
+            this.strings = new String[schema.size()];
+            this.numbers = new long[schema.size()];
+        }
+        
+        /**
+         * Set string claim
+         * 
+         * @param name Claim name
+         * @param value Value, null removes the claim
+         * @return This builder
+         * @throws IllegalArgumentException Undeclared claim or type mismatch
+         */
+        public Builder set(String name, String value) {
+            int index = indexOf(name, ClaimType.STRING);
+            strings[index] = value;
+            if (value == null) {
+                presentMask &= ~(1L << index);
+            } else {
+                presentMask |= 1L << index;
+            }
+            return this;
+        }
+        
+        /**
+         * Set integer claim
+         * 
+         * @param name Claim name
+         * @param value Value
+         * @return This builder
+         * @throws IllegalArgumentException Undeclared claim or type mismatch
+         */
+        public Builder set(String name, long value) {
+            setNumber(indexOf(name, ClaimType.LONG), value);
+            return this;
+        }
+        
+        /**
+         * Set boolean claim
+         * 
+         * @param name Claim name
+         * @param value Value
+         * @return This builder
+         * @throws IllegalArgumentException Undeclared claim or type mismatch
+         */
+        public Builder set(String name, boolean value) {
+            setNumber(indexOf(name, ClaimType.BOOLEAN), value ? 1L : 0L);
+            return this;
+        }
+        
+        /**
+         * Build immutable claims
+         * 
+         * @return Claims
+         */
+        public Claims build() {
+            if (schema.size() == 0) {
+                return NONE;
+            }
+            return new Claims(schema, strings.clone(), numbers.clone(), presentMask);
+        }
+        
+        void setString(int index, String value) {
+            strings[index] = value;
+            presentMask |= 1L << index;
+        }
+        
+        void setNumber(int index, long value) {
+            numbers[index] = value;
+            presentMask |= 1L << index;
+        }
+        
+        /**
+         * Build without copying, for builders that are not reused
+         */
+        Claims buildOwned() {
+            if (schema.size() == 0) {
+                return NONE;
+            }
+            return new Claims(schema, strings, numbers, presentMask);
+        }
+        
+        private int indexOf(String name, ClaimType type) {
+            int index = schema.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Claim not declared in schema: " + name);
+            }
+            if (schema.type(index) != type) {
+                throw new IllegalArgumentException("Claim " + name + " is of type " + schema.type(index));
+            }
+            return index;
+        }
+    }
+}
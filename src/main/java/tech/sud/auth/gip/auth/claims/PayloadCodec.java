@@ -0,0 +1,247 @@
+package tech.sud.auth.gip.auth.claims;
+
+import tech.sud.auth.gip.auth.cache.UidCache;
+import tech.sud.auth.gip.auth.util.ByteArrayBuilder;
+import tech.sud.auth.gip.auth.util.JsonReader;
+import tech.sud.auth.gip.auth.util.ScratchArena;
+import tech.sud.auth.gip.auth.util.JsonWriter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Token payload codec
+ * Encodes and decodes the JSON token payload for one {@link ClaimSchema}. Field names are
+ * pre-encoded by the schema, so encoding is a sequence of byte copies and value writes, and
+ * decoding matches field names by bytes and stores values straight into typed slots.
+ * Unknown fields are skipped, so tokens carrying claims outside the schema still verify.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class PayloadCodec {
+    
+    private static final byte[] UID_PREFIX = "{\"uid\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] APP_ID_PREFIX = ",\"app_id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_PREFIX = ",\"exp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IAT_PREFIX = ",\"iat\":".getBytes(StandardCharsets.US_ASCII);
+    
+    private static final byte[] UID = "uid".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] APP_ID = "app_id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP = "exp".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IAT = "iat".getBytes(StandardCharsets.US_ASCII);
+    
+    private final ClaimSchema schema;
+    private final UidCache uidCache;
+    
+    /**
+     * Constructor
+     * 
+     * @param schema Custom claim schema
+     */
+    public PayloadCodec(ClaimSchema schema) {
+        this(schema, null);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param schema Custom claim schema
+     * @param uidCache Cache returning one String instance per decoded uid, or null
+     */
+    public PayloadCodec(ClaimSchema schema, UidCache uidCache) {
+        this.schema = schema == null ? ClaimSchema.EMPTY : schema;
+        this.uidCache = uidCache;
+    }
+    
+    /**
+     * Get schema of this codec
+     * 
+     * @return Schema
+     */
+    public ClaimSchema getSchema() {
+        return schema;
+    }
+    
+    /**
+     * Encode payload JSON
+     * 
+     * @param out Destination
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims, must belong to this codec's schema
+     * @throws IllegalArgumentException Claims of a different schema
+     */
+    public void encode(ByteArrayBuilder out, String uid, String appId, long expireAt, long issuedAt, Claims claims) {
+        out.append(UID_PREFIX);
+        JsonWriter.writeString(out, uid);
+        encodeRest(out, appId, expireAt, issuedAt, claims);
+    }
+    
+    /**
+     * Encode payload JSON with a numeric user ID, written as a JSON number
+     * 
+     * @param out Destination
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims, must belong to this codec's schema
+     * @throws IllegalArgumentException Claims of a different schema
+     */
+    public void encode(ByteArrayBuilder out, long uid, String appId, long expireAt, long issuedAt, Claims claims) {
+        out.append(UID_PREFIX);
+        JsonWriter.writeLong(out, uid);
+        encodeRest(out, appId, expireAt, issuedAt, claims);
+    }
+    
+    private void encodeRest(ByteArrayBuilder out, String appId, long expireAt, long issuedAt, Claims claims) {
+        out.append(APP_ID_PREFIX);
+        JsonWriter.writeString(out, appId);
+        out.append(EXP_PREFIX);
+        JsonWriter.writeLong(out, expireAt);
+        out.append(IAT_PREFIX);
+        JsonWriter.writeLong(out, issuedAt);
+        if (claims != null && !claims.isEmpty()) {
+            if (claims.getSchema() != schema) {
+                throw new IllegalArgumentException("Claims do not belong to the registered claim schema");
+            }
+            for (int i = 0; i < schema.size(); i++) {
+                if (!claims.isPresent(i)) {
+                    continue;
+                }
+                out.append(schema.fieldPrefix(i));
+                switch (schema.type(i)) {
+                    case STRING:
+                        JsonWriter.writeString(out, claims.stringAt(i));
+                        break;
+                    case BOOLEAN:
+                        JsonWriter.writeBoolean(out, claims.numberAt(i) != 0L);
+                        break;
+                    default:
+                        JsonWriter.writeLong(out, claims.numberAt(i));
+                }
+            }
+        }
+        out.append('}');
+    }
+    
+    /**
+     * Decode payload JSON
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @return Decoded claims
+     * @throws IllegalArgumentException Malformed payload or claim of the wrong type
+     */
+    public TokenClaims decode(byte[] buf, int off, int len) {
+        return decode(buf, off, len, false);
+    }
+    
+    /**
+     * Decode payload JSON
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @param longUid Whether to decode a uid that is a plain integer, as a JSON number or a string
+     *                of digits, to a primitive (see {@link TokenClaims#hasLongUid()})
+     * @return Decoded claims
+     * @throws IllegalArgumentException Malformed payload or claim of the wrong type
+     */
+    public TokenClaims decode(byte[] buf, int off, int len, boolean longUid) {
+        JsonReader reader = ScratchArena.get().reader(buf, off, len);
+        String uid = null;
+        long uidValue = 0L;
+        boolean numeric = false;
+        String appId = null;
+        long expireAt = 0L;
+        long issuedAt = 0L;
+        Claims.Builder claims = schema.size() == 0 ? null : new Claims.Builder(schema);
+        
+        reader.beginObject();
+        while (reader.nextField()) {
+            if (reader.nameEquals(UID)) {
+                numeric = false;
+                uid = null;
+                if (!longUid) {
+                    uid = readUid(reader);
+                } else if (reader.isNumber()) {
+                    if (reader.isPlainInteger()) {
+                        uidValue = reader.readLong();
+                        numeric = true;
+                    } else {
+                        uid = reader.readNumberLiteral();
+                    }
+                } else {
+                    int length = reader.readPlainString();
+                    int start = reader.valueStart();
+                    if (length < 0) {
+                        uid = reader.readString();
+                    } else if (JsonReader.plainIntegerLength(reader.buffer(), start, start + length) == length) {
+                        uidValue = JsonReader.parsePlainInteger(reader.buffer(), start, length);
+                        numeric = true;
+                    } else {
+                        uid = uidCache != null ? uidCache.canonicalize(reader.buffer(), start, length)
+                                : new String(reader.buffer(), start, length, StandardCharsets.UTF_8);
+                    }
+                }
+            } else if (reader.nameEquals(APP_ID)) {
+                appId = reader.readNull() ? null : reader.readString();
+            } else if (reader.nameEquals(EXP)) {
+                expireAt = reader.readLong();
+            } else if (reader.nameEquals(IAT)) {
+                issuedAt = reader.readLong();
+            } else if (claims == null || !decodeCustom(reader, claims)) {
+                reader.skipValue();
+            }
+        }
+        reader.endDocument();
+        Claims custom = claims == null ? Claims.NONE : claims.buildOwned();
+        return numeric ? new TokenClaims(uidValue, appId, expireAt, issuedAt, custom)
+                : new TokenClaims(uid, appId, expireAt, issuedAt, custom);
+    }
+    
+    /**
+     * Read the uid, a JSON string or number; with a cache, plain strings and integers are looked
+     * up without creating a String
+     */
+    private String readUid(JsonReader reader) {
+        if (reader.isNumber()) {
+            return uidCache != null && reader.isPlainInteger()
+                    ? uidCache.canonicalize(reader.readLong()) : reader.readNumberLiteral();
+        }
+        if (uidCache != null) {
+            int length = reader.readPlainString();
+            if (length >= 0) {
+                return uidCache.canonicalize(reader.buffer(), reader.valueStart(), length);
+            }
+        }
+        return reader.readString();
+    }
+    
+    private boolean decodeCustom(JsonReader reader, Claims.Builder claims) {
+        for (int i = 0; i < schema.size(); i++) {
+            if (!reader.nameEquals(schema.nameBytes(i))) {
+                continue;
+            }
+            if (reader.readNull()) {
+                return true;
+            }
+            switch (schema.type(i)) {
+                case STRING:
+                    claims.setString(i, reader.readString());
+                    break;
+                case BOOLEAN:
+                    claims.setNumber(i, reader.readBoolean() ? 1L : 0L);
+                    break;
+                default:
+                    claims.setNumber(i, reader.readLong());
+            }
+            return true;
+        }
+        return false;
+    }
+}
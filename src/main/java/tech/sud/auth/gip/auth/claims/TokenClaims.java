@@ -0,0 +1,153 @@
+package tech.sud.auth.gip.auth.claims;
+
+/**
+ * Verified token claims
+ * Typed result of token verification: the standard claims plus the custom claims
+ * declared by the verifier's {@link ClaimSchema}.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class TokenClaims {
+    
+    private String uid;
+    private final long longUid;
+    private final boolean hasLongUid;
+    private final String appId;
+    private final long expireAt;
+    private final long issuedAt;
+    private final Claims claims;
+    
+    /**
+     * Constructor
+     * 
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims
+     */
+    public TokenClaims(String uid, String appId, long expireAt, long issuedAt, Claims claims) {
+        this.uid = uid;
+        this.longUid = 0L;
+        this.hasLongUid = false;
+        this.appId = appId;
+        this.expireAt = expireAt;
+        this.issuedAt = issuedAt;
+        this.claims = claims == null ? Claims.NONE : claims;
+    }
+    
+    /**
+     * Constructor for a numeric user ID
+     * The decimal String form is only created if {@link #getUid()} is called.
+     * 
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims
+     */
+    public TokenClaims(long uid, String appId, long expireAt, long issuedAt, Claims claims) {
+        this.uid = null;
+        this.longUid = uid;
+        this.hasLongUid = true;
+        this.appId = appId;
+        this.expireAt = expireAt;
+        this.issuedAt = issuedAt;
+        this.claims = claims == null ? Claims.NONE : claims;
+    }
+    
+    /**
+     * Get user ID
+     * 
+     * @return User ID
+     */
+    public String getUid() {
+        String value = uid;
+        if (value == null && hasLongUid) {
+            // Benign race: every thread computes the same immutable String
+            value = Long.toString(longUid);
+            uid = value;
+        }
+        return value;
+    }
+    
+    /**
+     * Check whether the token carries a user ID
+     * 
+     * @return Whether a user ID is present
+     */
+    public boolean hasUid() {
+        return hasLongUid || uid != null;
+    }
+    
+    /**
+     * Check whether the user ID was decoded as a primitive long
+     * Only decoding with {@code decodeLongUid} produces such claims.
+     * 
+     * @return Whether {@link #getLongUid()} holds the user ID
+     */
+    public boolean hasLongUid() {
+        return hasLongUid;
+    }
+    
+    /**
+     * Get numeric user ID
+     * 
+     * @return User ID
+     * @throws IllegalStateException User ID was not decoded as a long
+     */
+    public long getLongUid() {
+        if (!hasLongUid) {
+            throw new IllegalStateException("User ID is not numeric");
+        }
+        return longUid;
+    }
+    
+    /**
+     * Get application ID
+     * 
+     * @return Application ID, or null if the token carries none
+     */
+    public String getAppId() {
+        return appId;
+    }
+    
+    /**
+     * Get expiration time
+     * 
+     * @return Expiration time (epoch seconds, 0 if the token carries none)
+     */
+    public long getExpireAt() {
+        return expireAt;
+    }
+    
+    /**
+     * Get issue time
+     * 
+     * @return Issue time (epoch seconds, 0 if the token carries none)
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+    
+    /**
+     * Get custom claims
+     * 
+     * @return Custom claims, never null
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+    
+    @Override
+    public String toString() {
+        return "TokenClaims{" +
+                "uid='" + getUid() + '\'' +
+                ", appId='" + appId + '\'' +
+                ", expireAt=" + expireAt +
+                ", issuedAt=" + issuedAt +
+                ", claims=" + claims +
+                '}';
+    }
+}
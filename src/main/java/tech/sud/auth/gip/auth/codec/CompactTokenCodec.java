@@ -0,0 +1,294 @@
+package tech.sud.auth.gip.auth.codec;
+
+import tech.sud.auth.gip.auth.cache.UidCache;
+import tech.sud.auth.gip.auth.claims.BinaryPayloadCodec;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.crypto.TokenSigner;
+import tech.sud.auth.gip.auth.exception.TokenGenerationException;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+import tech.sud.auth.gip.auth.util.Base64Url;
+import tech.sud.auth.gip.auth.util.ByteArrayBuilder;
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Compact binary token codec
+ * Token format for hops between services that all run this SDK. The token is the base64url
+ * encoding (once) of:
+ * 
+ * <pre>
+ * byte    kind &lt;&lt; 6 | version &lt;&lt; 4 | alg &lt;&lt; 1 | truncated
+ *                                     (kind: {@link TokenKind#getCompactBits()}, 0 untyped;
+ *                                     alg: {@link tech.sud.auth.gip.auth.crypto.SigningAlgorithm#getId()})
+ * byte    kid                         (key ID, lets verifiers reject foreign keys before the MAC)
+ * bytes   payload                     (see {@link BinaryPayloadCodec})
+ * bytes   tag                         (signature of all preceding bytes; for HMAC 32 bytes or the first 16)
+ * </pre>
+ * 
+ * A typical SSToken is well under half the size of the equivalent JWT and needs no JSON or
+ * hex work. Both HMAC tag lengths are verified; the configured one is what gets issued.
+ * The kind bits are the top bits of the first base64url character, so {@link #kindOf(String)}
+ * reads the kind from that one character; untyped tokens keep their original bytes.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class CompactTokenCodec implements TokenCodec {
+    
+    /**
+     * Layout version
+     */
+    private static final int VERSION = 1;
+    
+    /**
+     * Flag: tag truncated to 16 bytes
+     */
+    private static final int FLAG_TRUNCATED_TAG = 0x01;
+    
+    /**
+     * Mask of the version after shifting out algorithm and flags
+     */
+    private static final int VERSION_MASK = 0x03;
+    
+    /**
+     * Shift of the kind bits
+     */
+    private static final int KIND_SHIFT = 6;
+    
+    /**
+     * Mask of the algorithm ID after shifting out the truncation flag
+     */
+    private static final int ALGORITHM_MASK = 0x07;
+    
+    /**
+     * Truncated tag length
+     */
+    private static final int TRUNCATED_TAG_LENGTH = 16;
+    
+    /**
+     * Header length (version/flags and kid)
+     */
+    private static final int HEADER_LENGTH = 2;
+    
+    private final TokenSigner signer;
+    private final BinaryPayloadCodec payloadCodec;
+    private final ClaimSchema schema;
+    private final int keyId;
+    private final boolean truncatedTag;
+    
+    /**
+     * Constructor (key ID 0, full tag)
+     * 
+     * @param secret Application secret
+     * @param schema Custom claim schema
+     */
+    public CompactTokenCodec(String secret, ClaimSchema schema) {
+        this(secret, schema, 0, false);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param secret Application secret
+     * @param schema Custom claim schema
+     * @param keyId Key ID (0-255) written into issued tokens and required on verification
+     * @param truncatedTag Whether to issue 16-byte instead of 32-byte tags
+     * @throws IllegalArgumentException Key ID out of range
+     */
+    public CompactTokenCodec(String secret, ClaimSchema schema, int keyId, boolean truncatedTag) {
+        this(new HmacSigner(secret), schema, keyId, truncatedTag);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param signer Token signer
+     * @param schema Custom claim schema
+     * @param keyId Key ID (0-255) written into issued tokens and required on verification
+     * @param truncatedTag Whether to issue 16-byte instead of 32-byte tags
+     * @throws IllegalArgumentException Key ID out of range, or truncation requested for an asymmetric signer
+     */
+    public CompactTokenCodec(TokenSigner signer, ClaimSchema schema, int keyId, boolean truncatedTag) {
+        this(signer, schema, keyId, truncatedTag, null);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param signer Token signer
+     * @param schema Custom claim schema
+     * @param keyId Key ID (0-255) written into issued tokens and required on verification
+     * @param truncatedTag Whether to issue 16-byte tags instead of full 32-byte HMAC tags
+     * @param uidCache Cache returning one String instance per verified uid, or null
+     */
+    public CompactTokenCodec(TokenSigner signer, ClaimSchema schema, int keyId, boolean truncatedTag,
+                             UidCache uidCache) {
+        if (keyId < 0 || keyId > 0xff) {
+            throw new IllegalArgumentException("Key ID must be between 0 and 255");
+        }
+        if (truncatedTag && signer.getAlgorithm().isAsymmetric()) {
+            throw new IllegalArgumentException("Only HMAC tags can be truncated");
+        }
+        this.signer = signer;
+        this.schema = schema == null ? ClaimSchema.EMPTY : schema;
+        this.payloadCodec = new BinaryPayloadCodec(this.schema, uidCache);
+        this.keyId = keyId;
+        this.truncatedTag = truncatedTag;
+    }
+    
+    @Override
+    public TokenFormat getFormat() {
+        return TokenFormat.COMPACT;
+    }
+    
+    @Override
+    public ClaimSchema getSchema() {
+        return schema;
+    }
+    
+    /**
+     * Get key ID
+     * 
+     * @return Key ID
+     */
+    public int getKeyId() {
+        return keyId;
+    }
+    
+    @Override
+    public String encode(String uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(null, uid, 0L, false, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public String encode(long uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(null, null, uid, true, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public String encode(TokenKind kind, String uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(kind, uid, 0L, false, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public String encode(TokenKind kind, long uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(kind, null, uid, true, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public TokenKind kindOf(String token) {
+        // The first character holds the top 6 bits of the version byte: kind, version, alg
+        int bits = Base64Url.valueOf(token.charAt(0));
+        if (bits < 0 || (bits >>> 2 & VERSION_MASK) != VERSION) {
+            return null;
+        }
+        return TokenKind.ofCompactBits(bits >>> 4);
+    }
+    
+    private String encode(TokenKind kind, String uid, long longUid, boolean numeric, String appId, long expireAt,
+                          long issuedAt, Claims claims) throws TokenGenerationException {
+        if (!signer.canSign()) {
+            throw new TokenGenerationException("Signer holds no private key, tokens can only be verified");
+        }
+        try {
+            ScratchArena arena = ScratchArena.get();
+            ByteArrayBuilder bytes = arena.payload();
+            bytes.append((kind == null ? 0 : kind.getCompactBits() << KIND_SHIFT) | VERSION << 4
+                    | signer.getAlgorithm().getId() << 1 | (truncatedTag ? FLAG_TRUNCATED_TAG : 0));
+            bytes.append(keyId);
+            if (numeric) {
+                payloadCodec.encode(bytes, longUid, appId, expireAt, issuedAt, claims);
+            } else {
+                payloadCodec.encode(bytes, uid, appId, expireAt, issuedAt, claims);
+            }
+            
+            byte[] tag = arena.mac();
+            int tagLength = signer.sign(bytes.array(), 0, bytes.length(), tag, 0);
+            bytes.append(tag, 0, truncatedTag ? TRUNCATED_TAG_LENGTH : tagLength);
+            
+            ByteArrayBuilder token = arena.token();
+            Base64Url.encode(bytes.array(), 0, bytes.length(), token);
+            return token.toAsciiString();
+            
+        } catch (IllegalArgumentException e) {
+            throw new TokenGenerationException(e.getMessage(), e);
+        } catch (GeneralSecurityException e) {
+            throw new TokenGenerationException("Failed to generate token tag", e);
+        }
+    }
+    
+    @Override
+    public TokenClaims decode(String token, long nowSeconds) throws TokenValidationException {
+        return decode(token, nowSeconds, false);
+    }
+    
+    @Override
+    public TokenClaims decodeLongUid(String token, long nowSeconds) throws TokenValidationException {
+        return decode(token, nowSeconds, true);
+    }
+    
+    private TokenClaims decode(String token, long nowSeconds, boolean longUid) throws TokenValidationException {
+        if (token == null || token.isEmpty()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token is null or empty");
+        }
+        byte[] bytes = ScratchArena.get().input(Base64Url.decodedLength(token.length()));
+        int length = Base64Url.decode(token, 0, token.length(), bytes, 0);
+        if (length < HEADER_LENGTH) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Invalid compact token format");
+        }
+        int versionAndFlags = bytes[0] & 0xff;
+        if ((versionAndFlags >>> 4 & VERSION_MASK) != VERSION) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Unsupported compact token version");
+        }
+        int kindBits = versionAndFlags >>> KIND_SHIFT;
+        if (kindBits != 0 && TokenKind.ofCompactBits(kindBits) == null) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Unknown token kind");
+        }
+        if ((versionAndFlags >>> 1 & ALGORITHM_MASK) != signer.getAlgorithm().getId()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Unexpected signing algorithm");
+        }
+        if ((bytes[1] & 0xff) != keyId) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Unknown key ID");
+        }
+        int tagLength = (versionAndFlags & FLAG_TRUNCATED_TAG) != 0 ? TRUNCATED_TAG_LENGTH
+                : signer.getAlgorithm().getSignatureLength();
+        int signedLength = length - tagLength;
+        if (signedLength < HEADER_LENGTH) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Invalid compact token format");
+        }
+        
+        // Verify tag
+        boolean valid;
+        try {
+            valid = signer.verify(bytes, 0, signedLength, bytes, signedLength, tagLength);
+        } catch (GeneralSecurityException e) {
+            throw new TokenValidationException(ErrorCode.TOKEN_VERIFICATION_FAILED,
+                    "Failed to verify token tag", e);
+        }
+        if (!valid) {
+            throw new TokenValidationException(ErrorCode.SIGNATURE_INVALID, "Invalid token signature");
+        }
+        
+        // Decode payload
+        TokenClaims claims;
+        try {
+            claims = payloadCodec.decode(bytes, HEADER_LENGTH, signedLength - HEADER_LENGTH, longUid);
+        } catch (IllegalArgumentException e) {
+            throw new TokenValidationException(ErrorCode.TOKEN_DECODING_FAILED,
+                    "Failed to decode token payload", e);
+        }
+        if (claims.getExpireAt() != 0L && nowSeconds > claims.getExpireAt()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_EXPIRED, "Token has expired");
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,378 @@
+package tech.sud.auth.gip.auth.codec;
+
+import tech.sud.auth.gip.auth.cache.UidCache;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.PayloadCodec;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.crypto.TokenSigner;
+import tech.sud.auth.gip.auth.exception.TokenGenerationException;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+import tech.sud.auth.gip.auth.util.Base64Url;
+import tech.sud.auth.gip.auth.util.ByteArrayBuilder;
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * JWT token codec
+ * Issues and verifies JWTs for one signer and claim schema. Encodes the payload through the
+ * schema's precompiled {@link PayloadCodec} instead of a Map and ObjectMapper, and returns
+ * typed {@link TokenClaims}.
+ * 
+ * With an HMAC signer, issued signatures use the configured {@link SignatureFormat}
+ * ({@link SignatureFormat#HEX} matches {@link tech.sud.auth.gip.auth.util.CryptoUtils#generateJWT})
+ * and both formats are verified. With an asymmetric signer, signatures are standard JWS and
+ * the header must name the signer's algorithm. Signatures are checked by a
+ * {@link SignatureVerifier}.
+ * 
+ * Tokens of a {@link TokenKind} carry {@code "typ":"code+jwt"} or {@code "typ":"sstoken+jwt"}
+ * instead of {@code "typ":"JWT"}; the header segments are precomputed and
+ * {@link #kindOf(String)} tells them apart by one character.
+ * 
+ * All intermediate bytes live in the calling thread's {@link ScratchArena}; issuing allocates
+ * only the token string and verifying only the returned claims.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class JwtTokenCodec implements TokenCodec {
+    
+    /**
+     * Lowercase hexadecimal digits
+     */
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    
+    private static final TokenKind[] KINDS = TokenKind.values();
+    
+    private final TokenSigner signer;
+    private final SignatureVerifier verifier;
+    private final PayloadCodec payloadCodec;
+    private final SignatureFormat signatureFormat;
+    
+    /**
+     * Encoded JWT header segments including the trailing separator: untyped, then one per
+     * {@link TokenKind} at its ordinal + 1
+     */
+    private final byte[][] headerSegments;
+    
+    /**
+     * Position of the first character at which all header segments differ
+     */
+    private final int kindIndex;
+    
+    /**
+     * Constructor (HMAC, issuing {@link SignatureFormat#HEX} signatures)
+     * 
+     * @param secret Application secret
+     * @param schema Custom claim schema
+     */
+    public JwtTokenCodec(String secret, ClaimSchema schema) {
+        this(new HmacSigner(secret), schema, SignatureFormat.HEX);
+    }
+    
+    /**
+     * Constructor (HMAC)
+     * 
+     * @param secret Application secret
+     * @param schema Custom claim schema
+     * @param signatureFormat Format of issued signatures
+     */
+    public JwtTokenCodec(String secret, ClaimSchema schema, SignatureFormat signatureFormat) {
+        this(new HmacSigner(secret), schema, signatureFormat);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param signer Token signer
+     * @param schema Custom claim schema
+     * @param signatureFormat Format of issued HMAC signatures, ignored for asymmetric signers
+     */
+    public JwtTokenCodec(TokenSigner signer, ClaimSchema schema, SignatureFormat signatureFormat) {
+        this(signer, schema, signatureFormat, null);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param signer Token signer
+     * @param schema Custom claim schema
+     * @param signatureFormat Format of issued HMAC signatures, ignored for asymmetric signers
+     * @param uidCache Cache returning one String instance per verified uid, or null
+     */
+    public JwtTokenCodec(TokenSigner signer, ClaimSchema schema, SignatureFormat signatureFormat, UidCache uidCache) {
+        this.signer = signer;
+        this.verifier = new SignatureVerifier(signer);
+        this.payloadCodec = new PayloadCodec(schema, uidCache);
+        this.signatureFormat = signer.getAlgorithm().isAsymmetric() ? SignatureFormat.RAW : signatureFormat;
+        
+        this.headerSegments = new byte[KINDS.length + 1][];
+        headerSegments[0] = headerSegment(signer, "JWT");
+        for (TokenKind kind : KINDS) {
+            headerSegments[kind.ordinal() + 1] = headerSegment(signer, kind.getJwtType());
+        }
+        this.kindIndex = distinguishingIndex(headerSegments);
+    }
+    
+    private static byte[] headerSegment(TokenSigner signer, String type) {
+        byte[] header = ("{\"alg\":\"" + signer.getAlgorithm().getJwtName() + "\",\"typ\":\"" + type + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        ByteArrayBuilder out = new ByteArrayBuilder(64);
+        Base64Url.encode(header, 0, header.length, out);
+        out.append('.');
+        return out.toByteArray();
+    }
+    
+    /**
+     * Find the first position at which every segment has a different character
+     */
+    private static int distinguishingIndex(byte[][] segments) {
+        int length = Integer.MAX_VALUE;
+        for (byte[] segment : segments) {
+            length = Math.min(length, segment.length);
+        }
+        outer:
+        for (int i = 0; i < length; i++) {
+            for (int a = 0; a < segments.length; a++) {
+                for (int b = a + 1; b < segments.length; b++) {
+                    if (segments[a][i] == segments[b][i]) {
+                        continue outer;
+                    }
+                }
+            }
+            return i;
+        }
+        throw new IllegalStateException("Header segments of the token kinds cannot be told apart");
+    }
+    
+    /**
+     * Get format of issued signatures
+     * 
+     * @return Signature format
+     */
+    public SignatureFormat getSignatureFormat() {
+        return signatureFormat;
+    }
+    
+    /**
+     * Get signer
+     * 
+     * @return Token signer
+     */
+    public TokenSigner getSigner() {
+        return signer;
+    }
+    
+    @Override
+    public TokenFormat getFormat() {
+        return TokenFormat.JWT;
+    }
+    
+    @Override
+    public ClaimSchema getSchema() {
+        return payloadCodec.getSchema();
+    }
+    
+    @Override
+    public String encode(String uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(null, uid, 0L, false, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public String encode(long uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(null, null, uid, true, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public String encode(TokenKind kind, String uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(kind, uid, 0L, false, appId, expireAt, issuedAt, claims);
+    }
+    
+    @Override
+    public String encode(TokenKind kind, long uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(kind, null, uid, true, appId, expireAt, issuedAt, claims);
+    }
+    
+    /**
+     * Tell the kind from the one character at which the header segments differ, then confirm
+     * the whole segment
+     */
+    @Override
+    public TokenKind kindOf(String token) {
+        if (token.length() <= kindIndex) {
+            return null;
+        }
+        char c = token.charAt(kindIndex);
+        for (int i = 1; i < headerSegments.length; i++) {
+            if (c == headerSegments[i][kindIndex]) {
+                return startsWith(token, headerSegments[i]) ? KINDS[i - 1] : null;
+            }
+        }
+        return null;
+    }
+    
+    private String encode(TokenKind kind, String uid, long longUid, boolean numeric, String appId, long expireAt,
+                          long issuedAt, Claims claims) throws TokenGenerationException {
+        if (!signer.canSign()) {
+            throw new TokenGenerationException("Signer holds no private key, tokens can only be verified");
+        }
+        try {
+            ScratchArena arena = ScratchArena.get();
+            ByteArrayBuilder json = arena.payload();
+            if (numeric) {
+                payloadCodec.encode(json, longUid, appId, expireAt, issuedAt, claims);
+            } else {
+                payloadCodec.encode(json, uid, appId, expireAt, issuedAt, claims);
+            }
+            
+            ByteArrayBuilder token = arena.token();
+            token.append(headerSegments[kind == null ? 0 : kind.ordinal() + 1]);
+            Base64Url.encode(json.array(), 0, json.length(), token);
+            
+            int signatureLength = encodeSignature(signatureFormat, token.array(), token.length(), arena);
+            token.append('.').append(arena.signature(), 0, signatureLength);
+            return token.toAsciiString();
+            
+        } catch (IllegalArgumentException e) {
+            throw new TokenGenerationException(e.getMessage(), e);
+        } catch (GeneralSecurityException e) {
+            throw new TokenGenerationException("Failed to generate token signature", e);
+        }
+    }
+    
+    @Override
+    public TokenClaims decode(String token, long nowSeconds) throws TokenValidationException {
+        return decode(token, nowSeconds, false);
+    }
+    
+    @Override
+    public TokenClaims decodeLongUid(String token, long nowSeconds) throws TokenValidationException {
+        return decode(token, nowSeconds, true);
+    }
+    
+    private TokenClaims decode(String token, long nowSeconds, boolean longUid) throws TokenValidationException {
+        if (token == null || token.isEmpty()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token is null or empty");
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Invalid JWT format");
+        }
+        
+        ScratchArena arena = ScratchArena.get();
+        byte[] signingInput = arena.input(secondDot);
+        if (!ascii(token, 0, secondDot, signingInput)) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Invalid JWT format");
+        }
+        boolean valid;
+        try {
+            valid = verify(token, signingInput, firstDot, secondDot);
+        } catch (GeneralSecurityException e) {
+            throw new TokenValidationException(ErrorCode.TOKEN_VERIFICATION_FAILED,
+                    "Failed to verify token signature", e);
+        }
+        if (!valid) {
+            throw new TokenValidationException(ErrorCode.SIGNATURE_INVALID, "Invalid token signature");
+        }
+        
+        // Decode payload
+        TokenClaims claims;
+        try {
+            byte[] payload = arena.decoded(Base64Url.decodedLength(secondDot - firstDot - 1));
+            int length = Base64Url.decode(token, firstDot + 1, secondDot, payload, 0);
+            if (length < 0) {
+                throw new IllegalArgumentException("Invalid base64url payload");
+            }
+            claims = payloadCodec.decode(payload, 0, length, longUid);
+        } catch (IllegalArgumentException e) {
+            throw new TokenValidationException(ErrorCode.TOKEN_DECODING_FAILED,
+                    "Failed to decode token payload", e);
+        }
+        if (!claims.hasUid()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "UID not found in token");
+        }
+        if (claims.getExpireAt() != 0L && nowSeconds > claims.getExpireAt()) {
+            throw new TokenValidationException(ErrorCode.TOKEN_EXPIRED, "Token has expired");
+        }
+        return claims;
+    }
+    
+    /**
+     * Verify a JWS signature; for asymmetric signers the header must be exactly one of those this
+     * codec issues, so a token cannot pick its own algorithm
+     */
+    private boolean verify(String token, byte[] signingInput, int firstDot, int secondDot)
+            throws GeneralSecurityException {
+        if (signer.getAlgorithm().isAsymmetric()) {
+            TokenKind kind = kindOf(token);
+            byte[] headerSegment = headerSegments[kind == null ? 0 : kind.ordinal() + 1];
+            if (firstDot + 1 != headerSegment.length) {
+                return false;
+            }
+            for (int i = 0; i <= firstDot; i++) {
+                if (signingInput[i] != headerSegment[i]) {
+                    return false;
+                }
+            }
+        }
+        return verifier.verify(signingInput, 0, secondDot, token, secondDot + 1);
+    }
+    
+    /**
+     * Encode the signature segment into the arena's signature buffer: base64url of the raw
+     * signature, or for HMAC in {@link SignatureFormat#HEX} base64url of its hexadecimal string
+     * 
+     * @return Encoded length
+     */
+    private int encodeSignature(SignatureFormat format, byte[] data, int len, ScratchArena arena)
+            throws GeneralSecurityException {
+        byte[] raw = arena.mac();
+        int rawLength = signer.sign(data, 0, len, raw, 0);
+        if (format == SignatureFormat.RAW) {
+            return Base64Url.encode(raw, 0, rawLength, arena.signature(), 0);
+        }
+        byte[] hex = arena.hex();
+        for (int i = 0; i < rawLength; i++) {
+            hex[i * 2] = HEX[(raw[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[raw[i] & 0xf];
+        }
+        return Base64Url.encode(hex, 0, rawLength * 2, arena.signature(), 0);
+    }
+    
+    private static boolean startsWith(String s, byte[] prefix) {
+        if (s.length() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (s.charAt(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Copy an ASCII string range to bytes
+     * 
+     * @return Whether the range was pure ASCII
+     */
+    private static boolean ascii(String s, int from, int to, byte[] bytes) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            bytes[i - from] = (byte) c;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package tech.sud.auth.gip.auth.codec;
+
+/**
+ * JWT signature segment formats
+ * Verification accepts both formats and tells them apart by the segment length,
+ * the format only selects what is issued.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public enum SignatureFormat {
+    
+    /**
+     * base64url of the 64-character hexadecimal HMAC (86 characters).
+     * Format of the original SDKs, not accepted by standard JWT libraries.
+     */
+    HEX(86),
+    
+    /**
+     * Standard HS256: base64url of the raw 32-byte HMAC (43 characters)
+     */
+    RAW(43);
+    
+    /**
+     * Length of the encoded signature segment
+     */
+    private final int encodedLength;
+    
+    SignatureFormat(int encodedLength) {
+        this.encodedLength = encodedLength;
+    }
+    
+    /**
+     * Get length of the encoded signature segment
+     * 
+     * @return Number of characters
+     */
+    public int getEncodedLength() {
+        return encodedLength;
+    }
+    
+    /**
+     * Detect format from the encoded signature segment length
+     * 
+     * @param length Segment length
+     * @return Format, or null if no format has that length
+     */
+    public static SignatureFormat ofEncodedLength(int length) {
+        if (length == RAW.encodedLength) {
+            return RAW;
+        }
+        if (length == HEX.encodedLength) {
+            return HEX;
+        }
+        return null;
+    }
+}
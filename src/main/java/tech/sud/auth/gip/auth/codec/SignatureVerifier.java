@@ -0,0 +1,132 @@
+package tech.sud.auth.gip.auth.codec;
+
+import tech.sud.auth.gip.auth.crypto.TokenSigner;
+import tech.sud.auth.gip.auth.util.Base64Url;
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Signature verifier
+ * Checks the signature segment of a JWT against the signature computed over its signing input
+ * without building the expected segment: the MAC is computed into the thread's scratch buffer,
+ * and its encoding is generated and compared with the token's characters on the fly. The
+ * comparison takes the same time wherever the characters differ; only a length mismatch, which
+ * says nothing about the key, returns early.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class SignatureVerifier {
+    
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    
+    private final TokenSigner signer;
+    
+    /**
+     * Constructor
+     * 
+     * @param signer Signer whose signatures are checked
+     */
+    public SignatureVerifier(TokenSigner signer) {
+        if (signer == null) {
+            throw new IllegalArgumentException("Signer cannot be null");
+        }
+        this.signer = signer;
+    }
+    
+    /**
+     * Get signer
+     * 
+     * @return Token signer
+     */
+    public TokenSigner getSigner() {
+        return signer;
+    }
+    
+    /**
+     * Verify a signature segment
+     * HMAC segments may be in either {@link SignatureFormat}, detected by length. Asymmetric
+     * segments are decoded and passed to the signer.
+     * 
+     * @param data Buffer holding the signing input
+     * @param off Offset of the signing input
+     * @param len Length of the signing input
+     * @param token Token holding the signature segment
+     * @param from Start of the signature segment, which runs to the end of the token
+     * @return Whether the signature is valid
+     * @throws GeneralSecurityException If the signature cannot be computed
+     */
+    public boolean verify(byte[] data, int off, int len, String token, int from) throws GeneralSecurityException {
+        int chars = token.length() - from;
+        byte[] mac = ScratchArena.get().mac();
+        if (signer.getAlgorithm().isAsymmetric()) {
+            int expectedLength = signer.getAlgorithm().getSignatureLength();
+            if (Base64Url.decodedLength(chars) != expectedLength
+                    || Base64Url.decode(token, from, token.length(), mac, 0) != expectedLength) {
+                return false;
+            }
+            return signer.verify(data, off, len, mac, 0, expectedLength);
+        }
+        SignatureFormat format = SignatureFormat.ofEncodedLength(chars);
+        if (format == null) {
+            return false;
+        }
+        int macLength = signer.sign(data, off, len, mac, 0);
+        return matches(token, from, chars, mac, 0, macLength, format);
+    }
+    
+    /**
+     * Compare an encoded signature with raw MAC bytes in constant time
+     * The expected characters (base64url of the MAC, or for {@link SignatureFormat#HEX} of its
+     * lowercase hexadecimal string) are derived one at a time, so nothing is allocated.
+     * 
+     * @param s Characters holding the presented signature
+     * @param off Offset of the signature
+     * @param len Length of the signature
+     * @param mac Buffer holding the expected MAC
+     * @param macOff Offset of the MAC
+     * @param macLen Length of the MAC
+     * @param format Encoding of the presented signature
+     * @return Whether the signature encodes the MAC
+     */
+    public static boolean matches(CharSequence s, int off, int len, byte[] mac, int macOff, int macLen,
+                                  SignatureFormat format) {
+        boolean hex = format == SignatureFormat.HEX;
+        int sourceLength = hex ? macLen * 2 : macLen;
+        if (len != Base64Url.encodedLength(sourceLength)) {
+            return false;
+        }
+        int diff = 0;
+        int pos = off;
+        for (int i = 0; i < sourceLength; i += 3) {
+            int remaining = sourceLength - i;
+            int bits = source(mac, macOff, i, hex) << 16
+                    | (remaining > 1 ? source(mac, macOff, i + 1, hex) << 8 : 0)
+                    | (remaining > 2 ? source(mac, macOff, i + 2, hex) : 0);
+            diff |= s.charAt(pos++) ^ ALPHABET[bits >>> 18];
+            diff |= s.charAt(pos++) ^ ALPHABET[(bits >>> 12) & 0x3f];
+            if (remaining > 1) {
+                diff |= s.charAt(pos++) ^ ALPHABET[(bits >>> 6) & 0x3f];
+            }
+            if (remaining > 2) {
+                diff |= s.charAt(pos++) ^ ALPHABET[bits & 0x3f];
+            }
+        }
+        return diff == 0;
+    }
+    
+    /**
+     * Byte of the encoded source: the MAC itself, or its hexadecimal string
+     */
+    private static int source(byte[] mac, int macOff, int index, boolean hex) {
+        if (!hex) {
+            return mac[macOff + index] & 0xff;
+        }
+        int b = mac[macOff + (index >> 1)];
+        return HEX[(index & 1) == 0 ? (b >> 4) & 0xf : b & 0xf];
+    }
+}
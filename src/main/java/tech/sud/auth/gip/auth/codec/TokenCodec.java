@@ -0,0 +1,136 @@
+package tech.sud.auth.gip.auth.codec;
+
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.exception.TokenGenerationException;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+
+/**
+ * Token codec
+ * Issues and verifies tokens of one wire format for one key and claim schema.
+ * Implementations are immutable and thread-safe.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public interface TokenCodec {
+    
+    /**
+     * Get wire format of this codec
+     * 
+     * @return Token format
+     */
+    TokenFormat getFormat();
+    
+    /**
+     * Get claim schema of this codec
+     * 
+     * @return Schema
+     */
+    ClaimSchema getSchema();
+    
+    /**
+     * Issue a token
+     * 
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims
+     * @return Token
+     * @throws TokenGenerationException Token generation exception
+     */
+    String encode(String uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException;
+    
+    /**
+     * Verify and decode a token
+     * 
+     * @param token Token
+     * @param nowSeconds Current time (epoch seconds)
+     * @return Verified claims
+     * @throws TokenValidationException Token validation exception carrying the specific error code
+     */
+    TokenClaims decode(String token, long nowSeconds) throws TokenValidationException;
+    
+    /**
+     * Issue a token for a numeric user ID
+     * Built-in codecs write the uid as a number; the default writes its decimal string.
+     * 
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims
+     * @return Token
+     * @throws TokenGenerationException Token generation exception
+     */
+    default String encode(long uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(Long.toString(uid), appId, expireAt, issuedAt, claims);
+    }
+    
+    /**
+     * Issue a token of a kind
+     * Built-in codecs write the kind into the signed header; the default issues an untyped token.
+     * 
+     * @param kind Token kind, or null for an untyped token
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims
+     * @return Token
+     * @throws TokenGenerationException Token generation exception
+     */
+    default String encode(TokenKind kind, String uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(uid, appId, expireAt, issuedAt, claims);
+    }
+    
+    /**
+     * Issue a token of a kind for a numeric user ID
+     * Built-in codecs write the kind into the signed header; the default issues an untyped token.
+     * 
+     * @param kind Token kind, or null for an untyped token
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireAt Expiration time (epoch seconds)
+     * @param issuedAt Issue time (epoch seconds)
+     * @param claims Custom claims
+     * @return Token
+     * @throws TokenGenerationException Token generation exception
+     */
+    default String encode(TokenKind kind, long uid, String appId, long expireAt, long issuedAt, Claims claims)
+            throws TokenGenerationException {
+        return encode(uid, appId, expireAt, issuedAt, claims);
+    }
+    
+    /**
+     * Get kind of a token from its header, without verifying it
+     * Verification checks the signature over the header, so a kind read here only counts once
+     * the token verifies. The default reports every token as untyped.
+     * 
+     * @param token Non-empty token
+     * @return Kind, or null for untyped tokens and tokens with a foreign header
+     */
+    default TokenKind kindOf(String token) {
+        return null;
+    }
+    
+    /**
+     * Verify and decode a token, reading a plain integer uid as a primitive
+     * Claims carry the uid as a long ({@link TokenClaims#hasLongUid()}) when it is a canonical
+     * decimal long, whether written as a number or a string; other uids decode as usual.
+     * The default decodes as usual.
+     * 
+     * @param token Token
+     * @param nowSeconds Current time (epoch seconds)
+     * @return Verified claims
+     * @throws TokenValidationException Token validation exception carrying the specific error code
+     */
+    default TokenClaims decodeLongUid(String token, long nowSeconds) throws TokenValidationException {
+        return decode(token, nowSeconds);
+    }
+}
@@ -0,0 +1,34 @@
+package tech.sud.auth.gip.auth.codec;
+
+/**
+ * Token wire formats
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public enum TokenFormat {
+    
+    /**
+     * JWT (header.payload.signature), interoperable with the other Sud GIP Auth SDKs
+     */
+    JWT,
+    
+    /**
+     * Compact binary token for server-to-server hops between services running this SDK
+     */
+    COMPACT;
+    
+    /**
+     * Detect the format of a token from its first character
+     * JWTs always start with 'e' (base64url of <code>{"</code>), compact tokens with 'E'..'H',
+     * 'U'..'X' or 'k'..'n' (base64url of their version byte: untyped, {@link TokenKind#CODE} and
+     * {@link TokenKind#SS_TOKEN}).
+     * 
+     * @param token Non-empty token
+     * @return Token format
+     */
+    public static TokenFormat detect(String token) {
+        char c = token.charAt(0);
+        return c >= 'E' && c <= 'H' || c >= 'U' && c <= 'X' || c >= 'k' && c <= 'n' ? COMPACT : JWT;
+    }
+}
@@ -0,0 +1,66 @@
+package tech.sud.auth.gip.auth.codec;
+
+/**
+ * Token kinds
+ * Typed tokens carry their kind in the signed header: JWTs in the {@code typ} header parameter
+ * (explicit typing, RFC 8725), compact tokens in the top bits of the version byte. Verifiers
+ * tell kinds apart from a single character before any signature work. Tokens issued without a
+ * kind are untyped and carry the original header.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public enum TokenKind {
+    
+    /**
+     * Authentication code, handed to the client and exchanged once
+     */
+    CODE("code+jwt", 1),
+    
+    /**
+     * Server-to-server token
+     */
+    SS_TOKEN("sstoken+jwt", 2);
+    
+    private final String jwtType;
+    private final int compactBits;
+    
+    TokenKind(String jwtType, int compactBits) {
+        this.jwtType = jwtType;
+        this.compactBits = compactBits;
+    }
+    
+    /**
+     * Get value of the JWT {@code typ} header parameter
+     * 
+     * @return JWT type
+     */
+    public String getJwtType() {
+        return jwtType;
+    }
+    
+    /**
+     * Get value of the kind bits of the compact version byte
+     * 
+     * @return Kind bits (1-3), 0 being untyped
+     */
+    public int getCompactBits() {
+        return compactBits;
+    }
+    
+    /**
+     * Get kind of compact kind bits
+     * 
+     * @param bits Kind bits
+     * @return Kind, or null for untyped or unknown bits
+     */
+    public static TokenKind ofCompactBits(int bits) {
+        if (bits == CODE.compactBits) {
+            return CODE;
+        }
+        if (bits == SS_TOKEN.compactBits) {
+            return SS_TOKEN;
+        }
+        return null;
+    }
+}
@@ -38,11 +38,31 @@ public final class ErrorCode {
      */
     public static final int TOKEN_EXPIRED = 1005;
     
+    /**
+     * Single-use token already used
+     */
+    public static final int TOKEN_REPLAYED = 1006;
+    
+    /**
+     * Token signature does not match: tampered, or signed with another key
+     */
+    public static final int SIGNATURE_INVALID = 1007;
+    
     /**
      * App data invalid
      */
     public static final int APP_DATA_INVALID = 1101;
     
+    /**
+     * Issuance rate limited
+     */
+    public static final int RATE_LIMITED = 1201;
+    
+    /**
+     * Verification shed under load, or refused by a full replay cache
+     */
+    public static final int OVERLOADED = 1202;
+    
     /**
      * Unknown error
      */
@@ -75,8 +95,16 @@ public final class ErrorCode {
                 return "Token is invalid";
             case TOKEN_EXPIRED:
                 return "Token has expired";
+            case TOKEN_REPLAYED:
+                return "Token has already been used";
+            case SIGNATURE_INVALID:
+                return "Token signature is invalid";
             case APP_DATA_INVALID:
                 return "App data is invalid";
+            case RATE_LIMITED:
+                return "Issuance rate limited";
+            case OVERLOADED:
+                return "Verification overloaded";
             case UNKNOWN_ERROR:
                 return "Unknown error";
             default:
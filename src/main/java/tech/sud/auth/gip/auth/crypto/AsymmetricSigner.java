@@ -0,0 +1,248 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+
+/**
+ * Asymmetric token signer (ES256 or EdDSA)
+ * Issuers hold the private key, verifiers only the public key. Signature setup is far more
+ * expensive than HMAC, so every thread keeps its own {@link Signature} instances, initialized
+ * once with the key and reused; a JCA signature returns to its initialized state after each
+ * sign or verify call.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class AsymmetricSigner implements TokenSigner {
+    
+    /**
+     * Size of one ES256 signature component
+     */
+    private static final int ES256_COMPONENT_LENGTH = 32;
+    
+    private final SigningAlgorithm algorithm;
+    private final PrivateKey privateKey;
+    private final PublicKey publicKey;
+    private final ThreadLocal<Signature> signers;
+    private final ThreadLocal<Signature> verifiers;
+    private final String backendName;
+    
+    private AsymmetricSigner(SigningAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey)
+            throws GeneralSecurityException {
+        if (algorithm == null || !algorithm.isAsymmetric()) {
+            throw new IllegalArgumentException("Algorithm must be ES256 or EDDSA");
+        }
+        if (publicKey == null) {
+            throw new IllegalArgumentException("Public key cannot be null");
+        }
+        this.algorithm = algorithm;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        
+        // Fail fast on missing algorithm support or mismatched keys
+        this.backendName = "JCA(" + newVerifier().getProvider().getName() + ")";
+        if (privateKey != null) {
+            newSigner();
+        }
+        this.signers = ThreadLocal.withInitial(() -> {
+            try {
+                return newSigner();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize " + algorithm.getJcaName() + " signer", e);
+            }
+        });
+        this.verifiers = ThreadLocal.withInitial(() -> {
+            try {
+                return newVerifier();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize " + algorithm.getJcaName() + " verifier", e);
+            }
+        });
+    }
+    
+    /**
+     * Create signer able to issue and verify tokens
+     * 
+     * @param algorithm ES256 or EDDSA
+     * @param privateKey Private key
+     * @param publicKey Public key
+     * @return Signer
+     * @throws GeneralSecurityException Algorithm unavailable or invalid keys
+     */
+    public static AsymmetricSigner of(SigningAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey)
+            throws GeneralSecurityException {
+        if (privateKey == null) {
+            throw new IllegalArgumentException("Private key cannot be null");
+        }
+        return new AsymmetricSigner(algorithm, privateKey, publicKey);
+    }
+    
+    /**
+     * Create verifier-only signer
+     * 
+     * @param algorithm ES256 or EDDSA
+     * @param publicKey Public key
+     * @return Signer that can only verify
+     * @throws GeneralSecurityException Algorithm unavailable or invalid key
+     */
+    public static AsymmetricSigner verifier(SigningAlgorithm algorithm, PublicKey publicKey)
+            throws GeneralSecurityException {
+        return new AsymmetricSigner(algorithm, null, publicKey);
+    }
+    
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+    
+    @Override
+    public String getBackendName() {
+        return backendName;
+    }
+    
+    @Override
+    public boolean canSign() {
+        return privateKey != null;
+    }
+    
+    /**
+     * Get public key
+     * 
+     * @return Public key
+     */
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+    
+    @Override
+    public byte[] sign(byte[] data, int off, int len) throws GeneralSecurityException {
+        if (privateKey == null) {
+            throw new GeneralSecurityException("Signer holds no private key");
+        }
+        Signature signature = signers.get();
+        signature.update(data, off, len);
+        byte[] sig = signature.sign();
+        return algorithm == SigningAlgorithm.ES256 ? derToRaw(sig) : sig;
+    }
+    
+    @Override
+    public boolean verify(byte[] data, int off, int len, byte[] signature, int sigOff, int sigLen)
+            throws GeneralSecurityException {
+        if (sigLen != algorithm.getSignatureLength()) {
+            return false;
+        }
+        byte[] sig;
+        if (algorithm == SigningAlgorithm.ES256) {
+            sig = rawToDer(signature, sigOff);
+        } else {
+            sig = new byte[sigLen];
+            System.arraycopy(signature, sigOff, sig, 0, sigLen);
+        }
+        Signature verifier = verifiers.get();
+        verifier.update(data, off, len);
+        try {
+            return verifier.verify(sig);
+        } catch (SignatureException e) {
+            // Malformed signature encoding; start the next verification from a fresh instance
+            verifiers.remove();
+            return false;
+        }
+    }
+    
+    private Signature newSigner() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(algorithm.getJcaName());
+        signature.initSign(privateKey);
+        return signature;
+    }
+    
+    private Signature newVerifier() throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(algorithm.getJcaName());
+        signature.initVerify(publicKey);
+        return signature;
+    }
+    
+    /**
+     * Convert a DER ECDSA signature to JWS form (R || S)
+     */
+    static byte[] derToRaw(byte[] der) throws SignatureException {
+        int pos = 0;
+        if (der.length < 8 || der[pos++] != 0x30) {
+            throw new SignatureException("Invalid DER signature");
+        }
+        int seqLength = der[pos++] & 0xff;
+        if (seqLength == 0x81) {
+            seqLength = der[pos++] & 0xff;
+        }
+        if (pos + seqLength != der.length) {
+            throw new SignatureException("Invalid DER signature");
+        }
+        byte[] raw = new byte[2 * ES256_COMPONENT_LENGTH];
+        for (int component = 0; component < 2; component++) {
+            if (der[pos++] != 0x02) {
+                throw new SignatureException("Invalid DER signature");
+            }
+            int length = der[pos++] & 0xff;
+            int start = pos;
+            pos += length;
+            while (length > 0 && der[start] == 0) {
+                start++;
+                length--;
+            }
+            if (length > ES256_COMPONENT_LENGTH) {
+                throw new SignatureException("Invalid DER signature");
+            }
+            System.arraycopy(der, start, raw, (component + 1) * ES256_COMPONENT_LENGTH - length, length);
+        }
+        return raw;
+    }
+    
+    /**
+     * Convert a JWS form ECDSA signature (R || S) to DER
+     */
+    static byte[] rawToDer(byte[] raw, int off) {
+        int rStart = firstNonZero(raw, off, ES256_COMPONENT_LENGTH);
+        int sStart = firstNonZero(raw, off + ES256_COMPONENT_LENGTH, ES256_COMPONENT_LENGTH);
+        int rLength = off + ES256_COMPONENT_LENGTH - rStart;
+        int sLength = off + 2 * ES256_COMPONENT_LENGTH - sStart;
+        boolean rPad = raw[rStart] < 0;
+        boolean sPad = raw[sStart] < 0;
+        int rTotal = rLength + (rPad ? 1 : 0);
+        int sTotal = sLength + (sPad ? 1 : 0);
+        int seqLength = 4 + rTotal + sTotal;
+        byte[] der = new byte[(seqLength > 127 ? 3 : 2) + seqLength];
+        int pos = 0;
+        der[pos++] = 0x30;
+        if (seqLength > 127) {
+            der[pos++] = (byte) 0x81;
+        }
+        der[pos++] = (byte) seqLength;
+        der[pos++] = 0x02;
+        der[pos++] = (byte) rTotal;
+        if (rPad) {
+            der[pos++] = 0;
+        }
+        System.arraycopy(raw, rStart, der, pos, rLength);
+        pos += rLength;
+        der[pos++] = 0x02;
+        der[pos++] = (byte) sTotal;
+        if (sPad) {
+            der[pos++] = 0;
+        }
+        System.arraycopy(raw, sStart, der, pos, sLength);
+        return der;
+    }
+    
+    /**
+     * Index of the first non-zero byte of a component, keeping at least one byte
+     */
+    private static int firstNonZero(byte[] buf, int off, int len) {
+        int i = off;
+        while (i < off + len - 1 && buf[i] == 0) {
+            i++;
+        }
+        return i;
+    }
+}
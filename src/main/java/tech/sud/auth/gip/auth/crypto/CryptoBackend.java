@@ -0,0 +1,32 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Crypto backend SPI
+ * Supplies the HMAC-SHA256 implementation used for token signatures. Use
+ * {@link JcaCryptoBackend} to pin a JCA provider or {@link PureJavaCryptoBackend} to bypass
+ * the JCA entirely. Implementations are thread-safe.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public interface CryptoBackend {
+    
+    /**
+     * Get backend name reported in metrics and diagnostics, e.g. {@code JCA(SunJCE)}
+     * 
+     * @return Backend name
+     */
+    String getName();
+    
+    /**
+     * Prepare an HMAC-SHA256 key
+     * Key setup happens once here; the returned key is reused for every signature.
+     * 
+     * @param secret Secret bytes
+     * @return Prepared key
+     * @throws GeneralSecurityException Algorithm unavailable or invalid key
+     */
+    HmacKey hmacSha256(byte[] secret) throws GeneralSecurityException;
+}
@@ -0,0 +1,40 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Prepared HMAC-SHA256 key of a {@link CryptoBackend}
+ * Implementations are thread-safe.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public interface HmacKey {
+    
+    /**
+     * Compute the MAC of data
+     * 
+     * @param data Data
+     * @param off Offset
+     * @param len Length
+     * @return 32-byte MAC
+     * @throws GeneralSecurityException MAC failure
+     */
+    byte[] mac(byte[] data, int off, int len) throws GeneralSecurityException;
+    
+    /**
+     * Compute the MAC of data into a caller-provided buffer
+     * Backends override this to avoid allocating the result.
+     * 
+     * @param data Data
+     * @param off Offset
+     * @param len Length
+     * @param out Output buffer with room for 32 bytes
+     * @param outOff Output offset
+     * @throws GeneralSecurityException MAC failure
+     */
+    default void mac(byte[] data, int off, int len, byte[] out, int outOff) throws GeneralSecurityException {
+        byte[] result = mac(data, off, len);
+        System.arraycopy(result, 0, out, outOff, result.length);
+    }
+}
@@ -0,0 +1,102 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * HMAC-SHA256 token signer
+ * The key is prepared once by the configured {@link CryptoBackend}.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class HmacSigner implements TokenSigner {
+    
+    /**
+     * Shortest accepted truncated tag
+     */
+    private static final int MIN_TAG_LENGTH = 16;
+    
+    private final CryptoBackend backend;
+    private final HmacKey key;
+    
+    /**
+     * Constructor using {@link MidstateCryptoBackend}
+     * 
+     * @param secret Application secret
+     */
+    public HmacSigner(String secret) {
+        this(secret, MidstateCryptoBackend.INSTANCE);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param secret Application secret
+     * @param backend Crypto backend
+     * @throws IllegalArgumentException Backend rejects the key
+     */
+    public HmacSigner(String secret, CryptoBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Crypto backend cannot be null");
+        }
+        this.backend = backend;
+        try {
+            this.key = backend.hmacSha256(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Crypto backend " + backend.getName() + " rejected the secret", e);
+        }
+    }
+    
+    /**
+     * Get crypto backend
+     * 
+     * @return Backend
+     */
+    public CryptoBackend getBackend() {
+        return backend;
+    }
+    
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return SigningAlgorithm.HS256;
+    }
+    
+    @Override
+    public String getBackendName() {
+        return backend.getName();
+    }
+    
+    @Override
+    public boolean canSign() {
+        return true;
+    }
+    
+    @Override
+    public byte[] sign(byte[] data, int off, int len) throws GeneralSecurityException {
+        return key.mac(data, off, len);
+    }
+    
+    @Override
+    public int sign(byte[] data, int off, int len, byte[] out, int outOff) throws GeneralSecurityException {
+        key.mac(data, off, len, out, outOff);
+        return SigningAlgorithm.HS256.getSignatureLength();
+    }
+    
+    @Override
+    public boolean verify(byte[] data, int off, int len, byte[] signature, int sigOff, int sigLen)
+            throws GeneralSecurityException {
+        if (sigLen < MIN_TAG_LENGTH || sigLen > 32) {
+            return false;
+        }
+        byte[] expected = ScratchArena.get().verifyMac();
+        key.mac(data, off, len, expected, 0);
+        int diff = 0;
+        for (int i = 0; i < sigLen; i++) {
+            diff |= expected[i] ^ signature[sigOff + i];
+        }
+        return diff == 0;
+    }
+}
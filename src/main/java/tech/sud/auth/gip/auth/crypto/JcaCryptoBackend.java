@@ -0,0 +1,197 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * JCA crypto backend
+ * Resolves the provider once at construction instead of on every {@code Mac.getInstance} call,
+ * and keeps a bounded pool of initialized {@link Mac} instances per key. When the pool is empty
+ * a new instance is created, so the pool size only limits how many idle instances are retained.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class JcaCryptoBackend implements CryptoBackend {
+    
+    /**
+     * HMAC-SHA256 algorithm name
+     */
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    
+    private static volatile JcaCryptoBackend defaultBackend;
+    
+    private final Provider provider;
+    private final int poolSize;
+    
+    /**
+     * Constructor pinning the provider the JVM selects by default
+     * 
+     * @param poolSize Idle {@link Mac} instances retained per key
+     * @throws IllegalArgumentException No provider supports HMAC-SHA256 or invalid pool size
+     */
+    public JcaCryptoBackend(int poolSize) {
+        this(defaultProvider(), poolSize);
+    }
+    
+    /**
+     * Constructor pinning a registered provider by name
+     * 
+     * @param providerName Provider name, e.g. {@code SunJCE}
+     * @param poolSize Idle {@link Mac} instances retained per key
+     * @throws IllegalArgumentException Unknown provider, no HMAC-SHA256 support or invalid pool size
+     */
+    public JcaCryptoBackend(String providerName, int poolSize) {
+        this(registeredProvider(providerName), poolSize);
+    }
+    
+    /**
+     * Constructor pinning a provider instance, which need not be registered
+     * 
+     * @param provider Provider
+     * @param poolSize Idle {@link Mac} instances retained per key
+     * @throws IllegalArgumentException Provider lacks HMAC-SHA256 or invalid pool size
+     */
+    public JcaCryptoBackend(Provider provider, int poolSize) {
+        if (provider == null) {
+            throw new IllegalArgumentException("Provider cannot be null");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        try {
+            Mac.getInstance(HMAC_SHA256, provider);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Provider " + provider.getName() + " does not support " + HMAC_SHA256, e);
+        }
+        this.provider = provider;
+        this.poolSize = poolSize;
+    }
+    
+    /**
+     * Get the shared backend using the JVM default provider, pooling one instance per core
+     * 
+     * @return Default backend
+     */
+    public static JcaCryptoBackend getDefault() {
+        JcaCryptoBackend backend = defaultBackend;
+        if (backend == null) {
+            synchronized (JcaCryptoBackend.class) {
+                backend = defaultBackend;
+                if (backend == null) {
+                    backend = new JcaCryptoBackend(Runtime.getRuntime().availableProcessors());
+                    defaultBackend = backend;
+                }
+            }
+        }
+        return backend;
+    }
+    
+    /**
+     * Get pinned provider
+     * 
+     * @return Provider
+     */
+    public Provider getProvider() {
+        return provider;
+    }
+    
+    /**
+     * Get idle instances retained per key
+     * 
+     * @return Pool size
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+    
+    @Override
+    public String getName() {
+        return "JCA(" + provider.getName() + ")";
+    }
+    
+    @Override
+    public HmacKey hmacSha256(byte[] secret) throws GeneralSecurityException {
+        PooledKey key = new PooledKey(new SecretKeySpec(secret, HMAC_SHA256));
+        // Fail fast on keys the provider rejects
+        key.release(key.newMac());
+        return key;
+    }
+    
+    @Override
+    public String toString() {
+        return getName();
+    }
+    
+    private static Provider defaultProvider() {
+        try {
+            return Mac.getInstance(HMAC_SHA256).getProvider();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("No provider supports " + HMAC_SHA256, e);
+        }
+    }
+    
+    private static Provider registeredProvider(String providerName) {
+        if (providerName == null || providerName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Provider name cannot be null or empty");
+        }
+        Provider provider = Security.getProvider(providerName.trim());
+        if (provider == null) {
+            throw new IllegalArgumentException("Provider not registered: " + providerName);
+        }
+        return provider;
+    }
+    
+    /**
+     * Key with its pool of initialized MAC instances
+     */
+    private final class PooledKey implements HmacKey {
+        
+        private final SecretKeySpec key;
+        private final ArrayBlockingQueue<Mac> pool;
+        
+        PooledKey(SecretKeySpec key) {
+            this.key = key;
+            this.pool = new ArrayBlockingQueue<>(poolSize);
+        }
+        
+        @Override
+        public byte[] mac(byte[] data, int off, int len) throws GeneralSecurityException {
+            Mac mac = pool.poll();
+            if (mac == null) {
+                mac = newMac();
+            }
+            mac.update(data, off, len);
+            // doFinal resets the instance to its initialized state
+            byte[] result = mac.doFinal();
+            release(mac);
+            return result;
+        }
+        
+        @Override
+        public void mac(byte[] data, int off, int len, byte[] out, int outOff) throws GeneralSecurityException {
+            Mac mac = pool.poll();
+            if (mac == null) {
+                mac = newMac();
+            }
+            mac.update(data, off, len);
+            mac.doFinal(out, outOff);
+            release(mac);
+        }
+        
+        Mac newMac() throws GeneralSecurityException {
+            Mac mac = Mac.getInstance(HMAC_SHA256, provider);
+            mac.init(key);
+            return mac;
+        }
+        
+        void release(Mac mac) {
+            pool.offer(mac);
+        }
+    }
+}
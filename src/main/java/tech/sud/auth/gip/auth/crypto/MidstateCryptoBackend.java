@@ -0,0 +1,121 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * JCA SHA-256 crypto backend with precomputed HMAC midstates
+ * A JCA {@code Mac} re-absorbs the padded key block on every reset and hashes the outer padded
+ * key block on every {@code doFinal}. For short messages such as tokens those two fixed
+ * compressions are a large share of the work. This backend absorbs {@code K^ipad} and
+ * {@code K^opad} into two SHA-256 digests once per secret and clones them for each MAC, keeping
+ * the intrinsic-accelerated JCA compression function. Output is identical to HmacSHA256.
+ * 
+ * The JCA cannot restore a digest to a saved state in place, so each MAC allocates its two
+ * clones, 0.5 to 1 KB with their message schedules depending on escape analysis; per-thread
+ * digests would still need the clone. Where allocation matters more than the intrinsics, use
+ * {@link PureJavaCryptoBackend}, which works in {@link ScratchArena} buffers and allocates nothing.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class MidstateCryptoBackend implements CryptoBackend {
+    
+    /**
+     * Shared instance using the JVM default SHA-256 provider
+     */
+    public static final MidstateCryptoBackend INSTANCE = new MidstateCryptoBackend();
+    
+    private static final String SHA256 = "SHA-256";
+    private static final int BLOCK_LENGTH = 64;
+    private static final byte IPAD = 0x36;
+    private static final byte OPAD = 0x5c;
+    
+    private final String name;
+    
+    private MidstateCryptoBackend() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(SHA256);
+            // Midstates are only reusable when the provider's digest can be cloned
+            digest.clone();
+            this.name = "JCA-midstate(" + digest.getProvider().getName() + ")";
+        } catch (NoSuchAlgorithmException | CloneNotSupportedException e) {
+            throw new IllegalStateException("No cloneable " + SHA256 + " digest available", e);
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public HmacKey hmacSha256(byte[] secret) throws GeneralSecurityException {
+        if (secret == null) {
+            throw new IllegalArgumentException("Secret cannot be null");
+        }
+        byte[] key = secret.length > BLOCK_LENGTH ? MessageDigest.getInstance(SHA256).digest(secret) : secret;
+        return new MidstateKey(padded(key, IPAD), padded(key, OPAD));
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    private static MessageDigest padded(byte[] key, byte pad) throws NoSuchAlgorithmException {
+        byte[] block = new byte[BLOCK_LENGTH];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) ((i < key.length ? key[i] : 0) ^ pad);
+        }
+        MessageDigest digest = MessageDigest.getInstance(SHA256);
+        digest.update(block);
+        return digest;
+    }
+    
+    /**
+     * Key holding the two absorbed digests; they are only ever cloned, never updated again
+     */
+    private static final class MidstateKey implements HmacKey {
+        
+        private final MessageDigest inner;
+        private final MessageDigest outer;
+        
+        MidstateKey(MessageDigest inner, MessageDigest outer) {
+            this.inner = inner;
+            this.outer = outer;
+        }
+        
+        @Override
+        public void mac(byte[] data, int off, int len, byte[] out, int outOff) throws GeneralSecurityException {
+            try {
+                byte[] innerHash = ScratchArena.get().shaDigest();
+                MessageDigest digest = (MessageDigest) inner.clone();
+                digest.update(data, off, len);
+                digest.digest(innerHash, 0, innerHash.length);
+                digest = (MessageDigest) outer.clone();
+                digest.update(innerHash);
+                digest.digest(out, outOff, innerHash.length);
+            } catch (CloneNotSupportedException e) {
+                throw new GeneralSecurityException("Failed to clone " + SHA256 + " midstate", e);
+            }
+        }
+        
+        @Override
+        public byte[] mac(byte[] data, int off, int len) throws GeneralSecurityException {
+            try {
+                MessageDigest digest = (MessageDigest) inner.clone();
+                digest.update(data, off, len);
+                byte[] innerHash = digest.digest();
+                digest = (MessageDigest) outer.clone();
+                digest.update(innerHash);
+                return digest.digest();
+            } catch (CloneNotSupportedException e) {
+                throw new GeneralSecurityException("Failed to clone " + SHA256 + " midstate", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import tech.sud.auth.gip.auth.util.ScratchArena;
+
+/**
+ * Pure Java crypto backend
+ * HMAC-SHA256 without the JCA: the inner and outer padded key blocks are compressed once per
+ * secret, so every MAC starts from those two states and skips key setup, provider lookup and
+ * {@code Mac} instance handling altogether. Working state comes from the calling thread's
+ * {@link ScratchArena}, so a MAC allocates nothing.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class PureJavaCryptoBackend implements CryptoBackend {
+    
+    /**
+     * Shared instance, the backend is stateless
+     */
+    public static final PureJavaCryptoBackend INSTANCE = new PureJavaCryptoBackend();
+    
+    private static final byte IPAD = 0x36;
+    private static final byte OPAD = 0x5c;
+    
+    private PureJavaCryptoBackend() {
+    }
+    
+    @Override
+    public String getName() {
+        return "pure-java";
+    }
+    
+    @Override
+    public HmacKey hmacSha256(byte[] secret) {
+        if (secret == null) {
+            throw new IllegalArgumentException("Secret cannot be null");
+        }
+        byte[] key = secret.length > Sha256.BLOCK_LENGTH ? Sha256.digest(secret, 0, secret.length) : secret;
+        int[] w = new int[64];
+        return new PrecomputedKey(padState(key, IPAD, w), padState(key, OPAD, w));
+    }
+    
+    @Override
+    public String toString() {
+        return getName();
+    }
+    
+    private static int[] padState(byte[] key, byte pad, int[] w) {
+        byte[] block = new byte[Sha256.BLOCK_LENGTH];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) ((i < key.length ? key[i] : 0) ^ pad);
+        }
+        int[] state = Sha256.initialState();
+        Sha256.compress(state, block, 0, w);
+        return state;
+    }
+    
+    /**
+     * Key holding the padded-key states
+     */
+    private static final class PrecomputedKey implements HmacKey {
+        
+        private final int[] innerState;
+        private final int[] outerState;
+        
+        PrecomputedKey(int[] innerState, int[] outerState) {
+            this.innerState = innerState;
+            this.outerState = outerState;
+        }
+        
+        @Override
+        public byte[] mac(byte[] data, int off, int len) {
+            byte[] out = new byte[Sha256.DIGEST_LENGTH];
+            mac(data, off, len, out, 0);
+            return out;
+        }
+        
+        @Override
+        public void mac(byte[] data, int off, int len, byte[] out, int outOff) {
+            ScratchArena arena = ScratchArena.get();
+            int[] state = arena.shaState();
+            int[] w = arena.shaSchedule();
+            byte[] tail = arena.shaTail();
+            byte[] inner = arena.shaDigest();
+            
+            System.arraycopy(innerState, 0, state, 0, state.length);
+            Sha256.finish(state, data, off, len, Sha256.BLOCK_LENGTH, w, tail);
+            Sha256.store(state, inner, 0);
+            
+            System.arraycopy(outerState, 0, state, 0, state.length);
+            Sha256.finish(state, inner, 0, Sha256.DIGEST_LENGTH, Sha256.BLOCK_LENGTH, w, tail);
+            Sha256.store(state, out, outOff);
+        }
+    }
+}
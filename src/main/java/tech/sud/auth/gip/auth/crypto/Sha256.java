@@ -0,0 +1,169 @@
+package tech.sud.auth.gip.auth.crypto;
+
+/**
+ * SHA-256 compression primitives (FIPS 180-4)
+ * Works on caller-held chaining states so HMAC can start from precomputed padded-key states.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+final class Sha256 {
+    
+    /**
+     * Block size in bytes
+     */
+    static final int BLOCK_LENGTH = 64;
+    
+    /**
+     * Digest size in bytes
+     */
+    static final int DIGEST_LENGTH = 32;
+    
+    private static final int[] IV = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+    };
+    
+    private static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+    };
+    
+    private Sha256() {
+    }
+    
+    /**
+     * Create a chaining state holding the initial hash value
+     * 
+     * @return State of 8 words
+     */
+    static int[] initialState() {
+        return IV.clone();
+    }
+    
+    /**
+     * Compress one block into the state
+     * 
+     * @param state Chaining state, updated in place
+     * @param block Block bytes
+     * @param off Block offset
+     * @param w Message schedule scratch of 64 words
+     */
+    static void compress(int[] state, byte[] block, int off, int[] w) {
+        for (int i = 0; i < 16; i++, off += 4) {
+            w[i] = (block[off] << 24) | ((block[off + 1] & 0xff) << 16)
+                    | ((block[off + 2] & 0xff) << 8) | (block[off + 3] & 0xff);
+        }
+        for (int i = 16; i < 64; i++) {
+            int x = w[i - 15];
+            int y = w[i - 2];
+            int s0 = Integer.rotateRight(x, 7) ^ Integer.rotateRight(x, 18) ^ (x >>> 3);
+            int s1 = Integer.rotateRight(y, 17) ^ Integer.rotateRight(y, 19) ^ (y >>> 10);
+            w[i] = w[i - 16] + s0 + w[i - 7] + s1;
+        }
+        int a = state[0];
+        int b = state[1];
+        int c = state[2];
+        int d = state[3];
+        int e = state[4];
+        int f = state[5];
+        int g = state[6];
+        int h = state[7];
+        for (int i = 0; i < 64; i++) {
+            int s1 = Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+            int ch = (e & f) ^ (~e & g);
+            int t1 = h + s1 + ch + K[i] + w[i];
+            int s0 = Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+            int maj = (a & b) ^ (a & c) ^ (b & c);
+            int t2 = s0 + maj;
+            h = g;
+            g = f;
+            f = e;
+            e = d + t1;
+            d = c;
+            c = b;
+            b = a;
+            a = t1 + t2;
+        }
+        state[0] += a;
+        state[1] += b;
+        state[2] += c;
+        state[3] += d;
+        state[4] += e;
+        state[5] += f;
+        state[6] += g;
+        state[7] += h;
+    }
+    
+    /**
+     * Absorb the remaining message and the padding into the state
+     * 
+     * @param state Chaining state, updated in place
+     * @param data Message bytes
+     * @param off Offset
+     * @param len Length
+     * @param prefixLength Bytes already compressed into the state
+     * @param w Message schedule scratch of 64 words
+     * @param tail Padding scratch of 128 bytes
+     */
+    static void finish(int[] state, byte[] data, int off, int len, long prefixLength, int[] w, byte[] tail) {
+        int end = off + len;
+        while (end - off >= BLOCK_LENGTH) {
+            compress(state, data, off, w);
+            off += BLOCK_LENGTH;
+        }
+        int rest = end - off;
+        System.arraycopy(data, off, tail, 0, rest);
+        tail[rest] = (byte) 0x80;
+        int tailLength = rest + 9 <= BLOCK_LENGTH ? BLOCK_LENGTH : 2 * BLOCK_LENGTH;
+        for (int i = rest + 1; i < tailLength - 8; i++) {
+            tail[i] = 0;
+        }
+        long bits = (prefixLength + len) << 3;
+        for (int i = 0; i < 8; i++) {
+            tail[tailLength - 1 - i] = (byte) (bits >>> (8 * i));
+        }
+        compress(state, tail, 0, w);
+        if (tailLength > BLOCK_LENGTH) {
+            compress(state, tail, BLOCK_LENGTH, w);
+        }
+    }
+    
+    /**
+     * Write the state as a big-endian digest
+     * 
+     * @param state Chaining state
+     * @param out Output
+     * @param off Output offset
+     */
+    static void store(int[] state, byte[] out, int off) {
+        for (int i = 0; i < 8; i++, off += 4) {
+            int v = state[i];
+            out[off] = (byte) (v >>> 24);
+            out[off + 1] = (byte) (v >>> 16);
+            out[off + 2] = (byte) (v >>> 8);
+            out[off + 3] = (byte) v;
+        }
+    }
+    
+    /**
+     * Compute a full digest
+     * 
+     * @param data Message bytes
+     * @param off Offset
+     * @param len Length
+     * @return 32-byte digest
+     */
+    static byte[] digest(byte[] data, int off, int len) {
+        int[] state = initialState();
+        finish(state, data, off, len, 0, new int[64], new byte[2 * BLOCK_LENGTH]);
+        byte[] out = new byte[DIGEST_LENGTH];
+        store(state, out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,82 @@
+package tech.sud.auth.gip.auth.crypto;
+
+/**
+ * Token signing algorithms
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public enum SigningAlgorithm {
+    
+    /**
+     * HMAC-SHA256 with the shared application secret
+     */
+    HS256("HS256", null, 32, 0),
+    
+    /**
+     * ECDSA on P-256 with SHA-256, signatures in JWS form (R || S)
+     */
+    ES256("ES256", "SHA256withECDSA", 64, 1),
+    
+    /**
+     * Ed25519 (requires Java 15 or a provider supplying "Ed25519")
+     */
+    EDDSA("EdDSA", "Ed25519", 64, 2);
+    
+    private final String jwtName;
+    private final String jcaName;
+    private final int signatureLength;
+    private final int id;
+    
+    SigningAlgorithm(String jwtName, String jcaName, int signatureLength, int id) {
+        this.jwtName = jwtName;
+        this.jcaName = jcaName;
+        this.signatureLength = signatureLength;
+        this.id = id;
+    }
+    
+    /**
+     * Get JWT "alg" header value
+     * 
+     * @return Algorithm name
+     */
+    public String getJwtName() {
+        return jwtName;
+    }
+    
+    /**
+     * Get JCA signature algorithm name
+     * 
+     * @return Algorithm name, null for HMAC
+     */
+    public String getJcaName() {
+        return jcaName;
+    }
+    
+    /**
+     * Get length of a raw signature
+     * 
+     * @return Number of bytes
+     */
+    public int getSignatureLength() {
+        return signatureLength;
+    }
+    
+    /**
+     * Get compact token algorithm ID
+     * 
+     * @return Algorithm ID (0-3)
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Check whether the algorithm uses a key pair
+     * 
+     * @return Whether asymmetric
+     */
+    public boolean isAsymmetric() {
+        return jcaName != null;
+    }
+}
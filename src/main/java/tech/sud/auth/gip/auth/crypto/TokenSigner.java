@@ -0,0 +1,78 @@
+package tech.sud.auth.gip.auth.crypto;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Token signer
+ * Produces and checks the raw signature bytes of tokens. Implementations are thread-safe.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public interface TokenSigner {
+    
+    /**
+     * Get signing algorithm
+     * 
+     * @return Algorithm
+     */
+    SigningAlgorithm getAlgorithm();
+    
+    /**
+     * Get name of the crypto implementation in use, e.g. {@code JCA(SunJCE)}
+     * 
+     * @return Backend name
+     */
+    String getBackendName();
+    
+    /**
+     * Check whether this signer can issue tokens (verifier-only signers hold no private key)
+     * 
+     * @return Whether signing is possible
+     */
+    boolean canSign();
+    
+    /**
+     * Sign data
+     * 
+     * @param data Data
+     * @param off Offset
+     * @param len Length
+     * @return Raw signature of {@link SigningAlgorithm#getSignatureLength()} bytes
+     * @throws GeneralSecurityException Signing failure
+     */
+    byte[] sign(byte[] data, int off, int len) throws GeneralSecurityException;
+    
+    /**
+     * Sign data into a caller-provided buffer
+     * Signers override this to avoid allocating the result.
+     * 
+     * @param data Data
+     * @param off Offset
+     * @param len Length
+     * @param out Output buffer with room for {@link SigningAlgorithm#getSignatureLength()} bytes
+     * @param outOff Output offset
+     * @return Signature length
+     * @throws GeneralSecurityException Signing failure
+     */
+    default int sign(byte[] data, int off, int len, byte[] out, int outOff) throws GeneralSecurityException {
+        byte[] signature = sign(data, off, len);
+        System.arraycopy(signature, 0, out, outOff, signature.length);
+        return signature.length;
+    }
+    
+    /**
+     * Verify a raw signature
+     * 
+     * @param data Data
+     * @param off Offset
+     * @param len Length
+     * @param signature Signature bytes
+     * @param sigOff Signature offset
+     * @param sigLen Signature length; HMAC signers accept truncated tags of at least 16 bytes
+     * @return Whether the signature is valid
+     * @throws GeneralSecurityException Verification failure other than a bad signature
+     */
+    boolean verify(byte[] data, int off, int len, byte[] signature, int sigOff, int sigLen)
+            throws GeneralSecurityException;
+}
@@ -30,6 +30,27 @@ public class TokenValidationException extends SudGIPAuthException {
         super(ErrorCode.TOKEN_VERIFICATION_FAILED, message, cause);
     }
     
+    /**
+     * Constructor
+     * 
+     * @param errorCode Error code
+     * @param message Error message
+     */
+    public TokenValidationException(int errorCode, String message) {
+        super(errorCode, message);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param errorCode Error code
+     * @param message Error message
+     * @param cause Cause exception
+     */
+    public TokenValidationException(int errorCode, String message, Throwable cause) {
+        super(errorCode, message, cause);
+    }
+    
     /**
      * Constructor (using default error message)
      */
@@ -0,0 +1,78 @@
+package tech.sud.auth.gip.auth.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer queue
+ * Producers claim a slot by compare-and-set on the tail index and then publish the element into
+ * it; the single consumer takes elements in order and frees their slots. A claimed slot whose
+ * element is not yet published reads as empty until the producer gets there.
+ * 
+ * @param <E> Element type
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+final class MpscQueue<E> {
+    
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    
+    /**
+     * Next index to take, written by the consumer only
+     */
+    private volatile long head;
+    
+    /**
+     * Constructor
+     * 
+     * @param capacity Capacity, rounded up to a power of two
+     */
+    MpscQueue(int capacity) {
+        int size = Math.max(Integer.highestOneBit(capacity - 1) << 1, 2);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Add an element; safe from any thread
+     * 
+     * @return Whether it was added, false when the queue is full
+     */
+    boolean offer(E element) {
+        long index;
+        do {
+            index = tail.get();
+            if (index - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(index, index + 1));
+        slots.lazySet((int) index & mask, element);
+        return true;
+    }
+    
+    /**
+     * Take the next element; consumer thread only
+     * 
+     * @return Element, or null if none is published yet
+     */
+    E poll() {
+        long index = head;
+        int slot = (int) index & mask;
+        E element = slots.get(slot);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(slot, null);
+        head = index + 1;
+        return element;
+    }
+    
+    /**
+     * Get number of claimed slots, including ones not yet published
+     */
+    int size() {
+        return (int) (tail.get() - head);
+    }
+}
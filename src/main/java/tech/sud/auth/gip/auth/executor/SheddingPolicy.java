@@ -0,0 +1,22 @@
+package tech.sud.auth.gip.auth.executor;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+/**
+ * What {@link VerificationExecutor} does with a verification it cannot queue
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public enum SheddingPolicy {
+    
+    /**
+     * Complete at once with {@link ErrorCode#OVERLOADED}
+     */
+    REJECT,
+    
+    /**
+     * Verify on the calling thread, slowing the caller down instead of failing
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,470 @@
+package tech.sud.auth.gip.auth.executor;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Verification executor
+ * Moves token verification off request threads onto a fixed pool of daemon workers, so its CPU
+ * use is capped at the pool size however many requests arrive. Each worker owns a bounded
+ * lock-free MPSC queue; a submission goes to the shorter of two randomly chosen queues. Workers
+ * drain up to a batch of tokens at a time and verify them back to back, so the thread's MAC and
+ * scratch buffers stay hot in cache across the batch.
+ * 
+ * Load is shed in two places, always with {@link ErrorCode#OVERLOADED}: when both chosen queues
+ * are full, according to the {@link SheddingPolicy}, and, with a queue delay limit, when a worker
+ * reaches a token that has waited longer than the limit. The limit bounds queueing latency
+ * whatever the queue capacity: a backlog that cannot be served in time is answered at once
+ * instead of late.
+ * 
+ * <pre>
+ * VerificationExecutor executor = VerificationExecutor.builder()
+ *         .workers(4)
+ *         .queueCapacity(4096)
+ *         .maxQueueDelayMillis(50L)
+ *         .build();
+ * SudGIPAuth auth = SudGIPAuth.builder(appId).appSecret(appSecret).verificationExecutor(executor).build();
+ * auth.getUidBySSTokenAsync(ssToken).thenAccept(response -&gt; ...);
+ * </pre>
+ * 
+ * Futures complete on a worker thread, so dependent stages without an executor of their own run
+ * there too and should be short. A verification that throws completes its future with the failure
+ * response and the worker carries on; a {@link VirtualMachineError} is then rethrown to the
+ * thread's uncaught exception handler, the rest of its batch is shed, and a fresh thread takes
+ * over the queue. Instances are thread-safe and may be shared by several SDK instances.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class VerificationExecutor implements AutoCloseable {
+    
+    private final Worker[] workers;
+    private final SheddingPolicy sheddingPolicy;
+    private final long maxQueueDelayNanos;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    
+    /**
+     * Submissions between their closed check and their enqueue, so closing workers wait for them
+     */
+    private final LongAdder submitting = new LongAdder();
+    
+    private volatile boolean closed;
+    
+    private VerificationExecutor(Builder builder) {
+        this.sheddingPolicy = builder.sheddingPolicy;
+        this.maxQueueDelayNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxQueueDelayMillis);
+        this.workers = new Worker[builder.workers];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(builder.queueCapacity, builder.batchSize);
+        }
+        for (int i = 0; i < workers.length; i++) {
+            workers[i].start("sud-gip-auth-verify-" + i);
+        }
+    }
+    
+    /**
+     * Create executor builder
+     * 
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Verify a token on a worker
+     * 
+     * @param token Token
+     * @param verification Verification returning a response; if it throws, even an {@link Error},
+     *                     the future gets the response for {@link ErrorCode#UNKNOWN_ERROR}
+     * @param rejection Factory of the response for an error code, used when the token is shed or
+     *                  its verification fails; if it throws, the future completes exceptionally
+     * @param <R> Response type
+     * @return Future of the response; already complete when the token was shed or run by the caller
+     */
+    public <R> CompletableFuture<R> submit(String token, Function<String, R> verification, IntFunction<R> rejection) {
+        return submit(token, verification, rejection, null);
+    }
+    
+    /**
+     * Verify a token on a worker, with its own response for failed verifications
+     * 
+     * @param token Token
+     * @param verification Verification returning a response
+     * @param rejection Factory of the response for an error code, used when the token is shed; if
+     *                  it throws, the future completes exceptionally
+     * @param failure Factory of the response when the verification throws, even an {@link Error},
+     *                or null to use the rejection for {@link ErrorCode#UNKNOWN_ERROR}; if it throws,
+     *                the future completes exceptionally
+     * @param <R> Response type
+     * @return Future of the response; already complete when the token was shed or run by the caller
+     */
+    public <R> CompletableFuture<R> submit(String token, Function<String, R> verification, IntFunction<R> rejection,
+                                           Function<Throwable, R> failure) {
+        Task<R> task = new Task<>(token, verification, rejection, failure);
+        submitting.increment();
+        try {
+            if (!closed && enqueue(task)) {
+                return task.future;
+            }
+        } finally {
+            submitting.decrement();
+        }
+        rejected.increment();
+        if (sheddingPolicy == SheddingPolicy.CALLER_RUNS && !closed) {
+            VirtualMachineError fatal = task.run();
+            completed.increment();
+            if (fatal != null) {
+                throw fatal;
+            }
+        } else {
+            task.reject(ErrorCode.OVERLOADED);
+        }
+        return task.future;
+    }
+    
+    /**
+     * Get number of queued tokens
+     * 
+     * @return Queued tokens
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+        for (Worker worker : workers) {
+            queued += worker.queue.size();
+        }
+        return queued;
+    }
+    
+    /**
+     * Get number of tokens verified, by workers or by callers
+     * 
+     * @return Verified tokens
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+    
+    /**
+     * Get number of tokens that found the queues full
+     * 
+     * @return Rejected tokens, including ones then run by the caller
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    /**
+     * Get number of tokens shed for exceeding the queue delay limit, dropped on close, or left in
+     * the batch of a worker that died of a virtual machine error
+     * 
+     * @return Expired tokens
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+    
+    /**
+     * Stop the workers; queued and later tokens complete with {@link ErrorCode#OVERLOADED}
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "VerificationExecutor{workers=" + workers.length + ", queued=" + getQueuedCount() + ", completed="
+                + completed.sum() + ", rejected=" + rejected.sum() + ", expired=" + expired.sum() + '}';
+    }
+    
+    /**
+     * Offer to the shorter of two random queues, then to the other
+     */
+    private boolean enqueue(Task<?> task) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Worker first = workers[random.nextInt(workers.length)];
+        Worker second = workers[random.nextInt(workers.length)];
+        if (second.queue.size() < first.queue.size()) {
+            Worker shorter = second;
+            second = first;
+            first = shorter;
+        }
+        if (first.queue.offer(task)) {
+            first.signal();
+            return true;
+        }
+        if (second != first && second.queue.offer(task)) {
+            second.signal();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Queued verification
+     */
+    private static final class Task<R> {
+        
+        final String token;
+        final Function<String, R> verification;
+        final IntFunction<R> rejection;
+        final Function<Throwable, R> failure;
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+        
+        Task(String token, Function<String, R> verification, IntFunction<R> rejection,
+             Function<Throwable, R> failure) {
+            this.token = token;
+            this.verification = verification;
+            this.rejection = rejection;
+            this.failure = failure;
+        }
+        
+        /**
+         * Verify and complete the future; never throws, so a failing token cannot stop a worker
+         * 
+         * @return Virtual machine error thrown by the verification, for the caller to rethrow once
+         *         its bookkeeping is done, or null
+         */
+        VirtualMachineError run() {
+            R response;
+            try {
+                response = verification.apply(token);
+            } catch (Throwable t) {
+                fail(t);
+                return t instanceof VirtualMachineError ? (VirtualMachineError) t : null;
+            }
+            future.complete(response);
+            return null;
+        }
+        
+        /**
+         * Complete the future with the failure response, or exceptionally if the factory fails
+         */
+        private void fail(Throwable cause) {
+            if (failure == null) {
+                reject(ErrorCode.UNKNOWN_ERROR);
+                return;
+            }
+            R response;
+            try {
+                response = failure.apply(cause);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+            future.complete(response);
+        }
+        
+        /**
+         * Complete the future with the response for an error code, or exceptionally if the
+         * factory fails
+         */
+        void reject(int errorCode) {
+            R response;
+            try {
+                response = rejection.apply(errorCode);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+            future.complete(response);
+        }
+    }
+    
+    /**
+     * Worker draining one queue
+     */
+    private final class Worker implements Runnable {
+        
+        final MpscQueue<Task<?>> queue;
+        final Task<?>[] batch;
+        volatile boolean waiting;
+        volatile Thread thread;
+        
+        Worker(int queueCapacity, int batchSize) {
+            this.queue = new MpscQueue<>(queueCapacity);
+            this.batch = new Task<?>[batchSize];
+        }
+        
+        void start(String name) {
+            Thread started = new Thread(this, name);
+            started.setDaemon(true);
+            thread = started;
+            started.start();
+        }
+        
+        void signal() {
+            if (waiting) {
+                LockSupport.unpark(thread);
+            }
+        }
+        
+        @Override
+        public void run() {
+            while (true) {
+                int count = 0;
+                Task<?> task;
+                while (count < batch.length && (task = queue.poll()) != null) {
+                    batch[count++] = task;
+                }
+                if (count > 0) {
+                    process(count);
+                } else if (closed) {
+                    // Exit once no submission can still reach this queue
+                    if (queue.size() == 0 && submitting.sum() == 0L) {
+                        return;
+                    }
+                    Thread.yield();
+                } else {
+                    // Publish waiting before the last look at the queue; producers read it after offering
+                    waiting = true;
+                    if (queue.size() == 0 && !closed) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                }
+            }
+        }
+        
+        private void process(int count) {
+            long now = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                Task<?> task = batch[i];
+                batch[i] = null;
+                if (closed || maxQueueDelayNanos > 0L && now - task.enqueuedNanos > maxQueueDelayNanos) {
+                    expired.increment();
+                    task.reject(ErrorCode.OVERLOADED);
+                } else {
+                    VirtualMachineError fatal = task.run();
+                    completed.increment();
+                    if (fatal != null) {
+                        abandon(i + 1, count);
+                        throw fatal;
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Shed the rest of a batch and hand the queue to a fresh thread, before the current one
+         * dies of a virtual machine error
+         */
+        private void abandon(int from, int count) {
+            for (int i = from; i < count; i++) {
+                Task<?> task = batch[i];
+                batch[i] = null;
+                expired.increment();
+                task.reject(ErrorCode.OVERLOADED);
+            }
+            start(thread.getName());
+        }
+    }
+    
+    /**
+     * Verification executor builder
+     */
+    public static final class Builder {
+        
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private int batchSize = 32;
+        private long maxQueueDelayMillis;
+        private SheddingPolicy sheddingPolicy = SheddingPolicy.REJECT;
+        
+        private Builder() {
+        }
+        
+        /**
+         * Set number of worker threads (default the number of available processors)
+         * 
+         * @param workers Worker threads
+         * @return This builder
+         */
+        public Builder workers(int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("Worker count must be positive");
+            }
+            this.workers = workers;
+            return this;
+        }
+        
+        /**
+         * Set capacity of each worker's queue (default 1024)
+         * 
+         * @param queueCapacity Queued tokens per worker, rounded up to a power of two
+         * @return This builder
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0 || queueCapacity > 1 << 30) {
+                throw new IllegalArgumentException("Queue capacity must be between 1 and 2^30");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+        
+        /**
+         * Set most tokens a worker takes from its queue at once (default 32)
+         * 
+         * @param batchSize Batch size
+         * @return This builder
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+        
+        /**
+         * Shed tokens that waited in a queue longer than this (default 0, no limit)
+         * 
+         * @param maxQueueDelayMillis Queue delay limit (milliseconds), 0 for none
+         * @return This builder
+         */
+        public Builder maxQueueDelayMillis(long maxQueueDelayMillis) {
+            if (maxQueueDelayMillis < 0) {
+                throw new IllegalArgumentException("Queue delay limit cannot be negative");
+            }
+            this.maxQueueDelayMillis = maxQueueDelayMillis;
+            return this;
+        }
+        
+        /**
+         * Set what happens to tokens that find the queues full (default {@link SheddingPolicy#REJECT})
+         * 
+         * @param sheddingPolicy Shedding policy
+         * @return This builder
+         */
+        public Builder sheddingPolicy(SheddingPolicy sheddingPolicy) {
+            if (sheddingPolicy == null) {
+                throw new IllegalArgumentException("Shedding policy cannot be null");
+            }
+            this.sheddingPolicy = sheddingPolicy;
+            return this;
+        }
+        
+        /**
+         * Build executor and start its workers
+         * 
+         * @return Executor
+         */
+        public VerificationExecutor build() {
+            return new VerificationExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package tech.sud.auth.gip.auth.guard;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issuance guard
+ * Throttles token issuance per uid and per app ID, so a runaway client loop is turned away
+ * before any signing work is done. Each key owns a GCRA token bucket (generic cell rate
+ * algorithm): a single {@link AtomicLong} holding the theoretical arrival time of the next
+ * permit, updated by compare-and-set, so admission takes no locks.
+ * 
+ * Buckets live in striped {@link ConcurrentHashMap}s. Numeric uids are keyed by their long value,
+ * so {@link #tryAcquire(String, long)} builds no uid string, and a text uid that is the canonical
+ * decimal form of a long shares that bucket. Each stripe is swept of idle buckets at
+ * most once per idle timeout, on the calling thread, so no background thread is needed. A bucket
+ * that has been idle that long is full again, so evicting it loses no state.
+ * 
+ * <pre>
+ * IssuanceGuard guard = IssuanceGuard.builder()
+ *         .perUid(5.0, 10)
+ *         .perAppId(2000.0, 4000)
+ *         .build();
+ * </pre>
+ * 
+ * Time is read from {@link System#nanoTime()} unless a {@link Clock} is set, which tests use to
+ * move time by hand. Instances are thread-safe and may be shared by several SDK instances.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class IssuanceGuard {
+    
+    /**
+     * Arrival time marking a bucket that is being evicted
+     */
+    private static final long EVICTED = Long.MIN_VALUE;
+    
+    private final Limit uidLimit;
+    private final Limit appIdLimit;
+    private final Stripe[] uidStripes;
+    private final Stripe[] appIdStripes;
+    private final long idleNanos;
+    
+    /**
+     * Clock replacing {@link System#nanoTime()}, or null
+     */
+    private final Clock clock;
+    
+    private IssuanceGuard(Builder builder) {
+        this.uidLimit = builder.uidLimit;
+        this.appIdLimit = builder.appIdLimit;
+        this.idleNanos = builder.idleTimeoutMillis * 1000000L;
+        this.clock = builder.clock;
+        int stripes = Math.max(Integer.highestOneBit(builder.stripes - 1) << 1, 1);
+        long now = nanoTime();
+        this.uidStripes = uidLimit == null ? null : newStripes(stripes, now + idleNanos);
+        this.appIdStripes = appIdLimit == null ? null : newStripes(stripes, now + idleNanos);
+    }
+    
+    /**
+     * Create guard builder
+     * 
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Take one issuance permit for a uid of an application
+     * The uid bucket is charged first; if the app ID bucket then refuses, the uid permit is
+     * handed back. Uid buckets are keyed by uid alone, so a guard shared by several applications
+     * throttles a uid across all of them.
+     * 
+     * @param appId Application ID
+     * @param uid User ID
+     * @return Whether issuance may proceed
+     */
+    public boolean tryAcquire(String appId, String uid) {
+        if (uidLimit != null && isCanonicalLong(uid)) {
+            return tryAcquire(appId, Long.parseLong(uid));
+        }
+        long now = nanoTime();
+        AtomicLong uidBucket = null;
+        if (uidLimit != null) {
+            Stripe stripe = stripe(uidStripes, uid.hashCode());
+            uidBucket = acquire(stripe, stripe.buckets, uidLimit, uid, now);
+            if (uidBucket == null) {
+                return false;
+            }
+        }
+        return acquireAppId(appId, uidBucket, now);
+    }
+    
+    /**
+     * Take one issuance permit for a numeric uid of an application
+     * Same as {@link #tryAcquire(String, String)} with the decimal form of the uid, whose bucket
+     * it shares, without creating that string.
+     * 
+     * @param appId Application ID
+     * @param uid User ID
+     * @return Whether issuance may proceed
+     */
+    public boolean tryAcquire(String appId, long uid) {
+        long now = nanoTime();
+        AtomicLong uidBucket = null;
+        if (uidLimit != null) {
+            Stripe stripe = stripe(uidStripes, Long.hashCode(uid));
+            uidBucket = acquire(stripe, stripe.numericBuckets, uidLimit, uid, now);
+            if (uidBucket == null) {
+                return false;
+            }
+        }
+        return acquireAppId(appId, uidBucket, now);
+    }
+    
+    /**
+     * Charge the app ID bucket once the uid bucket admitted, handing the uid permit back on refusal
+     */
+    private boolean acquireAppId(String appId, AtomicLong uidBucket, long now) {
+        if (appIdLimit == null) {
+            return true;
+        }
+        Stripe stripe = stripe(appIdStripes, appId.hashCode());
+        if (acquire(stripe, stripe.buckets, appIdLimit, appId, now) == null) {
+            if (uidBucket != null) {
+                release(uidBucket, uidLimit);
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Get number of tracked buckets
+     * 
+     * @return Uid and app ID buckets currently held
+     */
+    public int size() {
+        return size(uidStripes) + size(appIdStripes);
+    }
+    
+    /**
+     * Remove all buckets, granting every key a full burst again
+     */
+    public void clear() {
+        clear(uidStripes);
+        clear(appIdStripes);
+    }
+    
+    private long nanoTime() {
+        return clock == null ? System.nanoTime() : clock.millis() * 1000000L;
+    }
+    
+    /**
+     * Whether a uid is the canonical decimal form of a long, as {@link Long#toString(long)} writes it
+     */
+    static boolean isCanonicalLong(String uid) {
+        int length = uid.length();
+        int start = length > 0 && uid.charAt(0) == '-' ? 1 : 0;
+        int digits = length - start;
+        if (digits == 0 || digits > 19 || uid.charAt(start) == '0' && (digits > 1 || start == 1)) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = uid.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (digits == 19) {
+            // Compare against the long range as text
+            String limit = start == 1 ? "9223372036854775808" : "9223372036854775807";
+            for (int i = 0; i < 19; i++) {
+                char c = uid.charAt(start + i);
+                if (c != limit.charAt(i)) {
+                    return c < limit.charAt(i);
+                }
+            }
+        }
+        return true;
+    }
+    
+    private static Stripe stripe(Stripe[] stripes, int h) {
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+    
+    private <K> AtomicLong acquire(Stripe stripe, ConcurrentHashMap<K, AtomicLong> buckets, Limit limit, K key,
+                                   long now) {
+        stripe.sweepIfDue(now, idleNanos);
+        AtomicLong bucket = buckets.get(key);
+        while (true) {
+            if (bucket == null) {
+                // A new bucket starts full
+                AtomicLong created = new AtomicLong(now);
+                bucket = buckets.putIfAbsent(key, created);
+                if (bucket == null) {
+                    bucket = created;
+                }
+            }
+            long tat = bucket.get();
+            if (tat == EVICTED) {
+                buckets.remove(key, bucket);
+                bucket = null;
+                continue;
+            }
+            long next = (tat - now > 0 ? tat : now) + limit.intervalNanos;
+            if (next - now > limit.intervalNanos + limit.toleranceNanos) {
+                return null;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return bucket;
+            }
+        }
+    }
+    
+    private static void release(AtomicLong bucket, Limit limit) {
+        while (true) {
+            long tat = bucket.get();
+            if (tat == EVICTED || bucket.compareAndSet(tat, tat - limit.intervalNanos)) {
+                return;
+            }
+        }
+    }
+    
+    private static Stripe[] newStripes(int count, long firstSweep) {
+        Stripe[] stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(firstSweep);
+        }
+        return stripes;
+    }
+    
+    private static int size(Stripe[] stripes) {
+        int size = 0;
+        if (stripes != null) {
+            for (Stripe stripe : stripes) {
+                size += stripe.buckets.size() + stripe.numericBuckets.size();
+            }
+        }
+        return size;
+    }
+    
+    private static void clear(Stripe[] stripes) {
+        if (stripes != null) {
+            for (Stripe stripe : stripes) {
+                stripe.buckets.clear();
+                stripe.numericBuckets.clear();
+            }
+        }
+    }
+    
+    /**
+     * Rate of one bucket kind in GCRA terms
+     */
+    private static final class Limit {
+        final long intervalNanos;
+        final long toleranceNanos;
+        
+        Limit(double permitsPerSecond, int burst) {
+            this.intervalNanos = Math.max((long) (1e9 / permitsPerSecond), 1L);
+            this.toleranceNanos = intervalNanos * (burst - 1);
+        }
+    }
+    
+    /**
+     * One stripe of buckets with its own sweep schedule
+     */
+    private static final class Stripe {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, AtomicLong> numericBuckets = new ConcurrentHashMap<>();
+        final AtomicLong nextSweep;
+        
+        Stripe(long firstSweep) {
+            this.nextSweep = new AtomicLong(firstSweep);
+        }
+        
+        void sweepIfDue(long now, long idleNanos) {
+            long due = nextSweep.get();
+            if (now - due < 0 || !nextSweep.compareAndSet(due, now + idleNanos)) {
+                return;
+            }
+            sweep(buckets, now, idleNanos);
+            sweep(numericBuckets, now, idleNanos);
+        }
+        
+        private static <K> void sweep(ConcurrentHashMap<K, AtomicLong> buckets, long now, long idleNanos) {
+            Iterator<Map.Entry<K, AtomicLong>> it = buckets.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, AtomicLong> entry = it.next();
+                AtomicLong bucket = entry.getValue();
+                long tat = bucket.get();
+                // Mark first so that a concurrent acquire retries on a fresh bucket
+                if (tat != EVICTED && now - tat >= idleNanos && bucket.compareAndSet(tat, EVICTED)) {
+                    buckets.remove(entry.getKey(), bucket);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Issuance guard builder
+     */
+    public static final class Builder {
+        
+        private Limit uidLimit;
+        private Limit appIdLimit;
+        private long idleTimeoutMillis = 60000L;
+        private int stripes = 16;
+        private Clock clock;
+        
+        private Builder() {
+        }
+        
+        /**
+         * Limit issuance per uid
+         * 
+         * @param permitsPerSecond Sustained rate
+         * @param burst Permits available at once to an idle uid
+         * @return This builder
+         */
+        public Builder perUid(double permitsPerSecond, int burst) {
+            this.uidLimit = limit(permitsPerSecond, burst);
+            return this;
+        }
+        
+        /**
+         * Limit issuance per app ID
+         * 
+         * @param permitsPerSecond Sustained rate
+         * @param burst Permits available at once to an idle application
+         * @return This builder
+         */
+        public Builder perAppId(double permitsPerSecond, int burst) {
+            this.appIdLimit = limit(permitsPerSecond, burst);
+            return this;
+        }
+        
+        /**
+         * Set how long a bucket stays tracked after its last permit refilled (default 60 seconds)
+         * 
+         * @param idleTimeoutMillis Idle timeout (milliseconds)
+         * @return This builder
+         */
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            if (idleTimeoutMillis <= 0) {
+                throw new IllegalArgumentException("Idle timeout must be positive");
+            }
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+        
+        /**
+         * Set number of map stripes per bucket kind, rounded up to a power of two (default 16)
+         * 
+         * @param stripes Stripe count
+         * @return This builder
+         */
+        public Builder stripes(int stripes) {
+            if (stripes <= 0 || stripes > 1 << 16) {
+                throw new IllegalArgumentException("Stripe count must be between 1 and 65536");
+            }
+            this.stripes = stripes;
+            return this;
+        }
+        
+        /**
+         * Read time from a clock instead of {@link System#nanoTime()}
+         * Rates are then measured in whole milliseconds and follow any adjustment of the clock, so
+         * this is meant for clocks under test control, e.g. the one given to the SDK.
+         * 
+         * @param clock Clock
+         * @return This builder
+         */
+        public Builder clock(Clock clock) {
+            if (clock == null) {
+                throw new IllegalArgumentException("Clock cannot be null");
+            }
+            this.clock = clock;
+            return this;
+        }
+        
+        /**
+         * Build guard
+         * 
+         * @return Guard
+         * @throws IllegalStateException Neither limit configured
+         */
+        public IssuanceGuard build() {
+            if (uidLimit == null && appIdLimit == null) {
+                throw new IllegalStateException("At least one of perUid and perAppId must be set");
+            }
+            return new IssuanceGuard(this);
+        }
+        
+        private static Limit limit(double permitsPerSecond, int burst) {
+            if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+                throw new IllegalArgumentException("Rate must be positive");
+            }
+            if (burst <= 0) {
+                throw new IllegalArgumentException("Burst must be positive");
+            }
+            return new Limit(permitsPerSecond, burst);
+        }
+    }
+}
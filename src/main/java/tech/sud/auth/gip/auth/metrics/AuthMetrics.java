@@ -0,0 +1,52 @@
+package tech.sud.auth.gip.auth.metrics;
+
+/**
+ * Metrics SPI
+ * Receives one callback per issuance and per verification made through
+ * {@link tech.sud.auth.gip.auth.SudGIPAuth}, with the resulting error code
+ * ({@link tech.sud.auth.gip.auth.constant.ErrorCode#SUCCESS} on success) and the elapsed time,
+ * and the signing backend of each instance once when it is built.
+ * Callbacks run on the calling thread inside the request, so implementations must be
+ * thread-safe and cheap, e.g. adding to counters.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public interface AuthMetrics {
+    
+    /**
+     * Metrics that discard everything
+     */
+    AuthMetrics NONE = new AuthMetrics() {
+    };
+    
+    /**
+     * Record a token issuance
+     * 
+     * @param appId Application ID
+     * @param errorCode Result error code
+     * @param elapsedNanos Elapsed time (nanoseconds)
+     */
+    default void onIssue(String appId, int errorCode, long elapsedNanos) {
+    }
+    
+    /**
+     * Record a token verification
+     * 
+     * @param appId Application ID
+     * @param errorCode Result error code
+     * @param elapsedNanos Elapsed time (nanoseconds)
+     */
+    default void onVerify(String appId, int errorCode, long elapsedNanos) {
+    }
+    
+    /**
+     * Record the signing backend an instance was built with
+     * 
+     * @param appId Application ID
+     * @param backend Backend name, as returned by
+     *                {@link tech.sud.auth.gip.auth.SudGIPAuth#getCryptoBackend()}
+     */
+    default void onBackendSelected(String appId, String backend) {
+    }
+}
@@ -0,0 +1,280 @@
+package tech.sud.auth.gip.auth.metrics;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Point-in-time copy of {@link TenantStats} counters
+ * Filled by {@link TenantStats#snapshot(StatsSnapshot)}; a monitoring agent keeps one or two
+ * instances and refills them on every scrape, so reading allocates nothing once they have room for
+ * all tenants. Not thread-safe.
+ * 
+ * {@link #writeTo(Appendable)} writes the Prometheus text exposition format, e.g.
+ * <pre>
+ * sudgip_operations_total{app_id="app",operation="verify",code="1005"} 12
+ * sudgip_operation_nanoseconds_total{app_id="app",operation="verify"} 845210
+ * sudgip_backend_info{app_id="app",backend="midstate"} 1
+ * </pre>
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class StatsSnapshot {
+    
+    private static final TenantStats.Operation[] OPERATION_VALUES = TenantStats.Operation.values();
+    private static final int OPERATIONS = OPERATION_VALUES.length;
+    private static final int COUNTS_PER_TENANT = OPERATIONS * TenantStats.CODES.length;
+    
+    private String[] appIds = new String[0];
+    private String[] backends = new String[0];
+    private long[] counts = new long[0];
+    private long[] nanos = new long[0];
+    private int tenantCount;
+    private long timeMillis;
+    
+    /**
+     * Constructor of an empty snapshot
+     */
+    public StatsSnapshot() {
+    }
+    
+    /**
+     * Get time the snapshot was taken
+     * 
+     * @return Epoch milliseconds
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+    
+    /**
+     * Get number of tenants
+     * 
+     * @return Tenant count
+     */
+    public int getTenantCount() {
+        return tenantCount;
+    }
+    
+    /**
+     * Get app ID of a tenant
+     * 
+     * @param tenant Tenant index
+     * @return App ID, or {@link TenantStats#OTHER_APP_IDS}
+     */
+    public String getAppId(int tenant) {
+        checkTenant(tenant);
+        return appIds[tenant];
+    }
+    
+    /**
+     * Get signing backend of a tenant
+     * 
+     * @param tenant Tenant index
+     * @return Backend name, or null if none was reported
+     */
+    public String getBackend(int tenant) {
+        checkTenant(tenant);
+        return backends[tenant];
+    }
+    
+    /**
+     * Get index of a tenant
+     * 
+     * @param appId App ID
+     * @return Tenant index, or -1 if not tracked
+     */
+    public int indexOf(String appId) {
+        for (int i = 0; i < tenantCount; i++) {
+            if (appIds[i].equals(appId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Get count of operations with an error code ({@link ErrorCode#SUCCESS} for successes)
+     * 
+     * @param tenant Tenant index
+     * @param operation Operation
+     * @param errorCode Error code
+     * @return Operation count
+     */
+    public long getCount(int tenant, TenantStats.Operation operation, int errorCode) {
+        checkTenant(tenant);
+        int code = TenantStats.codeIndex(errorCode);
+        return TenantStats.CODES[code] == errorCode ? counts[countIndex(tenant, operation.ordinal(), code)] : 0L;
+    }
+    
+    /**
+     * Get count of operations with any result
+     * 
+     * @param tenant Tenant index
+     * @param operation Operation
+     * @return Operation count
+     */
+    public long getTotal(int tenant, TenantStats.Operation operation) {
+        checkTenant(tenant);
+        long total = 0L;
+        for (int code = 0; code < TenantStats.CODES.length; code++) {
+            total += counts[countIndex(tenant, operation.ordinal(), code)];
+        }
+        return total;
+    }
+    
+    /**
+     * Get time spent in operations
+     * 
+     * @param tenant Tenant index
+     * @param operation Operation
+     * @return Elapsed time (nanoseconds)
+     */
+    public long getElapsedNanos(int tenant, TenantStats.Operation operation) {
+        checkTenant(tenant);
+        return nanos[tenant * OPERATIONS + operation.ordinal()];
+    }
+    
+    /**
+     * Write the snapshot in the Prometheus text exposition format
+     * Zero counts of error codes are left out, except successes, and tenants without a reported
+     * backend have no backend info line. Nothing is allocated beyond what the target needs to hold
+     * the text.
+     * 
+     * @param out Target, e.g. a reused {@link StringBuilder}
+     * @throws IOException Write failure
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append("# HELP sudgip_operations_total Token issuances and verifications by result\n");
+        out.append("# TYPE sudgip_operations_total counter\n");
+        for (int tenant = 0; tenant < tenantCount; tenant++) {
+            for (TenantStats.Operation operation : OPERATION_VALUES) {
+                for (int code = 0; code < TenantStats.CODES.length; code++) {
+                    long count = counts[countIndex(tenant, operation.ordinal(), code)];
+                    if (count == 0L && code != 0) {
+                        continue;
+                    }
+                    out.append("sudgip_operations_total");
+                    labels(out, tenant, operation);
+                    out.append(",code=\"");
+                    number(out, TenantStats.CODES[code]);
+                    out.append("\"} ");
+                    number(out, count);
+                    out.append('\n');
+                }
+            }
+        }
+        out.append("# HELP sudgip_operation_nanoseconds_total Time spent in issuances and verifications\n");
+        out.append("# TYPE sudgip_operation_nanoseconds_total counter\n");
+        for (int tenant = 0; tenant < tenantCount; tenant++) {
+            for (TenantStats.Operation operation : OPERATION_VALUES) {
+                out.append("sudgip_operation_nanoseconds_total");
+                labels(out, tenant, operation);
+                out.append("} ");
+                number(out, nanos[tenant * OPERATIONS + operation.ordinal()]);
+                out.append('\n');
+            }
+        }
+        out.append("# HELP sudgip_backend_info Signing backend by app ID\n");
+        out.append("# TYPE sudgip_backend_info gauge\n");
+        for (int tenant = 0; tenant < tenantCount; tenant++) {
+            if (backends[tenant] == null) {
+                continue;
+            }
+            out.append("sudgip_backend_info{app_id=\"");
+            escape(out, appIds[tenant]);
+            out.append("\",backend=\"");
+            escape(out, backends[tenant]);
+            out.append("\"} 1\n");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(256 * (tenantCount + 1));
+        try {
+            writeTo(text);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Clear the snapshot for a number of tenants, growing its arrays when needed
+     */
+    void reset(int tenants, long timeMillis) {
+        if (appIds.length < tenants) {
+            int capacity = Math.max(tenants, appIds.length * 2);
+            appIds = Arrays.copyOf(appIds, capacity);
+            backends = new String[capacity];
+            counts = new long[capacity * COUNTS_PER_TENANT];
+            nanos = new long[capacity * OPERATIONS];
+        }
+        this.tenantCount = tenants;
+        this.timeMillis = timeMillis;
+    }
+    
+    void setAppId(int tenant, String appId, String backend) {
+        appIds[tenant] = appId;
+        backends[tenant] = backend;
+    }
+    
+    void setCount(int tenant, int index, long count) {
+        counts[tenant * COUNTS_PER_TENANT + index] = count;
+    }
+    
+    void setNanos(int tenant, int operation, long elapsedNanos) {
+        nanos[tenant * OPERATIONS + operation] = elapsedNanos;
+    }
+    
+    private static int countIndex(int tenant, int operation, int code) {
+        return tenant * COUNTS_PER_TENANT + operation * TenantStats.CODES.length + code;
+    }
+    
+    private void checkTenant(int tenant) {
+        if (tenant < 0 || tenant >= tenantCount) {
+            throw new IndexOutOfBoundsException("Tenant " + tenant + " of " + tenantCount);
+        }
+    }
+    
+    private void labels(Appendable out, int tenant, TenantStats.Operation operation) throws IOException {
+        out.append("{app_id=\"");
+        escape(out, appIds[tenant]);
+        out.append("\",operation=\"").append(operation.getLabel()).append('"');
+    }
+    
+    /**
+     * Append a label value, escaping backslashes, quotes and line feeds
+     */
+    private static void escape(Appendable out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+    
+    /**
+     * Append a decimal number without creating a string
+     */
+    private static void number(Appendable out, long value) throws IOException {
+        if (value < 0) {
+            out.append('-');
+        }
+        long divisor = 1L;
+        while (value / divisor >= 10L || value / divisor <= -10L) {
+            divisor *= 10L;
+        }
+        for (; divisor > 0; divisor /= 10L) {
+            out.append((char) ('0' + Math.abs(value / divisor % 10L)));
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package tech.sud.auth.gip.auth.metrics;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-tenant statistics
+ * {@link AuthMetrics} counting issuances and verifications per app ID, operation and
+ * {@link ErrorCode}, plus their elapsed time, in striped {@link LongAdder}s. Recording takes no
+ * lock and allocates nothing once a tenant is registered, so one instance can be shared by every
+ * {@link tech.sud.auth.gip.auth.SudGIPAuth} of a multi-tenant service.
+ * 
+ * The signing backend reported by {@link #onBackendSelected(String, String)} is kept per app ID,
+ * the last one reported winning.
+ * 
+ * Counters only grow. {@link #snapshot(StatsSnapshot)} reads them into a reusable snapshot
+ * without allocating; rates are the difference between two snapshots over their time
+ * difference. Error codes not defined in {@link ErrorCode} are counted as
+ * {@link ErrorCode#UNKNOWN_ERROR}.
+ * 
+ * <pre>
+ * TenantStats stats = new TenantStats();
+ * SudGIPAuth auth = SudGIPAuth.builder(appId).appSecret(appSecret).metrics(stats).build();
+ * ...
+ * StatsSnapshot snapshot = stats.snapshot(null);
+ * snapshot.writeTo(out);
+ * </pre>
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class TenantStats implements AuthMetrics {
+    
+    /**
+     * Default number of distinct app IDs tracked
+     */
+    public static final int DEFAULT_MAX_TENANTS = 1024;
+    
+    /**
+     * App ID counting app IDs beyond the tenant limit
+     */
+    public static final String OTHER_APP_IDS = "(other)";
+    
+    /**
+     * Counted error codes, in exposition order
+     */
+    static final int[] CODES = {
+            ErrorCode.SUCCESS,
+            ErrorCode.TOKEN_CREATION_FAILED,
+            ErrorCode.TOKEN_VERIFICATION_FAILED,
+            ErrorCode.TOKEN_DECODING_FAILED,
+            ErrorCode.TOKEN_INVALID,
+            ErrorCode.TOKEN_EXPIRED,
+            ErrorCode.TOKEN_REPLAYED,
+            ErrorCode.SIGNATURE_INVALID,
+            ErrorCode.APP_DATA_INVALID,
+            ErrorCode.RATE_LIMITED,
+            ErrorCode.OVERLOADED,
+            ErrorCode.UNKNOWN_ERROR
+    };
+    
+    /**
+     * Recorded operations
+     */
+    public enum Operation {
+        
+        /**
+         * Token issuance
+         */
+        ISSUE("issue"),
+        
+        /**
+         * Token verification
+         */
+        VERIFY("verify");
+        
+        private final String label;
+        
+        Operation(String label) {
+            this.label = label;
+        }
+        
+        /**
+         * Get label used in the text exposition
+         * 
+         * @return Label
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+    
+    private final int maxTenants;
+    private final ConcurrentHashMap<String, Tenant> byAppId = new ConcurrentHashMap<>();
+    private volatile Tenant[] tenants = new Tenant[0];
+    private volatile Tenant other;
+    private volatile boolean full;
+    
+    /**
+     * Constructor tracking up to {@link #DEFAULT_MAX_TENANTS} app IDs
+     */
+    public TenantStats() {
+        this(DEFAULT_MAX_TENANTS);
+    }
+    
+    /**
+     * Constructor
+     * 
+     * @param maxTenants Distinct app IDs tracked before further ones are counted under
+     *                   {@link #OTHER_APP_IDS}
+     */
+    public TenantStats(int maxTenants) {
+        if (maxTenants <= 0) {
+            throw new IllegalArgumentException("Tenant limit must be positive");
+        }
+        this.maxTenants = maxTenants;
+    }
+    
+    @Override
+    public void onIssue(String appId, int errorCode, long elapsedNanos) {
+        tenant(appId).record(Operation.ISSUE, errorCode, elapsedNanos);
+    }
+    
+    @Override
+    public void onVerify(String appId, int errorCode, long elapsedNanos) {
+        tenant(appId).record(Operation.VERIFY, errorCode, elapsedNanos);
+    }
+    
+    @Override
+    public void onBackendSelected(String appId, String backend) {
+        tenant(appId).backend = backend;
+    }
+    
+    /**
+     * Get number of tracked app IDs, including {@link #OTHER_APP_IDS} once used
+     * 
+     * @return Tenant count
+     */
+    public int getTenantCount() {
+        return tenants.length;
+    }
+    
+    /**
+     * Read all counters
+     * Counters are read one by one while requests go on, so a snapshot is not atomic across
+     * counters, but each counter is at least its value when the snapshot started.
+     * 
+     * @param reuse Snapshot to overwrite, or null for a new one; no allocation takes place when it
+     *              has room for the current tenants
+     * @return Filled snapshot
+     */
+    public StatsSnapshot snapshot(StatsSnapshot reuse) {
+        Tenant[] current = tenants;
+        StatsSnapshot snapshot = reuse != null ? reuse : new StatsSnapshot();
+        snapshot.reset(current.length, System.currentTimeMillis());
+        for (int i = 0; i < current.length; i++) {
+            Tenant tenant = current[i];
+            snapshot.setAppId(i, tenant.appId, tenant.backend);
+            for (int c = 0; c < tenant.counts.length; c++) {
+                snapshot.setCount(i, c, tenant.counts[c].sum());
+            }
+            for (int o = 0; o < tenant.nanos.length; o++) {
+                snapshot.setNanos(i, o, tenant.nanos[o].sum());
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Get index of an error code in {@link #CODES}, unknown codes mapping to
+     * {@link ErrorCode#UNKNOWN_ERROR}
+     */
+    static int codeIndex(int errorCode) {
+        for (int i = 0; i < CODES.length - 1; i++) {
+            if (CODES[i] == errorCode) {
+                return i;
+            }
+        }
+        return CODES.length - 1;
+    }
+    
+    private Tenant tenant(String appId) {
+        Tenant tenant = appId == null ? null : byAppId.get(appId);
+        if (tenant != null) {
+            return tenant;
+        }
+        Tenant overflow = other;
+        return overflow != null && (appId == null || full) ? overflow : register(appId);
+    }
+    
+    /**
+     * Register a new app ID, or route it to the overflow tenant once the limit is reached
+     */
+    private synchronized Tenant register(String appId) {
+        if (appId != null) {
+            Tenant tenant = byAppId.get(appId);
+            if (tenant != null) {
+                return tenant;
+            }
+            if (byAppId.size() < maxTenants) {
+                tenant = append(new Tenant(appId));
+                byAppId.put(appId, tenant);
+                return tenant;
+            }
+            full = true;
+        }
+        if (other == null) {
+            other = append(new Tenant(OTHER_APP_IDS));
+        }
+        return other;
+    }
+    
+    private Tenant append(Tenant tenant) {
+        Tenant[] grown = Arrays.copyOf(tenants, tenants.length + 1);
+        grown[tenants.length] = tenant;
+        tenants = grown;
+        return tenant;
+    }
+    
+    /**
+     * Counters of one app ID
+     */
+    private static final class Tenant {
+        
+        private final String appId;
+        
+        /**
+         * Signing backend, or null until reported
+         */
+        private volatile String backend;
+        
+        /**
+         * Counts indexed by operation ordinal times {@link #CODES} length plus code index
+         */
+        private final LongAdder[] counts;
+        
+        /**
+         * Elapsed nanoseconds indexed by operation ordinal
+         */
+        private final LongAdder[] nanos;
+        
+        Tenant(String appId) {
+            this.appId = appId;
+            this.counts = adders(Operation.values().length * CODES.length);
+            this.nanos = adders(Operation.values().length);
+        }
+        
+        void record(Operation operation, int errorCode, long elapsedNanos) {
+            counts[operation.ordinal() * CODES.length + codeIndex(errorCode)].increment();
+            nanos[operation.ordinal()].add(elapsedNanos);
+        }
+        
+        private static LongAdder[] adders(int length) {
+            LongAdder[] adders = new LongAdder[length];
+            for (int i = 0; i < length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
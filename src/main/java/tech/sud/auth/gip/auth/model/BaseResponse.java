@@ -4,7 +4,9 @@ import tech.sud.auth.gip.auth.constant.ErrorCode;
 
 /**
  * Sud GIP Auth base response class
- * Base class for all response classes, containing common status information
+ * Base class for all response classes, containing common status information.
+ * Responses are immutable; error responses for known error codes are shared singletons
+ * (see {@link ErrorResponseCache}), mutable variants live in the {@code model.compat} package.
  * 
  * @author Sud Technology
  * @version 1.0.0
@@ -14,20 +16,20 @@ public abstract class BaseResponse {
     /**
      * Whether the operation is successful
      */
-    private boolean isSuccess;
+    private final boolean isSuccess;
     
     /**
      * Error code
      */
-    private int errorCode;
+    private final int errorCode;
     
     /**
      * Error message
      */
-    private String errorMessage;
+    private final String errorMessage;
     
     /**
-     * Default constructor
+     * Default constructor (success)
      */
     public BaseResponse() {
         this.isSuccess = true;
@@ -59,7 +61,7 @@ public abstract class BaseResponse {
     public BaseResponse(int errorCode) {
         this.isSuccess = ErrorCode.isSuccess(errorCode);
         this.errorCode = errorCode;
-        this.errorMessage = ErrorCode.getErrorMessage(errorCode);
+        this.errorMessage = this.isSuccess ? null : ErrorCode.getErrorMessage(errorCode);
     }
     
     /**
@@ -84,15 +86,6 @@ public abstract class BaseResponse {
         return isSuccess;
     }
     
-    /**
-     * Set whether the operation is successful
-     * 
-     * @param success Whether successful
-     */
-    public void setSuccess(boolean success) {
-        this.isSuccess = success;
-    }
-    
     /**
      * Get error code
      * 
@@ -102,19 +95,6 @@ public abstract class BaseResponse {
         return errorCode;
     }
     
-    /**
-     * Set error code
-     * 
-     * @param errorCode Error code
-     */
-    public void setErrorCode(int errorCode) {
-        this.errorCode = errorCode;
-        this.isSuccess = ErrorCode.isSuccess(errorCode);
-        if (this.errorMessage == null) {
-            this.errorMessage = ErrorCode.getErrorMessage(errorCode);
-        }
-    }
-    
     /**
      * Get error message
      * 
@@ -124,36 +104,6 @@ public abstract class BaseResponse {
         return errorMessage;
     }
     
-    /**
-     * Set error message
-     * 
-     * @param errorMessage Error message
-     */
-    public void setErrorMessage(String errorMessage) {
-        this.errorMessage = errorMessage;
-    }
-    
-    /**
-     * Set error status
-     * 
-     * @param errorCode Error code
-     * @param errorMessage Error message
-     */
-    public void setError(int errorCode, String errorMessage) {
-        this.isSuccess = false;
-        this.errorCode = errorCode;
-        this.errorMessage = errorMessage;
-    }
-    
-    /**
-     * Set success status
-     */
-    public void setSuccess() {
-        this.isSuccess = true;
-        this.errorCode = ErrorCode.SUCCESS;
-        this.errorMessage = null;
-    }
-    
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{" +
@@ -162,4 +112,4 @@ public abstract class BaseResponse {
                 ", errorMessage='" + errorMessage + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -12,32 +12,30 @@ import java.util.Date;
 public class CodeResponse extends BaseResponse {
     
     /**
-     * Generated authentication code
+     * Shared error responses
      */
-    private String code;
+    private static final ErrorResponseCache<CodeResponse> ERRORS = new ErrorResponseCache<>(CodeResponse::new);
     
     /**
-     * Authentication code expiration time
+     * Generated authentication code
      */
-    private Date expireDate;
+    private final String code;
     
     /**
-     * Default constructor
+     * Authentication code expiration time (epoch seconds, 0 when not set)
      */
-    public CodeResponse() {
-        super();
-    }
+    private final long expireAt;
     
     /**
      * Success response constructor
      * 
      * @param code Authentication code
-     * @param expireDate Expiration time
+     * @param expireAt Expiration time (epoch seconds)
      */
-    public CodeResponse(String code, Date expireDate) {
+    public CodeResponse(String code, long expireAt) {
         super();
         this.code = code;
-        this.expireDate = expireDate;
+        this.expireAt = expireAt;
     }
     
     /**
@@ -47,6 +45,8 @@ public class CodeResponse extends BaseResponse {
      */
     public CodeResponse(int errorCode) {
         super(errorCode);
+        this.code = null;
+        this.expireAt = 0L;
     }
     
     /**
@@ -56,12 +56,12 @@ public class CodeResponse extends BaseResponse {
      * @param errorCode Error code
      * @param errorMessage Error message
      * @param code Authentication code
-     * @param expireDate Expiration time
+     * @param expireAt Expiration time (epoch seconds)
      */
-    public CodeResponse(boolean isSuccess, int errorCode, String errorMessage, String code, Date expireDate) {
+    public CodeResponse(boolean isSuccess, int errorCode, String errorMessage, String code, long expireAt) {
         super(isSuccess, errorCode, errorMessage);
         this.code = code;
-        this.expireDate = expireDate;
+        this.expireAt = expireAt;
     }
     
     /**
@@ -74,30 +74,34 @@ public class CodeResponse extends BaseResponse {
     }
     
     /**
-     * Set authentication code
+     * Get expiration time
      * 
-     * @param code Authentication code
+     * @return Expiration time (epoch seconds, 0 when not set)
      */
-    public void setCode(String code) {
-        this.code = code;
+    public long getExpireAt() {
+        return expireAt;
     }
     
     /**
-     * Get expiration time
+     * Get expiration time as a date
+     * Derived from {@link #getExpireAt()} and allocated on every call; hot paths should prefer
+     * the epoch seconds.
      * 
-     * @return Expiration time
+     * @return Expiration time, or null when not set
      */
     public Date getExpireDate() {
-        return expireDate;
+        return expireAt == 0L ? null : new Date(expireAt * 1000L);
     }
     
     /**
-     * Set expiration time
+     * Create success response
      * 
-     * @param expireDate Expiration time
+     * @param code Authentication code
+     * @param expireAt Expiration time (epoch seconds)
+     * @return CodeResponse instance
      */
-    public void setExpireDate(Date expireDate) {
-        this.expireDate = expireDate;
+    public static CodeResponse success(String code, long expireAt) {
+        return new CodeResponse(code, expireAt);
     }
     
     /**
@@ -106,42 +110,42 @@ public class CodeResponse extends BaseResponse {
      * @param code Authentication code
      * @param expireDate Expiration time
      * @return CodeResponse instance
+     * @deprecated Use {@link #success(String, long)}
      */
+    @Deprecated
     public static CodeResponse success(String code, Date expireDate) {
-        return new CodeResponse(code, expireDate);
+        return new CodeResponse(code, expireDate == null ? 0L : expireDate.getTime() / 1000L);
     }
     
     /**
-     * Create error response
+     * Get error response
      * 
      * @param errorCode Error code
-     * @return CodeResponse instance
+     * @return Shared CodeResponse instance for known error codes
      */
     public static CodeResponse error(int errorCode) {
-        return new CodeResponse(errorCode);
+        return ERRORS.get(errorCode);
     }
     
     /**
-     * Create error response
+     * Create error response with a custom message
      * 
      * @param errorCode Error code
      * @param errorMessage Error message
      * @return CodeResponse instance
      */
     public static CodeResponse error(int errorCode, String errorMessage) {
-        CodeResponse response = new CodeResponse(errorCode);
-        response.setErrorMessage(errorMessage);
-        return response;
+        return new CodeResponse(false, errorCode, errorMessage, null, 0L);
     }
     
     @Override
     public String toString() {
         return "CodeResponse{" +
                 "code='" + code + '\'' +
-                ", expireDate=" + expireDate +
+                ", expireAt=" + expireAt +
                 ", isSuccess=" + isSuccess() +
                 ", errorCode=" + getErrorCode() +
                 ", errorMessage='" + getErrorMessage() + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package tech.sud.auth.gip.auth.model;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.util.function.IntFunction;
+
+/**
+ * Cache of immutable error responses, one shared instance per known {@link ErrorCode}
+ * Lookups are a linear scan over a handful of primitive keys, so serving an error
+ * response allocates nothing. Unknown error codes get a fresh instance.
+ * 
+ * @param <T> Response type
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+final class ErrorResponseCache<T extends BaseResponse> {
+    
+    /**
+     * Error codes that get a shared instance
+     */
+    private static final int[] KNOWN_CODES = {
+            ErrorCode.TOKEN_CREATION_FAILED,
+            ErrorCode.TOKEN_VERIFICATION_FAILED,
+            ErrorCode.TOKEN_DECODING_FAILED,
+            ErrorCode.TOKEN_INVALID,
+            ErrorCode.TOKEN_EXPIRED,
+            ErrorCode.TOKEN_REPLAYED,
+            ErrorCode.SIGNATURE_INVALID,
+            ErrorCode.APP_DATA_INVALID,
+            ErrorCode.RATE_LIMITED,
+            ErrorCode.OVERLOADED,
+            ErrorCode.UNKNOWN_ERROR
+    };
+    
+    /**
+     * Shared instances, index-aligned with {@link #KNOWN_CODES}
+     */
+    private final Object[] responses;
+    
+    /**
+     * Factory used for unknown error codes
+     */
+    private final IntFunction<T> factory;
+    
+    /**
+     * Constructor
+     * 
+     * @param factory Factory creating an error response for an error code
+     */
+    ErrorResponseCache(IntFunction<T> factory) {
+        this.factory = factory;
+        this.responses = new Object[KNOWN_CODES.length];
+        for (int i = 0; i < KNOWN_CODES.length; i++) {
+            responses[i] = factory.apply(KNOWN_CODES[i]);
+        }
+    }
+    
+    /**
+     * Get error response for an error code
+     * 
+     * @param errorCode Error code
+     * @return Shared instance for known error codes, new instance otherwise
+     */
+    @SuppressWarnings("unchecked")
+    T get(int errorCode) {
+        for (int i = 0; i < KNOWN_CODES.length; i++) {
+            if (KNOWN_CODES[i] == errorCode) {
+                return (T) responses[i];
+            }
+        }
+        return factory.apply(errorCode);
+    }
+}
@@ -0,0 +1,108 @@
+package tech.sud.auth.gip.auth.model;
+
+/**
+ * Numeric user ID response class
+ * Used to return a numeric user ID obtained through token as a primitive long
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public class LongUidResponse extends BaseResponse {
+    
+    /**
+     * Shared error responses
+     */
+    private static final ErrorResponseCache<LongUidResponse> ERRORS =
+            new ErrorResponseCache<>(errorCode -> new LongUidResponse(errorCode, 0L));
+    
+    /**
+     * User ID
+     */
+    private final long uid;
+    
+    /**
+     * Success response constructor
+     * 
+     * @param uid User ID
+     */
+    public LongUidResponse(long uid) {
+        super();
+        this.uid = uid;
+    }
+    
+    /**
+     * Complete constructor
+     * 
+     * @param isSuccess Whether successful
+     * @param errorCode Error code
+     * @param errorMessage Error message
+     * @param uid User ID
+     */
+    public LongUidResponse(boolean isSuccess, int errorCode, String errorMessage, long uid) {
+        super(isSuccess, errorCode, errorMessage);
+        this.uid = uid;
+    }
+    
+    /**
+     * Error response constructor
+     * Private and two-argument, so that an int user ID passed to {@link #LongUidResponse(long)}
+     * can never be taken for an error code.
+     * 
+     * @param errorCode Error code
+     * @param uid User ID
+     */
+    private LongUidResponse(int errorCode, long uid) {
+        super(errorCode);
+        this.uid = uid;
+    }
+    
+    /**
+     * Get user ID
+     * 
+     * @return User ID, 0 for error responses
+     */
+    public long getUid() {
+        return uid;
+    }
+    
+    /**
+     * Create success response
+     * 
+     * @param uid User ID
+     * @return LongUidResponse instance
+     */
+    public static LongUidResponse success(long uid) {
+        return new LongUidResponse(uid);
+    }
+    
+    /**
+     * Get error response
+     * 
+     * @param errorCode Error code
+     * @return Shared LongUidResponse instance for known error codes
+     */
+    public static LongUidResponse error(int errorCode) {
+        return ERRORS.get(errorCode);
+    }
+    
+    /**
+     * Create error response with a custom message
+     * 
+     * @param errorCode Error code
+     * @param errorMessage Error message
+     * @return LongUidResponse instance
+     */
+    public static LongUidResponse error(int errorCode, String errorMessage) {
+        return new LongUidResponse(false, errorCode, errorMessage, 0L);
+    }
+    
+    @Override
+    public String toString() {
+        return "LongUidResponse{" +
+                "uid=" + uid +
+                ", isSuccess=" + isSuccess() +
+                ", errorCode=" + getErrorCode() +
+                ", errorMessage='" + getErrorMessage() + '\'' +
+                '}';
+    }
+}
@@ -12,32 +12,30 @@ import java.util.Date;
 public class SSTokenResponse extends BaseResponse {
     
     /**
-     * Generated SSToken
+     * Shared error responses
      */
-    private String token;
+    private static final ErrorResponseCache<SSTokenResponse> ERRORS = new ErrorResponseCache<>(SSTokenResponse::new);
     
     /**
-     * SSToken expiration time
+     * Generated SSToken
      */
-    private Date expireDate;
+    private final String token;
     
     /**
-     * Default constructor
+     * SSToken expiration time (epoch seconds, 0 when not set)
      */
-    public SSTokenResponse() {
-        super();
-    }
+    private final long expireAt;
     
     /**
      * Success response constructor
      * 
      * @param token SSToken
-     * @param expireDate Expiration time
+     * @param expireAt Expiration time (epoch seconds)
      */
-    public SSTokenResponse(String token, Date expireDate) {
+    public SSTokenResponse(String token, long expireAt) {
         super();
         this.token = token;
-        this.expireDate = expireDate;
+        this.expireAt = expireAt;
     }
     
     /**
@@ -47,6 +45,8 @@ public class SSTokenResponse extends BaseResponse {
      */
     public SSTokenResponse(int errorCode) {
         super(errorCode);
+        this.token = null;
+        this.expireAt = 0L;
     }
     
     /**
@@ -56,12 +56,12 @@ public class SSTokenResponse extends BaseResponse {
      * @param errorCode Error code
      * @param errorMessage Error message
      * @param token SSToken
-     * @param expireDate Expiration time
+     * @param expireAt Expiration time (epoch seconds)
      */
-    public SSTokenResponse(boolean isSuccess, int errorCode, String errorMessage, String token, Date expireDate) {
+    public SSTokenResponse(boolean isSuccess, int errorCode, String errorMessage, String token, long expireAt) {
         super(isSuccess, errorCode, errorMessage);
         this.token = token;
-        this.expireDate = expireDate;
+        this.expireAt = expireAt;
     }
     
     /**
@@ -74,30 +74,34 @@ public class SSTokenResponse extends BaseResponse {
     }
     
     /**
-     * Set SSToken
+     * Get expiration time
      * 
-     * @param token SSToken
+     * @return Expiration time (epoch seconds, 0 when not set)
      */
-    public void setToken(String token) {
-        this.token = token;
+    public long getExpireAt() {
+        return expireAt;
     }
     
     /**
-     * Get expiration time
+     * Get expiration time as a date
+     * Derived from {@link #getExpireAt()} and allocated on every call; hot paths should prefer
+     * the epoch seconds.
      * 
-     * @return Expiration time
+     * @return Expiration time, or null when not set
      */
     public Date getExpireDate() {
-        return expireDate;
+        return expireAt == 0L ? null : new Date(expireAt * 1000L);
     }
     
     /**
-     * Set expiration time
+     * Create success response
      * 
-     * @param expireDate Expiration time
+     * @param token SSToken
+     * @param expireAt Expiration time (epoch seconds)
+     * @return SSTokenResponse instance
      */
-    public void setExpireDate(Date expireDate) {
-        this.expireDate = expireDate;
+    public static SSTokenResponse success(String token, long expireAt) {
+        return new SSTokenResponse(token, expireAt);
     }
     
     /**
@@ -106,42 +110,42 @@ public class SSTokenResponse extends BaseResponse {
      * @param token SSToken
      * @param expireDate Expiration time
      * @return SSTokenResponse instance
+     * @deprecated Use {@link #success(String, long)}
      */
+    @Deprecated
     public static SSTokenResponse success(String token, Date expireDate) {
-        return new SSTokenResponse(token, expireDate);
+        return new SSTokenResponse(token, expireDate == null ? 0L : expireDate.getTime() / 1000L);
     }
     
     /**
-     * Create error response
+     * Get error response
      * 
      * @param errorCode Error code
-     * @return SSTokenResponse instance
+     * @return Shared SSTokenResponse instance for known error codes
      */
     public static SSTokenResponse error(int errorCode) {
-        return new SSTokenResponse(errorCode);
+        return ERRORS.get(errorCode);
     }
     
     /**
-     * Create error response
+     * Create error response with a custom message
      * 
      * @param errorCode Error code
      * @param errorMessage Error message
      * @return SSTokenResponse instance
      */
     public static SSTokenResponse error(int errorCode, String errorMessage) {
-        SSTokenResponse response = new SSTokenResponse(errorCode);
-        response.setErrorMessage(errorMessage);
-        return response;
+        return new SSTokenResponse(false, errorCode, errorMessage, null, 0L);
     }
     
     @Override
     public String toString() {
         return "SSTokenResponse{" +
                 "token='" + token + '\'' +
-                ", expireDate=" + expireDate +
+                ", expireAt=" + expireAt +
                 ", isSuccess=" + isSuccess() +
                 ", errorCode=" + getErrorCode() +
                 ", errorMessage='" + getErrorMessage() + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -10,16 +10,14 @@ package tech.sud.auth.gip.auth.model;
 public class UidResponse extends BaseResponse {
     
     /**
-     * User ID
+     * Shared error responses
      */
-    private String uid;
+    private static final ErrorResponseCache<UidResponse> ERRORS = new ErrorResponseCache<>(UidResponse::new);
     
     /**
-     * Default constructor
+     * User ID
      */
-    public UidResponse() {
-        super();
-    }
+    private final String uid;
     
     /**
      * Success response constructor
@@ -38,6 +36,7 @@ public class UidResponse extends BaseResponse {
      */
     public UidResponse(int errorCode) {
         super(errorCode);
+        this.uid = null;
     }
     
     /**
@@ -62,15 +61,6 @@ public class UidResponse extends BaseResponse {
         return uid;
     }
     
-    /**
-     * Set user ID
-     * 
-     * @param uid User ID
-     */
-    public void setUid(String uid) {
-        this.uid = uid;
-    }
-    
     /**
      * Create success response
      * 
@@ -82,26 +72,24 @@ public class UidResponse extends BaseResponse {
     }
     
     /**
-     * Create error response
+     * Get error response
      * 
      * @param errorCode Error code
-     * @return UidResponse instance
+     * @return Shared UidResponse instance for known error codes
      */
     public static UidResponse error(int errorCode) {
-        return new UidResponse(errorCode);
+        return ERRORS.get(errorCode);
     }
     
     /**
-     * Create error response
+     * Create error response with a custom message
      * 
      * @param errorCode Error code
      * @param errorMessage Error message
      * @return UidResponse instance
      */
     public static UidResponse error(int errorCode, String errorMessage) {
-        UidResponse response = new UidResponse(errorCode);
-        response.setErrorMessage(errorMessage);
-        return response;
+        return new UidResponse(false, errorCode, errorMessage, null);
     }
     
     @Override
@@ -113,4 +101,4 @@ public class UidResponse extends BaseResponse {
                 ", errorMessage='" + getErrorMessage() + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
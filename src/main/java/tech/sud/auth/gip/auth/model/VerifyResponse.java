@@ -0,0 +1,91 @@
+package tech.sud.auth.gip.auth.model;
+
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+
+/**
+ * Token verification response class
+ * Used to return the typed claims of a verified token
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public class VerifyResponse extends BaseResponse {
+    
+    /**
+     * Shared error responses
+     */
+    private static final ErrorResponseCache<VerifyResponse> ERRORS = new ErrorResponseCache<>(VerifyResponse::new);
+    
+    /**
+     * Verified claims
+     */
+    private final TokenClaims claims;
+    
+    /**
+     * Success response constructor
+     * 
+     * @param claims Verified claims
+     */
+    public VerifyResponse(TokenClaims claims) {
+        super();
+        this.claims = claims;
+    }
+    
+    /**
+     * Error response constructor
+     * 
+     * @param errorCode Error code
+     */
+    public VerifyResponse(int errorCode) {
+        super(errorCode);
+        this.claims = null;
+    }
+    
+    /**
+     * Get verified claims
+     * 
+     * @return Verified claims, null on error
+     */
+    public TokenClaims getClaims() {
+        return claims;
+    }
+    
+    /**
+     * Get user ID
+     * 
+     * @return User ID, null on error
+     */
+    public String getUid() {
+        return claims == null ? null : claims.getUid();
+    }
+    
+    /**
+     * Create success response
+     * 
+     * @param claims Verified claims
+     * @return VerifyResponse instance
+     */
+    public static VerifyResponse success(TokenClaims claims) {
+        return new VerifyResponse(claims);
+    }
+    
+    /**
+     * Get error response
+     * 
+     * @param errorCode Error code
+     * @return Shared VerifyResponse instance for known error codes
+     */
+    public static VerifyResponse error(int errorCode) {
+        return ERRORS.get(errorCode);
+    }
+    
+    @Override
+    public String toString() {
+        return "VerifyResponse{" +
+                "claims=" + claims +
+                ", isSuccess=" + isSuccess() +
+                ", errorCode=" + getErrorCode() +
+                ", errorMessage='" + getErrorMessage() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package tech.sud.auth.gip.auth.model.compat;
+
+import tech.sud.auth.gip.auth.model.CodeResponse;
+
+import java.util.Date;
+
+/**
+ * Mutable authentication code response
+ * Compatibility counterpart of {@link CodeResponse}
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public class MutableCodeResponse extends MutableResponse {
+    
+    /**
+     * Authentication code
+     */
+    private String code;
+    
+    /**
+     * Expiration time
+     */
+    private Date expireDate;
+    
+    /**
+     * Create mutable copy of an immutable response
+     * 
+     * @param response Source response
+     * @return MutableCodeResponse instance
+     */
+    public static MutableCodeResponse from(CodeResponse response) {
+        MutableCodeResponse mutable = new MutableCodeResponse();
+        mutable.copyStatus(response);
+        mutable.code = response.getCode();
+        mutable.expireDate = response.getExpireAt() == 0L ? null : new Date(response.getExpireAt() * 1000L);
+        return mutable;
+    }
+    
+    /**
+     * Get authentication code
+     * 
+     * @return Authentication code
+     */
+    public String getCode() {
+        return code;
+    }
+    
+    /**
+     * Set authentication code
+     * 
+     * @param code Authentication code
+     */
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    /**
+     * Get expiration time
+     * 
+     * @return Expiration time
+     */
+    public Date getExpireDate() {
+        return expireDate;
+    }
+    
+    /**
+     * Set expiration time
+     * 
+     * @param expireDate Expiration time
+     */
+    public void setExpireDate(Date expireDate) {
+        this.expireDate = expireDate;
+    }
+    
+    @Override
+    public CodeResponse toResponse() {
+        return new CodeResponse(isSuccess(), getErrorCode(), getErrorMessage(), code,
+                expireDate == null ? 0L : expireDate.getTime() / 1000L);
+    }
+    
+    @Override
+    public String toString() {
+        return "MutableCodeResponse{" +
+                "code='" + code + '\'' +
+                ", expireDate=" + expireDate +
+                ", isSuccess=" + isSuccess() +
+                ", errorCode=" + getErrorCode() +
+                ", errorMessage='" + getErrorMessage() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,143 @@
+package tech.sud.auth.gip.auth.model.compat;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.model.BaseResponse;
+
+/**
+ * Mutable response base class
+ * Compatibility layer keeping the setter-based API of the pre-immutable response model.
+ * Convert from and to the immutable responses with {@code from(...)} and {@code toResponse()}.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public abstract class MutableResponse {
+    
+    /**
+     * Whether the operation is successful
+     */
+    private boolean isSuccess;
+    
+    /**
+     * Error code
+     */
+    private int errorCode;
+    
+    /**
+     * Error message
+     */
+    private String errorMessage;
+    
+    /**
+     * Default constructor
+     */
+    protected MutableResponse() {
+        setSuccess();
+    }
+    
+    /**
+     * Copy status from an immutable response
+     * 
+     * @param response Source response
+     */
+    protected void copyStatus(BaseResponse response) {
+        this.isSuccess = response.isSuccess();
+        this.errorCode = response.getErrorCode();
+        this.errorMessage = response.getErrorMessage();
+    }
+    
+    /**
+     * Get whether the operation is successful
+     * 
+     * @return Whether successful
+     */
+    public boolean isSuccess() {
+        return isSuccess;
+    }
+    
+    /**
+     * Set whether the operation is successful
+     * 
+     * @param success Whether successful
+     */
+    public void setSuccess(boolean success) {
+        this.isSuccess = success;
+    }
+    
+    /**
+     * Get error code
+     * 
+     * @return Error code
+     */
+    public int getErrorCode() {
+        return errorCode;
+    }
+    
+    /**
+     * Set error code
+     * 
+     * @param errorCode Error code
+     */
+    public void setErrorCode(int errorCode) {
+        this.errorCode = errorCode;
+        this.isSuccess = ErrorCode.isSuccess(errorCode);
+        if (this.errorMessage == null) {
+            this.errorMessage = ErrorCode.getErrorMessage(errorCode);
+        }
+    }
+    
+    /**
+     * Get error message
+     * 
+     * @return Error message
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    /**
+     * Set error message
+     * 
+     * @param errorMessage Error message
+     */
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * Set error status
+     * 
+     * @param errorCode Error code
+     * @param errorMessage Error message
+     */
+    public void setError(int errorCode, String errorMessage) {
+        this.isSuccess = false;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * Set success status
+     */
+    public void setSuccess() {
+        this.isSuccess = true;
+        this.errorCode = ErrorCode.SUCCESS;
+        this.errorMessage = null;
+    }
+    
+    /**
+     * Convert to the immutable response model
+     * 
+     * @return Immutable response
+     */
+    public abstract BaseResponse toResponse();
+    
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "isSuccess=" + isSuccess +
+                ", errorCode=" + errorCode +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
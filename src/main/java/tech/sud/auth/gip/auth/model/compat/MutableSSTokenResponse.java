@@ -0,0 +1,92 @@
+package tech.sud.auth.gip.auth.model.compat;
+
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+
+import java.util.Date;
+
+/**
+ * Mutable SSToken response
+ * Compatibility counterpart of {@link SSTokenResponse}
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public class MutableSSTokenResponse extends MutableResponse {
+    
+    /**
+     * SSToken
+     */
+    private String token;
+    
+    /**
+     * Expiration time
+     */
+    private Date expireDate;
+    
+    /**
+     * Create mutable copy of an immutable response
+     * 
+     * @param response Source response
+     * @return MutableSSTokenResponse instance
+     */
+    public static MutableSSTokenResponse from(SSTokenResponse response) {
+        MutableSSTokenResponse mutable = new MutableSSTokenResponse();
+        mutable.copyStatus(response);
+        mutable.token = response.getToken();
+        mutable.expireDate = response.getExpireAt() == 0L ? null : new Date(response.getExpireAt() * 1000L);
+        return mutable;
+    }
+    
+    /**
+     * Get SSToken
+     * 
+     * @return SSToken
+     */
+    public String getToken() {
+        return token;
+    }
+    
+    /**
+     * Set SSToken
+     * 
+     * @param token SSToken
+     */
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    /**
+     * Get expiration time
+     * 
+     * @return Expiration time
+     */
+    public Date getExpireDate() {
+        return expireDate;
+    }
+    
+    /**
+     * Set expiration time
+     * 
+     * @param expireDate Expiration time
+     */
+    public void setExpireDate(Date expireDate) {
+        this.expireDate = expireDate;
+    }
+    
+    @Override
+    public SSTokenResponse toResponse() {
+        return new SSTokenResponse(isSuccess(), getErrorCode(), getErrorMessage(), token,
+                expireDate == null ? 0L : expireDate.getTime() / 1000L);
+    }
+    
+    @Override
+    public String toString() {
+        return "MutableSSTokenResponse{" +
+                "token='" + token + '\'' +
+                ", expireDate=" + expireDate +
+                ", isSuccess=" + isSuccess() +
+                ", errorCode=" + getErrorCode() +
+                ", errorMessage='" + getErrorMessage() + '\'' +
+                '}';
+    }
+}
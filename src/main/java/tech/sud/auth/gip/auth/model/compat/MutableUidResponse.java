@@ -0,0 +1,64 @@
+package tech.sud.auth.gip.auth.model.compat;
+
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+/**
+ * Mutable user ID response
+ * Compatibility counterpart of {@link UidResponse}
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public class MutableUidResponse extends MutableResponse {
+    
+    /**
+     * User ID
+     */
+    private String uid;
+    
+    /**
+     * Create mutable copy of an immutable response
+     * 
+     * @param response Source response
+     * @return MutableUidResponse instance
+     */
+    public static MutableUidResponse from(UidResponse response) {
+        MutableUidResponse mutable = new MutableUidResponse();
+        mutable.copyStatus(response);
+        mutable.uid = response.getUid();
+        return mutable;
+    }
+    
+    /**
+     * Get user ID
+     * 
+     * @return User ID
+     */
+    public String getUid() {
+        return uid;
+    }
+    
+    /**
+     * Set user ID
+     * 
+     * @param uid User ID
+     */
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+    
+    @Override
+    public UidResponse toResponse() {
+        return new UidResponse(isSuccess(), getErrorCode(), getErrorMessage(), uid);
+    }
+    
+    @Override
+    public String toString() {
+        return "MutableUidResponse{" +
+                "uid='" + uid + '\'' +
+                ", isSuccess=" + isSuccess() +
+                ", errorCode=" + getErrorCode() +
+                ", errorMessage='" + getErrorMessage() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,171 @@
+package tech.sud.auth.gip.auth.tool;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Token audit summary
+ * Counts per {@link ErrorCode}, per app_id, per expiry bucket and per matching secret. Each
+ * audit chunk fills its own summary and chunks are merged pairwise, so no counter is shared
+ * between threads.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class AuditSummary {
+    
+    /**
+     * Distinct app IDs tracked before further ones are counted under {@link #OTHER_APP_IDS}
+     */
+    static final int MAX_APP_IDS = 10000;
+    
+    /**
+     * Key counting app IDs beyond {@link #MAX_APP_IDS} and tokens without app_id
+     */
+    public static final String OTHER_APP_IDS = "(other)";
+    
+    private final long bucketSeconds;
+    private final long[] secretMatches;
+    private final TreeMap<Integer, Long> errorCodes = new TreeMap<>();
+    private final HashMap<String, Long> appIds = new HashMap<>();
+    private final TreeMap<Long, Long> expiryBuckets = new TreeMap<>();
+    private long total;
+    
+    AuditSummary(int secretCount, long bucketSeconds) {
+        this.secretMatches = new long[secretCount];
+        this.bucketSeconds = bucketSeconds;
+    }
+    
+    /**
+     * Record a token that matched no secret or failed to decode
+     */
+    void recordFailure(int errorCode) {
+        total++;
+        errorCodes.merge(errorCode, 1L, Long::sum);
+    }
+    
+    /**
+     * Record a token whose signature matched a secret
+     */
+    void recordVerified(int errorCode, int secretIndex, String appId, long secondsToExpiry) {
+        total++;
+        errorCodes.merge(errorCode, 1L, Long::sum);
+        secretMatches[secretIndex]++;
+        String key = appId == null ? OTHER_APP_IDS : appId;
+        if (!appIds.containsKey(key) && appIds.size() >= MAX_APP_IDS) {
+            key = OTHER_APP_IDS;
+        }
+        appIds.merge(key, 1L, Long::sum);
+        expiryBuckets.merge(Math.floorDiv(secondsToExpiry, bucketSeconds), 1L, Long::sum);
+    }
+    
+    /**
+     * Add the counts of another summary
+     */
+    AuditSummary merge(AuditSummary other) {
+        total += other.total;
+        for (int i = 0; i < secretMatches.length; i++) {
+            secretMatches[i] += other.secretMatches[i];
+        }
+        other.errorCodes.forEach((k, v) -> errorCodes.merge(k, v, Long::sum));
+        other.expiryBuckets.forEach((k, v) -> expiryBuckets.merge(k, v, Long::sum));
+        other.appIds.forEach((k, v) -> {
+            String key = !appIds.containsKey(k) && appIds.size() >= MAX_APP_IDS ? OTHER_APP_IDS : k;
+            appIds.merge(key, v, Long::sum);
+        });
+        return this;
+    }
+    
+    /**
+     * Get number of audited tokens
+     * 
+     * @return Token count
+     */
+    public long getTotal() {
+        return total;
+    }
+    
+    /**
+     * Get count of tokens with an error code ({@link ErrorCode#SUCCESS} for valid tokens)
+     * 
+     * @param errorCode Error code
+     * @return Token count
+     */
+    public long getCount(int errorCode) {
+        Long count = errorCodes.get(errorCode);
+        return count == null ? 0L : count;
+    }
+    
+    /**
+     * Get counts per error code
+     * 
+     * @return Read-only map from error code to token count
+     */
+    public Map<Integer, Long> getErrorCodeCounts() {
+        return Collections.unmodifiableMap(errorCodes);
+    }
+    
+    /**
+     * Get counts of verified tokens per app_id
+     * 
+     * @return Read-only map from app_id to token count
+     */
+    public Map<String, Long> getAppIdCounts() {
+        return Collections.unmodifiableMap(appIds);
+    }
+    
+    /**
+     * Get counts of verified tokens per expiry bucket
+     * Bucket {@code n} holds tokens expiring in {@code [n * bucketSeconds, (n + 1) * bucketSeconds)}
+     * seconds from the audit time; negative buckets are already expired.
+     * 
+     * @return Read-only map from bucket index to token count
+     */
+    public Map<Long, Long> getExpiryBucketCounts() {
+        return Collections.unmodifiableMap(expiryBuckets);
+    }
+    
+    /**
+     * Get count of tokens verified by a secret
+     * 
+     * @param secretIndex Index of the secret in the audit's secret list
+     * @return Token count
+     */
+    public long getSecretMatches(int secretIndex) {
+        return secretMatches[secretIndex];
+    }
+    
+    /**
+     * Write the summary as text
+     * 
+     * @param out Writer
+     * @throws IOException Write failure
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write("tokens\t" + total + "\n");
+        out.write("\n# by error code\n");
+        for (Map.Entry<Integer, Long> e : errorCodes.entrySet()) {
+            out.write(e.getKey() + "\t" + e.getValue() + "\t" + ErrorCode.getErrorMessage(e.getKey()) + "\n");
+        }
+        out.write("\n# by secret (0 = current)\n");
+        for (int i = 0; i < secretMatches.length; i++) {
+            out.write(i + "\t" + secretMatches[i] + "\n");
+        }
+        out.write("\n# by app_id\n");
+        for (Map.Entry<String, Long> e : new TreeMap<>(appIds).entrySet()) {
+            out.write(e.getKey() + "\t" + e.getValue() + "\n");
+        }
+        out.write("\n# by expiry (seconds from now)\n");
+        for (Map.Entry<Long, Long> e : expiryBuckets.entrySet()) {
+            long from = e.getKey() * bucketSeconds;
+            out.write("[" + from + ", " + (from + bucketSeconds) + ")\t" + e.getValue() + "\n");
+        }
+        out.flush();
+    }
+}
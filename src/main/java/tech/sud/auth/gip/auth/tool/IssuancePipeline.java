@@ -0,0 +1,553 @@
+package tech.sud.auth.gip.auth.tool;
+
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.model.CodeResponse;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+import tech.sud.auth.gip.auth.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming token issuance pipeline
+ * Reads uids (one per line) from a stream or a memory-mapped file, issues tokens on a pool of
+ * workers and writes {@code uid,token,exp} lines to a channel. Stages are connected by bounded
+ * queues of uid batches, so a slow writer blocks the workers and they block the reader: memory
+ * stays flat however many uids the input holds. Output lines are grouped per batch and batches
+ * may be written out of input order.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class IssuancePipeline {
+    
+    /**
+     * Kind of token to issue
+     */
+    public enum Kind {
+        /**
+         * Authentication code ({@link SudGIPAuth#getCode(String, long)})
+         */
+        CODE,
+        /**
+         * Server-to-server token ({@link SudGIPAuth#getSSToken(String, long)})
+         */
+        SSTOKEN
+    }
+    
+    /**
+     * Bytes of input read or mapped at a time
+     */
+    private static final int READ_CHUNK_BYTES = 1024 * 1024;
+    
+    /**
+     * Poll interval at which blocked stages check for a failure elsewhere
+     */
+    private static final long POLL_MILLIS = 50L;
+    
+    /**
+     * Marks the end of a queue
+     */
+    private static final Object END = new Object();
+    
+    private final SudGIPAuth auth;
+    private final Kind kind;
+    private final long expireSeconds;
+    private final int workers;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int writeBufferBytes;
+    
+    private IssuancePipeline(Builder builder) {
+        this.auth = builder.auth;
+        this.kind = builder.kind;
+        this.expireSeconds = builder.expireSeconds;
+        this.workers = builder.workers;
+        this.batchSize = builder.batchSize;
+        this.queueCapacity = builder.queueCapacity > 0 ? builder.queueCapacity : 2 * builder.workers;
+        this.writeBufferBytes = builder.writeBufferBytes;
+    }
+    
+    /**
+     * Create a pipeline builder
+     * 
+     * @param auth Issuing SDK instance
+     * @return Builder
+     */
+    public static Builder builder(SudGIPAuth auth) {
+        return new Builder(auth);
+    }
+    
+    /**
+     * Issue tokens for the uids of a stream
+     * 
+     * @param uids UTF-8 uids, one per line; blank lines are skipped. Not closed.
+     * @param out Output channel. Not closed.
+     * @return Result counts
+     * @throws IOException Read or write failure
+     */
+    public Result run(InputStream uids, WritableByteChannel out) throws IOException {
+        return new Run(out).execute(uids::read);
+    }
+    
+    /**
+     * Issue tokens for the uids of a file, memory-mapping it piece by piece
+     * 
+     * @param uidFile UTF-8 uids, one per line; blank lines are skipped
+     * @param out Output channel. Not closed.
+     * @return Result counts
+     * @throws IOException Read or write failure
+     */
+    public Result run(Path uidFile, WritableByteChannel out) throws IOException {
+        try (FileChannel channel = FileChannel.open(uidFile, StandardOpenOption.READ)) {
+            return new Run(out).execute(new MappedSource(channel));
+        }
+    }
+    
+    /**
+     * Pull source of input bytes
+     */
+    private interface Source {
+        int read(byte[] buffer, int off, int len) throws IOException;
+    }
+    
+    /**
+     * Sequential reader over consecutive mapped windows of a file
+     */
+    private static final class MappedSource implements Source {
+        
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private ByteBuffer window;
+        
+        MappedSource(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+        
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (position >= size) {
+                    return -1;
+                }
+                long length = Math.min(size - position, 64L * READ_CHUNK_BYTES);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+            int n = Math.min(len, window.remaining());
+            window.get(buffer, off, n);
+            return n;
+        }
+    }
+    
+    /**
+     * State of one pipeline run
+     */
+    private final class Run {
+        
+        private final WritableByteChannel out;
+        private final BlockingQueue<Object> uidBatches = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Object> lineBatches = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile Throwable failure;
+        
+        Run(WritableByteChannel out) {
+            this.out = out;
+        }
+        
+        Result execute(Source source) throws IOException {
+            Thread[] threads = new Thread[workers + 1];
+            for (int i = 0; i < workers; i++) {
+                threads[i] = start(this::work, "sudgip-issue-" + i);
+            }
+            threads[workers] = start(this::write, "sudgip-issue-writer");
+            
+            try {
+                read(source);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(e);
+                    break;
+                }
+            }
+            Throwable error = failure;
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            if (error != null) {
+                throw new IOException("Issuance pipeline failed", error);
+            }
+            return new Result(issued.get(), failed.get());
+        }
+        
+        private Thread start(Runnable stage, String name) {
+            Thread thread = new Thread(() -> {
+                try {
+                    stage.run();
+                } catch (Throwable t) {
+                    fail(t);
+                }
+            }, name);
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        }
+        
+        private void fail(Throwable t) {
+            if (failure == null) {
+                failure = t;
+            }
+        }
+        
+        /**
+         * Split input into uid batches
+         */
+        private void read(Source source) throws IOException {
+            byte[] buffer = new byte[READ_CHUNK_BYTES];
+            String[] batch = new String[batchSize];
+            int count = 0;
+            int filled = 0;
+            while (true) {
+                int n = source.read(buffer, filled, buffer.length - filled);
+                boolean eof = n < 0;
+                if (!eof) {
+                    filled += n;
+                }
+                int lineStart = 0;
+                for (int i = 0; i < filled; i++) {
+                    if (buffer[i] == '\n') {
+                        String uid = new String(buffer, lineStart, i - lineStart, StandardCharsets.UTF_8).trim();
+                        lineStart = i + 1;
+                        if (uid.isEmpty()) {
+                            continue;
+                        }
+                        batch[count++] = uid;
+                        if (count == batchSize) {
+                            put(uidBatches, batch);
+                            batch = new String[batchSize];
+                            count = 0;
+                        }
+                    }
+                }
+                if (eof) {
+                    String uid = new String(buffer, lineStart, filled - lineStart, StandardCharsets.UTF_8).trim();
+                    if (!uid.isEmpty()) {
+                        batch[count++] = uid;
+                    }
+                    break;
+                }
+                if (lineStart == 0 && filled == buffer.length) {
+                    throw new IOException("Uid line longer than " + READ_CHUNK_BYTES + " bytes");
+                }
+                // Carry the partial last line to the front
+                System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+                filled -= lineStart;
+            }
+            if (count > 0) {
+                String[] last = new String[count];
+                System.arraycopy(batch, 0, last, 0, count);
+                put(uidBatches, last);
+            }
+            for (int i = 0; i < workers; i++) {
+                put(uidBatches, END);
+            }
+        }
+        
+        /**
+         * Issue tokens for uid batches and render their output lines
+         */
+        private void work() {
+            ByteArrayBuilder lines = null;
+            while (true) {
+                Object item = take(uidBatches);
+                if (item == END || item == null) {
+                    put(lineBatches, END);
+                    return;
+                }
+                String[] batch = (String[]) item;
+                lines = new ByteArrayBuilder(lines == null ? batch.length * 256 : lines.length() + 64);
+                for (String uid : batch) {
+                    if (uid == null) {
+                        break;
+                    }
+                    String token;
+                    long expireAt;
+                    if (kind == Kind.CODE) {
+                        CodeResponse response = auth.getCode(uid, expireSeconds);
+                        token = response.getCode();
+                        expireAt = response.getExpireAt();
+                    } else {
+                        SSTokenResponse response = auth.getSSToken(uid, expireSeconds);
+                        token = response.getToken();
+                        expireAt = response.getExpireAt();
+                    }
+                    if (token == null) {
+                        failed.incrementAndGet();
+                        continue;
+                    }
+                    appendCsv(lines, uid);
+                    lines.append(',').append(token.getBytes(StandardCharsets.US_ASCII)).append(',')
+                            .append(Long.toString(expireAt).getBytes(StandardCharsets.US_ASCII)).append('\n');
+                    issued.incrementAndGet();
+                }
+                put(lineBatches, lines);
+            }
+        }
+        
+        /**
+         * Write rendered lines through a large buffer
+         */
+        private void write() {
+            byte[] buffer = new byte[writeBufferBytes];
+            int filled = 0;
+            int remainingWorkers = workers;
+            try {
+                while (remainingWorkers > 0) {
+                    Object item = take(lineBatches);
+                    if (item == null) {
+                        return;
+                    }
+                    if (item == END) {
+                        remainingWorkers--;
+                        continue;
+                    }
+                    ByteArrayBuilder lines = (ByteArrayBuilder) item;
+                    if (filled + lines.length() > buffer.length) {
+                        flush(buffer, filled);
+                        filled = 0;
+                    }
+                    if (lines.length() > buffer.length) {
+                        flush(lines.array(), lines.length());
+                    } else {
+                        System.arraycopy(lines.array(), 0, buffer, filled, lines.length());
+                        filled += lines.length();
+                    }
+                }
+                flush(buffer, filled);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        
+        private void flush(byte[] bytes, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        
+        /**
+         * Enqueue, giving up once another stage has failed
+         */
+        private void put(BlockingQueue<Object> queue, Object item) {
+            try {
+                while (failure == null) {
+                    if (queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+            throw new IllegalStateException("Issuance pipeline aborted", failure);
+        }
+        
+        /**
+         * Dequeue, returning null once another stage has failed
+         */
+        private Object take(BlockingQueue<Object> queue) {
+            try {
+                while (failure == null) {
+                    Object item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (item != null) {
+                        return item;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Append a CSV field, quoting it when needed
+     */
+    private static void appendCsv(ByteArrayBuilder out, String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0;
+        byte[] bytes = (quote ? '"' + value.replace("\"", "\"\"") + '"' : value).getBytes(StandardCharsets.UTF_8);
+        out.append(bytes);
+    }
+    
+    /**
+     * Pipeline run result
+     */
+    public static final class Result {
+        
+        private final long issued;
+        private final long failed;
+        
+        Result(long issued, long failed) {
+            this.issued = issued;
+            this.failed = failed;
+        }
+        
+        /**
+         * Get number of tokens issued and written
+         * 
+         * @return Issued count
+         */
+        public long getIssued() {
+            return issued;
+        }
+        
+        /**
+         * Get number of uids for which issuance failed; they are not written
+         * 
+         * @return Failed count
+         */
+        public long getFailed() {
+            return failed;
+        }
+        
+        @Override
+        public String toString() {
+            return "Result{issued=" + issued + ", failed=" + failed + '}';
+        }
+    }
+    
+    /**
+     * Pipeline builder
+     */
+    public static final class Builder {
+        
+        private final SudGIPAuth auth;
+        private Kind kind = Kind.CODE;
+        private long expireSeconds = 3600L;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int batchSize = 1024;
+        private int queueCapacity;
+        private int writeBufferBytes = 4 * 1024 * 1024;
+        
+        private Builder(SudGIPAuth auth) {
+            if (auth == null) {
+                throw new IllegalArgumentException("Auth cannot be null");
+            }
+            this.auth = auth;
+        }
+        
+        /**
+         * Set kind of token to issue (default {@link Kind#CODE})
+         * 
+         * @param kind Kind
+         * @return This builder
+         */
+        public Builder kind(Kind kind) {
+            if (kind == null) {
+                throw new IllegalArgumentException("Kind cannot be null");
+            }
+            this.kind = kind;
+            return this;
+        }
+        
+        /**
+         * Set token lifetime (default 3600 seconds)
+         * 
+         * @param expireSeconds Expiration time (seconds)
+         * @return This builder
+         */
+        public Builder expireSeconds(long expireSeconds) {
+            if (expireSeconds <= 0) {
+                throw new IllegalArgumentException("Expiration must be positive");
+            }
+            this.expireSeconds = expireSeconds;
+            return this;
+        }
+        
+        /**
+         * Set number of issuing threads (default: cores)
+         * 
+         * @param workers Worker count
+         * @return This builder
+         */
+        public Builder workers(int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("Worker count must be positive");
+            }
+            this.workers = workers;
+            return this;
+        }
+        
+        /**
+         * Set uids per batch handed between stages (default 1024)
+         * 
+         * @param batchSize Batch size
+         * @return This builder
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+        
+        /**
+         * Set batches buffered between two stages (default: twice the worker count)
+         * 
+         * @param queueCapacity Queue capacity
+         * @return This builder
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+        
+        /**
+         * Set size of the output write buffer (default 4 MB)
+         * 
+         * @param writeBufferBytes Buffer size in bytes
+         * @return This builder
+         */
+        public Builder writeBufferBytes(int writeBufferBytes) {
+            if (writeBufferBytes < 4096) {
+                throw new IllegalArgumentException("Write buffer must be at least 4096 bytes");
+            }
+            this.writeBufferBytes = writeBufferBytes;
+            return this;
+        }
+        
+        /**
+         * Build pipeline
+         * 
+         * @return Pipeline
+         */
+        public IssuancePipeline build() {
+            return new IssuancePipeline(this);
+        }
+    }
+}
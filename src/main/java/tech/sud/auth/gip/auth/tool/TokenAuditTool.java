@@ -0,0 +1,289 @@
+package tech.sud.auth.gip.auth.tool;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Offline bulk re-verification of stored tokens
+ * Audits a file of JWT codes and SSTokens (one per line) against the current secret and any
+ * number of past ones using {@link CryptoUtils#verifyAndParseJWT(String, String, boolean)}. The
+ * file is memory-mapped chunk by chunk and never loaded into the heap; chunks are verified in
+ * parallel on a fork-join pool and their summaries merged.
+ * 
+ * Usage:
+ * {@code java -cp sud-gip-auth-java.jar tech.sud.auth.gip.auth.tool.TokenAuditTool
+ * [--threads N] [--bucket-seconds S] [--now EPOCH_SECONDS] <token-file> <secrets-file>}
+ * where the secrets file holds one secret per line, the current one first. Secrets are read from
+ * a file so they do not show up in process listings.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class TokenAuditTool {
+    
+    /**
+     * Default bytes per fork-join leaf
+     */
+    static final long DEFAULT_CHUNK_BYTES = 8L * 1024 * 1024;
+    
+    /**
+     * Longest accepted input line
+     */
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+    
+    /**
+     * Default expiry bucket width (one hour)
+     */
+    public static final long DEFAULT_BUCKET_SECONDS = 3600L;
+    
+    private final List<String> secrets;
+    private final long nowSeconds;
+    private final long bucketSeconds;
+    private final int parallelism;
+    private final long chunkBytes;
+    
+    /**
+     * Constructor
+     * 
+     * @param secrets Secrets to try in order, the current one first
+     * @param nowSeconds Audit time (epoch seconds) for expiry classification
+     * @param bucketSeconds Expiry bucket width in seconds
+     * @param parallelism Worker threads
+     * @throws IllegalArgumentException Invalid parameter exception
+     */
+    public TokenAuditTool(List<String> secrets, long nowSeconds, long bucketSeconds, int parallelism) {
+        this(secrets, nowSeconds, bucketSeconds, parallelism, DEFAULT_CHUNK_BYTES);
+    }
+    
+    TokenAuditTool(List<String> secrets, long nowSeconds, long bucketSeconds, int parallelism, long chunkBytes) {
+        if (secrets == null || secrets.isEmpty()) {
+            throw new IllegalArgumentException("At least one secret is required");
+        }
+        for (String secret : secrets) {
+            if (secret == null || secret.isEmpty()) {
+                throw new IllegalArgumentException("Secrets cannot be null or empty");
+            }
+        }
+        if (bucketSeconds <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.secrets = Collections.unmodifiableList(new ArrayList<>(secrets));
+        this.nowSeconds = nowSeconds;
+        this.bucketSeconds = bucketSeconds;
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+    }
+    
+    /**
+     * Audit a token file
+     * 
+     * @param file File with one token per line; blank lines are skipped
+     * @return Summary
+     * @throws IOException Read failure or a line longer than 64 KB
+     */
+    public AuditSummary audit(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.invoke(new AuditTask(channel, size, 0L, size));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+    
+    /**
+     * Verify one token against the secrets and record the outcome
+     */
+    void audit(String token, AuditSummary summary) {
+        for (int i = 0; i < secrets.size(); i++) {
+            Map<String, Object> payload;
+            try {
+                payload = CryptoUtils.verifyAndParseJWT(token, secrets.get(i), false);
+            } catch (TokenValidationException e) {
+                if (e.getErrorCode() == ErrorCode.SIGNATURE_INVALID) {
+                    // Signed with another secret: try the next one
+                    continue;
+                }
+                summary.recordFailure(e.getErrorCode());
+                return;
+            }
+            Object exp = payload.get("exp");
+            if (!(exp instanceof Number)) {
+                summary.recordFailure(ErrorCode.TOKEN_DECODING_FAILED);
+                return;
+            }
+            long secondsToExpiry = ((Number) exp).longValue() - nowSeconds;
+            Object appId = payload.get("app_id");
+            summary.recordVerified(secondsToExpiry < 0 ? ErrorCode.TOKEN_EXPIRED : ErrorCode.SUCCESS, i,
+                    appId == null ? null : appId.toString(), secondsToExpiry);
+            return;
+        }
+        summary.recordFailure(ErrorCode.SIGNATURE_INVALID);
+    }
+    
+    /**
+     * Audits the lines starting within a byte range of the file
+     */
+    private final class AuditTask extends RecursiveTask<AuditSummary> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final FileChannel channel;
+        private final long size;
+        private final long start;
+        private final long end;
+        
+        AuditTask(FileChannel channel, long size, long start, long end) {
+            this.channel = channel;
+            this.size = size;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        protected AuditSummary compute() {
+            if (end - start > chunkBytes) {
+                long mid = start + (end - start) / 2;
+                AuditTask right = new AuditTask(channel, size, mid, end);
+                right.fork();
+                AuditSummary left = new AuditTask(channel, size, start, mid).compute();
+                return left.merge(right.join());
+            }
+            try {
+                return auditRange();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private AuditSummary auditRange() throws IOException {
+            AuditSummary summary = new AuditSummary(secrets.size(), bucketSeconds);
+            if (start >= end) {
+                return summary;
+            }
+            // Map one byte before the range to detect a line starting exactly at it, and enough
+            // after it to finish the last line that starts inside
+            long mapFrom = start == 0 ? 0 : start - 1;
+            long mapTo = Math.min(size, end + MAX_LINE_LENGTH);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapFrom, mapTo - mapFrom);
+            int limit = (int) (mapTo - mapFrom);
+            int owned = (int) (end - mapFrom);
+            
+            int pos = 0;
+            if (start > 0) {
+                while (pos < limit && buffer.get(pos) != '\n') {
+                    pos++;
+                }
+                pos++;
+            }
+            byte[] line = new byte[MAX_LINE_LENGTH];
+            while (pos < owned) {
+                int length = 0;
+                int i = pos;
+                byte b;
+                while (i < limit && (b = buffer.get(i)) != '\n') {
+                    if (length == MAX_LINE_LENGTH) {
+                        throw new IOException("Line longer than " + MAX_LINE_LENGTH + " bytes at offset "
+                                + (mapFrom + pos));
+                    }
+                    line[length++] = b;
+                    i++;
+                }
+                if (i == limit && mapTo < size) {
+                    throw new IOException("Line longer than " + MAX_LINE_LENGTH + " bytes at offset " + (mapFrom + pos));
+                }
+                String token = new String(line, 0, length, StandardCharsets.ISO_8859_1).trim();
+                if (!token.isEmpty()) {
+                    audit(token, summary);
+                }
+                pos = i + 1;
+            }
+            return summary;
+        }
+    }
+    
+    /**
+     * Command-line entry point
+     * 
+     * @param args Arguments, see class documentation
+     * @throws IOException Read or write failure
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long bucketSeconds = DEFAULT_BUCKET_SECONDS;
+        long now = System.currentTimeMillis() / 1000L;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--") && i + 1 >= args.length) {
+                usage("Missing value for " + arg);
+                return;
+            }
+            if ("--threads".equals(arg)) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("--bucket-seconds".equals(arg)) {
+                bucketSeconds = Long.parseLong(args[++i]);
+            } else if ("--now".equals(arg)) {
+                now = Long.parseLong(args[++i]);
+            } else if (arg.startsWith("--")) {
+                usage("Unknown option " + arg);
+                return;
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.size() != 2) {
+            usage("Expected a token file and a secrets file");
+            return;
+        }
+        
+        List<String> secrets = new ArrayList<>();
+        for (String secret : Files.readAllLines(Paths.get(files.get(1)), StandardCharsets.UTF_8)) {
+            if (!secret.trim().isEmpty()) {
+                secrets.add(secret.trim());
+            }
+        }
+        TokenAuditTool tool = new TokenAuditTool(secrets, now, bucketSeconds, threads);
+        long started = System.nanoTime();
+        AuditSummary summary = tool.audit(Paths.get(files.get(0)));
+        
+        Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        summary.writeTo(out);
+        out.write("\n# " + summary.getTotal() + " tokens audited in "
+                + (System.nanoTime() - started) / 1_000_000L + " ms on " + threads + " threads\n");
+        out.flush();
+    }
+    
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: TokenAuditTool [--threads N] [--bucket-seconds S] [--now EPOCH_SECONDS]"
+                + " <token-file> <secrets-file>");
+        System.exit(2);
+    }
+}
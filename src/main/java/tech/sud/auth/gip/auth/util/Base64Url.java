@@ -0,0 +1,174 @@
+package tech.sud.auth.gip.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base64 URL-safe codec without padding
+ * Works on caller-provided arrays and string ranges so token segments can be encoded and
+ * decoded in place, without the intermediate arrays of {@link java.util.Base64}.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class Base64Url {
+    
+    /**
+     * Encoding alphabet
+     */
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    
+    /**
+     * Decoding table, -1 for characters outside the alphabet
+     */
+    private static final byte[] DECODE = new byte[128];
+    
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private Base64Url() {
+        throw new AssertionError("Base64Url class should not be instantiated");
+    }
+    
+    /**
+     * Encoded length of a byte count
+     * 
+     * @param len Number of source bytes
+     * @return Number of encoded characters
+     */
+    public static int encodedLength(int len) {
+        return (len / 3) * 4 + (len % 3 == 0 ? 0 : len % 3 + 1);
+    }
+    
+    /**
+     * Maximum decoded length of a character count
+     * 
+     * @param len Number of encoded characters
+     * @return Number of decoded bytes
+     */
+    public static int decodedLength(int len) {
+        return (len / 4) * 3 + Math.max(0, len % 4 - 1);
+    }
+    
+    /**
+     * Encode into a byte builder
+     * 
+     * @param src Source bytes
+     * @param off Source offset
+     * @param len Number of source bytes
+     * @param out Destination
+     */
+    public static void encode(byte[] src, int off, int len, ByteArrayBuilder out) {
+        int encoded = encodedLength(len);
+        out.ensureCapacity(encoded);
+        encode(src, off, len, out.array(), out.length());
+        out.advance(encoded);
+    }
+    
+    /**
+     * Encode into a byte array
+     * 
+     * @param src Source bytes
+     * @param off Source offset
+     * @param len Number of source bytes
+     * @param dst Destination array
+     * @param dstOff Destination offset
+     * @return Number of characters written
+     */
+    public static int encode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        int d = dstOff;
+        int end = off + len - len % 3;
+        int s = off;
+        while (s < end) {
+            int bits = (src[s++] & 0xff) << 16 | (src[s++] & 0xff) << 8 | (src[s++] & 0xff);
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[d++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[d++] = ALPHABET[bits & 0x3f];
+        }
+        int remaining = off + len - s;
+        if (remaining == 1) {
+            int bits = (src[s] & 0xff);
+            dst[d++] = ALPHABET[bits >>> 2];
+            dst[d++] = ALPHABET[(bits << 4) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[s] & 0xff) << 8 | (src[s + 1] & 0xff);
+            dst[d++] = ALPHABET[bits >>> 10];
+            dst[d++] = ALPHABET[(bits >>> 4) & 0x3f];
+            dst[d++] = ALPHABET[(bits << 2) & 0x3f];
+        }
+        return d - dstOff;
+    }
+    
+    /**
+     * Decode a string range into a byte array
+     * 
+     * @param src Encoded string
+     * @param from Start index (inclusive)
+     * @param to End index (exclusive)
+     * @param dst Destination array, at least {@link #decodedLength(int)} bytes from dstOff
+     * @param dstOff Destination offset
+     * @return Number of bytes written, or -1 if the input is not valid base64url
+     */
+    public static int decode(String src, int from, int to, byte[] dst, int dstOff) {
+        int len = to - from;
+        if (len % 4 == 1) {
+            return -1;
+        }
+        int d = dstOff;
+        int s = from;
+        int end = from + (len & ~3);
+        while (s < end) {
+            int bits = value(src.charAt(s)) << 18 | value(src.charAt(s + 1)) << 12
+                    | value(src.charAt(s + 2)) << 6 | value(src.charAt(s + 3));
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+            dst[d++] = (byte) bits;
+            s += 4;
+        }
+        int remaining = to - s;
+        if (remaining == 2) {
+            int bits = value(src.charAt(s)) << 6 | value(src.charAt(s + 1));
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 4);
+        } else if (remaining == 3) {
+            int bits = value(src.charAt(s)) << 12 | value(src.charAt(s + 1)) << 6 | value(src.charAt(s + 2));
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 10);
+            dst[d++] = (byte) (bits >> 2);
+        }
+        return d - dstOff;
+    }
+    
+    /**
+     * Get alphabet value of a character
+     * 
+     * @param c Character
+     * @return Value (0-63), or -1 if the character is not in the alphabet
+     */
+    public static int valueOf(char c) {
+        return value(c);
+    }
+    
+    /**
+     * Alphabet value of a character; any invalid character makes the combined bits negative
+     */
+    private static int value(char c) {
+        return c < 128 ? DECODE[c] : -1;
+    }
+}
@@ -0,0 +1,197 @@
+package tech.sud.auth.gip.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer
+ * Reusable scratch space for building token segments without intermediate Strings
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class ByteArrayBuilder {
+    
+    /**
+     * Backing array
+     */
+    private byte[] buf;
+    
+    /**
+     * Number of bytes written
+     */
+    private int length;
+    
+    /**
+     * Constructor
+     * 
+     * @param initialCapacity Initial capacity
+     */
+    public ByteArrayBuilder(int initialCapacity) {
+        this.buf = new byte[Math.max(16, initialCapacity)];
+    }
+    
+    /**
+     * Reset length to zero, keeping the backing array
+     * 
+     * @return This builder
+     */
+    public ByteArrayBuilder reset() {
+        length = 0;
+        return this;
+    }
+    
+    /**
+     * Make room for additional bytes
+     * 
+     * @param additional Number of bytes about to be written
+     */
+    public void ensureCapacity(int additional) {
+        int required = length + additional;
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length << 1));
+        }
+    }
+    
+    /**
+     * Append one byte
+     * 
+     * @param b Byte
+     * @return This builder
+     */
+    public ByteArrayBuilder append(int b) {
+        ensureCapacity(1);
+        buf[length++] = (byte) b;
+        return this;
+    }
+    
+    /**
+     * Append bytes
+     * 
+     * @param src Source array
+     * @return This builder
+     */
+    public ByteArrayBuilder append(byte[] src) {
+        return append(src, 0, src.length);
+    }
+    
+    /**
+     * Append bytes
+     * 
+     * @param src Source array
+     * @param off Source offset
+     * @param len Number of bytes
+     * @return This builder
+     */
+    public ByteArrayBuilder append(byte[] src, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(src, off, buf, length, len);
+        length += len;
+        return this;
+    }
+    
+    /**
+     * Advance length after writing directly into {@link #array()}
+     * 
+     * @param count Number of bytes written
+     */
+    public void advance(int count) {
+        length += count;
+    }
+    
+    /**
+     * Append a string as UTF-8 without an intermediate array
+     * Unpaired surrogates are replaced with '?' like {@link String#getBytes}.
+     * 
+     * @param value String value
+     * @return This builder
+     */
+    public ByteArrayBuilder appendUtf8(String value) {
+        int len = value.length();
+        ensureCapacity(len);
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                append(c);
+            } else if (c < 0x800) {
+                append(0xc0 | (c >> 6)).append(0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    append(0xf0 | (cp >> 18)).append(0x80 | ((cp >> 12) & 0x3f))
+                            .append(0x80 | ((cp >> 6) & 0x3f)).append(0x80 | (cp & 0x3f));
+                } else {
+                    append('?');
+                }
+            } else {
+                append(0xe0 | (c >> 12)).append(0x80 | ((c >> 6) & 0x3f)).append(0x80 | (c & 0x3f));
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Get the UTF-8 length of a string as written by {@link #appendUtf8(String)}
+     * 
+     * @param value String value
+     * @return Length in bytes
+     */
+    public static int utf8Length(String value) {
+        int len = value.length();
+        int bytes = 0;
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                    bytes += 4;
+                } else {
+                    bytes++;
+                }
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Get backing array (valid up to {@link #length()})
+     * 
+     * @return Backing array
+     */
+    public byte[] array() {
+        return buf;
+    }
+    
+    /**
+     * Get number of bytes written
+     * 
+     * @return Length
+     */
+    public int length() {
+        return length;
+    }
+    
+    /**
+     * Copy content to a new array
+     * 
+     * @return Content bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, length);
+    }
+    
+    /**
+     * Decode content as ASCII (all token segments are ASCII)
+     * 
+     * @return Content string
+     */
+    public String toAsciiString() {
+        return new String(buf, 0, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -1,23 +1,29 @@
 package tech.sud.auth.gip.auth.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.codec.SignatureVerifier;
 import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.CryptoBackend;
+import tech.sud.auth.gip.auth.crypto.HmacKey;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
 import tech.sud.auth.gip.auth.exception.TokenGenerationException;
 import tech.sud.auth.gip.auth.exception.TokenValidationException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.Base64;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Cryptographic utility class
- * Provides JWT processing, HMAC signing, Base64 encoding/decoding and other functions
+ * Provides JWT processing, HMAC signing, Base64 encoding/decoding and other functions.
+ * Payloads are written and parsed with the built-in {@link JsonWriter} and {@link JsonReader},
+ * so no JSON library is needed at runtime.
  * 
  * @author Sud Technology
  * @version 1.0.0
@@ -25,19 +31,37 @@ import java.util.Map;
 public final class CryptoUtils {
     
     /**
-     * HMAC-SHA256 algorithm name
+     * JWT header information
      */
-    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String JWT_HEADER = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
     
     /**
-     * JWT header information
+     * Payload field prefixes, in the order written
      */
-    private static final String JWT_HEADER = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+    private static final byte[] UID_PREFIX = "{\"uid\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] APP_ID_PREFIX = ",\"app_id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_PREFIX = ",\"exp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IAT_PREFIX = ",\"iat\":".getBytes(StandardCharsets.US_ASCII);
+    
+    /**
+     * Lowercase hexadecimal digits
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    /**
+     * HMAC-SHA256 output length in bytes
+     */
+    private static final int MAC_LENGTH = 32;
+    
+    /**
+     * Slots of the prepared HMAC key cache, a power of two
+     */
+    private static final int KEY_SLOTS = 64;
     
     /**
-     * JSON object mapper
+     * Prepared HMAC keys per secret, on the default crypto backend
      */
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final KeyCache KEY_CACHE = new KeyCache(MidstateCryptoBackend.INSTANCE);
     
     /**
      * Private constructor to prevent instantiation
@@ -58,19 +82,40 @@ public final class CryptoUtils {
      */
     public static String generateJWT(String uid, String appId, long expireTime, String secret) 
             throws TokenGenerationException {
+        return generateJWT(uid, appId, expireTime, secret, Clock.systemUTC());
+    }
+    
+    /**
+     * Generate JWT token with the issue time taken from a clock
+     * A fixed clock makes the token reproducible, e.g. for test fixtures.
+     * 
+     * @param uid User ID
+     * @param appId Application ID
+     * @param expireTime Expiration time (millisecond timestamp)
+     * @param secret Secret key
+     * @param clock Clock supplying the issue time
+     * @return JWT token
+     * @throws TokenGenerationException Token generation exception
+     */
+    public static String generateJWT(String uid, String appId, long expireTime, String secret, Clock clock)
+            throws TokenGenerationException {
         try {
             // Build JWT header
             String header = base64UrlEncode(JWT_HEADER.getBytes(StandardCharsets.UTF_8));
             
             // Build JWT payload
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("uid", uid);
-            payload.put("app_id", appId);
-            payload.put("exp", expireTime / 1000); // JWT uses second-level timestamp
-            payload.put("iat", System.currentTimeMillis() / 1000); // Issued time
+            ByteArrayBuilder payload = new ByteArrayBuilder(96);
+            payload.append(UID_PREFIX);
+            writeNullableString(payload, uid);
+            payload.append(APP_ID_PREFIX);
+            writeNullableString(payload, appId);
+            payload.append(EXP_PREFIX);
+            JsonWriter.writeLong(payload, expireTime / 1000); // JWT uses second-level timestamp
+            payload.append(IAT_PREFIX);
+            JsonWriter.writeLong(payload, clock.millis() / 1000); // Issued time
+            payload.append('}');
             
-            String payloadJson = OBJECT_MAPPER.writeValueAsString(payload);
-            String encodedPayload = base64UrlEncode(payloadJson.getBytes(StandardCharsets.UTF_8));
+            String encodedPayload = base64UrlEncode(payload.toByteArray());
             
             // Build string to be signed
             String signData = header + "." + encodedPayload;
@@ -95,45 +140,85 @@ public final class CryptoUtils {
      * @return Parsed payload information
      * @throws TokenValidationException Token validation exception
      */
-    @SuppressWarnings("unchecked")
     public static Map<String, Object> verifyAndParseJWT(String token, String secret) 
             throws TokenValidationException {
+        return verifyAndParseJWT(token, secret, true);
+    }
+    
+    /**
+     * Verify and parse JWT token
+     * The exception error code tells failures apart: {@link ErrorCode#TOKEN_INVALID} for a malformed
+     * token, {@link ErrorCode#SIGNATURE_INVALID} for a signature made with another secret or over
+     * altered content, {@link ErrorCode#TOKEN_DECODING_FAILED} for an unreadable payload and
+     * {@link ErrorCode#TOKEN_EXPIRED} for an expired token. Signatures in either
+     * {@link SignatureFormat} are accepted, told apart by their length.
+     * 
+     * @param token JWT token
+     * @param secret Secret key
+     * @param checkExpiration Whether to reject expired tokens; audits pass false to inspect them
+     * @return Parsed payload information, fields in document order
+     * @throws TokenValidationException Token validation exception
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> verifyAndParseJWT(String token, String secret, boolean checkExpiration)
+            throws TokenValidationException {
         try {
             if (token == null || token.trim().isEmpty()) {
-                throw new TokenValidationException("Token is null or empty");
+                throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Token is null or empty");
             }
             
             // Split JWT
             String[] parts = token.split("\\.");
             if (parts.length != 3) {
-                throw new TokenValidationException("Invalid JWT format");
+                throw new TokenValidationException(ErrorCode.TOKEN_INVALID, "Invalid JWT format");
             }
             
             String header = parts[0];
             String payload = parts[1];
             String signature = parts[2];
             
-            // Verify signature
-            String signData = header + "." + payload;
-            String expectedSignature = hmacSha256(signData, secret);
-            String expectedEncodedSignature = base64UrlEncode(expectedSignature.getBytes(StandardCharsets.UTF_8));
-            
-            if (!signature.equals(expectedEncodedSignature)) {
-                throw new TokenValidationException("Invalid token signature");
+            // Verify signature: the expected MAC stays in scratch buffers and is compared with the
+            // presented characters in constant time
+            int signedLength = header.length() + 1 + payload.length();
+            ScratchArena arena = ScratchArena.get();
+            byte[] signData = arena.input(signedLength);
+            if (!ascii(token, signedLength, signData)) {
+                signData = token.substring(0, signedLength).getBytes(StandardCharsets.UTF_8);
+                signedLength = signData.length;
+            }
+            byte[] mac = arena.mac();
+            KEY_CACHE.get(secret).mac(signData, 0, signedLength, mac, 0);
+            SignatureFormat format = SignatureFormat.ofEncodedLength(signature.length());
+            if (format == null
+                    || !SignatureVerifier.matches(signature, 0, signature.length(), mac, 0, MAC_LENGTH, format)) {
+                throw new TokenValidationException(ErrorCode.SIGNATURE_INVALID, "Invalid token signature");
             }
             
             // Parse payload
-            byte[] payloadBytes = base64UrlDecode(payload);
-            String payloadJson = new String(payloadBytes, StandardCharsets.UTF_8);
-            Map<String, Object> payloadMap = OBJECT_MAPPER.readValue(payloadJson, Map.class);
+            Map<String, Object> payloadMap;
+            try {
+                byte[] payloadBytes = base64UrlDecode(payload);
+                JsonReader reader = new JsonReader(payloadBytes, 0, payloadBytes.length);
+                Object value = reader.readValue();
+                reader.endDocument();
+                if (!(value instanceof Map)) {
+                    throw new IllegalArgumentException("Payload is not a JSON object");
+                }
+                payloadMap = (Map<String, Object>) value;
+            } catch (Exception e) {
+                throw new TokenValidationException(ErrorCode.TOKEN_DECODING_FAILED, "Failed to decode token payload", e);
+            }
             
             // Check expiration time
             Object expObj = payloadMap.get("exp");
-            if (expObj != null) {
+            if (checkExpiration && expObj != null) {
+                if (!(expObj instanceof Number)) {
+                    throw new TokenValidationException(ErrorCode.TOKEN_DECODING_FAILED, "Invalid exp claim");
+                }
                 long exp = ((Number) expObj).longValue();
                 long currentTime = System.currentTimeMillis() / 1000;
                 if (currentTime > exp) {
-                    throw new TokenValidationException("Token has expired");
+                    throw new TokenValidationException(ErrorCode.TOKEN_EXPIRED, "Token has expired");
                 }
             }
             
@@ -148,6 +233,8 @@ public final class CryptoUtils {
     
     /**
      * HMAC-SHA256 signature
+     * The key prepared for a secret (with the default backend, the SHA-256 states after absorbing
+     * the padded key blocks) is cached, so each call only hashes the data.
      * 
      * @param data Data to be signed
      * @param secret Secret key
@@ -156,19 +243,19 @@ public final class CryptoUtils {
      */
     public static String hmacSha256(String data, String secret) throws TokenGenerationException {
         try {
-            Mac mac = Mac.getInstance(HMAC_SHA256);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
-            mac.init(secretKeySpec);
-            byte[] signBytes = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            HmacKey key = KEY_CACHE.get(secret);
+            byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
+            byte[] signBytes = key.mac(dataBytes, 0, dataBytes.length);
             
             // Convert to hexadecimal string
-            StringBuilder sb = new StringBuilder();
-            for (byte b : signBytes) {
-                sb.append(String.format("%02x", b));
+            char[] hex = new char[signBytes.length * 2];
+            for (int i = 0; i < signBytes.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(signBytes[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX_DIGITS[signBytes[i] & 0xf];
             }
-            return sb.toString();
+            return new String(hex);
             
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        } catch (GeneralSecurityException e) {
             throw new TokenGenerationException("Failed to generate HMAC-SHA256 signature", e);
         }
     }
@@ -258,4 +345,80 @@ public final class CryptoUtils {
             return true;
         }
     }
-}
\ No newline at end of file
+    
+    private static void writeNullableString(ByteArrayBuilder out, String value) {
+        if (value == null) {
+            JsonWriter.writeNull(out);
+        } else {
+            JsonWriter.writeString(out, value);
+        }
+    }
+    
+    /**
+     * Copy the leading ASCII characters of a string to bytes
+     * 
+     * @return Whether the range was pure ASCII
+     */
+    private static boolean ascii(String s, int length, byte[] bytes) {
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            bytes[i] = (byte) c;
+        }
+        return true;
+    }
+    
+    /**
+     * Prepared HMAC keys of one backend
+     * Direct-mapped like {@link tech.sud.auth.gip.auth.cache.UidCache}: entries are found by the
+     * SHA-256 digest of the secret, so the cache holds no secret text, and a new secret only
+     * replaces the entry in its own slot.
+     */
+    private static final class KeyCache {
+        
+        /**
+         * Prepared key with the digest of its secret, immutable
+         */
+        private static final class Entry {
+            final byte[] digest;
+            final HmacKey key;
+            
+            Entry(byte[] digest, HmacKey key) {
+                this.digest = digest;
+                this.key = key;
+            }
+        }
+        
+        private final CryptoBackend backend;
+        private final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(KEY_SLOTS);
+        private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(KeyCache::sha256);
+        
+        KeyCache(CryptoBackend backend) {
+            this.backend = backend;
+        }
+        
+        HmacKey get(String secret) throws GeneralSecurityException {
+            byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+            byte[] digest = digests.get().digest(secretBytes);
+            int slot = ((digest[0] & 0xff) | (digest[1] & 0xff) << 8) & (KEY_SLOTS - 1);
+            Entry entry = slots.get(slot);
+            if (entry != null && MessageDigest.isEqual(entry.digest, digest)) {
+                return entry.key;
+            }
+            HmacKey key = backend.hmacSha256(secretBytes);
+            slots.set(slot, new Entry(digest, key));
+            return key;
+        }
+        
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // Every Java platform is required to provide SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,721 @@
+package tech.sud.auth.gip.auth.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader
+ * Pull-style cursor over UTF-8 bytes for flat JSON objects such as token payloads.
+ * Field names can be matched against pre-encoded names without creating Strings.
+ * {@link #readValue()} materializes arbitrary values for callers that want a generic tree.
+ * Malformed input raises {@link IllegalArgumentException}.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class JsonReader {
+    
+    /**
+     * Maximum nesting depth accepted when skipping or reading values
+     */
+    private static final int MAX_DEPTH = 32;
+    
+    /**
+     * Digits of {@link Long#MAX_VALUE} and of the magnitude of {@link Long#MIN_VALUE}
+     */
+    private static final byte[] LONG_MAX_DIGITS = "9223372036854775807".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN_DIGITS = "9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    
+    private byte[] buf;
+    private int pos;
+    private int end;
+    
+    /**
+     * Start of the last field name (exclusive of quotes)
+     */
+    private int nameStart;
+    
+    /**
+     * End of the last field name (exclusive)
+     */
+    private int nameEnd;
+    
+    /**
+     * Whether the last field name contains escapes
+     */
+    private boolean nameEscaped;
+    
+    /**
+     * Whether the next field is the first one of the object
+     */
+    private boolean firstField;
+    
+    /**
+     * Offset of the last plain string value
+     */
+    private int valueStart;
+    
+    /**
+     * Constructor
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     */
+    public JsonReader(byte[] buf, int off, int len) {
+        reset(buf, off, len);
+    }
+    
+    /**
+     * Point the reader at new input
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @return This reader
+     */
+    public JsonReader reset(byte[] buf, int off, int len) {
+        this.buf = buf;
+        this.pos = off;
+        this.end = off + len;
+        return this;
+    }
+    
+    /**
+     * Consume the opening brace of an object
+     */
+    public void beginObject() {
+        expect('{');
+        firstField = true;
+    }
+    
+    /**
+     * Advance to the next field name of the current object
+     * 
+     * @return False when the closing brace was consumed
+     */
+    public boolean nextField() {
+        skipWhitespace();
+        if (peekByte() == '}') {
+            pos++;
+            return false;
+        }
+        if (!firstField) {
+            expect(',');
+            skipWhitespace();
+        }
+        firstField = false;
+        if (peekByte() != '"') {
+            throw error("Expected field name");
+        }
+        pos++;
+        nameStart = pos;
+        nameEscaped = false;
+        while (true) {
+            byte b = nextByte();
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                nameEscaped = true;
+                nextByte();
+            }
+        }
+        nameEnd = pos - 1;
+        expect(':');
+        return true;
+    }
+    
+    /**
+     * Check whether the current field name equals a name
+     * 
+     * @param name UTF-8 bytes of the unquoted field name
+     * @return Whether it matches
+     */
+    public boolean nameEquals(byte[] name) {
+        if (nameEscaped) {
+            return fieldName().equals(new String(name, StandardCharsets.UTF_8));
+        }
+        int len = nameEnd - nameStart;
+        if (len != name.length) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (buf[nameStart + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Get the current field name as a String
+     * 
+     * @return Field name
+     */
+    public String fieldName() {
+        if (!nameEscaped) {
+            return new String(buf, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8);
+        }
+        int saved = pos;
+        pos = nameStart - 1;
+        String name = readString();
+        pos = saved;
+        return name;
+    }
+    
+    /**
+     * Get the first byte of the next value without consuming it
+     * 
+     * @return '"', '{', '[', 't', 'f', 'n', '-' or a digit
+     */
+    public int peekValue() {
+        skipWhitespace();
+        return peekByte();
+    }
+    
+    /**
+     * Check whether the next value is a number
+     * 
+     * @return Whether the next value is a number
+     */
+    public boolean isNumber() {
+        int b = peekValue();
+        return b == '-' || (b >= '0' && b <= '9');
+    }
+    
+    /**
+     * Read a string value
+     * 
+     * @return Decoded string
+     */
+    public String readString() {
+        skipWhitespace();
+        expect('"');
+        int start = pos;
+        while (true) {
+            byte b = nextByte();
+            if (b == '"') {
+                return new String(buf, start, pos - 1 - start, StandardCharsets.UTF_8);
+            }
+            if (b == '\\') {
+                pos--;
+                return readEscapedString(start);
+            }
+            if ((b & 0xff) < 0x20) {
+                throw error("Control character in string");
+            }
+        }
+    }
+    
+    /**
+     * Consume a string value that contains no escapes, leaving its UTF-8 bytes in the buffer
+     * 
+     * @return Byte length of the string starting at {@link #valueStart()}, or -1 without consuming
+     *         anything if the string contains escapes
+     */
+    public int readPlainString() {
+        skipWhitespace();
+        int saved = pos;
+        expect('"');
+        int start = pos;
+        while (true) {
+            byte b = nextByte();
+            if (b == '"') {
+                valueStart = start;
+                return pos - 1 - start;
+            }
+            if (b == '\\') {
+                pos = saved;
+                return -1;
+            }
+            if ((b & 0xff) < 0x20) {
+                throw error("Control character in string");
+            }
+        }
+    }
+    
+    /**
+     * Get the offset of the last plain string read by {@link #readPlainString()}
+     * 
+     * @return Offset into {@link #buffer()}
+     */
+    public int valueStart() {
+        return valueStart;
+    }
+    
+    /**
+     * Get the source bytes
+     * 
+     * @return Buffer
+     */
+    public byte[] buffer() {
+        return buf;
+    }
+    
+    /**
+     * Check whether the next value is an integer whose decimal form round-trips through a long:
+     * no fraction, exponent, leading zeros or negative zero, and no overflow
+     * 
+     * @return Whether {@link #readLong()} reads the value exactly
+     */
+    public boolean isPlainInteger() {
+        skipWhitespace();
+        int length = plainIntegerLength(buf, pos, end);
+        int next = pos + length;
+        return length > 0 && (next >= end || (buf[next] != '.' && buf[next] != 'e' && buf[next] != 'E'));
+    }
+    
+    /**
+     * Get the length of the integer at an offset if its decimal form round-trips through a long:
+     * optional minus sign, no leading zeros or negative zero, and no overflow
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param end End offset (exclusive)
+     * @return Length in bytes, or -1 if no such integer starts at the offset
+     */
+    public static int plainIntegerLength(byte[] buf, int off, int end) {
+        int p = off;
+        boolean negative = p < end && buf[p] == '-';
+        if (negative) {
+            p++;
+        }
+        int start = p;
+        while (p < end && buf[p] >= '0' && buf[p] <= '9') {
+            p++;
+        }
+        int digits = p - start;
+        if (digits == 0 || digits > 19 || (buf[start] == '0' && (digits > 1 || negative))) {
+            return -1;
+        }
+        if (digits == 19) {
+            // Compare against the long range as text
+            byte[] limit = negative ? LONG_MIN_DIGITS : LONG_MAX_DIGITS;
+            for (int i = 0; i < 19; i++) {
+                if (buf[start + i] != limit[i]) {
+                    return buf[start + i] < limit[i] ? p - off : -1;
+                }
+            }
+        }
+        return p - off;
+    }
+    
+    /**
+     * Parse an integer validated by {@link #plainIntegerLength(byte[], int, int)}
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length returned by {@link #plainIntegerLength(byte[], int, int)}
+     * @return Value
+     */
+    public static long parsePlainInteger(byte[] buf, int off, int len) {
+        boolean negative = buf[off] == '-';
+        long value = 0;
+        for (int i = negative ? off + 1 : off; i < off + len; i++) {
+            // Accumulate negatively so that Long.MIN_VALUE does not overflow
+            value = value * 10 - (buf[i] - '0');
+        }
+        return negative ? value : -value;
+    }
+    
+    /**
+     * Read a number value as its literal text
+     * 
+     * @return Number literal
+     */
+    public String readNumberLiteral() {
+        skipWhitespace();
+        int start = pos;
+        skipNumber();
+        return new String(buf, start, pos - start, StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * Read an integer value; fractional or exponent forms are truncated towards zero
+     * 
+     * @return Value
+     */
+    public long readLong() {
+        skipWhitespace();
+        int start = pos;
+        boolean negative = peekByte() == '-';
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+            int digit = buf[pos++] - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("Integer overflow");
+            }
+            value = value * 10 - digit;
+            digits++;
+        }
+        if (digits == 0) {
+            throw error("Expected number");
+        }
+        if (pos < end && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos = start;
+            skipNumber();
+            double d = Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.US_ASCII));
+            return (long) d;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw error("Integer overflow");
+            }
+            value = -value;
+        }
+        return value;
+    }
+    
+    /**
+     * Read a boolean value
+     * 
+     * @return Value
+     */
+    public boolean readBoolean() {
+        int b = peekValue();
+        if (b == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        expectLiteral("false");
+        return false;
+    }
+    
+    /**
+     * Consume a null value if present
+     * 
+     * @return Whether the next value was null
+     */
+    public boolean readNull() {
+        if (peekValue() == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Read any value as plain Java objects
+     * Objects become {@link LinkedHashMap}s in document order, arrays {@link ArrayList}s. Integers
+     * become {@link Integer}, {@link Long} or {@link BigInteger}, whichever is the smallest that
+     * fits; fractions and exponents become {@link Double}.
+     * 
+     * @return String, Number, Boolean, Map, List or null
+     */
+    public Object readValue() {
+        return readValue(0);
+    }
+    
+    /**
+     * Skip any value, including nested objects and arrays
+     */
+    public void skipValue() {
+        skipValue(0);
+    }
+    
+    /**
+     * Check that only whitespace remains
+     */
+    public void endDocument() {
+        skipWhitespace();
+        if (pos != end) {
+            throw error("Trailing data");
+        }
+    }
+    
+    private void skipValue(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        int b = peekValue();
+        switch (b) {
+            case '"':
+                skipString();
+                break;
+            case '{':
+                pos++;
+                skipWhitespace();
+                if (peekByte() == '}') {
+                    pos++;
+                    break;
+                }
+                while (true) {
+                    skipWhitespace();
+                    skipString();
+                    expect(':');
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    byte c = nextByte();
+                    if (c == '}') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw error("Expected ',' or '}'");
+                    }
+                }
+                break;
+            case '[':
+                pos++;
+                skipWhitespace();
+                if (peekByte() == ']') {
+                    pos++;
+                    break;
+                }
+                while (true) {
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    byte c = nextByte();
+                    if (c == ']') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw error("Expected ',' or ']'");
+                    }
+                }
+                break;
+            case 't':
+                expectLiteral("true");
+                break;
+            case 'f':
+                expectLiteral("false");
+                break;
+            case 'n':
+                expectLiteral("null");
+                break;
+            default:
+                skipNumber();
+        }
+    }
+    
+    private Object readValue(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        int b = peekValue();
+        switch (b) {
+            case '"':
+                return readString();
+            case '{': {
+                pos++;
+                Map<String, Object> map = new LinkedHashMap<>();
+                skipWhitespace();
+                if (peekByte() == '}') {
+                    pos++;
+                    return map;
+                }
+                while (true) {
+                    String name = readString();
+                    expect(':');
+                    map.put(name, readValue(depth + 1));
+                    skipWhitespace();
+                    byte c = nextByte();
+                    if (c == '}') {
+                        return map;
+                    }
+                    if (c != ',') {
+                        throw error("Expected ',' or '}'");
+                    }
+                }
+            }
+            case '[': {
+                pos++;
+                List<Object> list = new ArrayList<>();
+                skipWhitespace();
+                if (peekByte() == ']') {
+                    pos++;
+                    return list;
+                }
+                while (true) {
+                    list.add(readValue(depth + 1));
+                    skipWhitespace();
+                    byte c = nextByte();
+                    if (c == ']') {
+                        return list;
+                    }
+                    if (c != ',') {
+                        throw error("Expected ',' or ']'");
+                    }
+                }
+            }
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+    
+    private Number readNumber() {
+        int start = pos;
+        String literal = readNumberLiteral();
+        try {
+            if (literal.charAt(0) == '+') {
+                throw new NumberFormatException(literal);
+            }
+            if (literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0) {
+                return Double.valueOf(literal);
+            }
+            long value;
+            if (literal.length() < 19) {
+                value = Long.parseLong(literal);
+            } else {
+                BigInteger big = new BigInteger(literal);
+                if (big.bitLength() >= 64) {
+                    return big;
+                }
+                value = big.longValue();
+            }
+            return value == (int) value ? Integer.valueOf((int) value) : (Number) Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("Invalid number");
+        }
+    }
+    
+    private void skipString() {
+        expect('"');
+        while (true) {
+            byte b = nextByte();
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                nextByte();
+            }
+        }
+    }
+    
+    private void skipNumber() {
+        int start = pos;
+        while (pos < end) {
+            byte b = buf[pos];
+            if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (pos == start) {
+            throw error("Unexpected character");
+        }
+    }
+    
+    private String readEscapedString(int start) {
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        int runStart = start;
+        while (true) {
+            byte b = nextByte();
+            if (b == '"') {
+                sb.append(new String(buf, runStart, pos - 1 - runStart, StandardCharsets.UTF_8));
+                return sb.toString();
+            }
+            if ((b & 0xff) < 0x20) {
+                throw error("Control character in string");
+            }
+            if (b != '\\') {
+                continue;
+            }
+            sb.append(new String(buf, runStart, pos - 1 - runStart, StandardCharsets.UTF_8));
+            byte e = nextByte();
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append((char) e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (end - pos < 4) {
+                        throw error("Truncated unicode escape");
+                    }
+                    int c = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int h = Character.digit(buf[pos++], 16);
+                        if (h < 0) {
+                            throw error("Invalid unicode escape");
+                        }
+                        c = (c << 4) | h;
+                    }
+                    sb.append((char) c);
+                    break;
+                default:
+                    throw error("Invalid escape");
+            }
+            runStart = pos;
+        }
+    }
+    
+    private void expectLiteral(String literal) {
+        skipWhitespace();
+        for (int i = 0; i < literal.length(); i++) {
+            if (nextByte() != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+    }
+    
+    private void expect(char c) {
+        skipWhitespace();
+        if (nextByte() != c) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+    
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+    
+    private byte peekByte() {
+        if (pos >= end) {
+            throw error("Unexpected end of input");
+        }
+        return buf[pos];
+    }
+    
+    private byte nextByte() {
+        if (pos >= end) {
+            throw error("Unexpected end of input");
+        }
+        return buf[pos++];
+    }
+    
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+}
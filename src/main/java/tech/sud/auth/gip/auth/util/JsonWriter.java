@@ -0,0 +1,146 @@
+package tech.sud.auth.gip.auth.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal JSON writer
+ * Writes JSON strings and numbers straight into a {@link ByteArrayBuilder} as UTF-8.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class JsonWriter {
+    
+    /**
+     * Hexadecimal digits for \\u escapes
+     */
+    private static final byte[] HEX = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+    
+    /**
+     * Digits of Long.MIN_VALUE, which cannot be negated
+     */
+    private static final byte[] LONG_MIN = "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private JsonWriter() {
+        throw new AssertionError("JsonWriter class should not be instantiated");
+    }
+    
+    /**
+     * Write a quoted, escaped JSON string
+     * Quotes, backslashes and control characters are escaped, everything else is written as
+     * UTF-8. Unpaired surrogates are replaced with '?' like {@link String#getBytes}.
+     * 
+     * @param out Destination
+     * @param value String value
+     */
+    public static void writeString(ByteArrayBuilder out, String value) {
+        int len = value.length();
+        out.ensureCapacity(len + 2);
+        out.append('"');
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    writeControl(out, c);
+                } else {
+                    out.append(c);
+                }
+            } else if (c < 0x800) {
+                out.append(0xc0 | (c >> 6)).append(0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    out.append(0xf0 | (cp >> 18)).append(0x80 | ((cp >> 12) & 0x3f))
+                            .append(0x80 | ((cp >> 6) & 0x3f)).append(0x80 | (cp & 0x3f));
+                } else {
+                    out.append('?');
+                }
+            } else {
+                out.append(0xe0 | (c >> 12)).append(0x80 | ((c >> 6) & 0x3f)).append(0x80 | (c & 0x3f));
+            }
+        }
+        out.append('"');
+    }
+    
+    /**
+     * Write a JSON integer
+     * 
+     * @param out Destination
+     * @param value Value
+     */
+    public static void writeLong(ByteArrayBuilder out, long value) {
+        if (value == Long.MIN_VALUE) {
+            out.append(LONG_MIN);
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        out.ensureCapacity(digits);
+        byte[] buf = out.array();
+        int pos = out.length() + digits;
+        do {
+            buf[--pos] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        out.advance(digits);
+    }
+    
+    /**
+     * Write a JSON boolean
+     * 
+     * @param out Destination
+     * @param value Value
+     */
+    public static void writeBoolean(ByteArrayBuilder out, boolean value) {
+        if (value) {
+            out.append('t').append('r').append('u').append('e');
+        } else {
+            out.append('f').append('a').append('l').append('s').append('e');
+        }
+    }
+    
+    /**
+     * Write a JSON null
+     * 
+     * @param out Destination
+     */
+    public static void writeNull(ByteArrayBuilder out) {
+        out.append('n').append('u').append('l').append('l');
+    }
+    
+    private static void writeControl(ByteArrayBuilder out, char c) {
+        switch (c) {
+            case '\n':
+                out.append('\\').append('n');
+                break;
+            case '\r':
+                out.append('\\').append('r');
+                break;
+            case '\t':
+                out.append('\\').append('t');
+                break;
+            case '\b':
+                out.append('\\').append('b');
+                break;
+            case '\f':
+                out.append('\\').append('f');
+                break;
+            default:
+                out.append('\\').append('u').append('0').append('0')
+                        .append(HEX[c >> 4]).append(HEX[c & 0xf]);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package tech.sud.auth.gip.auth.util;
+
+/**
+ * Per-thread scratch buffers of the token codec path
+ * Holds everything issuing and verifying a token needs besides its result: payload and token
+ * builders, the decoded token and payload, MAC output, hex and base64url signature text, a
+ * reusable JSON reader and SHA-256 working state. Each buffer has a single consumer, so nested
+ * calls (codec, then signer, then HMAC backend) never share one. Buffers grown past
+ * {@link #MAX_RETAINED_BYTES} are not kept, so one oversized token cannot pin memory.
+ * 
+ * Internal to the SDK: a buffer is only valid until the calling thread next asks for it.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class ScratchArena {
+    
+    /**
+     * Largest buffer kept between calls
+     */
+    static final int MAX_RETAINED_BYTES = 16 * 1024;
+    
+    private static final ThreadLocal<ScratchArena> ARENA = ThreadLocal.withInitial(ScratchArena::new);
+    
+    private static final byte[] EMPTY = new byte[0];
+    
+    private ByteArrayBuilder payload = new ByteArrayBuilder(256);
+    private ByteArrayBuilder token = new ByteArrayBuilder(512);
+    private byte[] input = new byte[512];
+    private byte[] decoded = new byte[256];
+    private final JsonReader reader = new JsonReader(EMPTY, 0, 0);
+    private final byte[] mac = new byte[64];
+    private final byte[] hex = new byte[64];
+    private final byte[] signature = new byte[128];
+    private final byte[] verifyMac = new byte[32];
+    private final int[] cursor = new int[1];
+    private final int[] shaState = new int[8];
+    private final int[] shaSchedule = new int[64];
+    private final byte[] shaTail = new byte[128];
+    private final byte[] shaDigest = new byte[32];
+    
+    private ScratchArena() {
+    }
+    
+    /**
+     * Get the calling thread's arena
+     * 
+     * @return Arena
+     */
+    public static ScratchArena get() {
+        return ARENA.get();
+    }
+    
+    /**
+     * Get the empty payload builder (codecs: JSON or binary payload)
+     * 
+     * @return Builder
+     */
+    public ByteArrayBuilder payload() {
+        if (payload.array().length > MAX_RETAINED_BYTES) {
+            payload = new ByteArrayBuilder(256);
+        }
+        return payload.reset();
+    }
+    
+    /**
+     * Get the empty token builder (codecs: encoded token text)
+     * 
+     * @return Builder
+     */
+    public ByteArrayBuilder token() {
+        if (token.array().length > MAX_RETAINED_BYTES) {
+            token = new ByteArrayBuilder(512);
+        }
+        return token.reset();
+    }
+    
+    /**
+     * Get the input buffer (codecs: signing input or decoded token bytes)
+     * 
+     * @param minLength Required length
+     * @return Buffer of at least the required length
+     */
+    public byte[] input(int minLength) {
+        if (input.length < minLength) {
+            if (minLength > MAX_RETAINED_BYTES) {
+                return new byte[minLength];
+            }
+            input = new byte[Math.max(minLength, input.length * 2)];
+        }
+        return input;
+    }
+    
+    /**
+     * Get the decoded payload buffer (codecs)
+     * 
+     * @param minLength Required length
+     * @return Buffer of at least the required length
+     */
+    public byte[] decoded(int minLength) {
+        if (decoded.length < minLength) {
+            if (minLength > MAX_RETAINED_BYTES) {
+                return new byte[minLength];
+            }
+            decoded = new byte[Math.max(minLength, decoded.length * 2)];
+        }
+        return decoded;
+    }
+    
+    /**
+     * Get the JSON reader pointed at input (payload codec)
+     * 
+     * @param buf Source bytes
+     * @param off Offset
+     * @param len Length
+     * @return Reader
+     */
+    public JsonReader reader(byte[] buf, int off, int len) {
+        return reader.reset(buf, off, len);
+    }
+    
+    /**
+     * Get the one-element read cursor (binary payload codec)
+     * 
+     * @return Cursor
+     */
+    public int[] cursor() {
+        return cursor;
+    }
+    
+    /**
+     * Get the 64-byte raw signature buffer (codecs)
+     * 
+     * @return Buffer
+     */
+    public byte[] mac() {
+        return mac;
+    }
+    
+    /**
+     * Get the 64-byte hexadecimal signature buffer (codecs)
+     * 
+     * @return Buffer
+     */
+    public byte[] hex() {
+        return hex;
+    }
+    
+    /**
+     * Get the 128-byte encoded signature buffer (codecs)
+     * 
+     * @return Buffer
+     */
+    public byte[] signature() {
+        return signature;
+    }
+    
+    /**
+     * Get the 32-byte expected MAC buffer (HMAC signer verification)
+     * 
+     * @return Buffer
+     */
+    public byte[] verifyMac() {
+        return verifyMac;
+    }
+    
+    /**
+     * Get the 8-word SHA-256 chaining state (HMAC backends)
+     * 
+     * @return Buffer
+     */
+    public int[] shaState() {
+        return shaState;
+    }
+    
+    /**
+     * Get the 64-word SHA-256 message schedule (HMAC backends)
+     * 
+     * @return Buffer
+     */
+    public int[] shaSchedule() {
+        return shaSchedule;
+    }
+    
+    /**
+     * Get the 128-byte SHA-256 padding buffer (HMAC backends)
+     * 
+     * @return Buffer
+     */
+    public byte[] shaTail() {
+        return shaTail;
+    }
+    
+    /**
+     * Get the 32-byte inner digest buffer (HMAC backends)
+     * 
+     * @return Buffer
+     */
+    public byte[] shaDigest() {
+        return shaDigest;
+    }
+}
@@ -0,0 +1,182 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.codec.CompactTokenCodec;
+import tech.sud.auth.gip.auth.codec.JwtTokenCodec;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.codec.TokenCodec;
+import tech.sud.auth.gip.auth.crypto.HmacKey;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.PureJavaCryptoBackend;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation test: with thread scratch buffers, steady-state issue allocates only the token
+ * string and verify only the returned claims, plus the digest clones of the default backend
+ */
+@DisplayName("Allocation Test")
+public class AllocationTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 10000;
+    
+    /**
+     * Budget of the midstate backend's per-MAC allocation: two digest clones, plus their message
+     * schedules unless escape analysis removes them, 0.5 to 1 KB on 64-bit JVMs
+     */
+    private static final long MAX_MIDSTATE_MAC_BYTES = 1536L;
+    
+    /**
+     * Keeps results reachable so the JIT cannot scalar-replace them out of a measurement
+     */
+    private static volatile Object sink;
+    
+    @Test
+    @DisplayName("Codec path allocates only its results")
+    void testSteadyStateAllocation() throws Exception {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        HmacSigner signer = new HmacSigner(TEST_APP_KEY, PureJavaCryptoBackend.INSTANCE);
+        TokenCodec[] codecs = {
+                new JwtTokenCodec(signer, ClaimSchema.EMPTY, SignatureFormat.HEX),
+                new JwtTokenCodec(signer, ClaimSchema.EMPTY, SignatureFormat.RAW),
+                new CompactTokenCodec(signer, ClaimSchema.EMPTY, 0, false)
+        };
+        long claimsBytes = claimsBaseline(threads);
+        for (TokenCodec codec : codecs) {
+            assertBudget(threads, codec, claimsBytes, 0L);
+        }
+    }
+    
+    @Test
+    @DisplayName("Default backend allocates its results and two digest clones")
+    void testDefaultBackendAllocation() throws Exception {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        HmacSigner signer = new HmacSigner(TEST_APP_KEY);
+        assertEquals(MidstateCryptoBackend.INSTANCE.getName(), signer.getBackendName());
+        TokenCodec[] codecs = {
+                new JwtTokenCodec(signer, ClaimSchema.EMPTY, SignatureFormat.HEX),
+                new CompactTokenCodec(signer, ClaimSchema.EMPTY, 0, false)
+        };
+        long claimsBytes = claimsBaseline(threads);
+        
+        // The midstate backend clones its inner and outer SHA-256 digests per MAC, as the JCA cannot
+        // restore a digest state in place; how much of that escape analysis removes depends on the
+        // call site, so the codecs are held to the budget rather than to this measurement
+        long tid = Thread.currentThread().getId();
+        HmacKey key = MidstateCryptoBackend.INSTANCE.hmacSha256(TEST_APP_KEY.getBytes(StandardCharsets.UTF_8));
+        byte[] data = new byte[200];
+        byte[] mac = new byte[32];
+        for (int i = 0; i < WARMUP; i++) {
+            key.mac(data, 0, data.length, mac, 0);
+        }
+        long start = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ITERATIONS; i++) {
+            key.mac(data, 0, data.length, mac, 0);
+        }
+        long macBytes = (threads.getThreadAllocatedBytes(tid) - start) / ITERATIONS;
+        System.out.println("Midstate MAC: " + macBytes + " B/op");
+        assertTrue(macBytes <= MAX_MIDSTATE_MAC_BYTES, "Midstate MAC should stay within its documented cost: "
+                + macBytes + " > " + MAX_MIDSTATE_MAC_BYTES);
+        
+        for (TokenCodec codec : codecs) {
+            assertBudget(threads, codec, claimsBytes, MAX_MIDSTATE_MAC_BYTES);
+        }
+    }
+    
+    /**
+     * Measure what building the returned claims from the decoded bytes costs on this JVM, so the
+     * budget follows its object layout (compressed oops, compact strings) instead of a constant
+     */
+    private static long claimsBaseline(com.sun.management.ThreadMXBean threads) {
+        long now = System.currentTimeMillis() / 1000L;
+        long tid = Thread.currentThread().getId();
+        byte[] uidBytes = TEST_UID.getBytes(StandardCharsets.UTF_8);
+        byte[] appIdBytes = TEST_APP_ID.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < WARMUP; i++) {
+            sink = claims(uidBytes, appIdBytes, now);
+        }
+        long start = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = claims(uidBytes, appIdBytes, now);
+        }
+        long claimsBytes = (threads.getThreadAllocatedBytes(tid) - start) / ITERATIONS;
+        System.out.println("Baseline claims: " + claimsBytes + " B/op");
+        assertTrue(claimsBytes > 0L, "Baseline should allocate the claims");
+        return claimsBytes;
+    }
+    
+    /**
+     * Assert that issuing allocates at most the token string and verifying at most the claims,
+     * each plus the backend's own per-MAC allocation
+     */
+    private static void assertBudget(com.sun.management.ThreadMXBean threads, TokenCodec codec, long claimsBytes,
+                                     long macBytes) throws Exception {
+        long now = System.currentTimeMillis() / 1000L;
+        long tid = Thread.currentThread().getId();
+        String token = codec.encode(TEST_UID, TEST_APP_ID, now + 3600, now, Claims.NONE);
+        for (int i = 0; i < WARMUP; i++) {
+            sink = codec.encode(TEST_UID, TEST_APP_ID, now + 3600, now, Claims.NONE);
+            sink = codec.decode(token, now);
+        }
+        
+        // Baseline: the token string and its backing array
+        byte[] tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < WARMUP; i++) {
+            sink = new String(tokenBytes, StandardCharsets.US_ASCII);
+        }
+        long start = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = new String(tokenBytes, StandardCharsets.US_ASCII);
+        }
+        long tokenBytesPerOp = (threads.getThreadAllocatedBytes(tid) - start) / ITERATIONS;
+        
+        start = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = codec.encode(TEST_UID, TEST_APP_ID, now + 3600, now, Claims.NONE);
+        }
+        long issueBytes = (threads.getThreadAllocatedBytes(tid) - start) / ITERATIONS;
+        
+        start = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = codec.decode(token, now);
+        }
+        long verifyBytes = (threads.getThreadAllocatedBytes(tid) - start) / ITERATIONS;
+        
+        System.out.println(codec.getFormat() + " (" + token.length() + " chars, " + tokenBytesPerOp
+                + " B as a string): issue " + issueBytes + " B/op, verify " + verifyBytes + " B/op");
+        assertTrue(issueBytes <= tokenBytesPerOp + macBytes, "Issue should allocate only the token: "
+                + issueBytes + " > " + tokenBytesPerOp + " + " + macBytes);
+        assertTrue(verifyBytes <= claimsBytes + macBytes, "Verify should allocate only the claims: "
+                + verifyBytes + " > " + claimsBytes + " + " + macBytes);
+    }
+    
+    /**
+     * Build claims the way decoding does: uid and app_id strings from bytes plus the TokenClaims
+     */
+    private static TokenClaims claims(byte[] uidBytes, byte[] appIdBytes, long now) {
+        return new TokenClaims(new String(uidBytes, StandardCharsets.UTF_8),
+                new String(appIdBytes, StandardCharsets.UTF_8), now + 3600, now, Claims.NONE);
+    }
+    
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
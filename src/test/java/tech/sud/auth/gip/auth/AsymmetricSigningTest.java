@@ -0,0 +1,92 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.AsymmetricSigner;
+import tech.sud.auth.gip.auth.crypto.SigningAlgorithm;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Asymmetric signing test: ES256 and EdDSA issuance, public-key-only verification
+ * and rejection of foreign algorithms
+ */
+@DisplayName("Asymmetric Signing Test")
+public class AsymmetricSigningTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("ES256 tokens verify with the public key only")
+    void testEs256() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        assertRoundTrip(SigningAlgorithm.ES256, generator.generateKeyPair());
+    }
+    
+    @Test
+    @DisplayName("EdDSA tokens verify with the public key only")
+    void testEdDsa() throws Exception {
+        KeyPairGenerator generator;
+        try {
+            generator = KeyPairGenerator.getInstance("Ed25519");
+        } catch (NoSuchAlgorithmException e) {
+            assumeTrue(false, "Ed25519 not available on this JVM");
+            return;
+        }
+        assertRoundTrip(SigningAlgorithm.EDDSA, generator.generateKeyPair());
+    }
+    
+    private void assertRoundTrip(SigningAlgorithm algorithm, KeyPair keys) throws Exception {
+        SudGIPAuth issuer = SudGIPAuth.builder(TEST_APP_ID)
+                .signer(AsymmetricSigner.of(algorithm, keys.getPrivate(), keys.getPublic())).build();
+        SudGIPAuth verifier = SudGIPAuth.builder(TEST_APP_ID)
+                .signer(AsymmetricSigner.verifier(algorithm, keys.getPublic())).build();
+        
+        SSTokenResponse token = issuer.getSSToken(TEST_UID);
+        assertTrue(token.isSuccess(), "Issuer should sign tokens");
+        String header = new String(Base64.getUrlDecoder().decode(token.getToken().split("\\.")[0]), "UTF-8");
+        assertTrue(header.contains("\"alg\":\"" + algorithm.getJwtName() + "\""), "Header should name " + algorithm);
+        
+        // Verify twice to exercise the verification cache
+        for (int i = 0; i < 2; i++) {
+            UidResponse uid = verifier.getUidBySSToken(token.getToken());
+            assertTrue(uid.isSuccess(), "Verifier should accept token");
+            assertEquals(TEST_UID, uid.getUid());
+        }
+        
+        SSTokenResponse denied = verifier.getSSToken(TEST_UID);
+        assertFalse(denied.isSuccess(), "Verifier-only instance should not issue");
+        assertEquals(ErrorCode.TOKEN_CREATION_FAILED, denied.getErrorCode());
+        
+        // Compact format with the same signer
+        SudGIPAuth compactIssuer = SudGIPAuth.builder(TEST_APP_ID)
+                .signer(AsymmetricSigner.of(algorithm, keys.getPrivate(), keys.getPublic()))
+                .tokenFormat(TokenFormat.COMPACT).build();
+        String compact = compactIssuer.getSSToken(TEST_UID).getToken();
+        assertEquals(TEST_UID, verifier.getUidBySSToken(compact).getUid());
+        
+        // HMAC tokens, even with the public key bytes as secret, must not pass
+        SudGIPAuth hmac = new SudGIPAuth(TEST_APP_ID, Base64.getEncoder().encodeToString(keys.getPublic().getEncoded()));
+        assertFalse(verifier.getUidBySSToken(hmac.getSSToken(TEST_UID).getToken()).isSuccess(),
+                "HS256 token must be rejected by an asymmetric verifier");
+        
+        // Tampered signature
+        String jwt = token.getToken();
+        char last = jwt.charAt(jwt.length() - 2);
+        String tampered = jwt.substring(0, jwt.length() - 2) + (last == 'A' ? 'B' : 'A') + jwt.charAt(jwt.length() - 1);
+        assertFalse(verifier.getUidBySSToken(tampered).isSuccess(), "Tampered signature should fail");
+    }
+}
@@ -0,0 +1,123 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.metrics.AuthMetrics;
+import tech.sud.auth.gip.auth.model.CodeResponse;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builder test: options, injected clock, metrics callbacks and warm-up
+ */
+@DisplayName("Builder Test")
+public class BuilderTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("Clock and default lifetimes drive issued times")
+    void testClockAndLifetimes() {
+        Clock fixed = Clock.fixed(Instant.ofEpochSecond(1700000000L), ZoneOffset.UTC);
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID)
+                .appSecret(TEST_APP_KEY)
+                .clock(fixed)
+                .codeExpireSeconds(600L)
+                .ssTokenExpireSeconds(900L)
+                .build();
+        
+        CodeResponse code = auth.getCode(TEST_UID);
+        assertEquals(1700000600L, code.getExpireAt());
+        SSTokenResponse ssToken = auth.getSSToken(TEST_UID);
+        assertEquals(1700000900L, ssToken.getExpireAt());
+        assertEquals(TEST_UID, auth.getUidByCode(code.getCode()).getUid(), "Same clock should accept the code");
+        
+        SudGIPAuth later = SudGIPAuth.builder(TEST_APP_ID)
+                .appSecret(TEST_APP_KEY)
+                .clock(Clock.offset(fixed, Duration.ofSeconds(601L)))
+                .build();
+        assertEquals(ErrorCode.TOKEN_EXPIRED, later.getUidByCode(code.getCode()).getErrorCode());
+        assertTrue(later.getUidBySSToken(ssToken.getToken()).isSuccess());
+    }
+    
+    @Test
+    @DisplayName("Metrics see every issuance and verification")
+    void testMetrics() {
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        AuthMetrics metrics = new AuthMetrics() {
+            @Override
+            public void onIssue(String appId, int errorCode, long elapsedNanos) {
+                counts.computeIfAbsent(appId + " issue " + errorCode, k -> new AtomicInteger()).incrementAndGet();
+            }
+            
+            @Override
+            public void onVerify(String appId, int errorCode, long elapsedNanos) {
+                assertTrue(elapsedNanos >= 0);
+                counts.computeIfAbsent(appId + " verify " + errorCode, k -> new AtomicInteger()).incrementAndGet();
+            }
+        };
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).metrics(metrics).warmUp(50).build();
+        assertTrue(counts.isEmpty(), "Warm-up should not be reported");
+        
+        String code = auth.getCode(TEST_UID).getCode();
+        auth.getSSToken(42L);
+        auth.getCode("");
+        auth.getUidByCode(code);
+        auth.verifyLong(code);
+        auth.getUidBySSToken("invalid");
+        
+        assertEquals(2, counts.get(TEST_APP_ID + " issue " + ErrorCode.SUCCESS).get());
+        assertEquals(1, counts.get(TEST_APP_ID + " issue " + ErrorCode.APP_DATA_INVALID).get());
+        assertEquals(2, counts.get(TEST_APP_ID + " verify " + ErrorCode.SUCCESS).get());
+        assertEquals(1, counts.get(TEST_APP_ID + " verify " + ErrorCode.TOKEN_INVALID).get());
+        System.out.println("Metrics: " + counts);
+    }
+    
+    @Test
+    @DisplayName("Warm-up signs before the instance is returned")
+    void testWarmUp() {
+        CountingSigner signer = new CountingSigner(new HmacSigner(TEST_APP_KEY));
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer).warmUp(100).build();
+        // Two issues per cycle, plus the MACs recomputed by JWT verification
+        assertTrue(signer.signatures.get() >= 200, "Warm-up should run issue cycles: " + signer.signatures.get());
+        assertTrue(auth.getUidBySSToken(auth.getSSToken(TEST_UID).getToken()).isSuccess());
+    }
+    
+    @Test
+    @DisplayName("Builder options reach the codecs")
+    void testOptions() {
+        SudGIPAuth kid7 = SudGIPAuth.builder(TEST_APP_ID)
+                .appSecret(TEST_APP_KEY)
+                .tokenFormat(TokenFormat.COMPACT)
+                .compactKeyId(7)
+                .truncatedTag(true)
+                .signerPoolSize(2)
+                .build();
+        SudGIPAuth kid0 = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+        String token = kid7.getSSToken(TEST_UID).getToken();
+        assertEquals(TEST_UID, kid7.getUidBySSToken(token).getUid());
+        assertEquals(ErrorCode.TOKEN_INVALID, kid0.getUidBySSToken(token).getErrorCode(), "Key ID should be checked");
+        assertTrue(kid7.getCryptoBackend().startsWith("JCA("), kid7.getCryptoBackend());
+        assertTrue(token.length() < kid0.getSSToken(TEST_UID).getToken().length());
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).signer(new HmacSigner(TEST_APP_KEY)).build());
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder(" ").appSecret(TEST_APP_KEY).build());
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder(TEST_APP_ID).build());
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder(TEST_APP_ID).codeExpireSeconds(0L));
+    }
+}
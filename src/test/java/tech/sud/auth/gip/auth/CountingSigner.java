@@ -0,0 +1,47 @@
+package tech.sud.auth.gip.auth;
+
+import tech.sud.auth.gip.auth.crypto.SigningAlgorithm;
+import tech.sud.auth.gip.auth.crypto.TokenSigner;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signer that counts signatures
+ */
+final class CountingSigner implements TokenSigner {
+    
+    final AtomicInteger signatures = new AtomicInteger();
+    private final TokenSigner delegate;
+    
+    CountingSigner(TokenSigner delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public SigningAlgorithm getAlgorithm() {
+        return delegate.getAlgorithm();
+    }
+    
+    @Override
+    public String getBackendName() {
+        return delegate.getBackendName();
+    }
+    
+    @Override
+    public boolean canSign() {
+        return delegate.canSign();
+    }
+    
+    @Override
+    public byte[] sign(byte[] data, int off, int len) throws GeneralSecurityException {
+        signatures.incrementAndGet();
+        return delegate.sign(data, off, len);
+    }
+    
+    @Override
+    public boolean verify(byte[] data, int off, int len, byte[] signature, int sigOff, int sigLen)
+            throws GeneralSecurityException {
+        return delegate.verify(data, off, len, signature, sigOff, sigLen);
+    }
+}
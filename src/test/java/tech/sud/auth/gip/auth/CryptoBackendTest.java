@@ -0,0 +1,142 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.crypto.CryptoBackend;
+import tech.sud.auth.gip.auth.crypto.HmacKey;
+import tech.sud.auth.gip.auth.crypto.JcaCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.PureJavaCryptoBackend;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Crypto backend test: pure Java and midstate HMAC against the JCA, provider pinning and interoperability
+ */
+@DisplayName("Crypto Backend Test")
+public class CryptoBackendTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("Pure Java HMAC-SHA256 matches the JCA")
+    void testPureJavaMatchesJca() throws Exception {
+        Random random = new Random(42);
+        Mac reference = Mac.getInstance("HmacSHA256");
+        int[] keyLengths = {0, 1, 16, 63, 64, 65, 200};
+        for (int keyLength : keyLengths) {
+            byte[] secret = new byte[keyLength];
+            random.nextBytes(secret);
+            HmacKey key = PureJavaCryptoBackend.INSTANCE.hmacSha256(secret);
+            if (keyLength > 0) {
+                reference.init(new SecretKeySpec(secret, "HmacSHA256"));
+            }
+            // Message lengths cover every padding boundary of one and two tail blocks
+            for (int length = 0; length <= 300; length++) {
+                byte[] data = new byte[length + 3];
+                random.nextBytes(data);
+                byte[] actual = key.mac(data, 3, length);
+                if (keyLength > 0) {
+                    reference.update(data, 3, length);
+                    assertArrayEquals(reference.doFinal(), actual, "key " + keyLength + ", message " + length);
+                }
+                assertEquals(32, actual.length);
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Midstate HMAC-SHA256 matches the JCA")
+    void testMidstateMatchesJca() throws Exception {
+        Random random = new Random(7);
+        Mac reference = Mac.getInstance("HmacSHA256");
+        int[] keyLengths = {1, 16, 64, 65, 200};
+        for (int keyLength : keyLengths) {
+            byte[] secret = new byte[keyLength];
+            random.nextBytes(secret);
+            HmacKey key = MidstateCryptoBackend.INSTANCE.hmacSha256(secret);
+            reference.init(new SecretKeySpec(secret, "HmacSHA256"));
+            for (int length = 0; length <= 300; length++) {
+                byte[] data = new byte[length + 3];
+                random.nextBytes(data);
+                reference.update(data, 3, length);
+                assertArrayEquals(reference.doFinal(), key.mac(data, 3, length), "key " + keyLength + ", message " + length);
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("CryptoUtils signatures are unchanged")
+    void testCryptoUtilsSignatureUnchanged() throws Exception {
+        Mac reference = Mac.getInstance("HmacSHA256");
+        reference.init(new SecretKeySpec(TEST_APP_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String data = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJ1aWQiOiJ1c2VyXzEyMzQ1In0";
+        StringBuilder expected = new StringBuilder();
+        for (byte b : reference.doFinal(data.getBytes(StandardCharsets.UTF_8))) {
+            expected.append(String.format("%02x", b));
+        }
+        // Twice: the second call uses the cached midstate
+        assertEquals(expected.toString(), CryptoUtils.hmacSha256(data, TEST_APP_KEY));
+        assertEquals(expected.toString(), CryptoUtils.hmacSha256(data, TEST_APP_KEY));
+    }
+    
+    @Test
+    @DisplayName("CryptoUtils key cache stays correct past its capacity")
+    void testCryptoUtilsKeyEviction() throws Exception {
+        String data = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJ1aWQiOiJ1c2VyXzEyMzQ1In0";
+        Mac reference = Mac.getInstance("HmacSHA256");
+        // More secrets than slots, twice over: colliding secrets replace each other, never a stale key
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 200; i++) {
+                String secret = "secret_" + i;
+                reference.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+                StringBuilder expected = new StringBuilder();
+                for (byte b : reference.doFinal(data.getBytes(StandardCharsets.UTF_8))) {
+                    expected.append(String.format("%02x", b));
+                }
+                assertEquals(expected.toString(), CryptoUtils.hmacSha256(data, secret), secret);
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Tokens verify across backends")
+    void testInteroperability() {
+        SudGIPAuth jca = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+        SudGIPAuth pure = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY)
+                .cryptoBackend(PureJavaCryptoBackend.INSTANCE).build();
+        
+        assertEquals("pure-java", pure.getCryptoBackend());
+        assertTrue(jca.getCryptoBackend().startsWith("JCA-midstate("), "Default backend should be the JCA midstate");
+        assertTrue(pure.toString().contains("pure-java"), "toString should report the backend");
+        
+        assertEquals(TEST_UID, jca.getUidBySSToken(pure.getSSToken(TEST_UID).getToken()).getUid());
+        assertEquals(TEST_UID, pure.getUidBySSToken(jca.getSSToken(TEST_UID).getToken()).getUid());
+        assertEquals(TEST_UID, pure.getUidByCode(pure.getCode(TEST_UID).getCode()).getUid());
+    }
+    
+    @Test
+    @DisplayName("JCA backend pins the requested provider")
+    void testProviderPinning() throws Exception {
+        String providerName = Mac.getInstance("HmacSHA256").getProvider().getName();
+        CryptoBackend pinned = new JcaCryptoBackend(providerName, 2);
+        assertEquals("JCA(" + providerName + ")", pinned.getName());
+        
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).signatureFormat(SignatureFormat.RAW)
+                .cryptoBackend(pinned).build();
+        assertEquals(pinned.getName(), auth.getCryptoBackend());
+        assertEquals(TEST_UID, auth.getUidBySSToken(auth.getSSToken(TEST_UID).getToken()).getUid());
+        
+        assertThrows(IllegalArgumentException.class, () -> new JcaCryptoBackend("NoSuchProvider", 2));
+        assertThrows(IllegalArgumentException.class, () -> new JcaCryptoBackend(providerName, 0));
+    }
+}
@@ -0,0 +1,118 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+import tech.sud.auth.gip.auth.model.UidResponse;
+import tech.sud.auth.gip.auth.model.VerifyResponse;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Custom claim schema test: typed claims round trip, escaping and compatibility
+ * with tokens produced by the generic CryptoUtils path.
+ */
+@DisplayName("Custom Claims Test")
+public class CustomClaimsTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    
+    private ClaimSchema schema;
+    private SudGIPAuth auth;
+    
+    @BeforeEach
+    void setUp() {
+        schema = ClaimSchema.builder()
+                .stringClaim("region")
+                .longClaim("room_id")
+                .stringClaim("role")
+                .booleanClaim("spectator")
+                .build();
+        auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).claimSchema(schema).build();
+    }
+    
+    @Test
+    @DisplayName("Custom claims come back typed")
+    void testCustomClaimsRoundTrip() {
+        Claims claims = schema.claims()
+                .set("region", "eu-west")
+                .set("room_id", 9007199254740993L)
+                .set("role", "host")
+                .set("spectator", true)
+                .build();
+        
+        SSTokenResponse token = auth.getSSToken("user_1", 600L, claims);
+        assertTrue(token.isSuccess(), "SSToken generation should succeed");
+        
+        VerifyResponse verified = auth.verifySSToken(token.getToken());
+        assertTrue(verified.isSuccess(), "Verification should succeed");
+        TokenClaims result = verified.getClaims();
+        assertEquals("user_1", result.getUid());
+        assertEquals(TEST_APP_ID, result.getAppId());
+        assertEquals(token.getExpireAt(), result.getExpireAt());
+        assertEquals("eu-west", result.getClaims().getString("region"));
+        assertEquals(9007199254740993L, result.getClaims().getLong("room_id", 0L));
+        assertEquals("host", result.getClaims().getString("role"));
+        assertTrue(result.getClaims().getBoolean("spectator", false));
+    }
+    
+    @Test
+    @DisplayName("Absent claims are omitted")
+    void testAbsentClaims() {
+        Claims claims = schema.claims().set("region", "ap-south").build();
+        VerifyResponse verified = auth.verifyCode(auth.getCode("user_2", 600L, claims).getCode());
+        assertTrue(verified.isSuccess());
+        assertEquals("ap-south", verified.getClaims().getClaims().getString("region"));
+        assertNull(verified.getClaims().getClaims().getString("role"));
+        assertFalse(verified.getClaims().getClaims().has("room_id"));
+        assertEquals(-1L, verified.getClaims().getClaims().getLong("room_id", -1L));
+    }
+    
+    @Test
+    @DisplayName("Escaped and non-ASCII values round trip")
+    void testEscapingAndUnicode() {
+        String uid = "玩家\"quote\\slash\n\u0001😀";
+        Claims claims = schema.claims().set("role", "管理员\t").build();
+        VerifyResponse verified = auth.verifySSToken(auth.getSSToken(uid, 600L, claims).getToken());
+        assertTrue(verified.isSuccess());
+        assertEquals(uid, verified.getUid());
+        assertEquals("管理员\t", verified.getClaims().getClaims().getString("role"));
+    }
+    
+    @Test
+    @DisplayName("Tokens are compatible with the generic CryptoUtils path")
+    void testCompatibilityWithCryptoUtils() throws Exception {
+        String legacy = CryptoUtils.generateSSToken("legacy_user", TEST_APP_ID, 600L, TEST_APP_KEY);
+        UidResponse uid = auth.getUidBySSToken(legacy);
+        assertTrue(uid.isSuccess(), "Token from CryptoUtils should verify");
+        assertEquals("legacy_user", uid.getUid());
+        
+        Claims claims = schema.claims().set("room_id", 7L).build();
+        String token = auth.getSSToken("new_user", 600L, claims).getToken();
+        Map<String, Object> payload = CryptoUtils.verifyAndParseJWT(token, TEST_APP_KEY);
+        assertEquals("new_user", payload.get("uid"));
+        assertEquals(7, ((Number) payload.get("room_id")).intValue());
+    }
+    
+    @Test
+    @DisplayName("Schema violations are rejected")
+    void testSchemaViolations() {
+        assertThrows(IllegalArgumentException.class, () -> ClaimSchema.builder().stringClaim("uid"));
+        assertThrows(IllegalArgumentException.class, () -> schema.claims().set("room_id", "not a number"));
+        assertThrows(IllegalArgumentException.class, () -> schema.claims().set("unknown", 1L));
+        
+        SSTokenResponse response = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY)
+                .getSSToken("user_3", 600L, schema.claims().set("room_id", 1L).build());
+        assertFalse(response.isSuccess(), "Claims of another schema should be rejected");
+        assertEquals(ErrorCode.TOKEN_CREATION_FAILED, response.getErrorCode());
+    }
+}
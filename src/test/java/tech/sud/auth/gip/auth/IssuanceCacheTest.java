@@ -0,0 +1,116 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issuance cache test: identical calls share one signature within the freshness window, and
+ * different uids, lifetimes or seconds mint new tokens
+ */
+@DisplayName("Issuance Cache Test")
+public class IssuanceCacheTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final String TEST_UID = "user_12345";
+    private static final long START_MILLIS = 1700000000000L;
+    
+    @Test
+    @DisplayName("Identical calls in one second share a token")
+    void testSameSecond() {
+        CountingSigner signer = new CountingSigner(new HmacSigner(TEST_APP_SECRET));
+        MutableClock clock = new MutableClock(START_MILLIS);
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer).clock(clock).issuanceCache(1024, 0L).build();
+        
+        SSTokenResponse first = auth.getSSToken(TEST_UID);
+        for (int i = 0; i < 10; i++) {
+            SSTokenResponse again = auth.getSSToken(TEST_UID);
+            assertEquals(first.getToken(), again.getToken());
+            assertEquals(first.getExpireAt(), again.getExpireAt());
+        }
+        assertEquals(1, signer.signatures.get(), "Repeat calls should not sign again");
+        
+        assertNotEquals(first.getToken(), auth.getSSToken("user_67890").getToken());
+        assertNotEquals(first.getToken(), auth.getSSToken(TEST_UID, 60L).getToken());
+        assertEquals(auth.getCode(42L).getCode(), auth.getCode(42L).getCode());
+        assertEquals(TEST_UID, auth.getUidBySSToken(first.getToken()).getUid());
+        assertEquals(42L, auth.verifyLong(auth.getSSToken(42L, 7200L).getToken()).getUid());
+        System.out.println("Signatures for 15 calls: " + signer.signatures.get());
+        
+        clock.advance(1000L);
+        assertNotEquals(first.getToken(), auth.getSSToken(TEST_UID).getToken(), "A new second should mint anew");
+    }
+    
+    @Test
+    @DisplayName("Freshness window bounds reuse")
+    void testFreshnessWindow() {
+        CountingSigner signer = new CountingSigner(new HmacSigner(TEST_APP_SECRET));
+        MutableClock clock = new MutableClock(START_MILLIS);
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer).clock(clock).issuanceCache(1024, 5L).build();
+        
+        SSTokenResponse first = auth.getSSToken(TEST_UID);
+        clock.advance(5000L);
+        SSTokenResponse reused = auth.getSSToken(TEST_UID);
+        assertEquals(first.getToken(), reused.getToken());
+        assertEquals(first.getExpireAt(), reused.getExpireAt(), "Reused tokens keep their expiration");
+        
+        clock.advance(1000L);
+        assertNotEquals(first.getToken(), auth.getSSToken(TEST_UID).getToken());
+        
+        // A clock stepping back does not hand out tokens from the future
+        clock.advance(-10000L);
+        assertNotEquals(first.getToken(), auth.getSSToken(TEST_UID).getToken());
+        assertEquals(3, signer.signatures.get());
+        
+        SudGIPAuth uncached = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET)
+                .clock(Clock.fixed(Instant.ofEpochMilli(START_MILLIS), ZoneOffset.UTC)).build();
+        assertEquals(first.getToken(), uncached.getSSToken(TEST_UID).getToken(),
+                "Same-second tokens should match what a fresh call mints");
+    }
+    
+    @Test
+    @DisplayName("Concurrent bursts sign once per racing thread at most")
+    void testConcurrentBurst() throws Exception {
+        CountingSigner signer = new CountingSigner(new HmacSigner(TEST_APP_SECRET));
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer)
+                .clock(Clock.fixed(Instant.ofEpochMilli(START_MILLIS), ZoneOffset.UTC)).issuanceCache(1024, 0L).build();
+        int threads = 8;
+        int calls = 2000;
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < calls; i++) {
+                    SSTokenResponse response = auth.getSSToken(TEST_UID);
+                    assertTrue(response.isSuccess());
+                    tokens.add(response.getToken());
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.println("Signatures for " + threads * calls + " concurrent calls: " + signer.signatures.get());
+        assertTrue(signer.signatures.get() <= threads, "Only racing first calls should sign");
+        assertEquals(1, tokens.size(), "Same-second tokens are identical");
+    }
+}
@@ -0,0 +1,141 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.guard.IssuanceGuard;
+import tech.sud.auth.gip.auth.model.CodeResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Issuance guard test: per-uid and per-app ID throttling, no signing for refused calls
+ * and idle bucket eviction, on a clock the test moves
+ */
+@DisplayName("Issuance Guard Test")
+public class IssuanceGuardTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    
+    @Test
+    @DisplayName("Per-uid limit refuses a runaway uid without signing")
+    void testPerUid() {
+        CountingSigner signer = new CountingSigner(new HmacSigner(TEST_APP_KEY));
+        IssuanceGuard guard = IssuanceGuard.builder().perUid(0.5, 3).build();
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer).issuanceGuard(guard).build();
+        
+        for (int i = 0; i < 3; i++) {
+            assertTrue(auth.getCode("user_1").isSuccess(), "Burst should be allowed");
+        }
+        CodeResponse refused = auth.getCode("user_1");
+        assertFalse(refused.isSuccess());
+        assertEquals(ErrorCode.RATE_LIMITED, refused.getErrorCode());
+        assertSame(CodeResponse.error(ErrorCode.RATE_LIMITED), refused, "Refusals should be shared");
+        assertEquals(ErrorCode.RATE_LIMITED, auth.getSSToken(" user_1 ").getErrorCode(), "Uids are trimmed");
+        assertEquals(3, signer.signatures.get(), "Refused calls should not sign");
+        
+        assertTrue(auth.getCode("user_2").isSuccess(), "Other uids should be unaffected");
+        for (int i = 0; i < 3; i++) {
+            assertTrue(auth.getSSToken(42L).isSuccess());
+        }
+        assertEquals(ErrorCode.RATE_LIMITED, auth.getCode(42L).getErrorCode());
+        assertEquals(ErrorCode.RATE_LIMITED, auth.getCode("42").getErrorCode(), "Numeric uids share the bucket");
+    }
+    
+    @Test
+    @DisplayName("Per-app ID limit caps all uids and hands uid permits back")
+    void testPerAppId() {
+        IssuanceGuard guard = IssuanceGuard.builder().perUid(0.5, 2).perAppId(0.5, 5).build();
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(new HmacSigner(TEST_APP_KEY))
+                .tokenFormat(TokenFormat.COMPACT).issuanceGuard(guard).build();
+        SudGIPAuth other = SudGIPAuth.builder("other_app").signer(new HmacSigner(TEST_APP_KEY))
+                .tokenFormat(TokenFormat.COMPACT).issuanceGuard(guard).build();
+        
+        int issued = 0;
+        for (int i = 0; i < 10; i++) {
+            if (auth.getCode("user_" + i).isSuccess()) {
+                issued++;
+            }
+        }
+        assertEquals(5, issued, "App ID burst should cap issuance");
+        assertTrue(other.getCode("user_9").isSuccess(), "Other applications should be unaffected");
+        assertTrue(other.getCode("user_9").isSuccess(), "Permit refused by the app ID bucket should be returned");
+    }
+    
+    @Test
+    @DisplayName("Numeric uids are keyed by value")
+    void testNumericUids() {
+        IssuanceGuard guard = IssuanceGuard.builder().perUid(0.5, 1).build();
+        assertTrue(guard.tryAcquire(TEST_APP_ID, 42L));
+        assertFalse(guard.tryAcquire(TEST_APP_ID, "42"), "Decimal text should share the numeric bucket");
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "042"), "Non-canonical text has its own bucket");
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "+42"));
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "-0"));
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "-42"));
+        assertFalse(guard.tryAcquire(TEST_APP_ID, -42L));
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "9223372036854775808"), "Beyond the long range stays text");
+        assertTrue(guard.tryAcquire(TEST_APP_ID, Long.MIN_VALUE));
+        assertFalse(guard.tryAcquire(TEST_APP_ID, "-9223372036854775808"));
+        assertEquals(7, guard.size());
+        guard.clear();
+        assertEquals(0, guard.size());
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "42"));
+    }
+    
+    @Test
+    @DisplayName("Idle buckets are evicted")
+    void testIdleEviction() {
+        MutableClock clock = new MutableClock(1000000L);
+        IssuanceGuard guard = IssuanceGuard.builder().perUid(1000.0, 1).idleTimeoutMillis(50L).stripes(1)
+                .clock(clock).build();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(guard.tryAcquire(TEST_APP_ID, "user_" + i));
+        }
+        assertEquals(100, guard.size());
+        assertFalse(guard.tryAcquire(TEST_APP_ID, "user_0"), "Bucket should be empty right after use");
+        clock.advance(1L);
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "user_0"), "Bucket should refill after one interval");
+        
+        // Not yet idle for the timeout: a sweep keeps the buckets
+        clock.advance(49L);
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "user_new"));
+        assertEquals(101, guard.size());
+        
+        clock.advance(120L);
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "user_last"));
+        assertEquals(1, guard.size(), "Idle buckets should be swept");
+        System.out.println("Buckets after sweep: " + guard.size());
+        
+        // Numeric buckets are tracked and swept alongside text ones
+        assertTrue(guard.tryAcquire(TEST_APP_ID, 7L));
+        assertEquals(2, guard.size());
+        clock.advance(120L);
+        assertTrue(guard.tryAcquire(TEST_APP_ID, "user_last"));
+        assertEquals(1, guard.size(), "Idle numeric buckets should be swept");
+        
+        assertThrows(IllegalStateException.class, () -> IssuanceGuard.builder().build());
+        assertThrows(IllegalArgumentException.class, () -> IssuanceGuard.builder().perUid(0.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> IssuanceGuard.builder().clock(null));
+    }
+    
+    @Test
+    @DisplayName("Guard on the SDK clock refills as the clock moves")
+    void testSharedClock() {
+        MutableClock clock = new MutableClock(1000000L);
+        IssuanceGuard guard = IssuanceGuard.builder().perUid(0.5, 2).clock(clock).build();
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).clock(clock).issuanceGuard(guard)
+                .build();
+        
+        assertTrue(auth.getCode("user_1").isSuccess());
+        assertTrue(auth.getCode("user_1").isSuccess());
+        assertEquals(ErrorCode.RATE_LIMITED, auth.getCode("user_1").getErrorCode());
+        clock.advance(1999L);
+        assertEquals(ErrorCode.RATE_LIMITED, auth.getCode("user_1").getErrorCode(), "One permit takes two seconds");
+        clock.advance(1L);
+        assertTrue(auth.getCode("user_1").isSuccess());
+        assertEquals(ErrorCode.RATE_LIMITED, auth.getCode("user_1").getErrorCode());
+    }
+}
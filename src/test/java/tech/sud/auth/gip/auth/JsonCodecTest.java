@@ -0,0 +1,115 @@
+package tech.sud.auth.gip.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+import tech.sud.auth.gip.auth.util.JsonReader;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Built-in JSON codec test: CryptoUtils payloads agree with Jackson for escaped and
+ * non-ASCII uids, and the generic reader types values like Jackson's Map binding
+ */
+@DisplayName("JSON Codec Test")
+public class JsonCodecTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
+    private static final String[] UIDS = {
+            "user_12345",
+            "quote\"back\\slash/solidus",
+            "line\nbreak\ttab\u0001\u001f",
+            "用户_張三",
+            "emoji_\uD83D\uDE00_\uD83C\uDDE8\uD83C\uDDF3",
+            "",
+    };
+    
+    @Test
+    @DisplayName("Payloads round-trip through both codecs")
+    @SuppressWarnings("unchecked")
+    void testRoundTrip() throws Exception {
+        for (String uid : UIDS) {
+            String token = CryptoUtils.generateSSToken(uid, TEST_APP_ID, 3600L, TEST_APP_SECRET);
+            Map<String, Object> payload = CryptoUtils.verifyAndParseJWT(token, TEST_APP_SECRET);
+            assertEquals(uid, payload.get("uid"));
+            assertEquals(TEST_APP_ID, payload.get("app_id"));
+            
+            byte[] json = CryptoUtils.base64UrlDecode(token.split("\\.")[1]);
+            Map<String, Object> jackson = OBJECT_MAPPER.readValue(json, Map.class);
+            assertEquals(jackson, payload, "Jackson should read the same payload for " + uid);
+            assertEquals(Arrays.asList("uid", "app_id", "exp", "iat"), Arrays.asList(payload.keySet().toArray()));
+            System.out.println(new String(json, StandardCharsets.UTF_8));
+        }
+        
+        String token = CryptoUtils.generateSSToken(null, TEST_APP_ID, 3600L, TEST_APP_SECRET);
+        Map<String, Object> payload = CryptoUtils.verifyAndParseJWT(token, TEST_APP_SECRET);
+        assertTrue(payload.containsKey("uid"));
+        assertNull(payload.get("uid"));
+    }
+    
+    @Test
+    @DisplayName("Generic values match Jackson's Map binding")
+    void testReadValue() throws Exception {
+        String json = "{ \"s\" : \"a\\u00e9\\ud83d\\ude00\\\"\", \"i\": -7, \"l\": 4294967296,"
+                + " \"max\": 9223372036854775807, \"big\": 9223372036854775808, \"d\": 1.5e3,"
+                + " \"b\": [true, false, null, {}], \"o\": {\"n\": [1, [2]]} }";
+        Object value = read(json);
+        assertEquals(OBJECT_MAPPER.readValue(json, Map.class), value);
+        
+        Map<?, ?> map = (Map<?, ?>) value;
+        assertTrue(map instanceof LinkedHashMap);
+        assertEquals("a\u00e9\uD83D\uDE00\"", map.get("s"));
+        assertEquals(Integer.valueOf(-7), map.get("i"));
+        assertEquals(Long.valueOf(4294967296L), map.get("l"));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), map.get("max"));
+        assertEquals(new BigInteger("9223372036854775808"), map.get("big"));
+        assertEquals(Double.valueOf(1500.0), map.get("d"));
+    }
+    
+    @Test
+    @DisplayName("Malformed payloads are rejected")
+    void testMalformed() throws Exception {
+        String[] inputs = {"{", "{\"a\":}", "{\"a\":1,}", "[1 2]", "{\"a\":+1}", "{\"a\":1}x", "\"\\q\"",
+                "{\"a\":tru}", repeat("[", 40) + repeat("]", 40)};
+        for (String input : inputs) {
+            assertThrows(IllegalArgumentException.class, () -> read(input), input);
+        }
+        
+        // A signed payload that is not an object fails decoding, not verification
+        String header = CryptoUtils.base64UrlEncode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String signData = header + "." + CryptoUtils.base64UrlEncode("[1]".getBytes(StandardCharsets.UTF_8));
+        String token = signData + "." + CryptoUtils.base64UrlEncode(
+                CryptoUtils.hmacSha256(signData, TEST_APP_SECRET).getBytes(StandardCharsets.UTF_8));
+        TokenValidationException e = assertThrows(TokenValidationException.class,
+                () -> CryptoUtils.verifyAndParseJWT(token, TEST_APP_SECRET));
+        assertEquals(ErrorCode.TOKEN_DECODING_FAILED, e.getErrorCode());
+    }
+    
+    private static Object read(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        JsonReader reader = new JsonReader(bytes, 0, bytes.length);
+        Object value = reader.readValue();
+        reader.endDocument();
+        return value;
+    }
+    
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+}
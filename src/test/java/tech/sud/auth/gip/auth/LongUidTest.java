@@ -0,0 +1,84 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.model.CodeResponse;
+import tech.sud.auth.gip.auth.model.LongUidResponse;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Numeric uid test: long overloads for issuance and primitive verification
+ */
+@DisplayName("Long Uid Test")
+public class LongUidTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    
+    @Test
+    @DisplayName("Numeric uids round-trip in both token formats")
+    void testRoundTrip() {
+        long[] uids = {0L, 7L, -42L, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (TokenFormat format : TokenFormat.values()) {
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).tokenFormat(format).build();
+            for (long uid : uids) {
+                CodeResponse code = auth.getCode(uid);
+                assertTrue(code.isSuccess(), "Code should be issued");
+                LongUidResponse response = auth.verifyLong(code.getCode());
+                assertTrue(response.isSuccess(), "Code should verify: " + response);
+                assertEquals(uid, response.getUid());
+                
+                String ssToken = auth.getSSToken(uid).getToken();
+                assertEquals(uid, auth.verifyLong(ssToken).getUid());
+                assertEquals(Long.toString(uid), auth.getUidBySSToken(ssToken).getUid(),
+                        "String verification should see the decimal uid");
+            }
+            System.out.println(format + ": " + uids.length + " numeric uids verified");
+        }
+    }
+    
+    @Test
+    @DisplayName("JWT payloads carry the uid as a JSON number")
+    void testJsonNumber() throws Exception {
+        SudGIPAuth auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_SECRET);
+        String code = auth.getCode(1234567890123L).getCode();
+        String payload = new String(Base64.getUrlDecoder().decode(code.split("\\.")[1]), "UTF-8");
+        assertTrue(payload.startsWith("{\"uid\":1234567890123,"), payload);
+    }
+    
+    @Test
+    @DisplayName("String uids verify as longs only when they are plain integers")
+    void testStringUids() {
+        for (TokenFormat format : TokenFormat.values()) {
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).tokenFormat(format).build();
+            assertEquals(98765L, auth.verifyLong(auth.getCode("98765").getCode()).getUid());
+            
+            for (String uid : new String[]{"user_12345", "007", "-0", "9223372036854775808", "12.5"}) {
+                LongUidResponse response = auth.verifyLong(auth.getCode(uid).getCode());
+                assertFalse(response.isSuccess(), uid + " should not verify as a long");
+                assertEquals(ErrorCode.TOKEN_INVALID, response.getErrorCode());
+                assertSame(LongUidResponse.error(ErrorCode.TOKEN_INVALID), response, "Errors should be shared");
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Invalid tokens keep their error codes")
+    void testErrors() throws Exception {
+        SudGIPAuth auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_SECRET);
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.verifyLong(null).getErrorCode());
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.verifyLong("not.a.token").getErrorCode());
+        assertEquals(ErrorCode.APP_DATA_INVALID, auth.getCode(42L, 0L).getErrorCode());
+        
+        String expiring = auth.getCode(42L, 1L).getCode();
+        Thread.sleep(2100);
+        LongUidResponse expired = auth.verifyLong(expiring);
+        assertEquals(ErrorCode.TOKEN_EXPIRED, expired.getErrorCode());
+        assertEquals(0L, expired.getUid());
+    }
+}
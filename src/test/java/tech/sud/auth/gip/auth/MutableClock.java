@@ -0,0 +1,43 @@
+package tech.sud.auth.gip.auth;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that tests move by hand
+ */
+final class MutableClock extends Clock {
+    
+    private final AtomicLong millis;
+    
+    MutableClock(long millis) {
+        this.millis = new AtomicLong(millis);
+    }
+    
+    void advance(long deltaMillis) {
+        millis.addAndGet(deltaMillis);
+    }
+    
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+    
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+    
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+    
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+}
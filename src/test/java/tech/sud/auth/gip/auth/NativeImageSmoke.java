@@ -0,0 +1,82 @@
+package tech.sud.auth.gip.auth;
+
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.crypto.AsymmetricSigner;
+import tech.sud.auth.gip.auth.crypto.CryptoBackend;
+import tech.sud.auth.gip.auth.crypto.JcaCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.PureJavaCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.SigningAlgorithm;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+
+/**
+ * Native image smoke program
+ * Issues and verifies tokens through every format, crypto backend and signer, then prints one
+ * summary line and exits with status 1 on the first failure. {@link NativeImageTest} compiles
+ * it with native-image; it runs on a regular JVM as well.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class NativeImageSmoke {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "用户_12345\"\\";
+    private static final long TEST_LONG_UID = 9007199254740993L;
+    
+    private NativeImageSmoke() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        int checks = 0;
+        
+        CryptoBackend[] backends = {MidstateCryptoBackend.INSTANCE, PureJavaCryptoBackend.INSTANCE,
+                new JcaCryptoBackend(4)};
+        for (CryptoBackend backend : backends) {
+            for (TokenFormat format : TokenFormat.values()) {
+                SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).tokenFormat(format)
+                        .cryptoBackend(backend).build();
+                check(TEST_UID.equals(auth.getUidBySSToken(auth.getSSToken(TEST_UID).getToken()).getUid()),
+                        backend.getName() + " " + format + " SSToken");
+                check(TEST_UID.equals(auth.getUidByCode(auth.getCode(TEST_UID).getCode()).getUid()),
+                        backend.getName() + " " + format + " code");
+                check(auth.verifyLong(auth.getSSToken(TEST_LONG_UID).getToken()).getUid() == TEST_LONG_UID,
+                        backend.getName() + " " + format + " long uid");
+                check(!auth.getUidBySSToken(auth.getSSToken(TEST_UID).getToken() + "x").isSuccess(),
+                        backend.getName() + " " + format + " tampered token");
+                checks += 4;
+            }
+        }
+        
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keys = generator.generateKeyPair();
+        SudGIPAuth issuer = SudGIPAuth.builder(TEST_APP_ID)
+                .signer(AsymmetricSigner.of(SigningAlgorithm.ES256, keys.getPrivate(), keys.getPublic())).build();
+        SudGIPAuth verifier = SudGIPAuth.builder(TEST_APP_ID)
+                .signer(AsymmetricSigner.verifier(SigningAlgorithm.ES256, keys.getPublic())).build();
+        check(TEST_UID.equals(verifier.getUidBySSToken(issuer.getSSToken(TEST_UID).getToken()).getUid()), "ES256");
+        checks++;
+        
+        String token = CryptoUtils.generateSSToken(TEST_UID, TEST_APP_ID, 3600L, TEST_APP_KEY);
+        Map<String, Object> payload = CryptoUtils.verifyAndParseJWT(token, TEST_APP_KEY);
+        check(TEST_UID.equals(payload.get("uid")) && TEST_APP_ID.equals(payload.get("app_id")), "CryptoUtils");
+        checks++;
+        
+        System.out.printf("native smoke ok: %d checks in %.1fms%n", checks, (System.nanoTime() - start) / 1e6);
+    }
+    
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            System.out.println("native smoke failed: " + what);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package tech.sud.auth.gip.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Native image test: compiles {@link NativeImageSmoke} with GraalVM native-image against the
+ * shipped metadata and runs the executable. Building takes minutes, so the test only runs on
+ * Linux with {@code -Dsudgip.native=true} and native-image found in GRAALVM_HOME, JAVA_HOME or
+ * on the PATH:
+ * {@code mvn test -Dtest=NativeImageTest -Dsudgip.native=true}
+ */
+@DisplayName("Native Image Test")
+public class NativeImageTest {
+    
+    private static final String METADATA = "META-INF/native-image/tech.sud.auth.gip/sud-gip-auth-java/";
+    private static final long BUILD_TIMEOUT_MINUTES = 15L;
+    private static final long RUN_TIMEOUT_SECONDS = 60L;
+    
+    @Test
+    @DisplayName("Shipped metadata names classes present on this JVM")
+    void testMetadata() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ClassLoader loader = NativeImageTest.class.getClassLoader();
+        JsonNode reflect;
+        try (InputStream in = loader.getResourceAsStream(METADATA + "reflect-config.json")) {
+            assertNotNull(in, "reflect-config.json should be on the classpath");
+            reflect = mapper.readTree(in);
+        }
+        assertTrue(reflect.isArray() && reflect.size() > 0);
+        for (JsonNode entry : reflect) {
+            String name = entry.get("name").asText();
+            if (entry.has("condition")) {
+                Class.forName(entry.get("condition").get("typeReachable").asText());
+                // Conditional entries name JDK provider classes, which vary by release (EdDSA
+                // arrived in 15); native-image skips the ones it cannot find
+                try {
+                    Class.forName(name, false, loader);
+                } catch (ClassNotFoundException e) {
+                    System.out.println("reflect: " + name + " (absent on Java " + System.getProperty("java.version")
+                            + ")");
+                    continue;
+                }
+            } else {
+                Class.forName(name, false, loader);
+            }
+            System.out.println("reflect: " + name);
+        }
+        try (InputStream in = loader.getResourceAsStream(METADATA + "resource-config.json")) {
+            assertNotNull(in, "resource-config.json should be on the classpath");
+            assertTrue(mapper.readTree(in).has("resources"));
+        }
+    }
+    
+    @Test
+    @DisplayName("Native executable issues and verifies tokens")
+    void testNativeExecutable() throws Exception {
+        assumeTrue(Boolean.getBoolean("sudgip.native"), "Enable with -Dsudgip.native=true");
+        assumeTrue(System.getProperty("os.name", "").toLowerCase().startsWith("linux"), "Linux only");
+        Path nativeImage = findNativeImage();
+        assumeTrue(nativeImage != null, "native-image not found");
+        
+        String classpath = codeSource(CryptoUtils.class) + File.pathSeparator + codeSource(NativeImageSmoke.class);
+        Path output = Paths.get("target", "native", "sud-gip-auth-smoke").toAbsolutePath();
+        Files.createDirectories(output.getParent());
+        Result build = run(Arrays.asList(nativeImage.toString(), "--no-fallback", "-cp", classpath,
+                "-o", output.toString(), NativeImageSmoke.class.getName()), BUILD_TIMEOUT_MINUTES * 60L);
+        assertEquals(0, build.exitCode, "native-image failed:\n" + build.output);
+        
+        Result smoke = run(Arrays.asList(output.toString()), RUN_TIMEOUT_SECONDS);
+        System.out.println(smoke.output.trim() + " (process wall time " + smoke.elapsedMillis + "ms)");
+        assertEquals(0, smoke.exitCode, smoke.output);
+        assertTrue(smoke.output.contains("native smoke ok"), smoke.output);
+    }
+    
+    private static Path findNativeImage() {
+        List<String> dirs = new ArrayList<>();
+        for (String home : new String[] {System.getenv("GRAALVM_HOME"), System.getenv("JAVA_HOME"),
+                System.getProperty("java.home")}) {
+            if (home != null) {
+                dirs.add(home + File.separator + "bin");
+            }
+        }
+        String path = System.getenv("PATH");
+        if (path != null) {
+            dirs.addAll(Arrays.asList(path.split(File.pathSeparator)));
+        }
+        for (String dir : dirs) {
+            Path candidate = Paths.get(dir, "native-image");
+            if (Files.isExecutable(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+    
+    private static String codeSource(Class<?> type) throws Exception {
+        return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+    
+    private static Result run(List<String> command, long timeoutSeconds) throws Exception {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Thread drain = new Thread(() -> {
+            byte[] buf = new byte[8192];
+            try (InputStream in = process.getInputStream()) {
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    out.write(buf, 0, n);
+                }
+            } catch (Exception ignored) {
+                // Process killed
+            }
+        });
+        drain.start();
+        if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            fail("Timed out after " + timeoutSeconds + "s: " + command);
+        }
+        drain.join();
+        Result result = new Result();
+        result.exitCode = process.exitValue();
+        result.elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        result.output = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        return result;
+    }
+    
+    private static final class Result {
+        int exitCode;
+        long elapsedMillis;
+        String output;
+    }
+}
@@ -0,0 +1,109 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sliding-window refresh test: tokens are renewed only inside the window, from their own claims
+ */
+@DisplayName("Refresh Test")
+public class RefreshTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("Tokens outside the window are returned unchanged")
+    void testNotDue() {
+        SudGIPAuth auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+        SSTokenResponse original = auth.getSSToken(TEST_UID, 3600L);
+        
+        SSTokenResponse refreshed = auth.refreshIfNearExpiry(" " + original.getToken() + " ", 600L);
+        assertTrue(refreshed.isSuccess(), "Refresh should succeed");
+        assertEquals(original.getToken(), refreshed.getToken());
+        assertEquals(original.getExpireAt(), refreshed.getExpireAt());
+    }
+    
+    @Test
+    @DisplayName("Tokens inside the window are reissued from their claims")
+    void testReissue() {
+        ClaimSchema schema = ClaimSchema.builder().stringClaim("region").longClaim("room_id").build();
+        Claims claims = schema.claims().set("region", "eu-west").set("room_id", 42L).build();
+        SudGIPAuth jwtAuth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).claimSchema(schema).build();
+        SudGIPAuth compactAuth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).claimSchema(schema)
+                .tokenFormat(TokenFormat.COMPACT).build();
+        
+        SSTokenResponse original = jwtAuth.getSSToken(TEST_UID, 300L, claims);
+        SSTokenResponse refreshed = compactAuth.refreshIfNearExpiry(original.getToken(), 600L);
+        assertTrue(refreshed.isSuccess(), "Refresh should succeed");
+        assertEquals(TokenFormat.COMPACT, TokenFormat.detect(refreshed.getToken()),
+                "Replacement should be minted in the issuing format");
+        assertTrue(refreshed.getExpireAt() >= original.getExpireAt());
+        
+        TokenClaims result = jwtAuth.verifySSToken(refreshed.getToken()).getClaims();
+        assertEquals(TEST_UID, result.getUid());
+        assertEquals(300L, result.getExpireAt() - result.getIssuedAt(), "Lifetime should be kept");
+        assertEquals("eu-west", result.getClaims().getString("region"));
+        assertEquals(42L, result.getClaims().getLong("room_id", 0L));
+    }
+    
+    @Test
+    @DisplayName("Numeric uids stay numbers when reissued")
+    void testReissueLongUid() throws Exception {
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).verificationCacheCapacity(64)
+                .build();
+        String original = auth.getSSToken(1234567890123L, 300L).getToken();
+        // Caches claims holding the uid as a primitive
+        assertEquals(1234567890123L, auth.verifyLong(original).getUid());
+        
+        SSTokenResponse refreshed = auth.refreshIfNearExpiry(original, 600L);
+        assertTrue(refreshed.isSuccess(), "Refresh should succeed");
+        String payload = new String(Base64.getUrlDecoder().decode(refreshed.getToken().split("\\.")[1]), "UTF-8");
+        assertTrue(payload.startsWith("{\"uid\":1234567890123,"), payload);
+        assertEquals(1234567890123L, auth.verifyLong(refreshed.getToken()).getUid());
+    }
+    
+    @Test
+    @DisplayName("Expired and invalid tokens are not renewed")
+    void testErrors() throws Exception {
+        SudGIPAuth auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+        String expiring = auth.getSSToken(TEST_UID, 1L).getToken();
+        Thread.sleep(2100);
+        assertEquals(ErrorCode.TOKEN_EXPIRED, auth.refreshIfNearExpiry(expiring, 3600L).getErrorCode());
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.refreshIfNearExpiry("invalid.token", 3600L).getErrorCode());
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.refreshIfNearExpiry((String) null, 3600L).getErrorCode());
+        assertEquals(ErrorCode.APP_DATA_INVALID,
+                auth.refreshIfNearExpiry(auth.getSSToken(TEST_UID).getToken(), -1L).getErrorCode());
+    }
+    
+    @Test
+    @DisplayName("Batch refresh keeps the order and per-token outcomes")
+    void testBatch() {
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).tokenFormat(TokenFormat.COMPACT)
+                .build();
+        String fresh = auth.getSSToken("fresh", 7200L).getToken();
+        String due = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY).getSSToken("due", 60L).getToken();
+        
+        List<SSTokenResponse> responses = auth.refreshIfNearExpiry(Arrays.asList(fresh, due, "bad", null), 600L);
+        assertEquals(4, responses.size());
+        assertEquals(fresh, responses.get(0).getToken());
+        assertNotEquals(due, responses.get(1).getToken());
+        assertEquals("due", auth.getUidBySSToken(responses.get(1).getToken()).getUid());
+        assertEquals(ErrorCode.TOKEN_INVALID, responses.get(2).getErrorCode());
+        assertEquals(ErrorCode.TOKEN_INVALID, responses.get(3).getErrorCode());
+        System.out.println("Batch refresh: " + responses);
+    }
+}
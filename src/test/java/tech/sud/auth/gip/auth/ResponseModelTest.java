@@ -0,0 +1,149 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.model.CodeResponse;
+import tech.sud.auth.gip.auth.model.LongUidResponse;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+import tech.sud.auth.gip.auth.model.UidResponse;
+import tech.sud.auth.gip.auth.model.VerifyResponse;
+import tech.sud.auth.gip.auth.model.compat.MutableCodeResponse;
+import tech.sud.auth.gip.auth.model.compat.MutableSSTokenResponse;
+import tech.sud.auth.gip.auth.model.compat.MutableUidResponse;
+
+/**
+ * Response model test:
+ * 1. Responses returned by the SDK carry their values
+ * 2. Error responses for known codes are shared instances
+ * 3. Mutable compatibility copies convert back to equal responses
+ */
+@DisplayName("Response Model Test")
+public class ResponseModelTest {
+    
+    private SudGIPAuth auth;
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @BeforeEach
+    void setUp() {
+        auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+    }
+    
+    @Test
+    @DisplayName("Immutable responses test")
+    void testImmutableResponses() {
+        System.out.println("=== Starting Immutable Responses Test ===");
+        
+        long before = System.currentTimeMillis() / 1000L;
+        CodeResponse codeResponse = auth.getCode(TEST_UID, 60L);
+        System.out.println("Code Response: " + codeResponse);
+        assertTrue(codeResponse.isSuccess(), "Code generation should succeed");
+        assertEquals(ErrorCode.SUCCESS, codeResponse.getErrorCode());
+        assertNull(codeResponse.getErrorMessage(), "Success should carry no message");
+        assertTrue(codeResponse.getExpireAt() >= before + 60L, "Expiration should be 60 seconds ahead");
+        assertEquals(codeResponse.getExpireAt() * 1000L, codeResponse.getExpireDate().getTime(),
+                "Date accessor should be derived from the epoch seconds");
+        assertNotSame(codeResponse.getExpireDate(), codeResponse.getExpireDate(),
+                "Date accessor should hand out a fresh copy");
+        
+        SSTokenResponse tokenResponse = auth.getSSToken(TEST_UID, 60L);
+        System.out.println("Token Response: " + tokenResponse);
+        assertTrue(tokenResponse.isSuccess(), "SSToken generation should succeed");
+        assertEquals(tokenResponse.getExpireAt() * 1000L, tokenResponse.getExpireDate().getTime());
+        
+        UidResponse uidResponse = auth.getUidBySSToken(tokenResponse.getToken());
+        assertEquals(TEST_UID, uidResponse.getUid());
+        VerifyResponse verifyResponse = auth.verifySSToken(tokenResponse.getToken());
+        assertEquals(TEST_UID, verifyResponse.getUid());
+        assertEquals(tokenResponse.getExpireAt(), verifyResponse.getClaims().getExpireAt());
+        
+        assertNull(new CodeResponse(ErrorCode.TOKEN_INVALID).getExpireDate(), "Error should have no date");
+        
+        System.out.println("✅ Immutable responses test completed");
+    }
+    
+    @Test
+    @DisplayName("Shared error responses test")
+    void testSharedErrors() {
+        System.out.println("=== Starting Shared Error Responses Test ===");
+        
+        int[] known = {
+                ErrorCode.TOKEN_CREATION_FAILED,
+                ErrorCode.TOKEN_INVALID,
+                ErrorCode.TOKEN_EXPIRED,
+                ErrorCode.TOKEN_REPLAYED,
+                ErrorCode.SIGNATURE_INVALID,
+                ErrorCode.RATE_LIMITED,
+                ErrorCode.OVERLOADED,
+                ErrorCode.UNKNOWN_ERROR
+        };
+        for (int code : known) {
+            assertSame(CodeResponse.error(code), CodeResponse.error(code), "Code error " + code + " should be shared");
+            assertSame(SSTokenResponse.error(code), SSTokenResponse.error(code));
+            assertSame(UidResponse.error(code), UidResponse.error(code));
+            assertSame(LongUidResponse.error(code), LongUidResponse.error(code));
+            assertSame(VerifyResponse.error(code), VerifyResponse.error(code));
+            
+            CodeResponse shared = CodeResponse.error(code);
+            assertFalse(shared.isSuccess());
+            assertEquals(code, shared.getErrorCode());
+            assertEquals(ErrorCode.getErrorMessage(code), shared.getErrorMessage());
+        }
+        
+        // Failures from the SDK are the shared instances too
+        assertSame(UidResponse.error(ErrorCode.TOKEN_INVALID), auth.getUidByCode("garbage"));
+        
+        // Unknown codes and custom messages get their own instances
+        assertNotSame(UidResponse.error(4242), UidResponse.error(4242));
+        assertEquals(4242, UidResponse.error(4242).getErrorCode());
+        UidResponse custom = UidResponse.error(ErrorCode.TOKEN_INVALID, "custom");
+        assertNotSame(UidResponse.error(ErrorCode.TOKEN_INVALID), custom);
+        assertEquals("custom", custom.getErrorMessage());
+        
+        System.out.println("✅ Shared error responses test completed");
+    }
+    
+    @Test
+    @DisplayName("Mutable compatibility round trip test")
+    void testMutableRoundTrip() {
+        System.out.println("=== Starting Mutable Round Trip Test ===");
+        
+        CodeResponse codeResponse = auth.getCode(TEST_UID);
+        MutableCodeResponse mutableCode = MutableCodeResponse.from(codeResponse);
+        System.out.println("Mutable Code Response: " + mutableCode);
+        assertEquals(codeResponse.getCode(), mutableCode.getCode());
+        assertEquals(codeResponse.getExpireDate(), mutableCode.getExpireDate());
+        CodeResponse codeCopy = mutableCode.toResponse();
+        assertTrue(codeCopy.isSuccess());
+        assertEquals(codeResponse.getCode(), codeCopy.getCode());
+        assertEquals(codeResponse.getExpireAt(), codeCopy.getExpireAt());
+        
+        SSTokenResponse tokenResponse = auth.getSSToken(TEST_UID);
+        SSTokenResponse tokenCopy = MutableSSTokenResponse.from(tokenResponse).toResponse();
+        assertEquals(tokenResponse.getToken(), tokenCopy.getToken());
+        assertEquals(tokenResponse.getExpireAt(), tokenCopy.getExpireAt());
+        
+        UidResponse uidResponse = auth.getUidByCode(codeResponse.getCode());
+        assertEquals(TEST_UID, MutableUidResponse.from(uidResponse).toResponse().getUid());
+        
+        // Errors keep their code and message, and edits do not reach the source
+        MutableUidResponse mutableError = MutableUidResponse.from(UidResponse.error(ErrorCode.TOKEN_EXPIRED));
+        assertFalse(mutableError.isSuccess());
+        assertEquals(ErrorCode.TOKEN_EXPIRED, mutableError.getErrorCode());
+        assertEquals(ErrorCode.getErrorMessage(ErrorCode.TOKEN_EXPIRED), mutableError.toResponse().getErrorMessage());
+        mutableError.setError(ErrorCode.TOKEN_INVALID, "edited");
+        assertEquals(ErrorCode.TOKEN_EXPIRED, UidResponse.error(ErrorCode.TOKEN_EXPIRED).getErrorCode());
+        assertEquals("edited", mutableError.toResponse().getErrorMessage());
+        
+        MutableCodeResponse mutableCodeError = MutableCodeResponse.from(CodeResponse.error(ErrorCode.TOKEN_CREATION_FAILED));
+        assertNull(mutableCodeError.getExpireDate());
+        assertEquals(0L, mutableCodeError.toResponse().getExpireAt());
+        
+        System.out.println("✅ Mutable round trip test completed");
+    }
+}
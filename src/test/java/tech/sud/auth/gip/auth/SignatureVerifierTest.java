@@ -0,0 +1,103 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.codec.SignatureVerifier;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Signature verifier test: the streamed comparison agrees with the reference encodings,
+ * rejects every single-character change and wrong lengths, and backs both verification paths
+ */
+@DisplayName("Signature Verifier Test")
+public class SignatureVerifierTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("Matches reference encodings of random MACs")
+    void testMatches() {
+        Random random = new Random(42);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        for (int macLength = 1; macLength <= 64; macLength++) {
+            byte[] mac = new byte[macLength + 3];
+            random.nextBytes(mac);
+            String raw = encoder.encodeToString(Arrays.copyOfRange(mac, 3, 3 + macLength));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 3; i < 3 + macLength; i++) {
+                hex.append(String.format("%02x", mac[i]));
+            }
+            String hexEncoded = encoder.encodeToString(hex.toString().getBytes(StandardCharsets.US_ASCII));
+            
+            assertTrue(SignatureVerifier.matches(raw, 0, raw.length(), mac, 3, macLength, SignatureFormat.RAW));
+            assertTrue(SignatureVerifier.matches("x." + hexEncoded, 2, hexEncoded.length(), mac, 3, macLength,
+                    SignatureFormat.HEX));
+            assertFalse(SignatureVerifier.matches(raw, 0, raw.length(), mac, 3, macLength, SignatureFormat.HEX));
+            assertFalse(SignatureVerifier.matches(raw, 0, raw.length() - 1, mac, 3, macLength, SignatureFormat.RAW),
+                    "Shorter signatures are rejected");
+            
+            for (int i = 0; i < hexEncoded.length(); i++) {
+                char[] tampered = hexEncoded.toCharArray();
+                tampered[i] = tampered[i] == 'A' ? 'B' : 'A';
+                assertFalse(SignatureVerifier.matches(new String(tampered), 0, tampered.length, mac, 3, macLength,
+                        SignatureFormat.HEX), "Change at " + i + " should be detected");
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Verifies segments of issued tokens")
+    void testVerify() throws Exception {
+        HmacSigner signer = new HmacSigner(TEST_APP_SECRET);
+        SignatureVerifier verifier = new SignatureVerifier(signer);
+        for (SignatureFormat format : SignatureFormat.values()) {
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer).signatureFormat(format).build();
+            String token = auth.getSSToken(TEST_UID).getToken();
+            int secondDot = token.lastIndexOf('.');
+            byte[] signingInput = token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII);
+            assertTrue(verifier.verify(signingInput, 0, signingInput.length, token, secondDot + 1));
+            assertFalse(verifier.verify(signingInput, 0, signingInput.length - 1, token, secondDot + 1));
+            assertFalse(verifier.verify(signingInput, 0, signingInput.length, token + "A", secondDot + 1));
+            assertFalse(new SignatureVerifier(new HmacSigner("other_secret"))
+                    .verify(signingInput, 0, signingInput.length, token, secondDot + 1));
+            System.out.println(format + " signature: " + (token.length() - secondDot - 1) + " chars");
+        }
+    }
+    
+    @Test
+    @DisplayName("CryptoUtils rejects tampered signatures")
+    void testCryptoUtils() throws Exception {
+        String token = CryptoUtils.generateJWT(TEST_UID, TEST_APP_ID, System.currentTimeMillis() + 3600000L,
+                TEST_APP_SECRET);
+        assertEquals(TEST_UID, CryptoUtils.verifyAndParseJWT(token, TEST_APP_SECRET).get("uid"));
+        
+        int last = token.length() - 1;
+        String[] tampered = {
+            token.substring(0, last) + (token.charAt(last) == 'A' ? 'B' : 'A'),
+            token.substring(0, last),
+            token + "A",
+            token.substring(0, token.indexOf('.')) + "é" + token.substring(token.indexOf('.'))
+        };
+        for (String candidate : tampered) {
+            TokenValidationException e = assertThrows(TokenValidationException.class,
+                    () -> CryptoUtils.verifyAndParseJWT(candidate, TEST_APP_SECRET));
+            assertEquals(ErrorCode.SIGNATURE_INVALID, e.getErrorCode());
+        }
+        
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).build();
+        assertEquals(TEST_UID, auth.getUidBySSToken(token).getUid(), "Both paths accept the same signature");
+    }
+}
@@ -0,0 +1,219 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.metrics.StatsSnapshot;
+import tech.sud.auth.gip.auth.metrics.TenantStats;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tenant statistics test: shared counters split by app ID, operation and error code, exact under
+ * concurrency, and read into reused snapshots without allocating
+ */
+@DisplayName("Tenant Stats Test")
+public class TenantStatsTest {
+    
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("Counts are kept per tenant and error code")
+    void testPerTenant() {
+        TenantStats stats = new TenantStats();
+        MutableClock clock = new MutableClock(1700000000000L);
+        SudGIPAuth first = SudGIPAuth.builder("app_one").appSecret(TEST_APP_SECRET).clock(clock).metrics(stats).build();
+        SudGIPAuth second = SudGIPAuth.builder("app_two").appSecret("other_secret").metrics(stats).build();
+        
+        String token = first.getSSToken(TEST_UID, 60L).getToken();
+        first.getSSToken(TEST_UID);
+        assertTrue(first.getUidBySSToken(token).isSuccess());
+        assertFalse(second.getUidBySSToken(token).isSuccess());
+        assertFalse(first.getSSToken("").isSuccess());
+        clock.advance(61000L);
+        assertEquals(ErrorCode.TOKEN_EXPIRED, first.getUidBySSToken(token).getErrorCode());
+        
+        StatsSnapshot snapshot = stats.snapshot(null);
+        System.out.print(snapshot);
+        assertEquals(2, snapshot.getTenantCount());
+        int one = snapshot.indexOf("app_one");
+        int two = snapshot.indexOf("app_two");
+        assertEquals(2L, snapshot.getCount(one, TenantStats.Operation.ISSUE, ErrorCode.SUCCESS));
+        assertEquals(1L, snapshot.getCount(one, TenantStats.Operation.ISSUE, ErrorCode.APP_DATA_INVALID));
+        assertEquals(3L, snapshot.getTotal(one, TenantStats.Operation.ISSUE));
+        assertEquals(1L, snapshot.getCount(one, TenantStats.Operation.VERIFY, ErrorCode.SUCCESS));
+        assertEquals(1L, snapshot.getCount(one, TenantStats.Operation.VERIFY, ErrorCode.TOKEN_EXPIRED));
+        assertEquals(1L, snapshot.getTotal(two, TenantStats.Operation.VERIFY));
+        assertEquals(0L, snapshot.getCount(two, TenantStats.Operation.VERIFY, ErrorCode.SUCCESS));
+        assertEquals(0L, snapshot.getCount(two, TenantStats.Operation.ISSUE, 4242));
+        assertTrue(snapshot.getElapsedNanos(one, TenantStats.Operation.VERIFY) > 0L);
+        assertEquals(-1, snapshot.indexOf("app_three"));
+        assertEquals(first.getCryptoBackend(), snapshot.getBackend(one));
+        
+        String text = snapshot.toString();
+        assertTrue(text.contains("sudgip_operations_total{app_id=\"app_one\",operation=\"verify\",code=\"1005\"} 1\n"));
+        assertTrue(text.contains("sudgip_operations_total{app_id=\"app_two\",operation=\"issue\",code=\"0\"} 0\n"));
+        assertFalse(text.contains("app_two\",operation=\"issue\",code=\"1001\""), "Zero error counts are left out");
+        assertTrue(text.contains("sudgip_backend_info{app_id=\"app_two\",backend=\"" + second.getCryptoBackend()
+                + "\"} 1\n"), "Backend should be exported per tenant");
+    }
+    
+    @Test
+    @DisplayName("Signature failures are counted apart from malformed tokens")
+    void testSignatureFailures() {
+        TenantStats stats = new TenantStats();
+        SudGIPAuth auth = SudGIPAuth.builder("app_one").appSecret(TEST_APP_SECRET).metrics(stats).build();
+        SudGIPAuth compact = SudGIPAuth.builder("app_two").appSecret(TEST_APP_SECRET).metrics(stats)
+                .tokenFormat(TokenFormat.COMPACT).build();
+        
+        String token = auth.getSSToken(TEST_UID).getToken();
+        String tampered = tamper(token);
+        assertEquals(ErrorCode.SIGNATURE_INVALID, auth.getUidBySSToken(tampered).getErrorCode());
+        String forged = SudGIPAuth.builder("app_one").appSecret("other_secret").build().getSSToken(TEST_UID).getToken();
+        assertEquals(ErrorCode.SIGNATURE_INVALID, auth.getUidBySSToken(forged).getErrorCode());
+        String compactToken = compact.getSSToken(TEST_UID).getToken();
+        assertEquals(ErrorCode.SIGNATURE_INVALID, compact.getUidBySSToken(tamper(compactToken)).getErrorCode());
+        
+        StatsSnapshot snapshot = stats.snapshot(null);
+        int one = snapshot.indexOf("app_one");
+        assertEquals(2L, snapshot.getCount(one, TenantStats.Operation.VERIFY, ErrorCode.SIGNATURE_INVALID));
+        assertEquals(0L, snapshot.getCount(one, TenantStats.Operation.VERIFY, ErrorCode.TOKEN_INVALID));
+        assertEquals(1L, snapshot.getCount(snapshot.indexOf("app_two"), TenantStats.Operation.VERIFY,
+                ErrorCode.SIGNATURE_INVALID));
+        
+        // Malformed tokens move the invalid counter, not the signature one
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.getUidBySSToken("garbage").getErrorCode());
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.getUidBySSToken(token.substring(0, token.lastIndexOf('.')))
+                .getErrorCode());
+        stats.snapshot(snapshot);
+        assertEquals(2L, snapshot.getCount(one, TenantStats.Operation.VERIFY, ErrorCode.SIGNATURE_INVALID));
+        assertEquals(2L, snapshot.getCount(one, TenantStats.Operation.VERIFY, ErrorCode.TOKEN_INVALID));
+        assertTrue(snapshot.toString().contains(
+                "sudgip_operations_total{app_id=\"app_one\",operation=\"verify\",code=\"1007\"} 2\n"));
+    }
+    
+    /**
+     * Flip one character inside the signature, away from the trailing padding bits
+     */
+    private static String tamper(String token) {
+        int at = token.length() - 5;
+        char c = token.charAt(at);
+        return token.substring(0, at) + (c == 'A' ? 'B' : 'A') + token.substring(at + 1);
+    }
+    
+    @Test
+    @DisplayName("App IDs beyond the limit are pooled")
+    void testTenantLimit() {
+        TenantStats stats = new TenantStats(2);
+        stats.onVerify(null, ErrorCode.SUCCESS, 1L);
+        stats.onVerify("a", ErrorCode.SUCCESS, 1L);
+        stats.onVerify("b\"\\", ErrorCode.SUCCESS, 1L);
+        stats.onVerify("c", ErrorCode.TOKEN_INVALID, 1L);
+        stats.onVerify("d", 4242, 1L);
+        stats.onVerify("a", ErrorCode.SUCCESS, 1L);
+        
+        StatsSnapshot snapshot = stats.snapshot(null);
+        assertEquals(3, stats.getTenantCount());
+        assertEquals(2L, snapshot.getTotal(snapshot.indexOf("a"), TenantStats.Operation.VERIFY));
+        int other = snapshot.indexOf(TenantStats.OTHER_APP_IDS);
+        assertEquals(3L, snapshot.getTotal(other, TenantStats.Operation.VERIFY));
+        assertEquals(1L, snapshot.getCount(other, TenantStats.Operation.VERIFY, ErrorCode.UNKNOWN_ERROR));
+        assertTrue(snapshot.toString().contains("app_id=\"b\\\"\\\\\""), "Label values should be escaped");
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getAppId(3));
+        assertNull(snapshot.getBackend(0), "Metrics-only tenants have no backend");
+        assertFalse(snapshot.toString().contains("sudgip_backend_info{"));
+        assertThrows(IllegalArgumentException.class, () -> new TenantStats(0));
+    }
+    
+    @Test
+    @DisplayName("Concurrent recording is exact")
+    void testConcurrent() throws Exception {
+        TenantStats stats = new TenantStats();
+        int threads = 8;
+        int perThread = 50000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String appId = "app_" + (t % 2);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    stats.onVerify(appId, i % 10 == 0 ? ErrorCode.TOKEN_EXPIRED : ErrorCode.SUCCESS, 2L);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        StatsSnapshot snapshot = new StatsSnapshot();
+        long seen = 0L;
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                stats.snapshot(snapshot);
+                long total = 0L;
+                for (int i = 0; i < snapshot.getTenantCount(); i++) {
+                    total += snapshot.getTotal(i, TenantStats.Operation.VERIFY);
+                }
+                assertTrue(total >= seen, "Counters should only grow");
+                seen = total;
+            }
+        }
+        stats.snapshot(snapshot);
+        for (int i = 0; i < 2; i++) {
+            int tenant = snapshot.indexOf("app_" + i);
+            assertEquals(threads / 2 * perThread / 10,
+                    snapshot.getCount(tenant, TenantStats.Operation.VERIFY, ErrorCode.TOKEN_EXPIRED));
+            assertEquals(threads / 2 * perThread, snapshot.getTotal(tenant, TenantStats.Operation.VERIFY));
+            assertEquals(2L * threads / 2 * perThread, snapshot.getElapsedNanos(tenant, TenantStats.Operation.VERIFY));
+        }
+    }
+    
+    @Test
+    @DisplayName("Recording and reused snapshots allocate nothing")
+    void testNoAllocation() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long tid = Thread.currentThread().getId();
+        
+        TenantStats stats = new TenantStats();
+        String[] appIds = {"app_0", "app_1", "app_2"};
+        StatsSnapshot snapshot = new StatsSnapshot();
+        StringBuilder text = new StringBuilder(1 << 16);
+        for (int round = 0; round < 3; round++) {
+            long start = threads.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < 100000; i++) {
+                stats.onVerify(appIds[i % appIds.length], i % 7 == 0 ? ErrorCode.TOKEN_INVALID : ErrorCode.SUCCESS, i);
+                stats.onIssue(appIds[i % appIds.length], ErrorCode.SUCCESS, i);
+            }
+            long recordBytes = threads.getThreadAllocatedBytes(tid) - start;
+            start = threads.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < 1000; i++) {
+                stats.snapshot(snapshot);
+                text.setLength(0);
+                snapshot.writeTo(text);
+            }
+            long readBytes = threads.getThreadAllocatedBytes(tid) - start;
+            System.out.println("Round " + round + ": record " + recordBytes + " B, read " + readBytes + " B");
+            if (round == 2) {
+                assertTrue(recordBytes < 4096, "Recording should not allocate");
+                assertTrue(readBytes < 4096, "Reading into a reused snapshot should not allocate");
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.cache.TimingWheel;
+import tech.sud.auth.gip.auth.cache.VerificationCache;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timing wheel test: callbacks fire on the first tick at or after their deadline across all
+ * levels and beyond the wheel's range, cancellation, cache eviction and the daemon thread
+ */
+@DisplayName("Timing Wheel Test")
+public class TimingWheelTest {
+    
+    private static final long START_MILLIS = 1700000000000L;
+    private static final long TICK_MILLIS = 10L;
+    
+    @Test
+    @DisplayName("Callbacks fire at their deadline across levels")
+    void testDeadlines() {
+        MutableClock clock = new MutableClock(START_MILLIS);
+        // 4 buckets x 3 levels: 64 ticks of range, so long deadlines cascade and overflow
+        TimingWheel wheel = TimingWheel.builder().clock(clock).tickMillis(TICK_MILLIS).wheelSize(4).levels(3).build();
+        Random random = new Random(42);
+        int count = 5000;
+        long[] deadlines = new long[count];
+        AtomicLong[] firedAt = new AtomicLong[count];
+        for (int i = 0; i < count; i++) {
+            deadlines[i] = START_MILLIS + random.nextInt(200 * (int) TICK_MILLIS);
+            AtomicLong fired = new AtomicLong();
+            firedAt[i] = fired;
+            wheel.schedule(deadlines[i], () -> assertEquals(0L, fired.getAndSet(clock.millis())));
+        }
+        assertEquals(count, wheel.size());
+        
+        long end = START_MILLIS + 250 * TICK_MILLIS;
+        while (clock.millis() < end) {
+            clock.advance(1 + random.nextInt(3 * (int) TICK_MILLIS));
+            wheel.advance();
+            long now = clock.millis();
+            // Ticks up to the current one have run; later deadlines must wait
+            long processedUpTo = START_MILLIS + Math.floorDiv(now - START_MILLIS, TICK_MILLIS) * TICK_MILLIS;
+            for (int i = 0; i < count; i++) {
+                if (deadlines[i] <= processedUpTo) {
+                    assertTrue(firedAt[i].get() != 0L, "Deadline " + deadlines[i] + " should have fired by " + now);
+                } else if (deadlines[i] > now) {
+                    assertEquals(0L, firedAt[i].get(), "Deadline " + deadlines[i] + " fired early at " + now);
+                }
+            }
+        }
+        assertEquals(0L, wheel.size());
+        assertEquals(count, wheel.expiredCount());
+        assertEquals(0L, wheel.failureCount());
+        System.out.println(wheel);
+    }
+    
+    @Test
+    @DisplayName("Deadlines beyond the range and in the past")
+    void testRangeEdges() {
+        MutableClock clock = new MutableClock(START_MILLIS);
+        TimingWheel wheel = TimingWheel.builder().clock(clock).tickMillis(TICK_MILLIS).wheelSize(4).levels(2).build();
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheel.Timeout far = wheel.schedule(START_MILLIS + 1000 * TICK_MILLIS, fired::incrementAndGet);
+        TimingWheel.Timeout past = wheel.schedule(START_MILLIS - 5000L, fired::incrementAndGet);
+        
+        wheel.advance();
+        assertTrue(past.isExpired(), "Past deadlines fire on the next advance");
+        for (int i = 0; i < 999; i++) {
+            clock.advance(TICK_MILLIS);
+            wheel.advance();
+        }
+        assertFalse(far.isExpired(), "Beyond-range deadline fired early");
+        clock.advance(TICK_MILLIS);
+        wheel.advance();
+        assertTrue(far.isExpired());
+        assertEquals(2, fired.get());
+    }
+    
+    @Test
+    @DisplayName("Cancelled callbacks never fire")
+    void testCancel() {
+        MutableClock clock = new MutableClock(START_MILLIS);
+        TimingWheel wheel = TimingWheel.builder().clock(clock).tickMillis(TICK_MILLIS).build();
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[100];
+        for (int i = 0; i < timeouts.length; i++) {
+            timeouts[i] = wheel.schedule(START_MILLIS + 100L + i, fired::incrementAndGet);
+        }
+        wheel.advance();
+        for (int i = 0; i < timeouts.length; i += 2) {
+            assertTrue(timeouts[i].cancel());
+            assertFalse(timeouts[i].cancel(), "Second cancel is a no-op");
+        }
+        assertEquals(50L, wheel.size());
+        clock.advance(1000L);
+        wheel.advance();
+        assertEquals(50, fired.get());
+        assertEquals(0L, wheel.size());
+        assertFalse(timeouts[1].cancel(), "Expired timeouts cannot be cancelled");
+    }
+    
+    @Test
+    @DisplayName("Cache entries are evicted at token expiry")
+    void testCacheEviction() {
+        MutableClock clock = new MutableClock(START_MILLIS);
+        TimingWheel wheel = TimingWheel.builder().clock(clock).tickMillis(100L).build();
+        VerificationCache cache = new VerificationCache(16, wheel);
+        long now = START_MILLIS / 1000L;
+        TokenClaims claims = new TokenClaims("user_12345", "test_app_123", now + 60L, now, Claims.NONE);
+        cache.put("token-a", claims);
+        cache.put("token-a", claims);
+        wheel.advance();
+        assertEquals(1L, wheel.size(), "Replacing an entry cancels its timeout");
+        
+        clock.advance(60000L);
+        wheel.advance();
+        assertSame(claims, cache.get("token-a", now + 60L), "Valid through the exp second");
+        clock.advance(1000L);
+        wheel.advance();
+        assertNull(cache.get("token-a", now), "Entry should be gone, whatever time the reader passes");
+        assertEquals(0L, wheel.size());
+        
+        // Issuance cache entries of an SDK instance go away once stale
+        SudGIPAuth auth = SudGIPAuth.builder("test_app_123").appSecret("test_secret_456").clock(clock)
+                .issuanceCache(64, 2L).expiryWheel(wheel).build();
+        auth.getSSToken("user_12345");
+        auth.getCode(42L);
+        assertEquals(2L, wheel.size());
+        clock.advance(3000L);
+        wheel.advance();
+        assertEquals(0L, wheel.size());
+        
+        // A wheel on another clock would evict on the wrong schedule
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder("test_app_123")
+                .appSecret("test_secret_456").issuanceCache(64, 2L).expiryWheel(wheel).build());
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder("test_app_123")
+                .appSecret("test_secret_456").clock(clock).expiryWheel(TimingWheel.shared()).build());
+        assertNotNull(SudGIPAuth.builder("test_app_123").appSecret("test_secret_456")
+                .expiryWheel(TimingWheel.shared()).build());
+    }
+    
+    @Test
+    @DisplayName("Started wheel fires from its daemon thread")
+    void testDaemonThread() throws Exception {
+        try (TimingWheel wheel = TimingWheel.builder().tickMillis(5L).build().start()) {
+            CountDownLatch latch = new CountDownLatch(1);
+            Thread[] firingThread = new Thread[1];
+            long deadline = System.currentTimeMillis() + 50L;
+            wheel.schedule(deadline, () -> {
+                firingThread[0] = Thread.currentThread();
+                latch.countDown();
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "Callback should run without manual advances");
+            assertTrue(System.currentTimeMillis() >= deadline);
+            assertTrue(firingThread[0].isDaemon());
+            System.out.println("lag " + wheel.lagMillis() + "ms, max " + wheel.maxLagMillis() + "ms");
+        }
+        assertSame(TimingWheel.shared(), TimingWheel.shared());
+    }
+}
@@ -0,0 +1,178 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.claims.BinaryPayloadCodec;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.Claims;
+import tech.sud.auth.gip.auth.claims.TokenClaims;
+import tech.sud.auth.gip.auth.codec.CompactTokenCodec;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.exception.TokenValidationException;
+import tech.sud.auth.gip.auth.model.UidResponse;
+import tech.sud.auth.gip.auth.model.VerifyResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token wire format test: signature formats and cross-format verification
+ */
+@DisplayName("Token Format Test")
+public class TokenFormatTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    private final SudGIPAuth hexAuth = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+    private final SudGIPAuth rawAuth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY)
+            .signatureFormat(SignatureFormat.RAW).build();
+    
+    @Test
+    @DisplayName("RAW signatures are standard HS256")
+    void testRawSignatureIsStandardHs256() throws Exception {
+        String token = rawAuth.getSSToken(TEST_UID).getToken();
+        int dot = token.lastIndexOf('.');
+        assertEquals(43, token.length() - dot - 1, "Raw signature should be 43 characters");
+        
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(TEST_APP_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] expected = mac.doFinal(token.substring(0, dot).getBytes(StandardCharsets.UTF_8));
+        assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(expected), token.substring(dot + 1));
+    }
+    
+    @Test
+    @DisplayName("HMAC signer constructor keeps HEX signatures")
+    void testSignerConstructorFormat() {
+        SudGIPAuth signerAuth = SudGIPAuth.builder(TEST_APP_ID).signer(new HmacSigner(TEST_APP_KEY)).build();
+        String token = signerAuth.getSSToken(TEST_UID).getToken();
+        assertEquals(86, token.substring(token.lastIndexOf('.') + 1).length(), "HMAC signers should issue HEX");
+        assertEquals(TEST_UID, hexAuth.getUidBySSToken(token).getUid());
+    }
+    
+    @Test
+    @DisplayName("Either signature format verifies during migration")
+    void testCrossFormatVerification() {
+        String hexToken = hexAuth.getSSToken(TEST_UID).getToken();
+        String rawToken = rawAuth.getSSToken(TEST_UID).getToken();
+        assertEquals(86, hexToken.length() - hexToken.lastIndexOf('.') - 1, "Hex signature should be 86 characters");
+        
+        assertEquals(TEST_UID, rawAuth.getUidBySSToken(hexToken).getUid());
+        assertEquals(TEST_UID, hexAuth.getUidBySSToken(rawToken).getUid());
+    }
+    
+    @Test
+    @DisplayName("Tampered or truncated signatures are rejected")
+    void testTamperedSignatures() {
+        String rawToken = rawAuth.getSSToken(TEST_UID).getToken();
+        char last = rawToken.charAt(rawToken.length() - 1);
+        String tampered = rawToken.substring(0, rawToken.length() - 1) + (last == 'A' ? 'B' : 'A');
+        UidResponse response = rawAuth.getUidBySSToken(tampered);
+        assertFalse(response.isSuccess(), "Tampered signature should fail");
+        
+        assertFalse(rawAuth.getUidBySSToken(rawToken.substring(0, rawToken.length() - 5)).isSuccess(),
+                "Truncated signature should fail");
+        
+        SudGIPAuth otherKey = new SudGIPAuth(TEST_APP_ID, "other_key");
+        assertFalse(otherKey.getUidBySSToken(rawToken).isSuccess(), "Wrong secret should fail");
+    }
+    
+    @Test
+    @DisplayName("Compact tokens verify to the same claims as JWTs")
+    void testCompactAndJwtYieldSameClaims() {
+        ClaimSchema schema = ClaimSchema.builder().stringClaim("region").longClaim("room_id").build();
+        SudGIPAuth jwt = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).claimSchema(schema).build();
+        SudGIPAuth compact = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).claimSchema(schema)
+                .signatureFormat(SignatureFormat.RAW).tokenFormat(TokenFormat.COMPACT).build();
+        Claims claims = schema.claims().set("region", "eu-west").set("room_id", -42L).build();
+        
+        String jwtToken = jwt.getSSToken("玩家_1", 600L, claims).getToken();
+        String compactToken = compact.getSSToken("玩家_1", 600L, claims).getToken();
+        assertEquals(TokenFormat.JWT, TokenFormat.detect(jwtToken));
+        assertEquals(TokenFormat.COMPACT, TokenFormat.detect(compactToken));
+        assertTrue(compactToken.length() * 2 < jwtToken.length(), "Compact token should be much smaller");
+        
+        VerifyResponse fromJwt = compact.verifySSToken(jwtToken);
+        VerifyResponse fromCompact = jwt.verifySSToken(compactToken);
+        assertTrue(fromJwt.isSuccess());
+        assertTrue(fromCompact.isSuccess());
+        assertEquals(fromJwt.getClaims().toString(), fromCompact.getClaims().toString());
+        assertEquals(-42L, fromCompact.getClaims().getClaims().getLong("room_id", 0L));
+    }
+    
+    @Test
+    @DisplayName("Compact tokens with truncated tags, foreign key IDs and tampering")
+    void testCompactTagsAndKeyIds() throws Exception {
+        long now = System.currentTimeMillis() / 1000L;
+        CompactTokenCodec truncated = new CompactTokenCodec(TEST_APP_KEY, ClaimSchema.EMPTY, 7, true);
+        CompactTokenCodec full = new CompactTokenCodec(TEST_APP_KEY, ClaimSchema.EMPTY, 7, false);
+        
+        String shortToken = truncated.encode(TEST_UID, TEST_APP_ID, now + 60, now, Claims.NONE);
+        String longToken = full.encode(TEST_UID, TEST_APP_ID, now + 60, now, Claims.NONE);
+        assertTrue(shortToken.length() < longToken.length());
+        TokenClaims claims = full.decode(shortToken, now);
+        assertEquals(TEST_UID, claims.getUid());
+        assertEquals(now + 60, claims.getExpireAt());
+        
+        CompactTokenCodec otherKid = new CompactTokenCodec(TEST_APP_KEY, ClaimSchema.EMPTY, 8, false);
+        TokenValidationException e = assertThrows(TokenValidationException.class, () -> otherKid.decode(longToken, now));
+        assertEquals(ErrorCode.TOKEN_INVALID, e.getErrorCode());
+        
+        char c = longToken.charAt(10);
+        String tampered = longToken.substring(0, 10) + (c == 'A' ? 'B' : 'A') + longToken.substring(11);
+        assertThrows(TokenValidationException.class, () -> full.decode(tampered, now));
+        
+        e = assertThrows(TokenValidationException.class, () -> full.decode(longToken, now + 61));
+        assertEquals(ErrorCode.TOKEN_EXPIRED, e.getErrorCode());
+    }
+    
+    @Test
+    @DisplayName("Compact payloads with negative lengths are rejected")
+    void testCompactNegativeLength() throws Exception {
+        long now = System.currentTimeMillis() / 1000L;
+        CompactTokenCodec codec = new CompactTokenCodec(TEST_APP_KEY, ClaimSchema.EMPTY, 7, false);
+        byte[] header = Arrays.copyOf(Base64.getUrlDecoder().decode(
+                codec.encode(TEST_UID, TEST_APP_ID, now + 60, now, Claims.NONE)), 2);
+        
+        // expireAt, issuedAt, then a ten-byte uid length that reads back as -1
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeVarint(payload, now + 60);
+        writeVarint(payload, now);
+        writeVarint(payload, -1L);
+        byte[] body = payload.toByteArray();
+        
+        TokenValidationException e = assertThrows(TokenValidationException.class,
+                () -> codec.decode(signCompact(header, body), now));
+        assertEquals(ErrorCode.TOKEN_DECODING_FAILED, e.getErrorCode());
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinaryPayloadCodec(ClaimSchema.EMPTY).decode(body, 0, body.length, true));
+    }
+    
+    private static String signCompact(byte[] header, byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(TEST_APP_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        ByteArrayOutputStream token = new ByteArrayOutputStream();
+        token.write(header);
+        token.write(body);
+        token.write(mac.doFinal(token.toByteArray()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toByteArray());
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0L) {
+            out.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,231 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.cache.ReplayCache;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.codec.TokenKind;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.AsymmetricSigner;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.crypto.SigningAlgorithm;
+import tech.sud.auth.gip.auth.model.UidResponse;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token kind test: typed codes and SSTokens are not interchangeable in either format, untyped
+ * tokens stay accepted unless typing is required, and per-kind policies apply to their kind only
+ */
+@DisplayName("Token Kind Test")
+public class TokenKindTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final String TEST_UID = "user_12345";
+    private static final long START_MILLIS = 1700000000000L;
+    
+    @Test
+    @DisplayName("Typed tokens are rejected as the other kind")
+    void testCrossKind() {
+        for (TokenFormat format : TokenFormat.values()) {
+            SudGIPAuth typed = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).tokenFormat(format)
+                    .typedTokens(true).build();
+            String code = typed.getCode(TEST_UID).getCode();
+            String ssToken = typed.getSSToken(TEST_UID).getToken();
+            System.out.println(format + " code: " + code);
+            
+            assertEquals(TEST_UID, typed.getUidByCode(code).getUid());
+            assertEquals(TEST_UID, typed.getUidBySSToken(ssToken).getUid());
+            UidResponse swapped = typed.getUidBySSToken(code);
+            assertEquals(ErrorCode.TOKEN_INVALID, swapped.getErrorCode(), format + " code as SSToken");
+            assertEquals(ErrorCode.TOKEN_INVALID, typed.getUidByCode(ssToken).getErrorCode(), format + " SSToken as code");
+            assertFalse(typed.verifyCode(ssToken).isSuccess());
+            assertTrue(typed.verifyLong(typed.getCode(42L).getCode()).isSuccess(), "verifyLong accepts either kind");
+            assertFalse(typed.isTokenExpired(code));
+            
+            // Untyped tokens pass as either kind, typed ones verify without typed issuance
+            SudGIPAuth untyped = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).tokenFormat(format).build();
+            String legacy = untyped.getCode(TEST_UID).getCode();
+            assertEquals(TEST_UID, typed.getUidByCode(legacy).getUid());
+            assertEquals(TEST_UID, typed.getUidBySSToken(legacy).getUid());
+            assertEquals(TEST_UID, untyped.getUidByCode(code).getUid());
+            assertFalse(untyped.getUidBySSToken(code).isSuccess());
+        }
+    }
+    
+    @Test
+    @DisplayName("Kind is read from the header")
+    void testKindOf() throws Exception {
+        SudGIPAuth typed = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).typedTokens(true).build();
+        String code = typed.getCode(TEST_UID).getCode();
+        String header = new String(Base64.getUrlDecoder().decode(code.substring(0, code.indexOf('.'))), "UTF-8");
+        assertTrue(header.contains("\"typ\":\"" + TokenKind.CODE.getJwtType() + "\""), header);
+        
+        // Typed HMAC JWTs still verify with the static utilities
+        assertEquals(TEST_UID, CryptoUtils.extractUidFromToken(code, TEST_APP_SECRET));
+        
+        // A header claiming another kind fails the signature
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                header.replace(TokenKind.CODE.getJwtType(), TokenKind.SS_TOKEN.getJwtType()).getBytes("UTF-8"))
+                + code.substring(code.indexOf('.'));
+        assertEquals(ErrorCode.SIGNATURE_INVALID, typed.getUidBySSToken(forged).getErrorCode());
+        assertFalse(typed.getUidByCode(forged).isSuccess());
+    }
+    
+    @Test
+    @DisplayName("Typed asymmetric tokens keep the pinned header")
+    void testAsymmetric() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keys = generator.generateKeyPair();
+        for (TokenFormat format : TokenFormat.values()) {
+            SudGIPAuth issuer = SudGIPAuth.builder(TEST_APP_ID)
+                    .signer(AsymmetricSigner.of(SigningAlgorithm.ES256, keys.getPrivate(), keys.getPublic()))
+                    .tokenFormat(format).typedTokens(true).build();
+            SudGIPAuth verifier = SudGIPAuth.builder(TEST_APP_ID)
+                    .signer(AsymmetricSigner.verifier(SigningAlgorithm.ES256, keys.getPublic())).build();
+            String code = issuer.getCode(TEST_UID).getCode();
+            String ssToken = issuer.getSSToken(TEST_UID).getToken();
+            assertEquals(TEST_UID, verifier.getUidByCode(code).getUid());
+            assertEquals(TEST_UID, verifier.getUidBySSToken(ssToken).getUid());
+            assertFalse(verifier.getUidBySSToken(code).isSuccess(), format + " code as SSToken");
+            assertFalse(verifier.getUidByCode(ssToken).isSuccess(), format + " SSToken as code");
+        }
+    }
+    
+    @Test
+    @DisplayName("Untyped tokens are rejected when typing is required")
+    void testRequireTyped() {
+        SudGIPAuth strict = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).typedTokens(true)
+                .requireTypedTokens(true).build();
+        SudGIPAuth untyped = new SudGIPAuth(TEST_APP_ID, TEST_APP_SECRET);
+        assertEquals(ErrorCode.TOKEN_INVALID, strict.getUidBySSToken(untyped.getSSToken(TEST_UID).getToken())
+                .getErrorCode());
+        assertFalse(strict.verifyLong(untyped.getSSToken(42L).getToken()).isSuccess());
+        assertEquals(TEST_UID, strict.getUidBySSToken(strict.getSSToken(TEST_UID).getToken()).getUid());
+    }
+    
+    @Test
+    @DisplayName("Single-use codes are exchanged once")
+    void testSingleUse() {
+        MutableClock clock = new MutableClock(START_MILLIS);
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).clock(clock).typedTokens(true)
+                .singleUse(TokenKind.CODE, 2).build();
+        String code = auth.getCode(TEST_UID).getCode();
+        assertFalse(auth.isTokenExpired(code), "Checking expiration does not use the code");
+        assertEquals(TEST_UID, auth.getUidByCode(code).getUid());
+        UidResponse replayed = auth.getUidByCode(code);
+        assertEquals(ErrorCode.TOKEN_REPLAYED, replayed.getErrorCode());
+        System.out.println("Replayed: " + replayed.getErrorMessage());
+        
+        // SSTokens are not single use
+        String ssToken = auth.getSSToken(TEST_UID).getToken();
+        assertTrue(auth.getUidBySSToken(ssToken).isSuccess());
+        assertTrue(auth.getUidBySSToken(ssToken).isSuccess());
+        
+        // A full cache refuses new codes until remembered ones expire
+        assertTrue(auth.getUidByCode(auth.getCode("user_2").getCode()).isSuccess());
+        String late = auth.getCode("user_3", 60L).getCode();
+        assertEquals(ErrorCode.OVERLOADED, auth.getUidByCode(late).getErrorCode());
+        clock.advance(3601000L);
+        assertEquals(ErrorCode.TOKEN_EXPIRED, auth.getUidByCode(code).getErrorCode());
+        String fresh = auth.getCode("user_4").getCode();
+        assertTrue(auth.getUidByCode(fresh).isSuccess());
+        assertEquals(ErrorCode.TOKEN_REPLAYED, auth.getUidByCode(fresh).getErrorCode());
+        
+        // Codes carry no nonce: the same second gives the same code, exchanged once in total
+        assertEquals(fresh, auth.getCode("user_4").getCode());
+        assertEquals(ErrorCode.TOKEN_REPLAYED, auth.getUidByCode(auth.getCode("user_4").getCode()).getErrorCode());
+        
+        // Shared cached codes would widen that to the whole freshness window
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET)
+                .singleUse(TokenKind.CODE, 2).issuanceCache(64, 60L).build());
+        assertNotNull(SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).singleUse(TokenKind.CODE, 2)
+                .issuanceCache(TokenKind.SS_TOKEN, 64, 60L).build());
+    }
+    
+    @Test
+    @DisplayName("Concurrent first uses stay within the replay capacity")
+    void testReplayCapacity() throws Exception {
+        int capacity = 64;
+        int threads = 8;
+        for (int round = 0; round < 20; round++) {
+            ReplayCache cache = new ReplayCache(capacity);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger accepted = new AtomicInteger();
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < capacity; i++) {
+                        if (cache.use("token_" + id + "_" + i, 0L, 0L) == ErrorCode.SUCCESS) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertEquals(capacity, accepted.get(), "Exactly the capacity should be accepted");
+            assertEquals(capacity, cache.size());
+            
+            // Clearing and replays hand their slots back
+            cache.clear();
+            assertEquals(0, cache.size());
+            for (int i = 0; i < capacity; i++) {
+                assertEquals(ErrorCode.SUCCESS, cache.use("fresh_" + i, 0L, 0L));
+                assertEquals(ErrorCode.TOKEN_REPLAYED, cache.use("fresh_" + i, 0L, 0L));
+            }
+            assertEquals(ErrorCode.OVERLOADED, cache.use("fresh_" + capacity, 0L, 0L));
+        }
+    }
+    
+    @Test
+    @DisplayName("Maximum lifetime applies per kind")
+    void testMaxLifetime() {
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).typedTokens(true)
+                .maxLifetimeSeconds(TokenKind.CODE, 600L).build();
+        assertTrue(auth.getUidByCode(auth.getCode(TEST_UID, 600L).getCode()).isSuccess());
+        assertEquals(ErrorCode.TOKEN_INVALID, auth.getUidByCode(auth.getCode(TEST_UID, 601L).getCode()).getErrorCode());
+        assertTrue(auth.getUidBySSToken(auth.getSSToken(TEST_UID, 86400L).getToken()).isSuccess());
+        
+        // Untyped tokens checked as codes fall under the code limit
+        SudGIPAuth untyped = new SudGIPAuth(TEST_APP_ID, TEST_APP_SECRET);
+        assertFalse(auth.getUidByCode(untyped.getSSToken(TEST_UID).getToken()).isSuccess());
+        assertThrows(IllegalArgumentException.class,
+                () -> SudGIPAuth.builder(TEST_APP_ID).maxLifetimeSeconds(TokenKind.CODE, -1L));
+        assertThrows(IllegalArgumentException.class, () -> SudGIPAuth.builder(TEST_APP_ID).singleUse(null, 1));
+    }
+    
+    @Test
+    @DisplayName("Issuance caches are kept per kind")
+    void testIssuanceCachePerKind() {
+        CountingSigner signer = new CountingSigner(new HmacSigner(TEST_APP_SECRET));
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(signer).clock(new MutableClock(START_MILLIS))
+                .typedTokens(true).issuanceCache(TokenKind.SS_TOKEN, 1024, 0L).build();
+        String ssToken = auth.getSSToken(TEST_UID, 600L).getToken();
+        assertEquals(ssToken, auth.getSSToken(TEST_UID, 600L).getToken());
+        String code = auth.getCode(TEST_UID, 600L).getCode();
+        assertNotEquals(ssToken, code, "A code must not reuse an SSToken");
+        auth.getCode(TEST_UID, 600L);
+        assertEquals(3, signer.signatures.get(), "Codes are not cached");
+        assertEquals(TEST_UID, auth.getUidByCode(code).getUid());
+    }
+}
@@ -0,0 +1,97 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.cache.UidCache;
+import tech.sud.auth.gip.auth.claims.ClaimSchema;
+import tech.sud.auth.gip.auth.claims.PayloadCodec;
+import tech.sud.auth.gip.auth.codec.TokenFormat;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uid canonicalization cache test: shared instances across verifications, numeric uids
+ * and uids that bypass the cache
+ */
+@DisplayName("Uid Cache Test")
+public class UidCacheTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    
+    @Test
+    @DisplayName("Repeat verifications return the same uid instance")
+    void testSameInstance() {
+        UidCache cache = new UidCache(1024);
+        for (TokenFormat format : TokenFormat.values()) {
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(new HmacSigner(TEST_APP_SECRET))
+                    .tokenFormat(format).uidCache(cache).build();
+            String first = auth.getUidBySSToken(auth.getSSToken("user_12345").getToken()).getUid();
+            String second = auth.getUidBySSToken(auth.getSSToken("user_12345").getToken()).getUid();
+            assertEquals("user_12345", first);
+            assertSame(first, second, format + " verification should return the cached instance");
+            System.out.println(format + ": uid instance shared");
+        }
+        
+        SudGIPAuth uncached = SudGIPAuth.builder(TEST_APP_ID).signer(new HmacSigner(TEST_APP_SECRET)).build();
+        String token = uncached.getSSToken("user_12345").getToken();
+        assertNotSame(uncached.getUidBySSToken(token).getUid(), uncached.getUidBySSToken(token).getUid());
+    }
+    
+    @Test
+    @DisplayName("Numeric uids take the primitive path")
+    void testNumericUid() {
+        UidCache cache = new UidCache(64);
+        PayloadCodec codec = new PayloadCodec(ClaimSchema.EMPTY, cache);
+        
+        String first = decodeUid(codec, "{\"uid\":9223372036854775807,\"appId\":\"a\",\"exp\":1}");
+        String second = decodeUid(codec, "{\"uid\":9223372036854775807,\"appId\":\"a\",\"exp\":1}");
+        assertEquals("9223372036854775807", first);
+        assertSame(first, second);
+        assertSame(cache.canonicalize(-42L), decodeUid(codec, "{\"uid\":-42}"));
+        
+        // Literals that are not plain longs keep their text
+        assertEquals("9223372036854775808", decodeUid(codec, "{\"uid\":9223372036854775808}"));
+        assertEquals("1.5", decodeUid(codec, "{\"uid\":1.5}"));
+        assertEquals("1e3", decodeUid(codec, "{\"uid\":1e3}"));
+        assertEquals("-0", decodeUid(codec, "{\"uid\":-0}"));
+        assertEquals("007", decodeUid(new PayloadCodec(ClaimSchema.EMPTY), "{\"uid\":007}"),
+                "Uncached decoding should be unchanged");
+    }
+    
+    @Test
+    @DisplayName("Escaped and long uids decode correctly")
+    void testUncachedShapes() {
+        UidCache cache = new UidCache(64);
+        PayloadCodec codec = new PayloadCodec(ClaimSchema.EMPTY, cache);
+        
+        assertEquals("a\"bé", decodeUid(codec, "{\"uid\":\"a\\\"b\\u00e9\"}"));
+        assertEquals("用户", decodeUid(codec, "{\"uid\":\"用户\"}"));
+        
+        StringBuilder longUid = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longUid.append('x');
+        }
+        String json = "{\"uid\":\"" + longUid + "\"}";
+        String first = decodeUid(codec, json);
+        assertEquals(longUid.toString(), first);
+        assertNotSame(first, decodeUid(codec, json), "Uids over the cached length should not be retained");
+        
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(new HmacSigner(TEST_APP_SECRET))
+                .tokenFormat(TokenFormat.COMPACT).uidCache(cache).build();
+        UidResponse response = auth.getUidBySSToken(auth.getSSToken(longUid.toString()).getToken());
+        assertEquals(longUid.toString(), response.getUid());
+        
+        cache.clear();
+        assertNotSame(first, decodeUid(codec, "{\"uid\":\"user\"}"));
+    }
+    
+    private static String decodeUid(PayloadCodec codec, String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return codec.decode(bytes, 0, bytes.length).getUid();
+    }
+}
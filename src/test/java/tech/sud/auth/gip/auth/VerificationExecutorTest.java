@@ -0,0 +1,326 @@
+package tech.sud.auth.gip.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.crypto.HmacSigner;
+import tech.sud.auth.gip.auth.crypto.SigningAlgorithm;
+import tech.sud.auth.gip.auth.crypto.TokenSigner;
+import tech.sud.auth.gip.auth.executor.SheddingPolicy;
+import tech.sud.auth.gip.auth.executor.VerificationExecutor;
+import tech.sud.auth.gip.auth.metrics.StatsSnapshot;
+import tech.sud.auth.gip.auth.metrics.TenantStats;
+import tech.sud.auth.gip.auth.model.UidResponse;
+import tech.sud.auth.gip.auth.model.VerifyResponse;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verification executor test: asynchronous verification gives the synchronous results, and a
+ * saturated executor answers at once with {@link ErrorCode#OVERLOADED} instead of queueing
+ */
+@DisplayName("Verification Executor Test")
+public class VerificationExecutorTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Test
+    @DisplayName("Asynchronous verification matches synchronous")
+    void testAsync() throws Exception {
+        try (VerificationExecutor executor = VerificationExecutor.builder().workers(2).build()) {
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET)
+                    .verificationExecutor(executor).build();
+            String code = auth.getCode(TEST_UID).getCode();
+            String ssToken = auth.getSSToken(TEST_UID).getToken();
+            
+            assertEquals(TEST_UID, auth.getUidByCodeAsync(code).get(5, TimeUnit.SECONDS).getUid());
+            assertEquals(TEST_UID, auth.getUidBySSTokenAsync(ssToken).get(5, TimeUnit.SECONDS).getUid());
+            VerifyResponse claims = auth.verifySSTokenAsync(ssToken).get(5, TimeUnit.SECONDS);
+            assertEquals(TEST_APP_ID, claims.getClaims().getAppId());
+            assertEquals(ErrorCode.TOKEN_INVALID, auth.verifyCodeAsync("garbage").get(5, TimeUnit.SECONDS).getErrorCode());
+            
+            // Without an executor the futures are complete on return
+            SudGIPAuth direct = new SudGIPAuth(TEST_APP_ID, TEST_APP_SECRET);
+            CompletableFuture<UidResponse> done = direct.getUidBySSTokenAsync(ssToken);
+            assertTrue(done.isDone());
+            assertEquals(TEST_UID, done.get().getUid());
+            System.out.println(executor);
+        }
+    }
+    
+    @Test
+    @DisplayName("Full queues shed at once")
+    void testReject() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Integer> blocking = token -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ErrorCode.SUCCESS;
+        };
+        try (VerificationExecutor executor = VerificationExecutor.builder().workers(1).queueCapacity(4).batchSize(1)
+                .build()) {
+            List<CompletableFuture<Integer>> accepted = new ArrayList<>();
+            // One task held by the worker plus four queued
+            for (int i = 0; i < 5; i++) {
+                accepted.add(executor.submit("t" + i, blocking, code -> code));
+                if (i == 0) {
+                    waitFor(() -> executor.getQueuedCount() == 0);
+                }
+            }
+            long start = System.nanoTime();
+            CompletableFuture<Integer> shed = executor.submit("t5", blocking, code -> code);
+            assertTrue(shed.isDone(), "Shed tokens should complete at once");
+            assertEquals(ErrorCode.OVERLOADED, shed.get().intValue());
+            System.out.println("Shed in " + (System.nanoTime() - start) / 1000 + " us");
+            assertEquals(1L, executor.getRejectedCount());
+            
+            release.countDown();
+            for (CompletableFuture<Integer> future : accepted) {
+                assertEquals(ErrorCode.SUCCESS, future.get(5, TimeUnit.SECONDS).intValue());
+            }
+            assertEquals(5L, executor.getCompletedCount());
+        }
+    }
+    
+    @Test
+    @DisplayName("Caller runs when queues are full")
+    void testCallerRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> blocking = token -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName();
+        };
+        try (VerificationExecutor executor = VerificationExecutor.builder().workers(1).queueCapacity(2).batchSize(1)
+                .sheddingPolicy(SheddingPolicy.CALLER_RUNS).build()) {
+            CompletableFuture<String> held = executor.submit("t0", blocking, code -> "shed");
+            waitFor(() -> executor.getQueuedCount() == 0);
+            CompletableFuture<String> queued = executor.submit("t1", blocking, code -> "shed");
+            executor.submit("t2", blocking, code -> "shed");
+            CompletableFuture<String> caller = executor.submit("t3", token -> Thread.currentThread().getName(),
+                    code -> "shed");
+            assertTrue(caller.isDone(), "A full executor should run the token on the caller");
+            assertEquals(Thread.currentThread().getName(), caller.get());
+            assertEquals(1L, executor.getRejectedCount());
+            
+            release.countDown();
+            assertTrue(held.get(5, TimeUnit.SECONDS).startsWith("sud-gip-auth-verify-"));
+            assertTrue(queued.get(5, TimeUnit.SECONDS).startsWith("sud-gip-auth-verify-"));
+        }
+    }
+    
+    @Test
+    @DisplayName("Tokens waiting past the delay limit are shed")
+    void testQueueDelay() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TenantStats stats = new TenantStats();
+        try (VerificationExecutor executor = VerificationExecutor.builder().workers(1).queueCapacity(16)
+                .maxQueueDelayMillis(20L).build()) {
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).metrics(stats)
+                    .verificationExecutor(executor).build();
+            String ssToken = auth.getSSToken(TEST_UID).getToken();
+            executor.submit("block", token -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }, code -> null);
+            waitFor(() -> executor.getQueuedCount() == 0);
+            List<CompletableFuture<UidResponse>> late = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                late.add(auth.getUidBySSTokenAsync(ssToken));
+            }
+            Thread.sleep(50L);
+            release.countDown();
+            for (CompletableFuture<UidResponse> future : late) {
+                assertEquals(ErrorCode.OVERLOADED, future.get(5, TimeUnit.SECONDS).getErrorCode());
+            }
+            assertEquals(5L, executor.getExpiredCount());
+            assertTrue(auth.getUidBySSTokenAsync(ssToken).get(5, TimeUnit.SECONDS).isSuccess(),
+                    "An idle executor should verify again");
+            
+            StatsSnapshot snapshot = stats.snapshot(null);
+            assertEquals(5L, snapshot.getCount(snapshot.indexOf(TEST_APP_ID), TenantStats.Operation.VERIFY,
+                    ErrorCode.OVERLOADED), "Shed verifications should reach the metrics");
+        }
+    }
+    
+    @Test
+    @DisplayName("Failing verifications complete their futures and keep the worker")
+    void testFailures() throws Exception {
+        try (VerificationExecutor executor = VerificationExecutor.builder().workers(1).build()) {
+            CompletableFuture<Thread> first = executor.submit("w", token -> Thread.currentThread(), code -> null);
+            Thread worker = first.get(5, TimeUnit.SECONDS);
+            CompletableFuture<Integer> error = executor.submit("t0", token -> {
+                throw new StackOverflowError();
+            }, code -> code);
+            assertEquals(ErrorCode.UNKNOWN_ERROR, error.get(5, TimeUnit.SECONDS).intValue());
+            worker.join(5000L);
+            assertFalse(worker.isAlive(), "Virtual machine errors should reach the worker thread");
+            
+            CompletableFuture<String> failed = executor.submit("t1", token -> {
+                throw new AssertionError("verification failed");
+            }, code -> "shed", t -> "failed: " + t.getMessage());
+            assertEquals("failed: verification failed", failed.get(5, TimeUnit.SECONDS),
+                    "Failures should get their own response, not the shed one");
+            
+            CompletableFuture<Integer> factoryError = executor.submit("t1", token -> {
+                throw new IllegalStateException();
+            }, code -> {
+                throw new AssertionError("rejection failed");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> factoryError.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof AssertionError);
+            
+            CompletableFuture<String> after = executor.submit("t2", token -> Thread.currentThread().getName(),
+                    code -> "shed");
+            assertEquals(worker.getName(), after.get(5, TimeUnit.SECONDS), "A fresh worker should take over");
+            assertEquals(5L, executor.getCompletedCount());
+        }
+    }
+    
+    @Test
+    @DisplayName("Failed verifications reach the metrics once, with their elapsed time")
+    void testFailureMetrics() throws Exception {
+        TenantStats stats = new TenantStats();
+        try (VerificationExecutor executor = VerificationExecutor.builder().workers(1).build()) {
+            SudGIPAuth issuer = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).build();
+            SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).signer(new ThrowingSigner()).metrics(stats)
+                    .verificationExecutor(executor).build();
+            String ssToken = issuer.getSSToken(TEST_UID).getToken();
+            assertEquals(ErrorCode.UNKNOWN_ERROR, auth.getUidBySSTokenAsync(ssToken).get(5, TimeUnit.SECONDS)
+                    .getErrorCode());
+            assertEquals(ErrorCode.UNKNOWN_ERROR, auth.verifySSTokenAsync(ssToken).get(5, TimeUnit.SECONDS)
+                    .getErrorCode());
+            assertEquals(0L, executor.getExpiredCount(), "Failures are not sheds");
+            
+            StatsSnapshot snapshot = stats.snapshot(null);
+            int tenant = snapshot.indexOf(TEST_APP_ID);
+            assertEquals(2L, snapshot.getCount(tenant, TenantStats.Operation.VERIFY, ErrorCode.UNKNOWN_ERROR));
+            assertEquals(2L, snapshot.getTotal(tenant, TenantStats.Operation.VERIFY), "Counted once each");
+            assertTrue(snapshot.getElapsedNanos(tenant, TenantStats.Operation.VERIFY) > 0L,
+                    "Failures should record the time spent");
+        }
+    }
+    
+    @Test
+    @DisplayName("Closing completes every future")
+    void testClose() throws Exception {
+        SudGIPAuth signer = new SudGIPAuth(TEST_APP_ID, TEST_APP_SECRET);
+        String ssToken = signer.getSSToken(TEST_UID).getToken();
+        VerificationExecutor executor = VerificationExecutor.builder().workers(4).queueCapacity(64).build();
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET)
+                .verificationExecutor(executor).build();
+        
+        int producers = 8;
+        int perProducer = 20000;
+        List<CompletableFuture<UidResponse>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    CompletableFuture<UidResponse> future = auth.getUidBySSTokenAsync(ssToken);
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        Thread.sleep(20L);
+        executor.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int verified = 0;
+        int shed = 0;
+        for (CompletableFuture<UidResponse> future : futures) {
+            UidResponse response = future.get(5, TimeUnit.SECONDS);
+            if (response.isSuccess()) {
+                assertEquals(TEST_UID, response.getUid());
+                verified++;
+            } else {
+                assertEquals(ErrorCode.OVERLOADED, response.getErrorCode());
+                shed++;
+            }
+        }
+        assertEquals(producers * perProducer, verified + shed);
+        System.out.println("Verified " + verified + ", shed " + shed + ": " + executor);
+        assertEquals(ErrorCode.OVERLOADED, auth.getUidBySSTokenAsync(ssToken).get().getErrorCode());
+    }
+    
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not reached in time");
+            Thread.sleep(1L);
+        }
+    }
+    
+    /**
+     * HMAC signer whose verification fails with an error, as a broken provider would
+     */
+    private static final class ThrowingSigner implements TokenSigner {
+        
+        private final TokenSigner delegate = new HmacSigner(TEST_APP_SECRET);
+        
+        @Override
+        public SigningAlgorithm getAlgorithm() {
+            return delegate.getAlgorithm();
+        }
+        
+        @Override
+        public String getBackendName() {
+            return delegate.getBackendName();
+        }
+        
+        @Override
+        public boolean canSign() {
+            return true;
+        }
+        
+        @Override
+        public byte[] sign(byte[] data, int off, int len) throws GeneralSecurityException {
+            return delegate.sign(data, off, len);
+        }
+        
+        @Override
+        public int sign(byte[] data, int off, int len, byte[] out, int outOff) {
+            throw new AssertionError("provider failure");
+        }
+        
+        @Override
+        public boolean verify(byte[] data, int off, int len, byte[] signature, int sigOff, int sigLen) {
+            throw new AssertionError("provider failure");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package tech.sud.auth.gip.auth.benchmark;
+
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * Cold-start probe
+ * Measures, in a fresh JVM, the time to the first successful verification and the classes loaded
+ * by then. Cold start is a per-process cost, so run the probe once per JVM and repeat the
+ * command for a distribution:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> tech.sud.auth.gip.auth.benchmark.ColdStartProbe [sdk|utils]}
+ * ({@code sdk} goes through SudGIPAuth, {@code utils} through the generic CryptoUtils Map path).
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class ColdStartProbe {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    private ColdStartProbe() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "sdk";
+        long start = System.nanoTime();
+        String uid;
+        if ("utils".equals(mode)) {
+            String token = CryptoUtils.generateSSToken(TEST_UID, TEST_APP_ID, 3600L, TEST_APP_KEY);
+            Map<String, Object> payload = CryptoUtils.verifyAndParseJWT(token, TEST_APP_KEY);
+            uid = String.valueOf(payload.get("uid"));
+        } else {
+            SudGIPAuth auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+            uid = auth.getUidBySSToken(auth.getSSToken(TEST_UID).getToken()).getUid();
+        }
+        long firstCallNanos = System.nanoTime() - start;
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (!TEST_UID.equals(uid)) {
+            throw new IllegalStateException("Verification failed: " + uid);
+        }
+        System.out.printf("mode=%s first-call=%.1fms jvm-to-first-verify=%dms loaded-classes=%d%n", mode,
+                firstCallNanos / 1e6, sinceJvmStart, ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+    }
+}
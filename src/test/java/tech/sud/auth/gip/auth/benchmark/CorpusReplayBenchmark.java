@@ -0,0 +1,101 @@
+package tech.sud.auth.gip.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.fixture.CorpusGenerator;
+import tech.sud.auth.gip.auth.fixture.TokenCorpus;
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark replaying a token corpus
+ * Verifies the tokens of a {@link TokenCorpus} in order, at the corpus reference time, so the
+ * mix of valid, expired and rejected tokens is the same on every run and machine. Pass an
+ * existing corpus with {@code -p corpus=<file>}; by default one of {@code -p size=<n>} tokens is
+ * generated with a fixed seed and clock. Run like {@link CryptoBackendBenchmark}.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorpusReplayBenchmark {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final long SEED = 42L;
+    private static final long REFERENCE_MILLIS = 1700000000000L;
+    
+    @Param({""})
+    public String corpus;
+    
+    @Param({"100000"})
+    public int size;
+    
+    private String[] tokens;
+    private SudGIPAuth auth;
+    
+    /**
+     * Per-thread replay position
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+    
+    @Setup
+    public void setUp() throws Exception {
+        Path path;
+        if (corpus.isEmpty()) {
+            path = Files.createTempFile("sud-gip-auth-", ".corpus");
+            path.toFile().deleteOnExit();
+            new CorpusGenerator(SEED, Clock.fixed(Instant.ofEpochMilli(REFERENCE_MILLIS), ZoneOffset.UTC))
+                    .generate(path, size);
+        } else {
+            path = Paths.get(corpus);
+        }
+        TokenCorpus replay = TokenCorpus.open(path);
+        tokens = replay.tokens();
+        auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).clock(replay.clock()).build();
+    }
+    
+    @Benchmark
+    public UidResponse verify(Cursor cursor) {
+        int index = cursor.next;
+        cursor.next = index + 1 == tokens.length ? 0 : index + 1;
+        return auth.getUidBySSToken(tokens[index]);
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CorpusReplayBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
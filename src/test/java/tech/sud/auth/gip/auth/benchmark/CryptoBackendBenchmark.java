@@ -0,0 +1,102 @@
+package tech.sud.auth.gip.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.crypto.CryptoBackend;
+import tech.sud.auth.gip.auth.crypto.HmacKey;
+import tech.sud.auth.gip.auth.crypto.JcaCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.PureJavaCryptoBackend;
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing crypto backends
+ * Measures the raw MAC of a token-sized message and the full issue and verify paths of
+ * SudGIPAuth per backend. Not run by the test phase; after {@code mvn test-compile} run with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> tech.sud.auth.gip.auth.benchmark.CryptoBackendBenchmark}
+ * (standard JMH options such as {@code -f 0 -wi 1 -i 3} are accepted). Add {@code -prof gc} to
+ * check allocation per operation: with the pure Java backend, issue allocates only the token
+ * string and verify only the returned claims and response.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoBackendBenchmark {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final String TEST_UID = "user_12345";
+    
+    @Param({"midstate", "jca", "pure-java"})
+    public String backend;
+    
+    private HmacKey key;
+    private byte[] message;
+    private SudGIPAuth auth;
+    private String token;
+    
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        CryptoBackend cryptoBackend;
+        if ("midstate".equals(backend)) {
+            cryptoBackend = MidstateCryptoBackend.INSTANCE;
+        } else if ("pure-java".equals(backend)) {
+            cryptoBackend = PureJavaCryptoBackend.INSTANCE;
+        } else {
+            cryptoBackend = JcaCryptoBackend.getDefault();
+        }
+        key = cryptoBackend.hmacSha256(TEST_APP_KEY.getBytes(StandardCharsets.UTF_8));
+        auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).signatureFormat(SignatureFormat.RAW)
+                .cryptoBackend(cryptoBackend).build();
+        token = auth.getSSToken(TEST_UID).getToken();
+        message = token.substring(0, token.lastIndexOf('.')).getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    @Benchmark
+    public byte[] mac() throws GeneralSecurityException {
+        return key.mac(message, 0, message.length);
+    }
+    
+    @Benchmark
+    public String issue() {
+        return auth.getSSToken(TEST_UID).getToken();
+    }
+    
+    @Benchmark
+    public UidResponse verify() {
+        return auth.getUidBySSToken(token);
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CryptoBackendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
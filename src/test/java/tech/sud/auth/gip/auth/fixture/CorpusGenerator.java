@@ -0,0 +1,218 @@
+package tech.sud.auth.gip.auth.fixture;
+
+import tech.sud.auth.gip.auth.exception.TokenGenerationException;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic token corpus generator
+ * Writes {@link TokenCorpus} files of tokens issued with {@link CryptoUtils#generateJWT} in a
+ * controllable mix of kinds, for uids drawn uniformly or Zipf-distributed. All choices come from
+ * a {@link Random} seeded with the given seed and all times from the given clock, so a fixed
+ * clock and the same seed and settings produce a byte-identical file on any machine.
+ * 
+ * Valid tokens were issued up to half their lifetime before the reference time; expired ones
+ * between one and two lifetimes before it.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class CorpusGenerator {
+    
+    private static final String BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    
+    private final long seed;
+    private final Clock clock;
+    private final Map<TokenCorpus.Kind, Integer> weights = new EnumMap<>(TokenCorpus.Kind.class);
+    private String appId = "test_app_123";
+    private String secret = "test_secret_456";
+    private String wrongTenantSecret = "other_tenant_secret";
+    private int uidCount = 10000;
+    private double zipfExponent;
+    private long lifetimeSeconds = 7200L;
+    
+    /**
+     * Constructor, with a mix of 80% valid tokens and 5% of each other kind
+     * 
+     * @param seed Seed of all random choices
+     * @param clock Clock supplying the reference time
+     */
+    public CorpusGenerator(long seed, Clock clock) {
+        this.seed = seed;
+        this.clock = clock;
+        for (TokenCorpus.Kind kind : TokenCorpus.Kind.values()) {
+            weights.put(kind, kind == TokenCorpus.Kind.VALID ? 80 : 5);
+        }
+    }
+    
+    /**
+     * Set application ID written into tokens
+     * 
+     * @param appId Application ID
+     * @return This generator
+     */
+    public CorpusGenerator appId(String appId) {
+        this.appId = appId;
+        return this;
+    }
+    
+    /**
+     * Set secret of the verifying tenant
+     * 
+     * @param secret Secret key
+     * @return This generator
+     */
+    public CorpusGenerator secret(String secret) {
+        this.secret = secret;
+        return this;
+    }
+    
+    /**
+     * Set relative weight of a token kind
+     * 
+     * @param kind Token kind
+     * @param weight Relative weight, 0 to leave the kind out
+     * @return This generator
+     */
+    public CorpusGenerator weight(TokenCorpus.Kind kind, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        weights.put(kind, weight);
+        return this;
+    }
+    
+    /**
+     * Set number of distinct uids
+     * 
+     * @param uidCount Number of uids, named user_0 onwards
+     * @return This generator
+     */
+    public CorpusGenerator uidCount(int uidCount) {
+        if (uidCount <= 0) {
+            throw new IllegalArgumentException("Uid count must be positive");
+        }
+        this.uidCount = uidCount;
+        return this;
+    }
+    
+    /**
+     * Set skew of the uid distribution
+     * 
+     * @param zipfExponent Zipf exponent, 0 for uniform; around 1 models a few very active users
+     * @return This generator
+     */
+    public CorpusGenerator zipfExponent(double zipfExponent) {
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent cannot be negative");
+        }
+        this.zipfExponent = zipfExponent;
+        return this;
+    }
+    
+    /**
+     * Set lifetime of issued tokens
+     * 
+     * @param lifetimeSeconds Lifetime (seconds)
+     * @return This generator
+     */
+    public CorpusGenerator lifetimeSeconds(long lifetimeSeconds) {
+        if (lifetimeSeconds < 2) {
+            throw new IllegalArgumentException("Lifetime must be at least 2 seconds");
+        }
+        this.lifetimeSeconds = lifetimeSeconds;
+        return this;
+    }
+    
+    /**
+     * Generate a corpus file
+     * 
+     * @param path Output file, replaced if present
+     * @param count Number of tokens
+     * @throws IOException If the file cannot be written
+     * @throws TokenGenerationException If a token cannot be issued
+     */
+    public void generate(Path path, int count) throws IOException, TokenGenerationException {
+        TokenCorpus.Kind[] kinds = TokenCorpus.Kind.values();
+        int[] cumulative = new int[kinds.length];
+        int total = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            total += weights.get(kinds[i]);
+            cumulative[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalStateException("At least one kind needs a positive weight");
+        }
+        double[] uidCdf = zipfExponent == 0 ? null : zipfCdf();
+        Random random = new Random(seed);
+        long reference = clock.millis();
+        long nowSeconds = Math.floorDiv(reference, 1000L);
+        
+        try (TokenCorpus.Writer writer = new TokenCorpus.Writer(path, seed, reference, count)) {
+            for (int i = 0; i < count; i++) {
+                int pick = random.nextInt(total);
+                int k = 0;
+                while (pick >= cumulative[k]) {
+                    k++;
+                }
+                TokenCorpus.Kind kind = kinds[k];
+                String uid = "user_" + (uidCdf == null ? random.nextInt(uidCount) : zipfIndex(uidCdf, random));
+                writer.add(kind, token(kind, uid, nowSeconds, random), kind == TokenCorpus.Kind.VALID ? uid : null);
+            }
+        }
+    }
+    
+    private String token(TokenCorpus.Kind kind, String uid, long nowSeconds, Random random)
+            throws TokenGenerationException {
+        long age = kind == TokenCorpus.Kind.EXPIRED
+                ? lifetimeSeconds + 1 + (long) (random.nextDouble() * lifetimeSeconds)
+                : (long) (random.nextDouble() * (lifetimeSeconds / 2));
+        long issuedAt = nowSeconds - age;
+        Clock issueClock = Clock.fixed(Instant.ofEpochSecond(issuedAt), ZoneOffset.UTC);
+        String key = kind == TokenCorpus.Kind.WRONG_TENANT ? wrongTenantSecret : secret;
+        String token = CryptoUtils.generateJWT(uid, appId, (issuedAt + lifetimeSeconds) * 1000L, key, issueClock);
+        if (kind == TokenCorpus.Kind.TAMPERED) {
+            int position;
+            do {
+                position = random.nextInt(token.length());
+            } while (token.charAt(position) == '.');
+            char replacement;
+            do {
+                replacement = BASE64URL.charAt(random.nextInt(BASE64URL.length()));
+            } while (replacement == token.charAt(position));
+            return token.substring(0, position) + replacement + token.substring(position + 1);
+        }
+        if (kind == TokenCorpus.Kind.TRUNCATED) {
+            // Keep the cut before the last dot, so the token is malformed rather than mis-signed
+            return token.substring(0, 1 + random.nextInt(token.lastIndexOf('.')));
+        }
+        return token;
+    }
+    
+    private double[] zipfCdf() {
+        double[] cdf = new double[uidCount];
+        double sum = 0;
+        for (int i = 0; i < uidCount; i++) {
+            sum += 1.0d / StrictMath.pow(i + 1, zipfExponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < uidCount; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+    
+    private static int zipfIndex(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+    }
+}
@@ -0,0 +1,304 @@
+package tech.sud.auth.gip.auth.fixture;
+
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Memory-mapped token corpus
+ * Replays a corpus file written by {@link CorpusGenerator}: tokens with their kind and, for
+ * valid ones, the expected uid, plus the seed and reference time they were generated with.
+ * Verifying at {@link #clock()} gives every token the outcome of its kind, on any machine.
+ * 
+ * File layout (big-endian): magic "SGTC", version, seed, reference time (epoch millis), token
+ * count, an offset table of count + 1 ints, then per token its kind byte, token length
+ * (unsigned short), ASCII token, uid length (unsigned byte) and ASCII uid. Files are limited to
+ * 2 GB, one mapping.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class TokenCorpus {
+    
+    /**
+     * Kind of corpus token, with the error code verifying it yields
+     */
+    public enum Kind {
+        
+        /**
+         * Valid, unexpired token
+         */
+        VALID(ErrorCode.SUCCESS),
+        
+        /**
+         * Correctly signed token expired before the reference time
+         */
+        EXPIRED(ErrorCode.TOKEN_EXPIRED),
+        
+        /**
+         * Valid token with one character replaced
+         */
+        TAMPERED(ErrorCode.SIGNATURE_INVALID),
+        
+        /**
+         * Valid token cut short before its signature
+         */
+        TRUNCATED(ErrorCode.TOKEN_INVALID),
+        
+        /**
+         * Token signed with another tenant's secret
+         */
+        WRONG_TENANT(ErrorCode.SIGNATURE_INVALID);
+        
+        private final int expectedErrorCode;
+        
+        Kind(int expectedErrorCode) {
+            this.expectedErrorCode = expectedErrorCode;
+        }
+        
+        /**
+         * Get error code verification yields for this kind
+         * 
+         * @return Error code, {@link ErrorCode#SUCCESS} for valid tokens
+         */
+        public int getExpectedErrorCode() {
+            return expectedErrorCode;
+        }
+    }
+    
+    static final int MAGIC = 0x53475443;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    
+    private static final Kind[] KINDS = Kind.values();
+    
+    private final ByteBuffer buffer;
+    private final long seed;
+    private final long referenceMillis;
+    private final int size;
+    
+    private TokenCorpus(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a token corpus file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported corpus version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.seed = buffer.getLong(8);
+        this.referenceMillis = buffer.getLong(16);
+        this.size = buffer.getInt(24);
+    }
+    
+    /**
+     * Map a corpus file
+     * 
+     * @param path Corpus file
+     * @return Corpus, backed by a read-only mapping
+     * @throws IOException If the file cannot be mapped
+     */
+    public static TokenCorpus open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            return new TokenCorpus(mapped);
+        }
+    }
+    
+    /**
+     * Get number of tokens
+     * 
+     * @return Token count
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Get seed the corpus was generated with
+     * 
+     * @return Seed
+     */
+    public long seed() {
+        return seed;
+    }
+    
+    /**
+     * Get reference time the corpus was generated at
+     * 
+     * @return Reference time (epoch millis)
+     */
+    public long referenceMillis() {
+        return referenceMillis;
+    }
+    
+    /**
+     * Get a clock fixed at the reference time, for verifiers replaying the corpus
+     * 
+     * @return Fixed clock
+     */
+    public Clock clock() {
+        return Clock.fixed(Instant.ofEpochMilli(referenceMillis), ZoneOffset.UTC);
+    }
+    
+    /**
+     * Get kind of a token
+     * 
+     * @param index Token index
+     * @return Kind
+     */
+    public Kind kind(int index) {
+        return KINDS[buffer.get(offset(index))];
+    }
+    
+    /**
+     * Get a token
+     * 
+     * @param index Token index
+     * @return Token
+     */
+    public String token(int index) {
+        int offset = offset(index) + 1;
+        return ascii(offset + 2, buffer.getShort(offset) & 0xffff);
+    }
+    
+    /**
+     * Get uid a token verifies to
+     * 
+     * @param index Token index
+     * @return User ID, or null for tokens that fail verification
+     */
+    public String uid(int index) {
+        int offset = offset(index) + 1;
+        offset += 2 + (buffer.getShort(offset) & 0xffff);
+        int length = buffer.get(offset) & 0xff;
+        return length == 0 ? null : ascii(offset + 1, length);
+    }
+    
+    /**
+     * Copy all tokens to the heap, so that replay loops do not decode them
+     * 
+     * @return Tokens in corpus order
+     */
+    public String[] tokens() {
+        String[] tokens = new String[size];
+        for (int i = 0; i < size; i++) {
+            tokens[i] = token(i);
+        }
+        return tokens;
+    }
+    
+    private int offset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token index " + index + " out of " + size);
+        }
+        return buffer.getInt(HEADER_BYTES + index * 4);
+    }
+    
+    private String ascii(int offset, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(offset + i);
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Sequential corpus writer; the token count is fixed up front so the offset table can
+     * precede the records
+     */
+    static final class Writer implements Closeable {
+        
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        private final int[] offsets;
+        private int count;
+        
+        /**
+         * File position of the first buffered byte
+         */
+        private long flushed;
+        
+        Writer(Path path, long seed, long referenceMillis, int size) throws IOException {
+            if (size < 0) {
+                throw new IllegalArgumentException("Token count cannot be negative");
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.offsets = new int[size + 1];
+            out.putInt(MAGIC).putInt(VERSION).putLong(seed).putLong(referenceMillis).putInt(size);
+            flush();
+            flushed = HEADER_BYTES + (size + 1) * 4L;
+        }
+        
+        void add(Kind kind, String token, String uid) throws IOException {
+            if (count == offsets.length - 1) {
+                throw new IllegalStateException("Corpus is full");
+            }
+            int uidLength = uid == null ? 0 : uid.length();
+            if (token.length() > 0xffff || uidLength > 0xff) {
+                throw new IllegalArgumentException("Token or uid too long for the corpus format");
+            }
+            int recordLength = 1 + 2 + token.length() + 1 + uidLength;
+            long position = flushed + out.position();
+            if (position + recordLength > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Corpus exceeds 2 GB");
+            }
+            if (out.remaining() < recordLength) {
+                flush();
+            }
+            offsets[count++] = (int) (flushed + out.position());
+            out.put((byte) kind.ordinal()).putShort((short) token.length());
+            putAscii(token);
+            out.put((byte) uidLength);
+            if (uid != null) {
+                putAscii(uid);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                if (count != offsets.length - 1) {
+                    throw new IllegalStateException("Corpus holds " + count + " of " + (offsets.length - 1) + " tokens");
+                }
+                offsets[count] = (int) flushed;
+                ByteBuffer index = ByteBuffer.allocate(offsets.length * 4);
+                index.asIntBuffer().put(offsets);
+                long at = HEADER_BYTES;
+                while (index.hasRemaining()) {
+                    at += channel.write(index, at);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+        
+        private void putAscii(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c >= 0x80) {
+                    throw new IllegalArgumentException("Corpus strings must be ASCII");
+                }
+                out.put((byte) c);
+            }
+        }
+        
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                flushed += channel.write(out, flushed);
+            }
+            out.clear();
+        }
+    }
+}
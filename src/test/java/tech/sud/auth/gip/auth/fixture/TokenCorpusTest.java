@@ -0,0 +1,112 @@
+package tech.sud.auth.gip.auth.fixture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token corpus test: generation is reproducible from seed and clock, and replaying a mapped
+ * corpus gives every token the outcome of its kind in the configured mix
+ */
+@DisplayName("Token Corpus Test")
+public class TokenCorpusTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_SECRET = "test_secret_456";
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(1700000000123L), ZoneOffset.UTC);
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Same seed and clock give identical files")
+    void testReproducible() throws Exception {
+        Path first = tempDir.resolve("first.corpus");
+        Path second = tempDir.resolve("second.corpus");
+        Path otherSeed = tempDir.resolve("other-seed.corpus");
+        Path otherClock = tempDir.resolve("other-clock.corpus");
+        new CorpusGenerator(42L, CLOCK).generate(first, 2000);
+        new CorpusGenerator(42L, CLOCK).generate(second, 2000);
+        new CorpusGenerator(43L, CLOCK).generate(otherSeed, 2000);
+        new CorpusGenerator(42L, Clock.offset(CLOCK, Duration.ofSeconds(1L))).generate(otherClock, 2000);
+        
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+        assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(otherSeed)));
+        assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(otherClock)));
+        
+        TokenCorpus corpus = TokenCorpus.open(first);
+        assertEquals(2000, corpus.size());
+        assertEquals(42L, corpus.seed());
+        assertEquals(CLOCK.millis(), corpus.referenceMillis());
+        System.out.println("2000 tokens in " + Files.size(first) + " bytes");
+    }
+    
+    @Test
+    @DisplayName("Replay yields each kind's outcome")
+    void testReplay() throws Exception {
+        Path path = tempDir.resolve("replay.corpus");
+        int count = 20000;
+        new CorpusGenerator(7L, CLOCK).uidCount(500).zipfExponent(1.0d).generate(path, count);
+        TokenCorpus corpus = TokenCorpus.open(path);
+        SudGIPAuth auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_SECRET).clock(corpus.clock()).build();
+        
+        Map<TokenCorpus.Kind, Integer> kinds = new EnumMap<>(TokenCorpus.Kind.class);
+        Map<String, Integer> uids = new HashMap<>();
+        String[] tokens = corpus.tokens();
+        for (int i = 0; i < count; i++) {
+            TokenCorpus.Kind kind = corpus.kind(i);
+            UidResponse response = auth.getUidBySSToken(tokens[i]);
+            assertEquals(kind.getExpectedErrorCode(), response.getErrorCode(), kind + " token " + i);
+            if (kind == TokenCorpus.Kind.VALID) {
+                assertEquals(corpus.uid(i), response.getUid());
+                uids.merge(response.getUid(), 1, Integer::sum);
+            } else {
+                assertNull(corpus.uid(i));
+            }
+            kinds.merge(kind, 1, Integer::sum);
+        }
+        System.out.println("Kinds: " + kinds + ", distinct valid uids: " + uids.size());
+        
+        assertEquals(count * 0.80d, kinds.get(TokenCorpus.Kind.VALID), count * 0.02d);
+        for (TokenCorpus.Kind kind : TokenCorpus.Kind.values()) {
+            if (kind != TokenCorpus.Kind.VALID) {
+                assertEquals(count * 0.05d, kinds.get(kind), count * 0.01d, kind.name());
+            }
+        }
+        // Zipf with exponent 1 over 500 uids gives the top uid about 15% of tokens
+        assertTrue(uids.get("user_0") > count * 0.8d * 0.1d, "Top uid should dominate");
+    }
+    
+    @Test
+    @DisplayName("Weights select the mix")
+    void testWeights() throws Exception {
+        Path path = tempDir.resolve("expired.corpus");
+        new CorpusGenerator(1L, CLOCK).weight(TokenCorpus.Kind.VALID, 0).weight(TokenCorpus.Kind.TAMPERED, 0)
+                .weight(TokenCorpus.Kind.TRUNCATED, 0).weight(TokenCorpus.Kind.WRONG_TENANT, 0)
+                .generate(path, 100);
+        TokenCorpus corpus = TokenCorpus.open(path);
+        for (int i = 0; i < corpus.size(); i++) {
+            assertEquals(TokenCorpus.Kind.EXPIRED, corpus.kind(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> corpus.token(100));
+        assertThrows(IllegalStateException.class, () -> new CorpusGenerator(1L, CLOCK)
+                .weight(TokenCorpus.Kind.VALID, 0).weight(TokenCorpus.Kind.EXPIRED, 0)
+                .weight(TokenCorpus.Kind.TAMPERED, 0).weight(TokenCorpus.Kind.TRUNCATED, 0)
+                .weight(TokenCorpus.Kind.WRONG_TENANT, 0).generate(path, 1));
+    }
+}
@@ -0,0 +1,211 @@
+package tech.sud.auth.gip.auth.stress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.crypto.CryptoBackend;
+import tech.sud.auth.gip.auth.crypto.JcaCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.MidstateCryptoBackend;
+import tech.sud.auth.gip.auth.crypto.PureJavaCryptoBackend;
+import tech.sud.auth.gip.auth.fixture.CorpusGenerator;
+import tech.sud.auth.gip.auth.fixture.TokenCorpus;
+import tech.sud.auth.gip.auth.model.SSTokenResponse;
+import tech.sud.auth.gip.auth.model.UidResponse;
+
+import javax.crypto.Mac;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency stress test for SudGIPAuth
+ * Drives token issuance and verification from 1..N threads, checks every result and reports
+ * throughput, p50/p99/p999 latency and scaling per thread count. The shared primitives on the
+ * hot path (JCA provider lookup, shared ObjectMapper, Base64 encoder creation) are driven the
+ * same way so a sub-linear step can be attributed.
+ * 
+ * Tunable with system properties:
+ * sudgip.stress.threads (default: cores, capped at 8), sudgip.stress.durationMs (150),
+ * sudgip.stress.warmupMs (50), sudgip.stress.threshold (0.7),
+ * sudgip.stress.strict (fail on sub-linear scaling, default false),
+ * sudgip.stress.backend (midstate, jca, pure-java or a JCA provider name; default midstate),
+ * sudgip.stress.corpus (token corpus file to replay; default a generated one).
+ */
+@DisplayName("Concurrency Stress Test")
+public class ConcurrencyStressTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final int TOKEN_POOL_SIZE = 1024;
+    
+    private static final int MAX_THREADS = Integer.getInteger("sudgip.stress.threads",
+            Math.min(Runtime.getRuntime().availableProcessors(), 8));
+    private static final long DURATION_MS = Long.getLong("sudgip.stress.durationMs", 150L);
+    private static final long WARMUP_MS = Long.getLong("sudgip.stress.warmupMs", 50L);
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("sudgip.stress.threshold", "0.7"));
+    private static final boolean STRICT = Boolean.getBoolean("sudgip.stress.strict");
+    private static final String BACKEND = System.getProperty("sudgip.stress.backend", "midstate");
+    private static final String CORPUS = System.getProperty("sudgip.stress.corpus", "");
+    private static final int CORPUS_SIZE = 4096;
+    
+    private static SudGIPAuth auth;
+    private static String[] uids;
+    private static String[] tokens;
+    
+    @BeforeAll
+    static void setUp() {
+        auth = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).cryptoBackend(backend(BACKEND)).build();
+        uids = new String[TOKEN_POOL_SIZE];
+        tokens = new String[TOKEN_POOL_SIZE];
+        for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+            uids[i] = "user_" + i;
+            SSTokenResponse response = auth.getSSToken(uids[i]);
+            assertTrue(response.isSuccess(), "Token pool generation should succeed");
+            tokens[i] = response.getToken();
+        }
+    }
+    
+    @Test
+    @DisplayName("Issue and verify scale across threads without errors")
+    void testIssueAndVerifyScaling() throws InterruptedException {
+        int[] steps = LoadHarness.threadSteps(MAX_THREADS);
+        
+        List<LoadHarness.StepResult> issue = run("issue (getSSToken)", steps, (thread, i) -> {
+            String uid = uids[(int) (i & (TOKEN_POOL_SIZE - 1))];
+            SSTokenResponse response = auth.getSSToken(uid);
+            return response.isSuccess() && response.getToken() != null;
+        });
+        
+        List<LoadHarness.StepResult> verify = run("verify (getUidBySSToken)", steps, (thread, i) -> {
+            int index = (int) ((i + thread * 31L) & (TOKEN_POOL_SIZE - 1));
+            UidResponse response = auth.getUidBySSToken(tokens[index]);
+            return response.isSuccess() && uids[index].equals(response.getUid());
+        });
+        
+        List<LoadHarness.StepResult> roundTrip = run("issue + verify round trip", steps, (thread, i) -> {
+            String uid = uids[(int) (i & (TOKEN_POOL_SIZE - 1))];
+            UidResponse response = auth.getUidBySSToken(auth.getSSToken(uid).getToken());
+            return response.isSuccess() && uid.equals(response.getUid());
+        });
+        
+        assertNoFailures(issue);
+        assertNoFailures(verify);
+        assertNoFailures(roundTrip);
+        
+        boolean subLinear = anySubLinear(issue) || anySubLinear(verify) || anySubLinear(roundTrip);
+        if (subLinear) {
+            reportContention(steps);
+        }
+        if (STRICT) {
+            assertFalse(subLinear, "Throughput should scale linearly across threads");
+        }
+    }
+    
+    @Test
+    @DisplayName("Corpus replay yields each token's expected outcome across threads")
+    void testCorpusReplay() throws Exception {
+        Path path;
+        if (CORPUS.isEmpty()) {
+            path = Files.createTempFile("sud-gip-auth-", ".corpus");
+            path.toFile().deleteOnExit();
+            new CorpusGenerator(42L, Clock.fixed(Instant.ofEpochMilli(1700000000000L), ZoneOffset.UTC))
+                    .appId(TEST_APP_ID).secret(TEST_APP_KEY).generate(path, CORPUS_SIZE);
+        } else {
+            path = Paths.get(CORPUS);
+        }
+        TokenCorpus corpus = TokenCorpus.open(path);
+        String[] corpusTokens = corpus.tokens();
+        int[] expected = new int[corpus.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = corpus.kind(i).getExpectedErrorCode();
+        }
+        SudGIPAuth replay = SudGIPAuth.builder(TEST_APP_ID).appSecret(TEST_APP_KEY).cryptoBackend(backend(BACKEND))
+                .clock(corpus.clock()).build();
+        
+        List<LoadHarness.StepResult> results = run("verify (corpus replay, seed " + corpus.seed() + ")",
+                LoadHarness.threadSteps(MAX_THREADS), (thread, i) -> {
+                    int index = (int) ((i + thread * 31L) % corpusTokens.length);
+                    return replay.getUidBySSToken(corpusTokens[index]).getErrorCode() == expected[index];
+                });
+        assertNoFailures(results);
+    }
+    
+    /**
+     * Drive the shared primitives of the hot path in isolation to attribute sub-linear scaling
+     */
+    private void reportContention(int[] steps) throws InterruptedException {
+        System.out.println("\nSub-linear scaling detected, driving hot-path primitives in isolation:");
+        final ObjectMapper sharedMapper = new ObjectMapper();
+        
+        run("contention: Mac.getInstance(HmacSHA256)", steps, (thread, i) -> {
+            try {
+                return Mac.getInstance("HmacSHA256") != null;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+        
+        run("contention: shared ObjectMapper.writeValueAsString", steps, (thread, i) -> {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("uid", uids[(int) (i & (TOKEN_POOL_SIZE - 1))]);
+            payload.put("exp", i);
+            try {
+                return sharedMapper.writeValueAsString(payload) != null;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+        
+        run("contention: Base64.getUrlEncoder().withoutPadding()", steps, (thread, i) ->
+                Base64.getUrlEncoder().withoutPadding().encodeToString(uids[(int) (i & (TOKEN_POOL_SIZE - 1))]
+                        .getBytes()) != null);
+    }
+    
+    private static CryptoBackend backend(String name) {
+        if ("midstate".equals(name)) {
+            return MidstateCryptoBackend.INSTANCE;
+        }
+        if ("pure-java".equals(name)) {
+            return PureJavaCryptoBackend.INSTANCE;
+        }
+        if ("jca".equals(name)) {
+            return JcaCryptoBackend.getDefault();
+        }
+        return new JcaCryptoBackend(name, Runtime.getRuntime().availableProcessors());
+    }
+    
+    private List<LoadHarness.StepResult> run(String name, int[] steps, LoadHarness.Operation operation)
+            throws InterruptedException {
+        LoadHarness harness = new LoadHarness(name, auth.getCryptoBackend(), DURATION_MS, WARMUP_MS);
+        List<LoadHarness.StepResult> results = harness.run(steps, operation);
+        System.out.println(harness.report(results, THRESHOLD));
+        return results;
+    }
+    
+    private static void assertNoFailures(List<LoadHarness.StepResult> results) {
+        for (LoadHarness.StepResult result : results) {
+            assertTrue(result.operations > 0, "Each step should complete operations");
+            assertEquals(0L, result.failures, "No operation should fail at " + result.threads + " threads");
+        }
+    }
+    
+    private static boolean anySubLinear(List<LoadHarness.StepResult> results) {
+        for (LoadHarness.StepResult result : results) {
+            if (result.isSubLinear(THRESHOLD)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,228 @@
+package tech.sud.auth.gip.auth.stress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-scaling load harness
+ * Drives an operation from 1..N threads for a fixed duration per step and reports
+ * throughput, latency percentiles and scaling efficiency relative to a single thread.
+ * 
+ * @author Sud Technology
+ * @version 1.0.0
+ */
+public final class LoadHarness {
+    
+    /**
+     * Operation driven by the harness
+     */
+    public interface Operation {
+        
+        /**
+         * Run one operation
+         * 
+         * @param threadIndex Index of the calling worker thread
+         * @param iteration Per-thread iteration counter
+         * @return Whether the operation produced the expected result
+         */
+        boolean run(int threadIndex, long iteration);
+    }
+    
+    /**
+     * Result of one thread-count step
+     */
+    public static final class StepResult {
+        
+        public final int threads;
+        public final long operations;
+        public final long failures;
+        public final double opsPerSecond;
+        public final long p50Nanos;
+        public final long p99Nanos;
+        public final long p999Nanos;
+        public double efficiency = 1.0d;
+        
+        StepResult(int threads, long operations, long failures, double opsPerSecond, long[] sortedLatencies) {
+            this.threads = threads;
+            this.operations = operations;
+            this.failures = failures;
+            this.opsPerSecond = opsPerSecond;
+            this.p50Nanos = percentile(sortedLatencies, 0.50d);
+            this.p99Nanos = percentile(sortedLatencies, 0.99d);
+            this.p999Nanos = percentile(sortedLatencies, 0.999d);
+        }
+        
+        /**
+         * Whether scaling relative to one thread dropped below the threshold
+         * 
+         * @param threshold Minimum efficiency (1.0 is perfectly linear)
+         * @return Whether scaling is sub-linear
+         */
+        public boolean isSubLinear(double threshold) {
+            return threads > 1 && efficiency < threshold;
+        }
+    }
+    
+    private final String name;
+    private final String backend;
+    private final long durationNanos;
+    private final long warmupNanos;
+    
+    /**
+     * Constructor
+     * 
+     * @param name Operation name used in the report
+     * @param backend Crypto backend name used in the report, may be null
+     * @param durationMillis Measured duration per step (milliseconds)
+     * @param warmupMillis Unmeasured warm-up per step (milliseconds)
+     */
+    public LoadHarness(String name, String backend, long durationMillis, long warmupMillis) {
+        this.name = name;
+        this.backend = backend;
+        this.durationNanos = durationMillis * 1_000_000L;
+        this.warmupNanos = warmupMillis * 1_000_000L;
+    }
+    
+    /**
+     * Thread counts to run: powers of two up to and including the maximum
+     * 
+     * @param maxThreads Maximum thread count
+     * @return Thread counts in ascending order
+     */
+    public static int[] threadSteps(int maxThreads) {
+        List<Integer> steps = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t <<= 1) {
+            steps.add(t);
+        }
+        steps.add(maxThreads);
+        int[] result = new int[steps.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = steps.get(i);
+        }
+        return result;
+    }
+    
+    /**
+     * Run the operation for each thread count
+     * 
+     * @param threadCounts Thread counts, the first one is the scaling baseline
+     * @param operation Operation to drive
+     * @return Results per step
+     * @throws InterruptedException If interrupted while waiting for workers
+     */
+    public List<StepResult> run(int[] threadCounts, Operation operation) throws InterruptedException {
+        List<StepResult> results = new ArrayList<>();
+        double baseline = 0.0d;
+        for (int threads : threadCounts) {
+            StepResult result = runStep(threads, operation);
+            if (results.isEmpty()) {
+                baseline = result.opsPerSecond / threads;
+            }
+            result.efficiency = baseline == 0.0d ? 0.0d : result.opsPerSecond / (baseline * threads);
+            results.add(result);
+        }
+        return results;
+    }
+    
+    private StepResult runStep(int threads, Operation operation) throws InterruptedException {
+        final long[][] latencies = new long[threads][];
+        final int[] counts = new int[threads];
+        final AtomicLong failures = new AtomicLong();
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final long[] measureStart = new long[1];
+        
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            Thread worker = new Thread(() -> {
+                long[] samples = new long[1 << 14];
+                int count = 0;
+                long iteration = 0;
+                try {
+                    ready.countDown();
+                    start.await();
+                    long warmupEnd = measureStart[0];
+                    while (System.nanoTime() < warmupEnd) {
+                        operation.run(index, iteration++);
+                    }
+                    long end = warmupEnd + durationNanos;
+                    long now = System.nanoTime();
+                    while (now < end) {
+                        boolean ok = operation.run(index, iteration++);
+                        long after = System.nanoTime();
+                        if (!ok) {
+                            failures.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, samples.length << 1);
+                        }
+                        samples[count++] = after - now;
+                        now = after;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[index] = samples;
+                    counts[index] = count;
+                    done.countDown();
+                }
+            }, name + "-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        
+        ready.await();
+        measureStart[0] = System.nanoTime() + warmupNanos;
+        start.countDown();
+        done.await();
+        
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (int i = 0; i < threads; i++) {
+            System.arraycopy(latencies[i], 0, merged, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(merged);
+        double seconds = durationNanos / 1_000_000_000.0d;
+        return new StepResult(threads, total, failures.get(), total / seconds, merged);
+    }
+    
+    /**
+     * Format a report table
+     * 
+     * @param results Step results
+     * @param subLinearThreshold Efficiency below which a step is flagged
+     * @return Report text
+     */
+    public String report(List<StepResult> results, double subLinearThreshold) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%n=== %s (%d cores%s) ===%n", name,
+                Runtime.getRuntime().availableProcessors(), backend == null ? "" : ", backend " + backend));
+        sb.append(String.format(Locale.ROOT, "%8s %14s %10s %10s %10s %10s %8s%n",
+                "threads", "ops/s", "p50(us)", "p99(us)", "p999(us)", "failures", "scaling"));
+        for (StepResult r : results) {
+            sb.append(String.format(Locale.ROOT, "%8d %14.0f %10.2f %10.2f %10.2f %10d %7.0f%%%s%n",
+                    r.threads, r.opsPerSecond, r.p50Nanos / 1000.0d, r.p99Nanos / 1000.0d, r.p999Nanos / 1000.0d,
+                    r.failures, r.efficiency * 100.0d,
+                    r.isSubLinear(subLinearThreshold) ? "  <-- SUB-LINEAR" : ""));
+        }
+        return sb.toString();
+    }
+    
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
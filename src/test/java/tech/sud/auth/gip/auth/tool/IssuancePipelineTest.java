@@ -0,0 +1,156 @@
+package tech.sud.auth.gip.auth.tool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.sud.auth.gip.auth.SudGIPAuth;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming issuance pipeline test: every uid issued once, from files and streams, with backpressure
+ */
+@DisplayName("Issuance Pipeline Test")
+public class IssuancePipelineTest {
+    
+    private static final String TEST_APP_ID = "test_app_123";
+    private static final String TEST_APP_KEY = "test_app_key_456";
+    private static final int UID_COUNT = 20000;
+    
+    private final SudGIPAuth auth = new SudGIPAuth(TEST_APP_ID, TEST_APP_KEY);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    @DisplayName("Memory-mapped file input issues every uid once")
+    void testFileInput() throws IOException {
+        Path uids = writeUids();
+        IssuancePipeline pipeline = IssuancePipeline.builder(auth)
+                .kind(IssuancePipeline.Kind.SSTOKEN).expireSeconds(600).workers(4).batchSize(100).queueCapacity(2)
+                .build();
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long before = System.currentTimeMillis() / 1000L;
+        IssuancePipeline.Result result = pipeline.run(uids, Channels.newChannel(out));
+        
+        assertEquals(UID_COUNT + 1L, result.getIssued());
+        assertEquals(0L, result.getFailed());
+        assertOutput(new String(out.toByteArray(), StandardCharsets.UTF_8), before + 600);
+    }
+    
+    @Test
+    @DisplayName("Stream input through a slow channel applies backpressure")
+    void testStreamInputWithSlowOutput() throws IOException {
+        Path uids = writeUids();
+        IssuancePipeline pipeline = IssuancePipeline.builder(auth)
+                .expireSeconds(600).workers(3).batchSize(64).queueCapacity(1).writeBufferBytes(8192).build();
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel delegate = Channels.newChannel(out);
+        WritableByteChannel slow = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                // Accept at most 1 KB per call
+                ByteBuffer slice = src.duplicate();
+                int n = Math.min(1024, slice.remaining());
+                slice.limit(slice.position() + n);
+                int written = delegate.write(slice);
+                src.position(src.position() + written);
+                return written;
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        long before = System.currentTimeMillis() / 1000L;
+        try (InputStream in = Files.newInputStream(uids)) {
+            assertEquals(UID_COUNT + 1L, pipeline.run(in, slow).getIssued());
+        }
+        assertOutput(new String(out.toByteArray(), StandardCharsets.UTF_8), before + 600);
+    }
+    
+    @Test
+    @DisplayName("Output failure aborts all stages")
+    void testOutputFailure() throws IOException {
+        Path uids = writeUids();
+        IssuancePipeline pipeline = IssuancePipeline.builder(auth).workers(2).batchSize(10).queueCapacity(1)
+                .writeBufferBytes(4096).build();
+        WritableByteChannel broken = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("disk full");
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        IOException e = assertThrows(IOException.class, () -> pipeline.run(uids, broken));
+        assertEquals("disk full", e.getMessage());
+    }
+    
+    private Path writeUids() throws IOException {
+        Path file = dir.resolve("uids.txt");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < UID_COUNT; i++) {
+                out.write("user_" + i);
+                out.write(i % 7 == 0 ? "\r\n\n" : "\n");
+            }
+            // Needs CSV quoting, no trailing newline
+            out.write("last,\"user\"");
+        }
+        return file;
+    }
+    
+    private void assertOutput(String output, long minExpireAt) {
+        Set<String> seen = new HashSet<>();
+        int lines = 0;
+        for (String line : output.split("\n")) {
+            lines++;
+            String uid;
+            String rest;
+            if (line.startsWith("\"")) {
+                int close = line.indexOf("\",");
+                uid = line.substring(1, close).replace("\"\"", "\"");
+                rest = line.substring(close + 2);
+            } else {
+                uid = line.substring(0, line.indexOf(','));
+                rest = line.substring(uid.length() + 1);
+            }
+            String token = rest.substring(0, rest.indexOf(','));
+            long expireAt = Long.parseLong(rest.substring(rest.indexOf(',') + 1));
+            assertTrue(seen.add(uid), "Uid should be issued once: " + uid);
+            assertTrue(expireAt >= minExpireAt, "Expiry should follow the configured lifetime");
+            if (lines % 997 == 0 || uid.startsWith("last")) {
+                assertEquals(uid, auth.getUidByCode(token).getUid());
+            }
+        }
+        assertEquals(UID_COUNT + 1, lines);
+        assertTrue(seen.contains("last,\"user\""));
+    }
+}
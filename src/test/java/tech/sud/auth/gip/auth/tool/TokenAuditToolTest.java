@@ -0,0 +1,121 @@
+package tech.sud.auth.gip.auth.tool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.sud.auth.gip.auth.SudGIPAuth;
+import tech.sud.auth.gip.auth.codec.SignatureFormat;
+import tech.sud.auth.gip.auth.constant.ErrorCode;
+import tech.sud.auth.gip.auth.util.CryptoUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token audit tool test: chunked parallel verification against current and past secrets
+ */
+@DisplayName("Token Audit Tool Test")
+public class TokenAuditToolTest {
+    
+    private static final String CURRENT_SECRET = "test_app_key_456";
+    private static final String PAST_SECRET = "test_app_key_old";
+    private static final List<String> SECRETS = Arrays.asList(CURRENT_SECRET, PAST_SECRET);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    @DisplayName("Counts per error code, secret, app_id and expiry bucket")
+    void testAudit() throws Exception {
+        long now = System.currentTimeMillis() / 1000L;
+        Path file = dir.resolve("tokens.txt");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < 300; i++) {
+                out.write(CryptoUtils.generateSSToken("user_" + i, "app_a", 7000, CURRENT_SECRET));
+                out.write(i % 10 == 0 ? "\r\n" : "\n");
+            }
+            for (int i = 0; i < 200; i++) {
+                out.write(CryptoUtils.generateCode("user_" + i, "app_b", 1800, PAST_SECRET) + "\n");
+            }
+            for (int i = 0; i < 100; i++) {
+                out.write(CryptoUtils.generateJWT("user_" + i, "app_a", (now - 90) * 1000L, CURRENT_SECRET) + "\n\n");
+            }
+            for (int i = 0; i < 50; i++) {
+                out.write(CryptoUtils.generateSSToken("user_" + i, "app_c", 7200, "unknown_secret") + "\n");
+                out.write("not a token " + i + "\n");
+            }
+            // Last line without a trailing newline
+            out.write(CryptoUtils.generateSSToken("last", "app_a", 7000, CURRENT_SECRET));
+        }
+        
+        // Small chunks force many splits, so lines straddle chunk boundaries
+        AuditSummary summary = new TokenAuditTool(SECRETS, now, 3600L, 4, 997L).audit(file);
+        
+        assertEquals(701L, summary.getTotal());
+        assertEquals(501L, summary.getCount(ErrorCode.SUCCESS));
+        assertEquals(100L, summary.getCount(ErrorCode.TOKEN_EXPIRED));
+        assertEquals(50L, summary.getCount(ErrorCode.TOKEN_INVALID));
+        assertEquals(50L, summary.getCount(ErrorCode.SIGNATURE_INVALID), "Unknown secrets are signature failures");
+        assertEquals(401L, summary.getSecretMatches(0));
+        assertEquals(200L, summary.getSecretMatches(1));
+        assertEquals(Long.valueOf(401L), summary.getAppIdCounts().get("app_a"));
+        assertEquals(Long.valueOf(200L), summary.getAppIdCounts().get("app_b"));
+        assertNull(summary.getAppIdCounts().get("app_c"), "Unverified tokens should not be attributed");
+        assertEquals(Long.valueOf(100L), summary.getExpiryBucketCounts().get(-1L));
+        assertEquals(Long.valueOf(200L), summary.getExpiryBucketCounts().get(0L));
+        assertEquals(Long.valueOf(301L), summary.getExpiryBucketCounts().get(1L));
+        
+        // One chunk on one thread gives the same result
+        AuditSummary serial = new TokenAuditTool(SECRETS, now, 3600L, 1).audit(file);
+        assertEquals(summary.getErrorCodeCounts(), serial.getErrorCodeCounts());
+        assertEquals(summary.getAppIdCounts(), serial.getAppIdCounts());
+        assertEquals(summary.getExpiryBucketCounts(), serial.getExpiryBucketCounts());
+        
+        StringWriter report = new StringWriter();
+        summary.writeTo(report);
+        System.out.println(report);
+        assertTrue(report.toString().contains("app_b\t200"));
+    }
+    
+    @Test
+    @DisplayName("RAW and HEX signatures verify alike")
+    void testSignatureFormats() throws Exception {
+        SudGIPAuth raw = SudGIPAuth.builder("app_a").appSecret(CURRENT_SECRET).signatureFormat(SignatureFormat.RAW)
+                .build();
+        SudGIPAuth hex = new SudGIPAuth("app_a", PAST_SECRET);
+        Path file = dir.resolve("formats.txt");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < 20; i++) {
+                out.write(raw.getSSToken("user_" + i).getToken() + "\n");
+                out.write(hex.getCode("user_" + i).getCode() + "\n");
+            }
+        }
+        AuditSummary summary = new TokenAuditTool(SECRETS, System.currentTimeMillis() / 1000L, 3600L, 2).audit(file);
+        assertEquals(40L, summary.getCount(ErrorCode.SUCCESS));
+        assertEquals(20L, summary.getSecretMatches(0), "RAW tokens should match the current secret");
+        assertEquals(20L, summary.getSecretMatches(1));
+    }
+    
+    @Test
+    @DisplayName("Empty files and overlong lines")
+    void testEdgeCases() throws IOException {
+        TokenAuditTool tool = new TokenAuditTool(SECRETS, 0L, 3600L, 2, 16L);
+        Path empty = Files.createFile(dir.resolve("empty.txt"));
+        assertEquals(0L, tool.audit(empty).getTotal());
+        
+        byte[] longLine = new byte[TokenAuditTool.MAX_LINE_LENGTH + 10];
+        Arrays.fill(longLine, (byte) 'a');
+        Path overlong = Files.write(dir.resolve("overlong.txt"), longLine);
+        assertThrows(IOException.class, () -> tool.audit(overlong));
+        
+        assertThrows(IllegalArgumentException.class, () -> new TokenAuditTool(Arrays.<String>asList(), 0L, 3600L, 1));
+    }
+}